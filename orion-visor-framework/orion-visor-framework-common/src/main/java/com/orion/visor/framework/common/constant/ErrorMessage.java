@@ -95,8 +95,14 @@ public interface ErrorMessage {
 
     String FILE_READ_ERROR = "文件读取失败";
 
+    String FILE_CHECKSUM_ERROR = "文件校验失败";
+
     String PLEASE_CHECK_HOST_SSH = "请检查主机 {} 是否存在/权限/SSH配置";
 
     String CLIENT_ABORT = "手动中断";
 
+    String MAX_HOST_COUNT = "最多选择 {} 个主机";
+
+    String SYSTEM_BUSY = "系统繁忙, 请稍后重试";
+
 }
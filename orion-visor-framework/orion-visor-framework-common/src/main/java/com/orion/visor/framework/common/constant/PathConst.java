@@ -15,4 +15,6 @@ public interface PathConst {
 
     String SCRIPT = "script";
 
+    String TERMINAL = "terminal";
+
 }
@@ -7,8 +7,10 @@ import com.orion.visor.framework.common.constant.Const;
 import com.orion.visor.framework.websocket.core.constant.WsCloseCode;
 import com.orion.visor.framework.websocket.core.session.WebSocketSyncSession;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
@@ -66,24 +68,44 @@ public class WebSockets {
      * @param message message
      */
     public static void sendText(WebSocketSession session, String message) {
+        sendMessage(session, new TextMessage(message));
+    }
+
+    /**
+     * 发送二进制消息 忽略并发报错
+     *
+     * @param session session
+     * @param message message
+     */
+    public static void sendBinary(WebSocketSession session, byte[] message) {
+        sendMessage(session, new BinaryMessage(message));
+    }
+
+    /**
+     * 发送消息 忽略并发报错
+     *
+     * @param session session
+     * @param message message
+     */
+    public static void sendMessage(WebSocketSession session, WebSocketMessage<?> message) {
         if (!session.isOpen()) {
             return;
         }
         try {
             if (session instanceof WebSocketSyncSession) {
                 // 发送消息
-                session.sendMessage(new TextMessage(message));
+                session.sendMessage(message);
             } else {
                 synchronized (session) {
                     // 发送消息
-                    session.sendMessage(new TextMessage(message));
+                    session.sendMessage(message);
                 }
             }
         } catch (IllegalStateException e) {
             // 并发异常
             log.error("发送消息失败, 准备进行重试 {}", Exceptions.getDigest(e));
             // 并发重试
-            retrySendText(session, message, Const.MS_100);
+            retrySendMessage(session, message, Const.MS_100);
         } catch (IOException e) {
             throw Exceptions.ioRuntime(e);
         }
@@ -97,12 +119,23 @@ public class WebSockets {
      * @param delay   delay
      */
     public static void retrySendText(WebSocketSession session, String message, long delay) {
+        retrySendMessage(session, new TextMessage(message), delay);
+    }
+
+    /**
+     * 重试发送消息 忽略并发报错
+     *
+     * @param session session
+     * @param message message
+     * @param delay   delay
+     */
+    public static void retrySendMessage(WebSocketSession session, WebSocketMessage<?> message, long delay) {
         if (!session.isOpen()) {
             return;
         }
         try {
             Threads.sleep(delay);
-            session.sendMessage(new TextMessage(message));
+            session.sendMessage(message);
             log.info("消息重发成功");
             Threads.sleep(delay);
         } catch (Exception ex) {
@@ -9,9 +9,11 @@ import com.orion.visor.framework.log.core.enums.IgnoreLogMode;
 import com.orion.visor.framework.security.core.utils.SecurityUtils;
 import com.orion.visor.framework.web.core.annotation.RestWrapper;
 import com.orion.visor.module.asset.define.operator.ExecCommandLogOperatorType;
+import com.orion.visor.module.asset.entity.request.exec.ExecHostLogContentRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecInterruptRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogQueryRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogTailRequest;
+import com.orion.visor.module.asset.entity.vo.ExecHostLogContentVO;
 import com.orion.visor.module.asset.entity.vo.ExecHostLogVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogStatusVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogVO;
@@ -158,6 +160,15 @@ public class ExecCommandLogController {
         execLogService.downloadLogFile(id, SOURCE, response);
     }
 
+    @IgnoreLog(IgnoreLogMode.RET)
+    @PostMapping("/content")
+    @Operation(summary = "分页读取批量执行日志")
+    @PreAuthorize("@ss.hasAnyPermission('asset:exec-command-log:query', 'asset:exec-command:exec')")
+    public ExecHostLogContentVO getExecCommandHostLogContent(@Validated @RequestBody ExecHostLogContentRequest request) {
+        request.setSource(SOURCE);
+        return execLogService.getHostLogContent(request);
+    }
+
     @OperatorLog(value = ExecCommandLogOperatorType.INTERRUPT)
     @PutMapping("/interrupt")
     @Operation(summary = "中断批量执行命令")
@@ -8,9 +8,11 @@ import com.orion.visor.framework.log.core.annotation.IgnoreLog;
 import com.orion.visor.framework.log.core.enums.IgnoreLogMode;
 import com.orion.visor.framework.web.core.annotation.RestWrapper;
 import com.orion.visor.module.asset.define.operator.ExecJobLogOperatorType;
+import com.orion.visor.module.asset.entity.request.exec.ExecHostLogContentRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecInterruptRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogQueryRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogTailRequest;
+import com.orion.visor.module.asset.entity.vo.ExecHostLogContentVO;
 import com.orion.visor.module.asset.entity.vo.ExecHostLogVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogStatusVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogVO;
@@ -147,6 +149,15 @@ public class ExecJobLogController {
         execLogService.downloadLogFile(id, SOURCE, response);
     }
 
+    @IgnoreLog(IgnoreLogMode.RET)
+    @PostMapping("/content")
+    @Operation(summary = "分页读取计划任务日志")
+    @PreAuthorize("@ss.hasPermission('asset:exec-job-log:query')")
+    public ExecHostLogContentVO getExecJobHostLogContent(@Validated @RequestBody ExecHostLogContentRequest request) {
+        request.setSource(SOURCE);
+        return execLogService.getHostLogContent(request);
+    }
+
     @OperatorLog(ExecJobLogOperatorType.INTERRUPT)
     @PutMapping("/interrupt")
     @Operation(summary = "中断计划任务命令")
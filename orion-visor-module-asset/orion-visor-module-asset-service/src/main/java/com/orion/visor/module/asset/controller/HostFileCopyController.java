@@ -0,0 +1,75 @@
+package com.orion.visor.module.asset.controller;
+
+import com.orion.visor.framework.biz.operator.log.core.annotation.OperatorLog;
+import com.orion.visor.framework.log.core.annotation.IgnoreLog;
+import com.orion.visor.framework.log.core.enums.IgnoreLogMode;
+import com.orion.visor.framework.web.core.annotation.RestWrapper;
+import com.orion.visor.module.asset.define.operator.HostTerminalOperatorType;
+import com.orion.visor.module.asset.entity.request.host.HostFileCopyRequest;
+import com.orion.visor.module.asset.entity.vo.HostFileCopyVO;
+import com.orion.visor.module.asset.service.HostFileCopyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.Resource;
+import java.util.List;
+
+/**
+ * 主机间复制文件 api
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Tag(name = "asset - 主机间复制文件服务")
+@Slf4j
+@Validated
+@RestWrapper
+@RestController
+@RequestMapping("/asset/host-file-copy")
+@SuppressWarnings({"ELValidationInJSP", "SpringElInspection"})
+public class HostFileCopyController {
+
+    @Resource
+    private HostFileCopyService hostFileCopyService;
+
+    @OperatorLog(HostTerminalOperatorType.SFTP_COPY)
+    @PostMapping("/start")
+    @Operation(summary = "开始复制文件")
+    @PreAuthorize("@ss.hasPermission('asset:host-terminal:access')")
+    public HostFileCopyVO startFileCopy(@Validated @RequestBody HostFileCopyRequest request) {
+        return hostFileCopyService.startFileCopy(request);
+    }
+
+    @IgnoreLog(IgnoreLogMode.ALL)
+    @GetMapping("/get")
+    @Operation(summary = "查询复制任务")
+    @Parameter(name = "id", description = "id", required = true)
+    @PreAuthorize("@ss.hasPermission('asset:host-terminal:access')")
+    public HostFileCopyVO getFileCopyTask(@RequestParam("id") String id) {
+        return hostFileCopyService.getFileCopyTask(id);
+    }
+
+    @IgnoreLog(IgnoreLogMode.RET)
+    @GetMapping("/list")
+    @Operation(summary = "查询当前用户的复制任务")
+    @PreAuthorize("@ss.hasPermission('asset:host-terminal:access')")
+    public List<HostFileCopyVO> getFileCopyTaskList() {
+        return hostFileCopyService.getFileCopyTaskList();
+    }
+
+    @PutMapping("/cancel")
+    @Operation(summary = "取消复制")
+    @Parameter(name = "id", description = "id", required = true)
+    @PreAuthorize("@ss.hasPermission('asset:host-terminal:access')")
+    public Boolean cancelFileCopyTask(@RequestParam("id") String id) {
+        hostFileCopyService.cancelFileCopyTask(id);
+        return true;
+    }
+
+}
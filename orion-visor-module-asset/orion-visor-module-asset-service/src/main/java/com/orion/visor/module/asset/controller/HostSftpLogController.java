@@ -22,6 +22,7 @@ import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBo
 
 import javax.annotation.Resource;
 import javax.annotation.security.PermitAll;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
@@ -70,8 +71,9 @@ public class HostSftpLogController {
     @Parameter(name = "transferToken", description = "transferToken", required = true)
     public StreamingResponseBody downloadWithTransferToken(@RequestParam("channelId") String channelId,
                                                            @RequestParam("transferToken") String transferToken,
+                                                           HttpServletRequest request,
                                                            HttpServletResponse response) {
-        return hostSftpService.downloadWithTransferToken(channelId, transferToken, response);
+        return hostSftpService.downloadWithTransferToken(channelId, transferToken, request, response);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.orion.visor.module.asset.convert;
+
+import com.orion.visor.module.asset.entity.vo.HostFileCopyTargetVO;
+import com.orion.visor.module.asset.entity.vo.HostFileCopyVO;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTargetDTO;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTaskDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+/**
+ * 主机间复制文件 内部对象转换器
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Mapper
+public interface HostFileCopyConvert {
+
+    HostFileCopyConvert MAPPER = Mappers.getMapper(HostFileCopyConvert.class);
+
+    HostFileCopyVO to(FileCopyTaskDTO dto);
+
+    HostFileCopyTargetVO to(FileCopyTargetDTO dto);
+
+}
@@ -1,5 +1,7 @@
 package com.orion.visor.module.asset.dao;
 
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.orion.visor.framework.mybatis.core.mapper.IMapper;
 import com.orion.visor.module.asset.entity.domain.ExecJobDO;
 import org.apache.ibatis.annotations.Mapper;
@@ -22,4 +24,20 @@ public interface ExecJobDAO extends IMapper<ExecJobDO> {
      */
     void incrExecSeq(@Param("id") Long id);
 
+    /**
+     * 更新批次配置 允许设置为 null
+     *
+     * @param record record
+     * @return effect
+     */
+    default int updateWave(ExecJobDO record) {
+        LambdaUpdateWrapper<ExecJobDO> wrapper = Wrappers.<ExecJobDO>lambdaUpdate()
+                .set(ExecJobDO::getWaveSize, record.getWaveSize())
+                .set(ExecJobDO::getWavePercent, record.getWavePercent())
+                .set(ExecJobDO::getWaveInterval, record.getWaveInterval())
+                .set(ExecJobDO::getWaveThreshold, record.getWaveThreshold())
+                .eq(ExecJobDO::getId, record.getId());
+        return this.update(null, wrapper);
+    }
+
 }
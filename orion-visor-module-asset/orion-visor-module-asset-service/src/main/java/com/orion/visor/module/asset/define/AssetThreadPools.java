@@ -2,7 +2,9 @@ package com.orion.visor.module.asset.define;
 
 import com.orion.lang.define.thread.ExecutorBuilder;
 import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.module.asset.handler.host.terminal.executor.KeyedSerialExecutor;
 
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -40,10 +42,76 @@ public interface AssetThreadPools {
             .build();
 
     /**
-     * terminal 操作线程池
+     * terminal 输出发送线程池
+     */
+    ThreadPoolExecutor TERMINAL_SENDER = ExecutorBuilder.create()
+            .namedThreadFactory("terminal-sender-")
+            .corePoolSize(1)
+            .maxPoolSize(Integer.MAX_VALUE)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
+    /**
+     * terminal 录屏写入线程池
+     */
+    ThreadPoolExecutor TERMINAL_RECORDER = ExecutorBuilder.create()
+            .namedThreadFactory("terminal-recorder-")
+            .corePoolSize(1)
+            .maxPoolSize(1)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new LinkedBlockingQueue<>())
+            .build();
+
+    /**
+     * terminal 操作线程池 执行短时操作 队列已满时拒绝
+     * <p>
+     * 每个会话同时只有一个任务在队列中 队列长度不超过活跃会话数
      */
     ThreadPoolExecutor TERMINAL_OPERATOR = ExecutorBuilder.create()
             .namedThreadFactory("terminal-operator-")
+            .corePoolSize(16)
+            .maxPoolSize(16)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new LinkedBlockingQueue<>(1024))
+            .allowCoreThreadTimeout(true)
+            .build();
+
+    /**
+     * terminal 阻塞操作线程池 执行连接 遍历文件夹 范围读取 开始传输等耗时操作 超出后拒绝
+     */
+    ThreadPoolExecutor TERMINAL_BLOCKING = ExecutorBuilder.create()
+            .namedThreadFactory("terminal-blocking-")
+            .corePoolSize(1)
+            .maxPoolSize(256)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
+    /**
+     * terminal 操作串行执行器 同一会话的操作按顺序执行
+     */
+    KeyedSerialExecutor TERMINAL_OPERATOR_SERIAL = new KeyedSerialExecutor("terminal.operator", TERMINAL_OPERATOR, 64);
+
+    /**
+     * sftp 文件夹遍历线程池 超出后拒绝 被拒绝的通道不参与遍历
+     */
+    ThreadPoolExecutor SFTP_WALKER = ExecutorBuilder.create()
+            .namedThreadFactory("sftp-walker-")
+            .corePoolSize(1)
+            .maxPoolSize(32)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
+    /**
+     * sftp 上传写入线程池
+     */
+    ThreadPoolExecutor SFTP_UPLOAD_WRITER = ExecutorBuilder.create()
+            .namedThreadFactory("sftp-upload-writer-")
             .corePoolSize(1)
             .maxPoolSize(Integer.MAX_VALUE)
             .keepAliveTime(Const.MS_S_60)
@@ -64,7 +132,7 @@ public interface AssetThreadPools {
             .build();
 
     /**
-     * 批量执行主机命令线程池
+     * 批量执行主机命令线程池 线程数由 ExecHostScheduler 限制
      */
     ThreadPoolExecutor EXEC_HOST = ExecutorBuilder.create()
             .namedThreadFactory("exec-host-")
@@ -75,6 +143,17 @@ public interface AssetThreadPools {
             .allowCoreThreadTimeout(true)
             .build();
 
+    /**
+     * 批量执行状态写入线程池
+     */
+    ThreadPoolExecutor EXEC_STATUS_WRITER = ExecutorBuilder.create()
+            .namedThreadFactory("exec-status-writer-")
+            .corePoolSize(1)
+            .maxPoolSize(1)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new LinkedBlockingQueue<>())
+            .build();
+
     /**
      * 批量执行日志查看线程池
      */
@@ -87,6 +166,18 @@ public interface AssetThreadPools {
             .allowCoreThreadTimeout(true)
             .build();
 
+    /**
+     * 批量执行日志写入线程池 线程数由 ExecLogWriter 控制
+     */
+    ThreadPoolExecutor EXEC_LOG_WRITER = ExecutorBuilder.create()
+            .namedThreadFactory("exec-log-writer-")
+            .corePoolSize(1)
+            .maxPoolSize(Integer.MAX_VALUE)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
     /**
      * 批量上传任务线程池
      */
@@ -111,4 +202,31 @@ public interface AssetThreadPools {
             .allowCoreThreadTimeout(true)
             .build();
 
+    /**
+     * 主机间复制文件任务线程池 超出后拒绝
+     */
+    ThreadPoolExecutor FILE_COPY_TASK = ExecutorBuilder.create()
+            .namedThreadFactory("file-copy-task-")
+            .corePoolSize(1)
+            .maxPoolSize(16)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
+    /**
+     * 主机间复制文件写入线程池 任务提交前预留全部目标的线程 不足时拒绝任务
+     * <p>
+     * 写入线程等待读取线程分发数据 不能排队 否则可能与其他任务互相等待
+     * 默认容量为复制任务线程数 16 * 默认最大目标数 20
+     */
+    ThreadPoolExecutor FILE_COPY_WRITER = ExecutorBuilder.create()
+            .namedThreadFactory("file-copy-writer-")
+            .corePoolSize(1)
+            .maxPoolSize(320)
+            .keepAliveTime(Const.MS_S_60)
+            .workQueue(new SynchronousQueue<>())
+            .allowCoreThreadTimeout(true)
+            .build();
+
 }
@@ -0,0 +1,34 @@
+package com.orion.visor.module.asset.define.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 应用主机连接配置
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 16:40
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.connection")
+public class AppConnectionConfig {
+
+    /**
+     * 是否复用相同主机凭证的连接
+     */
+    private Boolean shared;
+
+    /**
+     * 单个连接最大通道数 (需小于 sshd MaxSessions)
+     */
+    private Integer maxChannels;
+
+    public AppConnectionConfig() {
+        this.shared = true;
+        this.maxChannels = 8;
+    }
+
+}
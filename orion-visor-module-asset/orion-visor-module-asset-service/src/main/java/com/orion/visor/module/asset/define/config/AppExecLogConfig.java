@@ -31,10 +31,58 @@ public class AppExecLogConfig {
      */
     private Integer keepPeriod;
 
+    /**
+     * 日志写入线程数
+     */
+    private Integer writerThreads;
+
+    /**
+     * 日志刷新间隔 (ms)
+     */
+    private Integer flushInterval;
+
+    /**
+     * 单个日志最大缓冲大小 (byte) 超出后等待写入
+     */
+    private Integer bufferSize;
+
+    /**
+     * 执行完成时是否等待日志全部写入文件
+     */
+    private Boolean durable;
+
+    /**
+     * 日志索引间隔行数
+     */
+    private Integer indexLineInterval;
+
+    /**
+     * 日志索引间隔时间 (秒)
+     */
+    private Integer indexTimeInterval;
+
+    /**
+     * 日志索引间隔字节数 超出后在下一行的起始位置添加索引
+     */
+    private Integer indexByteInterval;
+
+    /**
+     * 分页读取日志的最大字节数
+     */
+    private Integer pageMaxBytes;
+
     public AppExecLogConfig() {
         this.appendAnsi = true;
         this.autoClear = true;
         this.keepPeriod = 30;
+        this.writerThreads = 2;
+        this.flushInterval = 200;
+        this.bufferSize = 65536;
+        this.durable = true;
+        this.indexLineInterval = 1000;
+        this.indexTimeInterval = 10;
+        this.indexByteInterval = 262144;
+        this.pageMaxBytes = 1048576;
     }
 
 }
@@ -0,0 +1,40 @@
+package com.orion.visor.module.asset.define.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 应用批量执行连接池配置
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 18:10
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.exec-pool")
+public class AppExecPoolConfig {
+
+    /**
+     * 是否启用连接池
+     */
+    private Boolean enabled;
+
+    /**
+     * 最大空闲时间 (秒)
+     */
+    private Integer maxIdleTime;
+
+    /**
+     * 每个主机最大空闲连接数
+     */
+    private Integer maxIdlePerHost;
+
+    public AppExecPoolConfig() {
+        this.enabled = false;
+        this.maxIdleTime = 300;
+        this.maxIdlePerHost = 2;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.orion.visor.module.asset.define.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 应用批量执行调度配置
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:50
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.exec-scheduler")
+public class AppExecSchedulerConfig {
+
+    /**
+     * 全局最大同时执行主机数
+     */
+    private Integer maxHosts;
+
+    /**
+     * 每个用户最大同时执行主机数
+     */
+    private Integer maxHostsPerUser;
+
+    /**
+     * 每个任务最大同时执行主机数
+     */
+    private Integer maxHostsPerTask;
+
+    public AppExecSchedulerConfig() {
+        this.maxHosts = 200;
+        this.maxHostsPerUser = 100;
+        this.maxHostsPerTask = 50;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.orion.visor.module.asset.define.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 应用批量执行状态写入配置
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:55
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.exec-status")
+public class AppExecStatusConfig {
+
+    /**
+     * 刷新间隔 (ms)
+     */
+    private Integer flushInterval;
+
+    /**
+     * 批量更新行数 待写入行数达到时立即刷新
+     */
+    private Integer batchSize;
+
+    public AppExecStatusConfig() {
+        this.flushInterval = 300;
+        this.batchSize = 200;
+    }
+
+}
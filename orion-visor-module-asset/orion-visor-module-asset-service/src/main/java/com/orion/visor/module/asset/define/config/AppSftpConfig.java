@@ -26,9 +26,105 @@ public class AppSftpConfig {
      */
     private String backupFileName;
 
+    /**
+     * 分页列表默认每页数量
+     */
+    private Integer listPageSize;
+
+    /**
+     * 分页列表第一页最大字节数
+     */
+    private Integer listFirstPageMaxBytes;
+
+    /**
+     * 是否缓存文件列表和文件属性
+     */
+    private Boolean cacheEnabled;
+
+    /**
+     * 缓存有效期 (s)
+     */
+    private Integer cacheTtl;
+
+    /**
+     * 展开文件夹时并行读取的通道数
+     */
+    private Integer flatDirectoryParallelism;
+
+    /**
+     * 展开文件夹时每批返回的文件数
+     */
+    private Integer flatDirectoryBatchSize;
+
+    /**
+     * 编辑器打开和范围读取文件的最大字节数
+     */
+    private Integer viewMaxBytes;
+
+    /**
+     * 范围读取文件每块的字节数
+     */
+    private Integer viewChunkSize;
+
+    /**
+     * 上传最大窗口大小 (数据块数)
+     */
+    private Integer uploadMaxWindowSize;
+
+    /**
+     * 传输中断后可恢复的时间 (s)
+     */
+    private Integer transferResumeTimeout;
+
+    /**
+     * 打包下载的压缩级别 0 不压缩 1 ~ 9 压缩
+     */
+    private Integer downloadZipLevel;
+
+    /**
+     * 每个传输连接的最大并行传输数
+     */
+    private Integer transferChannelConcurrency;
+
+    /**
+     * 每个传输连接中同一主机的最大并行传输数
+     */
+    private Integer transferHostConcurrency;
+
+    /**
+     * 主机间复制文件的缓冲区数量
+     */
+    private Integer copyBufferCount;
+
+    /**
+     * 主机间复制文件完成后保留状态的时间 (s)
+     */
+    private Integer copyRetainTime;
+
+    /**
+     * 主机间复制文件的最大目标主机数
+     */
+    private Integer copyMaxTargets;
+
     public AppSftpConfig() {
         this.uploadPresentBackup = true;
         this.backupFileName = "bk_${fileName}_${timestamp}";
+        this.listPageSize = 500;
+        this.listFirstPageMaxBytes = 65536;
+        this.cacheEnabled = false;
+        this.cacheTtl = 5;
+        this.flatDirectoryParallelism = 4;
+        this.flatDirectoryBatchSize = 500;
+        this.viewMaxBytes = 4194304;
+        this.viewChunkSize = 32768;
+        this.uploadMaxWindowSize = 16;
+        this.transferResumeTimeout = 3600;
+        this.downloadZipLevel = 1;
+        this.transferChannelConcurrency = 4;
+        this.transferHostConcurrency = 2;
+        this.copyBufferCount = 16;
+        this.copyRetainTime = 600;
+        this.copyMaxTargets = 20;
     }
 
 }
@@ -0,0 +1,76 @@
+package com.orion.visor.module.asset.define.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 应用终端配置
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 11:20
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.terminal")
+public class AppTerminalConfig {
+
+    /**
+     * 输出合并窗口 (ms) 0 不合并
+     */
+    private Integer outputMergeWindow;
+
+    /**
+     * 输出合并最大字节数
+     */
+    private Integer outputMergeMaxSize;
+
+    /**
+     * 输出缓冲区高水位 (字节) 超出后暂停读取
+     */
+    private Integer outputBufferHighWatermark;
+
+    /**
+     * 输出缓冲区低水位 (字节) 低于后恢复读取
+     */
+    private Integer outputBufferLowWatermark;
+
+    /**
+     * 断线保留时间 (秒) 0 不保留
+     */
+    private Integer resumeGracePeriod;
+
+    /**
+     * 断线期间输出保留字节数
+     */
+    private Integer resumeBufferSize;
+
+    /**
+     * 是否录制 ssh 会话
+     */
+    private Boolean recordEnabled;
+
+    /**
+     * 录屏缓冲区事件数 写入线程未及时写入时丢弃
+     */
+    private Integer recordBufferSize;
+
+    /**
+     * 录屏索引间隔 (秒)
+     */
+    private Integer recordIndexInterval;
+
+    public AppTerminalConfig() {
+        this.outputMergeWindow = 8;
+        this.outputMergeMaxSize = 32768;
+        this.outputBufferHighWatermark = 262144;
+        this.outputBufferLowWatermark = 65536;
+        this.resumeGracePeriod = 0;
+        this.resumeBufferSize = 262144;
+        this.recordEnabled = false;
+        this.recordBufferSize = 4096;
+        this.recordIndexInterval = 10;
+    }
+
+}
@@ -41,6 +41,8 @@ public class HostTerminalOperatorType extends InitializingOperatorTypes {
 
     public static final String SFTP_DOWNLOAD = "host-terminal:sftp-download";
 
+    public static final String SFTP_COPY = "host-terminal:sftp-copy";
+
     public static final List<String> SFTP_TYPES = Lists.of(
             SFTP_MKDIR,
             SFTP_TOUCH,
@@ -50,7 +52,8 @@ public class HostTerminalOperatorType extends InitializingOperatorTypes {
             SFTP_CHMOD,
             SFTP_SET_CONTENT,
             SFTP_UPLOAD,
-            SFTP_DOWNLOAD
+            SFTP_DOWNLOAD,
+            SFTP_COPY
     );
 
     @Override
@@ -67,6 +70,7 @@ public class HostTerminalOperatorType extends InitializingOperatorTypes {
                 new OperatorType(M, SFTP_SET_CONTENT, "修改文件内容 ${hostName} <sb>${path}</sb>"),
                 new OperatorType(M, SFTP_UPLOAD, "上传文件 ${hostName} <sb>${path}</sb>"),
                 new OperatorType(M, SFTP_DOWNLOAD, "下载文件 ${hostName} <sb>${path}</sb>"),
+                new OperatorType(M, SFTP_COPY, "复制文件 ${hostName} <sb>${path}</sb> 至 <sb>${target}</sb>"),
         };
     }
 
@@ -66,4 +66,20 @@ public class ExecJobDO extends BaseDO {
     @TableField("recent_log_id")
     private Long recentLogId;
 
+    @Schema(description = "每批执行主机数")
+    @TableField("wave_size")
+    private Integer waveSize;
+
+    @Schema(description = "每批执行主机百分比")
+    @TableField("wave_percent")
+    private Integer wavePercent;
+
+    @Schema(description = "批次间隔 (秒)")
+    @TableField("wave_interval")
+    private Integer waveInterval;
+
+    @Schema(description = "失败率阈值 (%)")
+    @TableField("wave_threshold")
+    private Integer waveThreshold;
+
 }
@@ -55,4 +55,16 @@ public class ExecCommandExecDTO {
     @Schema(description = "执行主机")
     private List<Long> hostIdList;
 
+    @Schema(description = "每批执行主机数")
+    private Integer waveSize;
+
+    @Schema(description = "每批执行主机百分比")
+    private Integer wavePercent;
+
+    @Schema(description = "批次间隔 (秒)")
+    private Integer waveInterval;
+
+    @Schema(description = "失败率阈值 (%) 超过后跳过剩余主机")
+    private Integer waveThreshold;
+
 }
@@ -50,4 +50,7 @@ public class HostConnectLogExtraDTO {
     @Schema(description = "错误信息")
     private String errorMessage;
 
+    @Schema(description = "录屏文件路径")
+    private String recordPath;
+
 }
@@ -5,6 +5,8 @@ import com.orion.visor.framework.desensitize.core.annotation.DesensitizeObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
@@ -50,4 +52,22 @@ public class ExecCommandRequest {
     @Schema(description = "执行主机")
     private List<Long> hostIdList;
 
+    @Min(0)
+    @Schema(description = "每批执行主机数")
+    private Integer waveSize;
+
+    @Min(0)
+    @Max(100)
+    @Schema(description = "每批执行主机百分比")
+    private Integer wavePercent;
+
+    @Min(0)
+    @Schema(description = "批次间隔 (秒)")
+    private Integer waveInterval;
+
+    @Min(0)
+    @Max(100)
+    @Schema(description = "失败率阈值 (%) 超过后跳过剩余主机")
+    private Integer waveThreshold;
+
 }
@@ -0,0 +1,53 @@
+package com.orion.visor.module.asset.entity.request.exec;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.util.Date;
+
+/**
+ * 执行主机日志分页读取 请求对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 0:40
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ExecHostLogContentRequest", description = "执行主机日志分页读取 请求对象")
+public class ExecHostLogContentRequest {
+
+    @Schema(description = "执行来源")
+    private String source;
+
+    @NotNull
+    @Schema(description = "执行主机日志id")
+    private Long id;
+
+    @Min(value = 0)
+    @Schema(description = "起始行号 从 0 开始")
+    private Long startLine;
+
+    @Min(value = 1)
+    @Max(value = 10000)
+    @Schema(description = "读取行数")
+    private Integer lineCount;
+
+    @Schema(description = "开始时间 设置后按时间读取")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date startTime;
+
+    @Schema(description = "结束时间")
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private Date endTime;
+
+}
@@ -0,0 +1,53 @@
+package com.orion.visor.module.asset.entity.request.host;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 主机间复制文件 请求对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "HostFileCopyRequest", description = "主机间复制文件 请求对象")
+public class HostFileCopyRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Schema(description = "源主机id")
+    private Long sourceHostId;
+
+    @NotBlank
+    @Size(max = 1024)
+    @Schema(description = "源文件路径")
+    private String sourcePath;
+
+    @NotEmpty
+    @Schema(description = "目标主机id")
+    private List<Long> targetHostIdList;
+
+    @NotBlank
+    @Size(max = 1024)
+    @Schema(description = "目标路径 为文件夹时使用源文件名称")
+    private String targetPath;
+
+    @Schema(description = "是否校验文件")
+    private Boolean checksum;
+
+}
@@ -0,0 +1,51 @@
+package com.orion.visor.module.asset.entity.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 执行主机日志内容 视图响应对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 0:40
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "ExecHostLogContentVO", description = "执行主机日志内容 视图响应对象")
+public class ExecHostLogContentVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "执行主机日志id")
+    private Long id;
+
+    @Schema(description = "起始行号")
+    private Long startLine;
+
+    @Schema(description = "结束行号 (不包含) 即下一页的起始行号")
+    private Long endLine;
+
+    @Schema(description = "起始偏移量")
+    private Long startOffset;
+
+    @Schema(description = "结束偏移量")
+    private Long endOffset;
+
+    @Schema(description = "文件大小")
+    private Long fileSize;
+
+    @Schema(description = "是否已读取到文件末尾")
+    private Boolean finished;
+
+    @Schema(description = "日志内容")
+    private String content;
+
+}
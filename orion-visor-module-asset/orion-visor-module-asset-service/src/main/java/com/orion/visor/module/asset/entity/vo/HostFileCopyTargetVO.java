@@ -0,0 +1,48 @@
+package com.orion.visor.module.asset.entity.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 主机间复制文件目标 视图响应对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "HostFileCopyTargetVO", description = "主机间复制文件目标 视图响应对象")
+public class HostFileCopyTargetVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "主机id")
+    private Long hostId;
+
+    @Schema(description = "主机名称")
+    private String hostName;
+
+    @Schema(description = "文件路径")
+    private String path;
+
+    @Schema(description = "状态")
+    private String status;
+
+    @Schema(description = "已写入的大小")
+    private Long current;
+
+    @Schema(description = "校验值")
+    private String checksum;
+
+    @Schema(description = "错误信息")
+    private String errorMessage;
+
+}
@@ -0,0 +1,68 @@
+package com.orion.visor.module.asset.entity.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 主机间复制文件 视图响应对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(name = "HostFileCopyVO", description = "主机间复制文件 视图响应对象")
+public class HostFileCopyVO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Schema(description = "id")
+    private String id;
+
+    @Schema(description = "源主机id")
+    private Long sourceHostId;
+
+    @Schema(description = "源主机名称")
+    private String sourceHostName;
+
+    @Schema(description = "源文件路径")
+    private String sourcePath;
+
+    @Schema(description = "是否校验文件")
+    private Boolean checksumEnabled;
+
+    @Schema(description = "状态")
+    private String status;
+
+    @Schema(description = "文件大小")
+    private Long fileSize;
+
+    @Schema(description = "已读取的大小")
+    private Long current;
+
+    @Schema(description = "源文件校验值")
+    private String checksum;
+
+    @Schema(description = "错误信息")
+    private String errorMessage;
+
+    @Schema(description = "开始时间")
+    private Date startTime;
+
+    @Schema(description = "结束时间")
+    private Date endTime;
+
+    @Schema(description = "复制目标")
+    private List<HostFileCopyTargetVO> targets;
+
+}
@@ -48,6 +48,11 @@ public enum ExecHostStatusEnum {
      */
     INTERRUPTED(false),
 
+    /**
+     * 已跳过
+     */
+    SKIPPED(false),
+
     ;
 
     private final boolean closeable;
@@ -0,0 +1,68 @@
+package com.orion.visor.module.asset.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 主机文件复制状态
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Getter
+@AllArgsConstructor
+public enum HostFileCopyStatusEnum {
+
+    /**
+     * 等待中
+     */
+    WAITING(true),
+
+    /**
+     * 复制中
+     */
+    RUNNING(true),
+
+    /**
+     * 校验中
+     */
+    VERIFYING(true),
+
+    /**
+     * 已完成
+     */
+    FINISHED(false),
+
+    /**
+     * 部分完成
+     */
+    PARTIAL_FINISHED(false),
+
+    /**
+     * 已失败
+     */
+    FAILED(false),
+
+    /**
+     * 已取消
+     */
+    CANCELED(false),
+
+    ;
+
+    private final boolean cancelable;
+
+    public static HostFileCopyStatusEnum of(String status) {
+        if (status == null) {
+            return null;
+        }
+        for (HostFileCopyStatusEnum value : values()) {
+            if (value.name().equals(status)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+}
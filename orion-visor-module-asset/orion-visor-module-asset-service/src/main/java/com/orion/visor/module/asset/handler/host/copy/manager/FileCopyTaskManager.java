@@ -0,0 +1,107 @@
+package com.orion.visor.module.asset.handler.host.copy.manager;
+
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTaskDTO;
+import com.orion.visor.module.asset.handler.host.copy.task.IFileCopyTask;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主机间复制文件管理器
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Component
+public class FileCopyTaskManager {
+
+    private final ConcurrentHashMap<String, IFileCopyTask> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * 写入线程许可 任务提交前为全部目标预留 避免运行中目标被写入线程池拒绝
+     */
+    private final Semaphore writerPermits = new Semaphore(AssetThreadPools.FILE_COPY_WRITER.getMaximumPoolSize());
+
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
+    /**
+     * 添加任务
+     *
+     * @param id   id
+     * @param task task
+     */
+    public void addTask(String id, IFileCopyTask task) {
+        tasks.put(id, task);
+    }
+
+    /**
+     * 移除任务
+     *
+     * @param id id
+     */
+    public void removeTask(String id) {
+        tasks.remove(id);
+    }
+
+    /**
+     * 预留写入线程
+     *
+     * @param count count
+     * @return 是否预留成功
+     */
+    public boolean acquireWriters(int count) {
+        return writerPermits.tryAcquire(count);
+    }
+
+    /**
+     * 释放写入线程
+     *
+     * @param count count
+     */
+    public void releaseWriters(int count) {
+        writerPermits.release(count);
+    }
+
+    /**
+     * 获取任务
+     *
+     * @param id id
+     * @return task
+     */
+    public IFileCopyTask getTask(String id) {
+        return tasks.get(id);
+    }
+
+    /**
+     * 获取全部任务
+     *
+     * @return tasks
+     */
+    public List<IFileCopyTask> getTasks() {
+        return new ArrayList<>(tasks.values());
+    }
+
+    /**
+     * 移除已结束超过保留时间的任务
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void clearExpiredTask() {
+        long expireTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(appSftpConfig.getCopyRetainTime());
+        tasks.values().removeIf(s -> {
+            Date endTime = s.getInfo().getEndTime();
+            return endTime != null && endTime.getTime() < expireTime;
+        });
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.orion.visor.module.asset.handler.host.copy.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 主机间复制文件 目标对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileCopyTargetDTO {
+
+    /**
+     * 主机id
+     */
+    private Long hostId;
+
+    /**
+     * 主机名称
+     */
+    private String hostName;
+
+    /**
+     * 文件路径
+     */
+    private String path;
+
+    /**
+     * 状态
+     */
+    private volatile String status;
+
+    /**
+     * 已写入的大小
+     */
+    private volatile Long current;
+
+    /**
+     * 校验值
+     */
+    private String checksum;
+
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+
+}
@@ -0,0 +1,94 @@
+package com.orion.visor.module.asset.handler.host.copy.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 主机间复制文件 任务对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileCopyTaskDTO {
+
+    /**
+     * id
+     */
+    private String id;
+
+    /**
+     * 用户id
+     */
+    private Long userId;
+
+    /**
+     * 源主机id
+     */
+    private Long sourceHostId;
+
+    /**
+     * 源主机名称
+     */
+    private String sourceHostName;
+
+    /**
+     * 源文件路径
+     */
+    private String sourcePath;
+
+    /**
+     * 是否校验
+     */
+    private Boolean checksumEnabled;
+
+    /**
+     * 状态
+     */
+    private volatile String status;
+
+    /**
+     * 文件大小
+     */
+    private Long fileSize;
+
+    /**
+     * 已读取的大小
+     */
+    private volatile Long current;
+
+    /**
+     * 源文件校验值
+     */
+    private String checksum;
+
+    /**
+     * 错误信息
+     */
+    private String errorMessage;
+
+    /**
+     * 开始时间
+     */
+    private Date startTime;
+
+    /**
+     * 结束时间
+     */
+    private volatile Date endTime;
+
+    /**
+     * 复制目标
+     */
+    private List<FileCopyTargetDTO> targets;
+
+}
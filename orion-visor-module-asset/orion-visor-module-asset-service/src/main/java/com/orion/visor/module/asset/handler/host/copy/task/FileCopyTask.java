@@ -0,0 +1,560 @@
+package com.orion.visor.module.asset.handler.host.copy.task;
+
+import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.Valid;
+import com.orion.lang.utils.io.FileType;
+import com.orion.lang.utils.io.Files1;
+import com.orion.lang.utils.io.Streams;
+import com.orion.net.host.SessionStore;
+import com.orion.net.host.sftp.SftpExecutor;
+import com.orion.net.host.sftp.SftpFile;
+import com.orion.net.host.ssh.command.CommandExecutor;
+import com.orion.spring.SpringHolder;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.constant.ErrorMessage;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.enums.HostFileCopyStatusEnum;
+import com.orion.visor.module.asset.enums.HostSshOsTypeEnum;
+import com.orion.visor.module.asset.handler.host.copy.manager.FileCopyTaskManager;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTargetDTO;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTaskDTO;
+import com.orion.visor.module.asset.service.HostTerminalService;
+import com.orion.visor.module.asset.utils.SftpUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 主机间复制文件任务 实现类
+ * <p>
+ * 当前线程读取源文件 每个目标主机一个写入线程
+ * 数据块使用有界的缓冲区池 所有目标写入完成后缓冲区归还 最慢的目标决定读取速度
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Slf4j
+public class FileCopyTask implements IFileCopyTask {
+
+    private static final HostTerminalService hostTerminalService = SpringHolder.getBean(HostTerminalService.class);
+
+    private static final AppSftpConfig SFTP_CONFIG = SpringHolder.getBean(AppSftpConfig.class);
+
+    private static final FileCopyTaskManager fileCopyTaskManager = SpringHolder.getBean(FileCopyTaskManager.class);
+
+    private static final String CHECKSUM_ALGORITHM = "SHA-256";
+
+    private static final String CHECKSUM_COMMAND = "sha256sum ";
+
+    /**
+     * 写入中的临时文件后缀 校验通过后重命名
+     */
+    private static final String TEMP_SUFFIX = ".copying";
+
+    /**
+     * 等待缓冲区的间隔 (ms)
+     */
+    private static final long BUFFER_POLL_INTERVAL = 1000L;
+
+    private static final CopyChunk END = new CopyChunk(null, null, 0, 0);
+
+    @Getter
+    private final FileCopyTaskDTO info;
+
+    private final HostTerminalConnectDTO sourceConnectInfo;
+
+    private final List<FileCopyWriter> writers;
+
+    private final CountDownLatch writerLatch;
+
+    private SessionStore sessionStore;
+
+    private SftpExecutor executor;
+
+    private InputStream inputStream;
+
+    /**
+     * 源文件是否读取完成
+     */
+    private volatile boolean completed;
+
+    private volatile boolean canceled;
+
+    private volatile boolean closed;
+
+    public FileCopyTask(FileCopyTaskDTO info,
+                        HostTerminalConnectDTO sourceConnectInfo,
+                        Map<Long, HostTerminalConnectDTO> targetConnectInfos) {
+        this.info = info;
+        this.sourceConnectInfo = sourceConnectInfo;
+        this.writers = new ArrayList<>();
+        for (FileCopyTargetDTO target : info.getTargets()) {
+            writers.add(new FileCopyWriter(target, targetConnectInfos.get(target.getHostId())));
+        }
+        this.writerLatch = new CountDownLatch(writers.size());
+    }
+
+    @Override
+    public void run() {
+        String id = info.getId();
+        log.info("FileCopyTask.run start id: {}", id);
+        boolean readFailed = false;
+        try {
+            info.setStatus(HostFileCopyStatusEnum.RUNNING.name());
+            info.setStartTime(new Date());
+            // 开始写入 目标连接与源文件连接同时建立
+            writers.forEach(this::startWriter);
+            // 打开源文件
+            this.openSource();
+            // 读取源文件
+            this.readSource(this.createBuffers());
+            log.info("FileCopyTask.run read finish id: {}, completed: {}, size: {}", id, completed, info.getCurrent());
+        } catch (Exception e) {
+            log.error("FileCopyTask.run error id: {}", id, e);
+            readFailed = true;
+            info.setErrorMessage(this.getErrorMessage(e));
+        } finally {
+            // 通知写入线程结束
+            writers.forEach(s -> s.chunks.offer(END));
+            this.awaitWriters();
+            fileCopyTaskManager.releaseWriters(writers.size());
+            // 修改状态
+            long finished = writers.stream()
+                    .filter(FileCopyWriter::isFinished)
+                    .count();
+            if (canceled) {
+                info.setStatus(HostFileCopyStatusEnum.CANCELED.name());
+            } else if (readFailed || finished == 0) {
+                info.setStatus(HostFileCopyStatusEnum.FAILED.name());
+            } else if (finished < writers.size()) {
+                info.setStatus(HostFileCopyStatusEnum.PARTIAL_FINISHED.name());
+            } else {
+                info.setStatus(HostFileCopyStatusEnum.FINISHED.name());
+            }
+            info.setEndTime(new Date());
+            log.info("FileCopyTask.run finish id: {}, status: {}", id, info.getStatus());
+            // 释放资源 任务保留至过期后移除
+            this.close();
+        }
+    }
+
+    /**
+     * 开始写入 线程已在提交时预留 线程池仍拒绝时该目标失败
+     *
+     * @param writer writer
+     */
+    private void startWriter(FileCopyWriter writer) {
+        try {
+            AssetThreadPools.FILE_COPY_WRITER.execute(writer);
+        } catch (RejectedExecutionException e) {
+            writer.fail(e);
+            writerLatch.countDown();
+        }
+    }
+
+    /**
+     * 打开源文件
+     */
+    private void openSource() throws Exception {
+        this.sessionStore = hostTerminalService.openSessionStore(sourceConnectInfo);
+        this.executor = sessionStore.getSftpExecutor(sourceConnectInfo.getFileNameCharset());
+        executor.connect();
+        SftpFile file = executor.getFile(info.getSourcePath());
+        Valid.notNull(file, ErrorMessage.FILE_ABSENT);
+        Valid.isTrue(!FileType.DIRECTORY.equals(FileType.of(file.getPermissionString())), ErrorMessage.FILE_ABSENT);
+        info.setFileSize(file.getSize());
+        this.inputStream = executor.openInputStream(info.getSourcePath());
+    }
+
+    /**
+     * 创建缓冲区池
+     *
+     * @return buffers
+     */
+    private BlockingQueue<byte[]> createBuffers() {
+        int count = Math.max(SFTP_CONFIG.getCopyBufferCount(), 1);
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            buffers.offer(new byte[executor.getBufferSize()]);
+        }
+        return buffers;
+    }
+
+    /**
+     * 读取源文件 分发到写入线程
+     *
+     * @param buffers buffers
+     */
+    private void readSource(BlockingQueue<byte[]> buffers) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+        boolean checksum = Boolean.TRUE.equals(info.getChecksumEnabled());
+        long current = 0L;
+        while (true) {
+            byte[] buffer = this.takeBuffer(buffers);
+            if (buffer == null) {
+                return;
+            }
+            int read = inputStream.read(buffer);
+            if (read == -1) {
+                buffers.offer(buffer);
+                break;
+            }
+            if (checksum) {
+                digest.update(buffer, 0, read);
+            }
+            // 只分发给未失败的目标
+            List<FileCopyWriter> alive = new ArrayList<>();
+            for (FileCopyWriter writer : writers) {
+                if (!writer.failed) {
+                    alive.add(writer);
+                }
+            }
+            CopyChunk chunk = new CopyChunk(buffers, buffer, read, alive.size());
+            alive.forEach(s -> s.chunks.offer(chunk));
+            current += read;
+            info.setCurrent(current);
+        }
+        if (checksum) {
+            info.setChecksum(toHex(digest.digest()));
+        }
+        this.completed = true;
+        Streams.close(inputStream);
+    }
+
+    /**
+     * 获取空闲缓冲区
+     *
+     * @param buffers buffers
+     * @return 取消或全部目标失败时返回 null
+     */
+    private byte[] takeBuffer(BlockingQueue<byte[]> buffers) throws InterruptedException {
+        while (!canceled) {
+            if (writers.stream().allMatch(s -> s.failed)) {
+                return null;
+            }
+            byte[] buffer = buffers.poll(BUFFER_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 等待写入线程结束
+     */
+    private void awaitWriters() {
+        try {
+            writerLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        log.info("FileCopyTask.cancel id: {}, canceled: {}, closed: {}", info.getId(), canceled, closed);
+        if (this.canceled || this.closed) {
+            return;
+        }
+        // 读取线程和写入线程检查到取消后结束
+        this.canceled = true;
+    }
+
+    @Override
+    public void close() {
+        log.info("FileCopyTask.close id: {}, canceled: {}, closed: {}", info.getId(), canceled, closed);
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        // 未读取完成的流关闭可能阻塞 直接关闭通道
+        Streams.close(executor);
+        hostTerminalService.releaseSessionStore(sessionStore);
+    }
+
+    /**
+     * 获取错误信息
+     *
+     * @param e e
+     * @return message
+     */
+    private String getErrorMessage(Exception e) {
+        return Strings.isBlank(e.getMessage()) ? ErrorMessage.OPERATE_ERROR : e.getMessage();
+    }
+
+    /**
+     * 转为 16 进制
+     *
+     * @param bs bs
+     * @return hex
+     */
+    private static String toHex(byte[] bs) {
+        StringBuilder sb = new StringBuilder(bs.length * 2);
+        for (byte b : bs) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+                    .append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 目标主机写入器
+     */
+    private class FileCopyWriter implements Runnable {
+
+        private final FileCopyTargetDTO target;
+
+        private final HostTerminalConnectDTO connectInfo;
+
+        private final BlockingQueue<CopyChunk> chunks;
+
+        private SessionStore sessionStore;
+
+        private SftpExecutor executor;
+
+        private OutputStream outputStream;
+
+        /**
+         * 写入中的临时文件 重命名或删除后为 null
+         */
+        private String tempPath;
+
+        private volatile boolean failed;
+
+        private FileCopyWriter(FileCopyTargetDTO target, HostTerminalConnectDTO connectInfo) {
+            this.target = target;
+            this.connectInfo = connectInfo;
+            // 数据块数量受缓冲区池限制
+            this.chunks = new LinkedBlockingQueue<>();
+        }
+
+        @Override
+        public void run() {
+            String id = info.getId();
+            Long hostId = target.getHostId();
+            target.setStatus(HostFileCopyStatusEnum.RUNNING.name());
+            try {
+                this.open();
+            } catch (Exception e) {
+                this.fail(e);
+            }
+            try {
+                // 写入数据块 失败后继续取出数据块直到结束 归还缓冲区
+                while (true) {
+                    CopyChunk chunk = chunks.take();
+                    if (chunk == END) {
+                        break;
+                    }
+                    try {
+                        if (!failed && !canceled) {
+                            outputStream.write(chunk.buffer, 0, chunk.length);
+                            target.setCurrent(target.getCurrent() + chunk.length);
+                        }
+                    } catch (Exception e) {
+                        this.fail(e);
+                    } finally {
+                        chunk.release();
+                    }
+                }
+                if (failed) {
+                    return;
+                }
+                if (canceled) {
+                    target.setStatus(HostFileCopyStatusEnum.CANCELED.name());
+                    return;
+                }
+                if (!completed) {
+                    target.setStatus(HostFileCopyStatusEnum.FAILED.name());
+                    target.setErrorMessage(ErrorMessage.FILE_READ_ERROR);
+                    return;
+                }
+                outputStream.flush();
+                Streams.close(outputStream);
+                this.outputStream = null;
+                // 校验
+                this.verify();
+                // 重命名为目标文件
+                this.commit();
+                target.setStatus(HostFileCopyStatusEnum.FINISHED.name());
+                log.info("FileCopyTask.FileCopyWriter finish id: {}, hostId: {}, path: {}", id, hostId, target.getPath());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.fail(e);
+            } catch (Exception e) {
+                this.fail(e);
+            } finally {
+                this.close();
+                writerLatch.countDown();
+            }
+        }
+
+        /**
+         * 打开目标文件
+         */
+        private void open() throws Exception {
+            this.sessionStore = hostTerminalService.openSessionStore(connectInfo);
+            this.executor = sessionStore.getSftpExecutor(connectInfo.getFileNameCharset());
+            executor.connect();
+            // 目标为文件夹时使用源文件名称
+            String path = target.getPath();
+            SftpFile file = executor.getFile(path);
+            if (file != null && FileType.DIRECTORY.equals(FileType.of(file.getPermissionString()))) {
+                path = Files1.getPath(path + Const.SLASH + Files1.getFileName(info.getSourcePath()));
+                target.setPath(path);
+            }
+            // 写入临时文件 校验通过后再替换目标文件
+            this.tempPath = path + "." + info.getId() + TEMP_SUFFIX;
+            this.outputStream = executor.openOutputStream(tempPath);
+        }
+
+        /**
+         * 将临时文件重命名为目标文件 目标文件存在时按配置备份
+         */
+        private void commit() {
+            String path = target.getPath();
+            SftpUtils.checkUploadFilePresent(SFTP_CONFIG, executor, path);
+            if (executor.getFile(path) != null) {
+                executor.remove(path);
+            }
+            executor.move(tempPath, path);
+            this.tempPath = null;
+        }
+
+        /**
+         * 校验目标文件
+         */
+        private void verify() throws Exception {
+            target.setStatus(HostFileCopyStatusEnum.VERIFYING.name());
+            // 检查文件大小
+            SftpFile file = executor.getFile(tempPath);
+            Valid.notNull(file, ErrorMessage.FILE_ABSENT);
+            Valid.isTrue(file.getSize() == info.getCurrent(), ErrorMessage.FILE_CHECKSUM_ERROR);
+            if (!Boolean.TRUE.equals(info.getChecksumEnabled())
+                    || HostSshOsTypeEnum.WINDOWS.name().equals(connectInfo.getOsType())) {
+                return;
+            }
+            // 计算目标文件校验值
+            String checksum = this.getRemoteChecksum();
+            target.setChecksum(checksum);
+            if (checksum != null) {
+                Valid.isTrue(checksum.equalsIgnoreCase(info.getChecksum()), ErrorMessage.FILE_CHECKSUM_ERROR);
+            }
+        }
+
+        /**
+         * 执行 sha256sum 获取目标文件校验值
+         *
+         * @return 命令不可用时返回 null 只校验文件大小
+         */
+        private String getRemoteChecksum() throws Exception {
+            String path = "'" + tempPath.replace("'", "'\\''") + "'";
+            CommandExecutor command = sessionStore.getCommandExecutor(CHECKSUM_COMMAND + path);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try {
+                command.merge();
+                command.transfer(out);
+                command.connect();
+                command.exec();
+                Integer exitCode = command.getExitCode();
+                if (!Integer.valueOf(0).equals(exitCode)) {
+                    log.info("FileCopyTask.getRemoteChecksum unavailable id: {}, hostId: {}, output: {}", info.getId(), target.getHostId(), out);
+                    return null;
+                }
+            } finally {
+                Streams.close(command);
+            }
+            String output = out.toString(connectInfo.getCharset()).trim();
+            return output.split("\\s+")[0];
+        }
+
+        /**
+         * 写入失败
+         *
+         * @param e e
+         */
+        private void fail(Exception e) {
+            if (failed) {
+                return;
+            }
+            log.error("FileCopyTask.FileCopyWriter error id: {}, hostId: {}, canceled: {}", info.getId(), target.getHostId(), canceled, e);
+            this.failed = true;
+            if (canceled) {
+                target.setStatus(HostFileCopyStatusEnum.CANCELED.name());
+            } else {
+                target.setStatus(HostFileCopyStatusEnum.FAILED.name());
+                target.setErrorMessage(getErrorMessage(e));
+            }
+        }
+
+        /**
+         * 释放资源
+         */
+        private void close() {
+            Streams.close(outputStream);
+            // 失败或取消时删除临时文件 不保留不完整的文件
+            if (tempPath != null && executor != null) {
+                try {
+                    executor.remove(tempPath);
+                } catch (Exception e) {
+                    log.error("FileCopyTask.FileCopyWriter remove temp file error id: {}, hostId: {}, path: {}", info.getId(), target.getHostId(), tempPath, e);
+                }
+            }
+            Streams.close(executor);
+            hostTerminalService.releaseSessionStore(sessionStore);
+        }
+
+        private boolean isFinished() {
+            return HostFileCopyStatusEnum.FINISHED.name().equals(target.getStatus());
+        }
+
+    }
+
+    /**
+     * 数据块 所有目标写入后归还缓冲区
+     */
+    private static class CopyChunk {
+
+        private final BlockingQueue<byte[]> buffers;
+
+        private final byte[] buffer;
+
+        private final int length;
+
+        private final AtomicInteger references;
+
+        private CopyChunk(BlockingQueue<byte[]> buffers, byte[] buffer, int length, int references) {
+            this.buffers = buffers;
+            this.buffer = buffer;
+            this.length = length;
+            this.references = new AtomicInteger(references);
+            if (references == 0 && buffers != null) {
+                buffers.offer(buffer);
+            }
+        }
+
+        /**
+         * 释放引用
+         */
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                buffers.offer(buffer);
+            }
+        }
+
+    }
+
+}
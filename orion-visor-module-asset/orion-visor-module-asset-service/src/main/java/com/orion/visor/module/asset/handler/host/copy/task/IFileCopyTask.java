@@ -0,0 +1,27 @@
+package com.orion.visor.module.asset.handler.host.copy.task;
+
+import com.orion.lang.able.SafeCloseable;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTaskDTO;
+
+/**
+ * 主机间复制文件任务
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+public interface IFileCopyTask extends Runnable, SafeCloseable {
+
+    /**
+     * 取消复制
+     */
+    void cancel();
+
+    /**
+     * 获取任务信息
+     *
+     * @return info
+     */
+    FileCopyTaskDTO getInfo();
+
+}
@@ -16,13 +16,14 @@ import com.orion.net.host.SessionStore;
 import com.orion.net.host.sftp.SftpExecutor;
 import com.orion.net.host.ssh.command.CommandExecutor;
 import com.orion.spring.SpringHolder;
-import com.orion.visor.framework.common.file.FileClient;
-import com.orion.visor.module.asset.dao.ExecHostLogDAO;
 import com.orion.visor.module.asset.entity.domain.ExecHostLogDO;
 import com.orion.visor.module.asset.enums.ExecHostStatusEnum;
+import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecSessionPool;
+import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecStatusWriter;
 import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandDTO;
 import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandHostDTO;
 import com.orion.visor.module.asset.handler.host.exec.log.manager.ExecLogManager;
+import com.orion.visor.module.asset.handler.host.exec.log.writer.ExecLogWriter;
 import com.orion.visor.module.asset.service.HostTerminalService;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -42,13 +43,15 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public abstract class BaseExecCommandHandler implements IExecCommandHandler {
 
-    private static final FileClient fileClient = SpringHolder.getBean("logsFileClient");
+    private static final ExecLogWriter execLogWriter = SpringHolder.getBean(ExecLogWriter.class);
 
     private static final ExecLogManager execLogManager = SpringHolder.getBean(ExecLogManager.class);
 
     private static final HostTerminalService hostTerminalService = SpringHolder.getBean(HostTerminalService.class);
 
-    private static final ExecHostLogDAO execHostLogDAO = SpringHolder.getBean(ExecHostLogDAO.class);
+    private static final ExecStatusWriter execStatusWriter = SpringHolder.getBean(ExecStatusWriter.class);
+
+    private static final ExecSessionPool execSessionPool = SpringHolder.getBean(ExecSessionPool.class);
 
     protected final ExecCommandDTO execCommand;
 
@@ -67,6 +70,10 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
 
     private CommandExecutor executor;
 
+    private boolean pooled;
+
+    private boolean failed;
+
     @Getter
     private Integer exitCode;
 
@@ -89,6 +96,12 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
         Long id = execHostCommand.getHostLogId();
         Exception ex = null;
         log.info("ExecCommandHandler run start id: {}, info: {}", id, JSON.toJSONString(execHostCommand));
+        // 等待执行时已中断
+        if (this.interrupted) {
+            this.updateStatus(ExecHostStatusEnum.INTERRUPTED, null);
+            Streams.close(this);
+            return;
+        }
         // 更新状态
         this.updateStatus(ExecHostStatusEnum.RUNNING, null);
         try {
@@ -97,6 +110,7 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
             log.info("ExecCommandHandler run complete id: {}", id);
         } catch (Exception e) {
             log.error("ExecCommandHandler run error id: {}", id, e);
+            this.failed = true;
             ex = e;
         }
         // 执行完成回调
@@ -116,7 +130,7 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
      */
     protected void initLogOutputStream() throws Exception {
         // 打开日志流
-        this.logOutputStream = fileClient.getContentOutputStream(execHostCommand.getLogPath());
+        this.logOutputStream = execLogWriter.open(execHostCommand.getLogPath());
     }
 
     /**
@@ -128,7 +142,13 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
         // 初始化日志
         this.initLogOutputStream();
         // 打开会话
-        this.sessionStore = hostTerminalService.openSessionStore(execHostCommand.getHostId());
+        Long hostId = execHostCommand.getHostId();
+        this.pooled = execSessionPool.isEnabled(execCommand.getSource());
+        if (pooled) {
+            this.sessionStore = execSessionPool.borrow(hostId);
+        } else {
+            this.sessionStore = hostTerminalService.openSessionStore(hostId);
+        }
         if (Booleans.isTrue(execCommand.getScriptExec())) {
             // 上传脚本文件
             this.uploadScriptFile();
@@ -205,7 +225,6 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
     protected void appendLog(AnsiAppender appender) {
         try {
             logOutputStream.write(Strings.bytes(appender.toString()));
-            logOutputStream.flush();
         } catch (Exception e) {
             log.error("BaseExecCommandHandler.appendLog error", e);
         }
@@ -242,9 +261,12 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
         } else if (ExecHostStatusEnum.INTERRUPTED.equals(status)) {
             // 中断
             updateRecord.setFinishTime(new Date());
+        } else if (ExecHostStatusEnum.SKIPPED.equals(status)) {
+            // 跳过
+            updateRecord.setFinishTime(new Date());
         }
-        int effect = execHostLogDAO.updateById(updateRecord);
-        log.info("BaseExecCommandHandler.updateStatus finish id: {}, effect: {}", id, effect);
+        // 合并写入
+        execStatusWriter.updateHostLog(updateRecord);
     }
 
     @Override
@@ -262,7 +284,22 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
         // 关闭
         this.interrupted = true;
         Streams.close(executor);
-        Streams.close(sessionStore);
+        this.closeSessionStore();
+    }
+
+    @Override
+    public void skip() {
+        log.info("BaseExecCommandHandler.skip id: {}", execHostCommand.getHostLogId());
+        this.updateStatus(ExecHostStatusEnum.SKIPPED, null);
+        Streams.close(this);
+    }
+
+    @Override
+    public void fail(Exception e) {
+        log.info("BaseExecCommandHandler.fail id: {}", execHostCommand.getHostLogId());
+        this.failed = true;
+        this.updateStatus(ExecHostStatusEnum.FAILED, e);
+        Streams.close(this);
     }
 
     @Override
@@ -275,10 +312,24 @@ public abstract class BaseExecCommandHandler implements IExecCommandHandler {
         this.closed = true;
         Streams.close(logOutputStream);
         Streams.close(executor);
-        Streams.close(sessionStore);
+        this.closeSessionStore();
         execLogManager.asyncCloseTailFile(execHostCommand.getLogPath());
     }
 
+    /**
+     * 关闭会话 连接池模式下正常完成的会话归还连接池
+     * 超时的会话远程命令可能仍在执行 不归还
+     */
+    private void closeSessionStore() {
+        if (!pooled) {
+            Streams.close(sessionStore);
+        } else if (interrupted || failed || (executor != null && executor.isTimeout())) {
+            execSessionPool.invalidate(sessionStore);
+        } else {
+            execSessionPool.giveBack(execHostCommand.getHostId(), sessionStore);
+        }
+    }
+
     /**
      * 获取错误信息
      *
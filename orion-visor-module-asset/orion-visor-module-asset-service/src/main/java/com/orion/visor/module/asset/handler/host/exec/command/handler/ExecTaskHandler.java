@@ -4,20 +4,20 @@ import com.orion.lang.support.timeout.TimeoutChecker;
 import com.orion.lang.support.timeout.TimeoutCheckers;
 import com.orion.lang.support.timeout.TimeoutEndpoint;
 import com.orion.lang.utils.Booleans;
-import com.orion.lang.utils.Threads;
 import com.orion.lang.utils.collect.Lists;
 import com.orion.lang.utils.io.Streams;
 import com.orion.lang.utils.time.Dates;
 import com.orion.net.host.ssh.ExitCode;
 import com.orion.spring.SpringHolder;
 import com.orion.visor.framework.common.constant.ExtraFieldConst;
-import com.orion.visor.module.asset.dao.ExecLogDAO;
 import com.orion.visor.module.asset.define.AssetThreadPools;
 import com.orion.visor.module.asset.define.config.AppExecLogConfig;
 import com.orion.visor.module.asset.define.message.ExecMessageDefine;
 import com.orion.visor.module.asset.entity.domain.ExecLogDO;
 import com.orion.visor.module.asset.enums.ExecHostStatusEnum;
 import com.orion.visor.module.asset.enums.ExecStatusEnum;
+import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecHostScheduler;
+import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecStatusWriter;
 import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecTaskManager;
 import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandDTO;
 import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandHostDTO;
@@ -30,6 +30,8 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 命令执行任务
@@ -41,14 +43,16 @@ import java.util.Map;
 @Slf4j
 public class ExecTaskHandler implements IExecTaskHandler {
 
-    private static final ExecLogDAO execLogDAO = SpringHolder.getBean(ExecLogDAO.class);
-
     private static final ExecTaskManager execTaskManager = SpringHolder.getBean(ExecTaskManager.class);
 
     private static final AppExecLogConfig appExecLogConfig = SpringHolder.getBean(AppExecLogConfig.class);
 
     private static final SystemMessageApi systemMessageApi = SpringHolder.getBean(SystemMessageApi.class);
 
+    private static final ExecHostScheduler execHostScheduler = SpringHolder.getBean(ExecHostScheduler.class);
+
+    private static final ExecStatusWriter execStatusWriter = SpringHolder.getBean(ExecStatusWriter.class);
+
     private final ExecCommandDTO execCommand;
 
     private TimeoutChecker<TimeoutEndpoint> timeoutChecker;
@@ -58,9 +62,15 @@ public class ExecTaskHandler implements IExecTaskHandler {
 
     private Date startTime;
 
+    /**
+     * 中断时结束批次间隔
+     */
+    private final CountDownLatch interruptLatch;
+
     public ExecTaskHandler(ExecCommandDTO execCommand) {
         this.execCommand = execCommand;
         this.handlers = Lists.newList();
+        this.interruptLatch = new CountDownLatch(1);
     }
 
     @Override
@@ -73,10 +83,16 @@ public class ExecTaskHandler implements IExecTaskHandler {
             // 更新状态
             this.updateStatus(ExecStatusEnum.RUNNING);
             // 执行命令
-            this.runHostCommand();
-            // 更新状态-执行完成
-            log.info("ExecTaskHandler.run completed id: {}", id);
-            this.updateStatus(ExecStatusEnum.COMPLETED);
+            boolean completed = this.runHostCommand();
+            if (completed) {
+                // 更新状态-执行完成
+                log.info("ExecTaskHandler.run completed id: {}", id);
+                this.updateStatus(ExecStatusEnum.COMPLETED);
+            } else {
+                // 更新状态-超过失败率阈值
+                log.info("ExecTaskHandler.run aborted id: {}", id);
+                this.updateStatus(ExecStatusEnum.FAILED);
+            }
         } catch (Exception e) {
             // 更新状态-执行失败
             this.updateStatus(ExecStatusEnum.FAILED);
@@ -94,6 +110,7 @@ public class ExecTaskHandler implements IExecTaskHandler {
     @Override
     public void interrupt() {
         log.info("ExecTaskHandler-interrupt id: {}", execCommand.getLogId());
+        interruptLatch.countDown();
         handlers.forEach(IExecCommandHandler::interrupt);
     }
 
@@ -105,30 +122,86 @@ public class ExecTaskHandler implements IExecTaskHandler {
     }
 
     /**
-     * 执行主机命令
+     * 执行主机命令 按批次执行 每批完成后检查失败率
      *
+     * @return 是否全部执行 超过失败率阈值时剩余主机跳过执行
      * @throws Exception Exception
      */
-    private void runHostCommand() throws Exception {
+    private boolean runHostCommand() throws Exception {
         // 超时检查
         if (execCommand.getTimeout() != 0) {
             this.timeoutChecker = TimeoutCheckers.create();
             AssetThreadPools.TIMEOUT_CHECK.execute(this.timeoutChecker);
         }
-        // 执行命令
-        List<ExecCommandHostDTO> hosts = execCommand.getHosts();
-        if (hosts.size() == 1) {
-            // 单个主机直接执行
-            IExecCommandHandler handler = this.createCommandHandler(hosts.get(0));
-            handlers.add(handler);
-            handler.run();
+        execCommand.getHosts()
+                .stream()
+                .map(this::createCommandHandler)
+                .forEach(handlers::add);
+        int total = handlers.size();
+        int waveSize = this.getWaveSize(total);
+        for (int start = 0; start < total; start += waveSize) {
+            if (start > 0) {
+                // 检查失败率
+                if (this.isOverThreshold(handlers.subList(0, start))) {
+                    log.info("ExecTaskHandler.runHostCommand over threshold id: {}, executed: {}", execCommand.getLogId(), start);
+                    handlers.subList(start, total).forEach(IExecCommandHandler::skip);
+                    return false;
+                }
+                // 批次间隔
+                Integer interval = execCommand.getWaveInterval();
+                if (interval != null && interval > 0) {
+                    interruptLatch.await(interval, TimeUnit.SECONDS);
+                }
+            }
+            // 执行命令 由调度器分配执行位置
+            int end = Math.min(start + waveSize, total);
+            try {
+                execHostScheduler.run(execCommand, handlers.subList(start, end));
+            } catch (InterruptedException e) {
+                // 线程中断 后续批次跳过执行
+                handlers.subList(end, total).forEach(IExecCommandHandler::skip);
+                throw e;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取每批执行主机数
+     *
+     * @param total 主机总数
+     * @return size
+     */
+    private int getWaveSize(int total) {
+        Integer waveSize = execCommand.getWaveSize();
+        Integer wavePercent = execCommand.getWavePercent();
+        if (waveSize != null && waveSize > 0) {
+            return Math.min(waveSize, total);
+        } else if (wavePercent != null && wavePercent > 0) {
+            // 向上取整 至少一台
+            return Math.max((total * wavePercent + 99) / 100, 1);
         } else {
-            hosts.stream()
-                    .map(this::createCommandHandler)
-                    .forEach(handlers::add);
-            // 多个主机异步阻塞执行
-            Threads.blockRun(handlers, AssetThreadPools.EXEC_HOST);
+            return total;
+        }
+    }
+
+    /**
+     * 已执行主机的失败率是否超过阈值 执行失败 超时 退出码非 0 均视为失败
+     *
+     * @param executed executed
+     * @return 是否超过
+     */
+    private boolean isOverThreshold(List<IExecCommandHandler> executed) {
+        Integer threshold = execCommand.getWaveThreshold();
+        if (threshold == null || executed.isEmpty()) {
+            return false;
         }
+        long failed = executed.stream()
+                .filter(s -> ExecHostStatusEnum.FAILED.equals(s.getStatus())
+                        || ExecHostStatusEnum.TIMEOUT.equals(s.getStatus())
+                        || (ExecHostStatusEnum.COMPLETED.equals(s.getStatus()) && !ExitCode.isSuccess(s.getExitCode())))
+                .count();
+        return failed * 100 > (long) threshold * executed.size();
     }
 
     /**
@@ -170,8 +243,12 @@ public class ExecTaskHandler implements IExecTaskHandler {
             // 执行失败
             update.setFinishTime(new Date());
         }
-        int effect = execLogDAO.updateById(update);
-        log.info("ExecTaskHandler-updateStatus finish id: {}, effect: {}", id, effect);
+        execStatusWriter.updateExecLog(update);
+        if (!ExecStatusEnum.RUNNING.equals(status)) {
+            // 执行结束 按顺序写入主机状态和任务状态
+            execStatusWriter.flush();
+            log.info("ExecTaskHandler-updateStatus flushed id: {}, status: {}", id, statusName);
+        }
     }
 
     /**
@@ -182,6 +259,7 @@ public class ExecTaskHandler implements IExecTaskHandler {
         boolean hasError = handlers.stream().anyMatch(s ->
                 ExecHostStatusEnum.FAILED.equals(s.getStatus())
                         || ExecHostStatusEnum.TIMEOUT.equals(s.getStatus())
+                        || ExecHostStatusEnum.SKIPPED.equals(s.getStatus())
                         || !ExitCode.isSuccess(s.getExitCode()));
         if (!hasError) {
             return;
@@ -24,6 +24,18 @@ public interface IExecCommandHandler extends Runnable, SafeCloseable {
      */
     void interrupt();
 
+    /**
+     * 跳过执行
+     */
+    void skip();
+
+    /**
+     * 未执行即失败 如提交执行失败
+     *
+     * @param e e
+     */
+    void fail(Exception e);
+
     /**
      * 获取当前状态
      *
@@ -0,0 +1,227 @@
+package com.orion.visor.module.asset.handler.host.exec.command.manager;
+
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppExecSchedulerConfig;
+import com.orion.visor.module.asset.enums.ExecSourceEnum;
+import com.orion.visor.module.asset.handler.host.exec.command.handler.IExecCommandHandler;
+import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 批量执行主机调度器
+ * <p>
+ * 限制全局 每个用户 每个任务同时执行的主机数 未获取到执行位置的主机保持等待中状态
+ * 任务之间轮流分配执行位置 批量执行优先于计划任务
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:50
+ */
+@Slf4j
+@Component
+public class ExecHostScheduler {
+
+    private static final String RUNNING_METRIC = "exec.scheduler.running";
+
+    private static final String WAITING_METRIC = "exec.scheduler.waiting";
+
+    @Resource
+    private AppExecSchedulerConfig appExecSchedulerConfig;
+
+    /**
+     * 批量执行任务 轮询队列
+     */
+    private final LinkedList<ScheduledTask> interactiveTasks = new LinkedList<>();
+
+    /**
+     * 计划任务 轮询队列
+     */
+    private final LinkedList<ScheduledTask> jobTasks = new LinkedList<>();
+
+    /**
+     * userId -> 执行中的主机数
+     */
+    private final Map<Long, Integer> userRunning = new HashMap<>();
+
+    private int running;
+
+    private int waiting;
+
+    public ExecHostScheduler() {
+        Gauge.builder(RUNNING_METRIC, this, s -> s.running)
+                .description("执行中的主机数")
+                .register(Metrics.globalRegistry);
+        Gauge.builder(WAITING_METRIC, this, s -> s.waiting)
+                .description("等待执行的主机数")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 执行主机命令 阻塞至所有主机执行完成
+     *
+     * @param execCommand execCommand
+     * @param handlers    handlers
+     * @throws InterruptedException InterruptedException
+     */
+    public void run(ExecCommandDTO execCommand, List<IExecCommandHandler> handlers) throws InterruptedException {
+        if (handlers.isEmpty()) {
+            return;
+        }
+        boolean interactive = !ExecSourceEnum.JOB.name().equals(execCommand.getSource());
+        ScheduledTask task = new ScheduledTask(execCommand.getLogId(), execCommand.getUserId(), handlers);
+        synchronized (this) {
+            if (interactive) {
+                interactiveTasks.add(task);
+            } else {
+                jobTasks.add(task);
+            }
+            this.waiting += handlers.size();
+            log.info("ExecHostScheduler.run submit id: {}, hosts: {}, running: {}, waiting: {}", task.id, handlers.size(), running, waiting);
+            this.dispatch();
+        }
+        try {
+            task.latch.await();
+        } catch (InterruptedException e) {
+            // 任务线程中断 移除任务并跳过未执行的主机 执行中的主机完成后释放位置
+            synchronized (this) {
+                interactiveTasks.remove(task);
+                jobTasks.remove(task);
+                this.waiting -= task.pending.size();
+                IExecCommandHandler handler;
+                while ((handler = task.pending.poll()) != null) {
+                    handler.skip();
+                }
+            }
+            log.info("ExecHostScheduler.run interrupted id: {}", task.id);
+            throw e;
+        }
+    }
+
+    /**
+     * 分配执行位置
+     */
+    private synchronized void dispatch() {
+        int maxHosts = appExecSchedulerConfig.getMaxHosts();
+        while (running < maxHosts) {
+            // 批量执行优先
+            ScheduledTask task = this.pollRunnable(interactiveTasks);
+            if (task == null) {
+                task = this.pollRunnable(jobTasks);
+            }
+            if (task == null) {
+                return;
+            }
+            IExecCommandHandler handler = task.pending.poll();
+            task.running++;
+            this.running++;
+            this.waiting--;
+            userRunning.merge(task.userId, 1, Integer::sum);
+            ScheduledTask current = task;
+            try {
+                AssetThreadPools.EXEC_HOST.execute(() -> this.runHandler(current, handler));
+            } catch (Exception e) {
+                log.error("ExecHostScheduler.dispatch submit error id: {}", task.id, e);
+                // 提交失败 标记主机执行失败
+                handler.fail(e);
+                this.release(task);
+            }
+        }
+    }
+
+    /**
+     * 轮询获取可执行的任务 获取后移动到队尾
+     *
+     * @param tasks tasks
+     * @return task
+     */
+    private ScheduledTask pollRunnable(LinkedList<ScheduledTask> tasks) {
+        int maxHostsPerUser = appExecSchedulerConfig.getMaxHostsPerUser();
+        int maxHostsPerTask = appExecSchedulerConfig.getMaxHostsPerTask();
+        Iterator<ScheduledTask> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            ScheduledTask task = iterator.next();
+            if (task.pending.isEmpty()
+                    || task.running >= maxHostsPerTask
+                    || userRunning.getOrDefault(task.userId, 0) >= maxHostsPerUser) {
+                continue;
+            }
+            iterator.remove();
+            tasks.addLast(task);
+            return task;
+        }
+        return null;
+    }
+
+    /**
+     * 执行主机命令
+     *
+     * @param task    task
+     * @param handler handler
+     */
+    private void runHandler(ScheduledTask task, IExecCommandHandler handler) {
+        try {
+            handler.run();
+        } catch (Exception e) {
+            log.error("ExecHostScheduler.runHandler error id: {}, hostId: {}", task.id, handler.getHostId(), e);
+        } finally {
+            synchronized (this) {
+                this.release(task);
+                this.dispatch();
+            }
+        }
+    }
+
+    /**
+     * 释放执行位置
+     *
+     * @param task task
+     */
+    private void release(ScheduledTask task) {
+        task.running--;
+        this.running--;
+        userRunning.computeIfPresent(task.userId, (k, v) -> v > 1 ? v - 1 : null);
+        task.finished++;
+        if (task.finished == task.total) {
+            interactiveTasks.remove(task);
+            jobTasks.remove(task);
+            task.latch.countDown();
+        }
+    }
+
+    /**
+     * 调度任务
+     */
+    private static class ScheduledTask {
+
+        private final Long id;
+
+        private final Long userId;
+
+        private final Deque<IExecCommandHandler> pending;
+
+        private final int total;
+
+        private final CountDownLatch latch;
+
+        private int running;
+
+        private int finished;
+
+        private ScheduledTask(Long id, Long userId, List<IExecCommandHandler> handlers) {
+            this.id = id;
+            this.userId = userId;
+            this.pending = new ArrayDeque<>(handlers);
+            this.total = handlers.size();
+            this.latch = new CountDownLatch(1);
+        }
+
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.orion.visor.module.asset.handler.host.exec.command.manager;
+
+import com.orion.lang.utils.io.Streams;
+import com.orion.net.host.SessionStore;
+import com.orion.net.host.ssh.command.CommandExecutor;
+import com.orion.visor.module.asset.define.config.AppExecPoolConfig;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.enums.ExecSourceEnum;
+import com.orion.visor.module.asset.handler.host.terminal.manager.HostConnectionManager;
+import com.orion.visor.module.asset.service.HostTerminalService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量执行连接池
+ * <p>
+ * 执行完成后保留已认证的空闲连接 同一主机下次执行时直接复用
+ * 主机地址 用户名 凭证变更后 旧连接将被驱逐
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 18:15
+ */
+@Slf4j
+@Component
+public class ExecSessionPool {
+
+    private static final String HIT_METRIC = "exec.pool.hit";
+
+    private static final String MISS_METRIC = "exec.pool.miss";
+
+    private static final String HANDSHAKE_METRIC = "exec.pool.handshake";
+
+    private static final String SAVED_METRIC = "exec.pool.saved";
+
+    private static final String PROBE_COMMAND = "true";
+
+    @Resource
+    private AppExecPoolConfig appExecPoolConfig;
+
+    @Resource
+    private HostTerminalService hostTerminalService;
+
+    /**
+     * hostId -> 空闲连接
+     */
+    private final Map<Long, Deque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+
+    /**
+     * 借出的连接 -> 连接 key
+     */
+    private final Map<SessionStore, String> borrowedSessions = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter = Counter.builder(HIT_METRIC)
+            .description("复用空闲连接次数")
+            .register(Metrics.globalRegistry);
+
+    private final Counter missCounter = Counter.builder(MISS_METRIC)
+            .description("新建连接次数")
+            .register(Metrics.globalRegistry);
+
+    private final Timer handshakeTimer = Timer.builder(HANDSHAKE_METRIC)
+            .description("新建连接耗时")
+            .register(Metrics.globalRegistry);
+
+    private final Counter savedCounter = Counter.builder(SAVED_METRIC)
+            .description("复用连接节省的握手时间")
+            .baseUnit("milliseconds")
+            .register(Metrics.globalRegistry);
+
+    /**
+     * 是否使用连接池
+     *
+     * @param source source
+     * @return enabled
+     */
+    public boolean isEnabled(String source) {
+        if (!Boolean.TRUE.equals(appExecPoolConfig.getEnabled())) {
+            return false;
+        }
+        ExecSourceEnum execSource = ExecSourceEnum.of(source);
+        return ExecSourceEnum.BATCH.equals(execSource) || ExecSourceEnum.JOB.equals(execSource);
+    }
+
+    /**
+     * 借出连接 存在可用的空闲连接则直接复用
+     *
+     * @param hostId hostId
+     * @return sessionStore
+     */
+    public SessionStore borrow(Long hostId) {
+        HostTerminalConnectDTO conn = hostTerminalService.getTerminalConnectInfo(hostId);
+        String key = HostConnectionManager.getConnectionKey(conn);
+        SessionStore sessionStore = this.pollIdle(hostId, key);
+        if (sessionStore != null) {
+            hitCounter.increment();
+            // 以平均握手耗时估算节省的时间
+            savedCounter.increment(handshakeTimer.mean(TimeUnit.MILLISECONDS));
+            log.info("ExecSessionPool-borrow hit hostId: {}", hostId);
+        } else {
+            missCounter.increment();
+            long start = System.nanoTime();
+            sessionStore = hostTerminalService.openSessionStore(conn);
+            handshakeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        borrowedSessions.put(sessionStore, key);
+        return sessionStore;
+    }
+
+    /**
+     * 归还连接 超过空闲上限或连接不可用时直接关闭
+     *
+     * @param hostId       hostId
+     * @param sessionStore sessionStore
+     */
+    public void giveBack(Long hostId, SessionStore sessionStore) {
+        if (sessionStore == null) {
+            return;
+        }
+        String key = borrowedSessions.remove(sessionStore);
+        if (key == null || !sessionStore.isConnected()) {
+            Streams.close(sessionStore);
+            return;
+        }
+        Deque<PooledSession> deque = idleSessions.computeIfAbsent(hostId, k -> new ArrayDeque<>());
+        synchronized (deque) {
+            if (deque.size() < appExecPoolConfig.getMaxIdlePerHost()) {
+                deque.offerFirst(new PooledSession(key, sessionStore));
+                return;
+            }
+        }
+        Streams.close(sessionStore);
+    }
+
+    /**
+     * 作废连接
+     *
+     * @param sessionStore sessionStore
+     */
+    public void invalidate(SessionStore sessionStore) {
+        if (sessionStore == null) {
+            return;
+        }
+        borrowedSessions.remove(sessionStore);
+        Streams.close(sessionStore);
+    }
+
+    /**
+     * 驱逐空闲超时的连接
+     */
+    @Scheduled(fixedDelay = 30000)
+    public void evictIdle() {
+        long expireTime = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(appExecPoolConfig.getMaxIdleTime());
+        idleSessions.values().forEach(deque -> {
+            synchronized (deque) {
+                Iterator<PooledSession> iterator = deque.iterator();
+                while (iterator.hasNext()) {
+                    PooledSession session = iterator.next();
+                    if (session.idleSince < expireTime || !session.sessionStore.isConnected()) {
+                        iterator.remove();
+                        Streams.close(session.sessionStore);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 获取空闲连接数
+     *
+     * @return count
+     */
+    public int getIdleCount() {
+        return idleSessions.values()
+                .stream()
+                .mapToInt(Deque::size)
+                .sum();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        idleSessions.values().forEach(deque -> {
+            synchronized (deque) {
+                deque.forEach(s -> Streams.close(s.sessionStore));
+                deque.clear();
+            }
+        });
+    }
+
+    /**
+     * 获取可用的空闲连接
+     *
+     * @param hostId hostId
+     * @param key    key
+     * @return sessionStore
+     */
+    private SessionStore pollIdle(Long hostId, String key) {
+        Deque<PooledSession> deque = idleSessions.get(hostId);
+        if (deque == null) {
+            return null;
+        }
+        while (true) {
+            PooledSession session;
+            synchronized (deque) {
+                session = deque.pollFirst();
+            }
+            if (session == null) {
+                return null;
+            }
+            // 配置已变更
+            if (!session.key.equals(key)) {
+                log.info("ExecSessionPool-pollIdle config changed hostId: {}", hostId);
+                Streams.close(session.sessionStore);
+                continue;
+            }
+            // 存活检测 在锁外执行 不阻塞其他线程借出
+            if (!this.isAlive(session.sessionStore)) {
+                log.info("ExecSessionPool-pollIdle dead session hostId: {}", hostId);
+                Streams.close(session.sessionStore);
+                continue;
+            }
+            return session.sessionStore;
+        }
+    }
+
+    /**
+     * 存活检测 本地状态可能未感知到断开 打开一个通道确认远程可以响应
+     *
+     * @param sessionStore sessionStore
+     * @return alive
+     */
+    private boolean isAlive(SessionStore sessionStore) {
+        if (!sessionStore.isConnected()) {
+            return false;
+        }
+        CommandExecutor probe = null;
+        try {
+            probe = sessionStore.getCommandExecutor(PROBE_COMMAND);
+            probe.connect();
+            return true;
+        } catch (Exception e) {
+            return false;
+        } finally {
+            Streams.close(probe);
+        }
+    }
+
+    /**
+     * 空闲连接
+     */
+    private static class PooledSession {
+
+        private final String key;
+
+        private final SessionStore sessionStore;
+
+        private final long idleSince;
+
+        private PooledSession(String key, SessionStore sessionStore) {
+            this.key = key;
+            this.sessionStore = sessionStore;
+            this.idleSince = System.currentTimeMillis();
+        }
+
+    }
+
+}
@@ -0,0 +1,301 @@
+package com.orion.visor.module.asset.handler.host.exec.command.manager;
+
+import com.orion.visor.module.asset.dao.ExecHostLogDAO;
+import com.orion.visor.module.asset.dao.ExecLogDAO;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppExecStatusConfig;
+import com.orion.visor.module.asset.entity.domain.ExecHostLogDO;
+import com.orion.visor.module.asset.entity.domain.ExecLogDO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 批量执行状态写入器
+ * <p>
+ * 状态变更先合并到内存 同一条记录只保留合并后的最新状态
+ * 按间隔或达到批量行数时批量更新 先写入主机状态再写入任务状态
+ * 写入失败后至少等待一个间隔再重试 连续失败时间隔递增
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:55
+ */
+@Slf4j
+@Component
+public class ExecStatusWriter implements Runnable {
+
+    /**
+     * 连续失败时最大等待间隔倍数
+     */
+    private static final int MAX_BACKOFF = 8;
+
+    @Resource
+    private ExecHostLogDAO execHostLogDAO;
+
+    @Resource
+    private ExecLogDAO execLogDAO;
+
+    @Resource
+    private AppExecStatusConfig appExecStatusConfig;
+
+    /**
+     * 同时只有一个线程刷新 保证写入顺序
+     */
+    private final Object flushLock = new Object();
+
+    /**
+     * 待写入的主机状态 id -> record
+     */
+    private Map<Long, ExecHostLogDO> hostLogs = new LinkedHashMap<>();
+
+    /**
+     * 待写入的任务状态 id -> record
+     */
+    private Map<Long, ExecLogDO> execLogs = new LinkedHashMap<>();
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        this.running = true;
+        AssetThreadPools.EXEC_STATUS_WRITER.execute(this);
+    }
+
+    /**
+     * 更新主机状态
+     *
+     * @param record record
+     */
+    public void updateHostLog(ExecHostLogDO record) {
+        synchronized (this) {
+            if (running) {
+                ExecHostLogDO pending = hostLogs.computeIfAbsent(record.getId(), k -> new ExecHostLogDO());
+                mergeHostLog(pending, record);
+                this.checkBatchSize();
+                return;
+            }
+        }
+        // 已停止 直接写入
+        execHostLogDAO.updateById(record);
+    }
+
+    /**
+     * 更新任务状态
+     *
+     * @param record record
+     */
+    public void updateExecLog(ExecLogDO record) {
+        synchronized (this) {
+            if (running) {
+                ExecLogDO pending = execLogs.computeIfAbsent(record.getId(), k -> new ExecLogDO());
+                mergeExecLog(pending, record);
+                this.checkBatchSize();
+                return;
+            }
+        }
+        // 已停止 直接写入
+        execLogDAO.updateById(record);
+    }
+
+    @Override
+    public void run() {
+        int failures = 0;
+        while (running) {
+            try {
+                if (failures == 0) {
+                    this.awaitFlush();
+                } else {
+                    // 写入失败 达到批量行数也不提前重试
+                    this.awaitBackoff((long) appExecStatusConfig.getFlushInterval() * Math.min(failures, MAX_BACKOFF));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            failures = this.flush() ? 0 : failures + 1;
+        }
+    }
+
+    /**
+     * 等待刷新间隔或达到批量行数
+     *
+     * @throws InterruptedException InterruptedException
+     */
+    private synchronized void awaitFlush() throws InterruptedException {
+        if (running && this.getPendingCount() < appExecStatusConfig.getBatchSize()) {
+            this.wait(appExecStatusConfig.getFlushInterval());
+        }
+    }
+
+    /**
+     * 写入失败后等待 只有停止时提前结束
+     *
+     * @param delay delay
+     * @throws InterruptedException InterruptedException
+     */
+    private synchronized void awaitBackoff(long delay) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + delay;
+        long remaining;
+        while (running && (remaining = deadline - System.currentTimeMillis()) > 0) {
+            this.wait(remaining);
+        }
+    }
+
+    /**
+     * 同步写入全部待写入的状态
+     *
+     * @return 是否写入成功 写入失败的状态已放回队列
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            Map<Long, ExecHostLogDO> hosts;
+            Map<Long, ExecLogDO> logs;
+            synchronized (this) {
+                if (this.getPendingCount() == 0) {
+                    return true;
+                }
+                hosts = this.hostLogs;
+                logs = this.execLogs;
+                this.hostLogs = new LinkedHashMap<>();
+                this.execLogs = new LinkedHashMap<>();
+            }
+            int batchSize = appExecStatusConfig.getBatchSize();
+            try {
+                if (!hosts.isEmpty()) {
+                    execHostLogDAO.updateBatch(hosts.values(), batchSize);
+                }
+                if (!logs.isEmpty()) {
+                    execLogDAO.updateBatch(logs.values(), batchSize);
+                }
+                log.debug("ExecStatusWriter.flush hosts: {}, logs: {}", hosts.size(), logs.size());
+                return true;
+            } catch (Exception e) {
+                log.error("ExecStatusWriter.flush error hosts: {}, logs: {}", hosts.size(), logs.size(), e);
+                if (running) {
+                    // 放回队列 下次刷新时重试
+                    this.requeue(hosts, logs);
+                } else {
+                    // 已停止 不会再次刷新 逐行写入
+                    this.updateEach(hosts, logs);
+                }
+                return false;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        synchronized (this) {
+            this.running = false;
+            this.notifyAll();
+        }
+        // 写入剩余状态
+        this.flush();
+        log.info("ExecStatusWriter.destroy flushed");
+    }
+
+    /**
+     * 待写入行数达到批量行数时唤醒写入线程
+     */
+    private void checkBatchSize() {
+        if (this.getPendingCount() >= appExecStatusConfig.getBatchSize()) {
+            this.notifyAll();
+        }
+    }
+
+    /**
+     * 获取待写入行数
+     *
+     * @return count
+     */
+    private int getPendingCount() {
+        return hostLogs.size() + execLogs.size();
+    }
+
+    /**
+     * 写入失败的状态放回队列 不覆盖之后提交的状态
+     *
+     * @param hosts hosts
+     * @param logs  logs
+     */
+    private synchronized void requeue(Map<Long, ExecHostLogDO> hosts, Map<Long, ExecLogDO> logs) {
+        this.hostLogs.forEach((id, record) -> mergeHostLog(hosts.computeIfAbsent(id, k -> new ExecHostLogDO()), record));
+        this.execLogs.forEach((id, record) -> mergeExecLog(logs.computeIfAbsent(id, k -> new ExecLogDO()), record));
+        this.hostLogs = hosts;
+        this.execLogs = logs;
+    }
+
+    /**
+     * 逐行写入状态 单行失败不影响其他行
+     *
+     * @param hosts hosts
+     * @param logs  logs
+     */
+    private void updateEach(Map<Long, ExecHostLogDO> hosts, Map<Long, ExecLogDO> logs) {
+        for (ExecHostLogDO record : hosts.values()) {
+            try {
+                execHostLogDAO.updateById(record);
+            } catch (Exception e) {
+                log.error("ExecStatusWriter.updateEach host error id: {}", record.getId(), e);
+            }
+        }
+        for (ExecLogDO record : logs.values()) {
+            try {
+                execLogDAO.updateById(record);
+            } catch (Exception e) {
+                log.error("ExecStatusWriter.updateEach log error id: {}", record.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * 合并主机状态
+     *
+     * @param target target
+     * @param source source
+     */
+    private static void mergeHostLog(ExecHostLogDO target, ExecHostLogDO source) {
+        target.setId(source.getId());
+        if (source.getStatus() != null) {
+            target.setStatus(source.getStatus());
+        }
+        if (source.getExitCode() != null) {
+            target.setExitCode(source.getExitCode());
+        }
+        if (source.getErrorMessage() != null) {
+            target.setErrorMessage(source.getErrorMessage());
+        }
+        if (source.getStartTime() != null) {
+            target.setStartTime(source.getStartTime());
+        }
+        if (source.getFinishTime() != null) {
+            target.setFinishTime(source.getFinishTime());
+        }
+    }
+
+    /**
+     * 合并任务状态
+     *
+     * @param target target
+     * @param source source
+     */
+    private static void mergeExecLog(ExecLogDO target, ExecLogDO source) {
+        target.setId(source.getId());
+        if (source.getStatus() != null) {
+            target.setStatus(source.getStatus());
+        }
+        if (source.getStartTime() != null) {
+            target.setStartTime(source.getStartTime());
+        }
+        if (source.getFinishTime() != null) {
+            target.setFinishTime(source.getFinishTime());
+        }
+    }
+
+}
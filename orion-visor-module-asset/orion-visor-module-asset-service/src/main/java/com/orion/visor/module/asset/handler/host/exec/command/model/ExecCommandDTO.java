@@ -35,6 +35,11 @@ public class ExecCommandDTO {
      */
     private String username;
 
+    /**
+     * 执行来源
+     */
+    private String source;
+
     /**
      * 执行描述
      */
@@ -55,6 +60,26 @@ public class ExecCommandDTO {
      */
     private Boolean scriptExec;
 
+    /**
+     * 每批执行主机数
+     */
+    private Integer waveSize;
+
+    /**
+     * 每批执行主机百分比
+     */
+    private Integer wavePercent;
+
+    /**
+     * 批次间隔 (秒)
+     */
+    private Integer waveInterval;
+
+    /**
+     * 失败率阈值 (%)
+     */
+    private Integer waveThreshold;
+
     /**
      * 执行主机
      */
@@ -9,6 +9,7 @@ import com.orion.visor.framework.websocket.core.utils.WebSockets;
 import com.orion.visor.module.asset.define.config.AppTrackerConfig;
 import com.orion.visor.module.asset.entity.dto.ExecHostLogTailDTO;
 import com.orion.visor.module.asset.handler.host.exec.log.constant.LogConst;
+import com.orion.visor.module.asset.utils.StreamDecoder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
@@ -29,6 +30,8 @@ public class ExecLogTracker implements IExecLogTracker {
 
     private final ExecHostLogTailDTO config;
 
+    private final StreamDecoder decoder;
+
     @Getter
     private final String trackerId;
 
@@ -47,6 +50,7 @@ public class ExecLogTracker implements IExecLogTracker {
         this.absolutePath = absolutePath;
         this.session = session;
         this.config = config;
+        this.decoder = new StreamDecoder(config.getCharset());
     }
 
     @Override
@@ -79,8 +83,12 @@ public class ExecLogTracker implements IExecLogTracker {
 
     @Override
     public void read(byte[] bytes, int len, Tracker tracker) {
+        String body = decoder.decode(bytes, 0, len);
+        if (body.isEmpty()) {
+            return;
+        }
         // 发送消息
-        String message = config.getId() + LogConst.SEPARATOR + new String(bytes, 0, len);
+        String message = config.getId() + LogConst.SEPARATOR + body;
         try {
             WebSockets.sendText(session, message);
         } catch (Exception e) {
@@ -0,0 +1,189 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行日志缓冲区
+ * <p>
+ * 执行线程只写入内存 由 {@link ExecLogWriter} 的写入线程按间隔批量写入文件
+ * 缓冲区超出最大大小时 执行线程等待写入
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 0:10
+ */
+public class ExecLogBuffer extends OutputStream {
+
+    /**
+     * 持久模式关闭时最大等待时间 (s)
+     */
+    private static final int CLOSE_WAIT_SECONDS = 10;
+
+    /**
+     * 初始缓冲大小 写入后超出该大小时收缩
+     */
+    private static final int INITIAL_SIZE = 8192;
+
+    @Getter
+    private final String path;
+
+    private final Runnable signal;
+
+    private final int maxSize;
+
+    private final boolean durable;
+
+    private final CountDownLatch finishLatch;
+
+    private byte[] buf;
+
+    private int count;
+
+    private boolean closed;
+
+    /**
+     * 写入失败或写入器已停止 之后的内容丢弃
+     */
+    private boolean discarded;
+
+    /**
+     * 已写入文件的字节数 仅写入线程使用
+     */
+    protected long position;
+
+    /**
+     * 已写入文件的行数 仅写入线程使用
+     */
+    protected long lineCount;
+
+    /**
+     * 下一个索引的行号 仅写入线程使用
+     */
+    protected long nextIndexLine;
+
+    /**
+     * 下一个索引的时间 仅写入线程使用
+     */
+    protected long nextIndexTime;
+
+    /**
+     * 下一个索引的最小偏移量 仅写入线程使用
+     */
+    protected long nextIndexOffset;
+
+    public ExecLogBuffer(String path, Runnable signal, int maxSize, boolean durable) {
+        this.path = path;
+        this.signal = signal;
+        this.maxSize = maxSize;
+        this.durable = durable;
+        this.finishLatch = new CountDownLatch(1);
+        this.buf = new byte[Math.min(maxSize, INITIAL_SIZE)];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        this.write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("stream closed");
+        }
+        // 超出最大大小时等待写入线程写入
+        while (count > 0 && count + len > maxSize && !discarded) {
+            signal.run();
+            try {
+                this.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        if (discarded) {
+            return;
+        }
+        if (count + len > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, count + len));
+        }
+        System.arraycopy(b, off, buf, count, len);
+        this.count += len;
+    }
+
+    @Override
+    public void flush() {
+        // 由写入线程按间隔刷新
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        signal.run();
+        if (durable) {
+            // 等待全部写入文件
+            try {
+                finishLatch.await(CLOSE_WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return closed
+     */
+    protected synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 取出缓冲的内容
+     *
+     * @return 内容 为空返回 null
+     */
+    protected synchronized byte[] drain() {
+        if (count == 0) {
+            return null;
+        }
+        byte[] data = Arrays.copyOf(buf, count);
+        this.count = 0;
+        // 输出高峰后收缩 避免长时间执行的任务一直占用最大缓冲
+        if (buf.length > INITIAL_SIZE) {
+            this.buf = new byte[Math.min(maxSize, INITIAL_SIZE)];
+        }
+        // 唤醒等待的执行线程
+        this.notifyAll();
+        return data;
+    }
+
+    /**
+     * 丢弃之后写入的内容
+     */
+    protected synchronized void discard() {
+        this.discarded = true;
+        this.count = 0;
+        this.notifyAll();
+    }
+
+    /**
+     * 全部写入完成
+     */
+    protected void finish() {
+        finishLatch.countDown();
+    }
+
+}
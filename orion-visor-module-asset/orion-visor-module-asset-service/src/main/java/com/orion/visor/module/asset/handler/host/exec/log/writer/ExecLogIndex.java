@@ -0,0 +1,180 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 执行日志稀疏索引
+ * <p>
+ * 索引文件每行为 行号,文件偏移量,写入时间 偏移量为该行的起始位置 第一行固定为 0,0,创建时间
+ * 按间隔行数 间隔时间或间隔字节数写入 读取时从最近的索引位置开始读取
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 0:40
+ */
+@Slf4j
+public class ExecLogIndex {
+
+    public static final String SUFFIX = ".idx";
+
+    private static final String SEPARATOR = ",";
+
+    private long[] lines;
+
+    private long[] offsets;
+
+    private long[] times;
+
+    private int size;
+
+    private ExecLogIndex() {
+        this.lines = new long[16];
+        this.offsets = new long[16];
+        this.times = new long[16];
+    }
+
+    /**
+     * 格式化索引行
+     *
+     * @param line   行号
+     * @param offset 行起始偏移量
+     * @param time   写入时间
+     * @return 索引行
+     */
+    public static String format(long line, long offset, long time) {
+        return line + SEPARATOR + offset + SEPARATOR + time + "\n";
+    }
+
+    /**
+     * 加载日志文件的索引 索引不存在时从文件开头读取
+     *
+     * @param logAbsolutePath 日志文件绝对路径
+     * @return index
+     */
+    public static ExecLogIndex load(String logAbsolutePath) {
+        ExecLogIndex index = new ExecLogIndex();
+        File file = new File(logAbsolutePath + SUFFIX);
+        if (file.isFile()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+                String row;
+                while ((row = reader.readLine()) != null) {
+                    String[] parts = row.split(SEPARATOR);
+                    // 跳过正在写入的不完整行
+                    if (parts.length != 3) {
+                        continue;
+                    }
+                    try {
+                        index.add(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                    } catch (NumberFormatException e) {
+                        // ignore
+                    }
+                }
+            } catch (Exception e) {
+                log.error("ExecLogIndex.load error path: {}", file.getAbsolutePath(), e);
+            }
+        }
+        if (index.size == 0 || index.lines[0] != 0) {
+            index.size = 0;
+            index.add(0, 0, 0);
+        }
+        return index;
+    }
+
+    /**
+     * 获取行号不大于 line 的最后一个索引
+     *
+     * @param line line
+     * @return 索引位置
+     */
+    public int floorLine(long line) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lines[mid] <= line) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 获取时间不大于 time 的最后一个索引 没有则返回第一个
+     *
+     * @param time time
+     * @return 索引位置
+     */
+    public int floorTime(long time) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (times[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 获取时间大于 time 的第一个索引
+     *
+     * @param time time
+     * @return 索引位置 没有则返回 -1
+     */
+    public int higherTime(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] > time) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low == size ? -1 : low;
+    }
+
+    public long getLine(int i) {
+        return lines[i];
+    }
+
+    public long getOffset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * 添加索引 忽略乱序的索引
+     *
+     * @param line   line
+     * @param offset offset
+     * @param time   time
+     */
+    private void add(long line, long offset, long time) {
+        if (size > 0 && (line <= lines[size - 1] || offset <= offsets[size - 1])) {
+            return;
+        }
+        if (size == lines.length) {
+            this.lines = Arrays.copyOf(lines, size << 1);
+            this.offsets = Arrays.copyOf(offsets, size << 1);
+            this.times = Arrays.copyOf(times, size << 1);
+        }
+        lines[size] = line;
+        offsets[size] = offset;
+        times[size] = time;
+        this.size++;
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.io.Streams;
+import com.orion.visor.framework.common.annotation.Keep;
+import com.orion.visor.framework.common.file.FileClient;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppExecLogConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 执行日志写入器
+ * <p>
+ * 日志缓冲区平均分配给少量写入线程 每个线程按间隔批量追加写入文件
+ * 写入时才打开文件 打开的文件数不超过写入线程数
+ * 同时写入稀疏索引文件 {@link ExecLogIndex} 用于按行号或时间定位
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 0:10
+ */
+@Slf4j
+@Component
+public class ExecLogWriter {
+
+    private static final String BYTES_METRIC = "exec.log.write.bytes";
+
+    private static final String FLUSH_METRIC = "exec.log.flush";
+
+    @Keep
+    @Resource
+    private FileClient logsFileClient;
+
+    @Resource
+    private AppExecLogConfig appExecLogConfig;
+
+    private final List<WriterThread> writers = new ArrayList<>();
+
+    private final AtomicInteger nextWriter = new AtomicInteger();
+
+    private final Counter bytesCounter = Counter.builder(BYTES_METRIC)
+            .description("执行日志写入字节数")
+            .baseUnit("bytes")
+            .register(Metrics.globalRegistry);
+
+    private final Timer flushTimer = Timer.builder(FLUSH_METRIC)
+            .description("执行日志单次写入耗时")
+            .register(Metrics.globalRegistry);
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        this.running = true;
+        int threads = Math.max(appExecLogConfig.getWriterThreads(), 1);
+        for (int i = 0; i < threads; i++) {
+            WriterThread writer = new WriterThread();
+            writers.add(writer);
+            AssetThreadPools.EXEC_LOG_WRITER.execute(writer);
+        }
+    }
+
+    /**
+     * 打开日志输出流
+     *
+     * @param path path
+     * @return outputStream
+     * @throws Exception Exception
+     */
+    public OutputStream open(String path) throws Exception {
+        if (!running) {
+            return logsFileClient.getContentOutputStream(path);
+        }
+        // 创建文件
+        Streams.close(logsFileClient.getContentOutputStream(path));
+        long now = System.currentTimeMillis();
+        try (OutputStream indexOut = logsFileClient.getContentOutputStream(path + ExecLogIndex.SUFFIX)) {
+            indexOut.write(Strings.bytes(ExecLogIndex.format(0, 0, now)));
+        }
+        // 分配写入线程
+        WriterThread writer = writers.get(Math.floorMod(nextWriter.getAndIncrement(), writers.size()));
+        ExecLogBuffer buffer = new ExecLogBuffer(path,
+                writer::signal,
+                appExecLogConfig.getBufferSize(),
+                Boolean.TRUE.equals(appExecLogConfig.getDurable()));
+        buffer.nextIndexLine = appExecLogConfig.getIndexLineInterval();
+        buffer.nextIndexTime = now + TimeUnit.SECONDS.toMillis(appExecLogConfig.getIndexTimeInterval());
+        buffer.nextIndexOffset = appExecLogConfig.getIndexByteInterval();
+        writer.buffers.add(buffer);
+        return buffer;
+    }
+
+    /**
+     * 写入缓冲区的内容
+     *
+     * @param writer writer
+     * @param buffer buffer
+     */
+    private void write(WriterThread writer, ExecLogBuffer buffer) {
+        // 先读取关闭状态 保证关闭前的内容都已写入
+        boolean closed = buffer.isClosed();
+        byte[] data = buffer.drain();
+        if (data != null) {
+            long start = System.nanoTime();
+            try (OutputStream out = logsFileClient.getContentOutputStream(buffer.getPath(), true)) {
+                out.write(data);
+                out.flush();
+                bytesCounter.increment(data.length);
+                // 内容写入后再写入索引 索引不会超出文件内容
+                this.writeIndex(buffer, data);
+            } catch (Exception e) {
+                log.error("ExecLogWriter.write error path: {}", buffer.getPath(), e);
+                buffer.discard();
+            }
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (closed) {
+            writer.buffers.remove(buffer);
+            buffer.finish();
+        }
+    }
+
+    /**
+     * 写入索引 达到间隔行数 间隔时间或间隔字节数后 在下一行的起始位置添加索引
+     *
+     * @param buffer buffer
+     * @param data   本次写入的内容
+     */
+    private void writeIndex(ExecLogBuffer buffer, byte[] data) {
+        long now = System.currentTimeMillis();
+        StringBuilder index = null;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            buffer.lineCount++;
+            long offset = buffer.position + i + 1;
+            if (buffer.lineCount >= buffer.nextIndexLine || now >= buffer.nextIndexTime || offset >= buffer.nextIndexOffset) {
+                if (index == null) {
+                    index = new StringBuilder();
+                }
+                index.append(ExecLogIndex.format(buffer.lineCount, offset, now));
+                buffer.nextIndexLine = buffer.lineCount + appExecLogConfig.getIndexLineInterval();
+                buffer.nextIndexTime = now + TimeUnit.SECONDS.toMillis(appExecLogConfig.getIndexTimeInterval());
+                buffer.nextIndexOffset = offset + appExecLogConfig.getIndexByteInterval();
+            }
+        }
+        buffer.position += data.length;
+        if (index == null) {
+            return;
+        }
+        // 索引写入失败不影响日志写入 读取时从前一个索引开始读取
+        try (OutputStream indexOut = logsFileClient.getContentOutputStream(buffer.getPath() + ExecLogIndex.SUFFIX, true)) {
+            indexOut.write(Strings.bytes(index.toString()));
+        } catch (Exception e) {
+            log.error("ExecLogWriter.writeIndex error path: {}", buffer.getPath(), e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        this.running = false;
+        writers.forEach(WriterThread::signal);
+    }
+
+    /**
+     * 写入线程
+     */
+    private class WriterThread implements Runnable {
+
+        private final Set<ExecLogBuffer> buffers = ConcurrentHashMap.newKeySet();
+
+        private boolean signaled;
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    synchronized (this) {
+                        if (!signaled && running) {
+                            try {
+                                this.wait(appExecLogConfig.getFlushInterval());
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                break;
+                            }
+                        }
+                        this.signaled = false;
+                    }
+                    try {
+                        buffers.forEach(s -> write(this, s));
+                    } catch (Throwable e) {
+                        // 写入线程不能退出 否则等待写入的执行线程将一直阻塞
+                        log.error("ExecLogWriter.WriterThread write error", e);
+                    }
+                }
+            } finally {
+                // 写入剩余内容 之后的内容丢弃 唤醒等待的执行线程
+                buffers.forEach(s -> {
+                    try {
+                        write(this, s);
+                    } catch (Throwable e) {
+                        log.error("ExecLogWriter.WriterThread write error path: {}", s.getPath(), e);
+                    }
+                    s.discard();
+                    s.finish();
+                });
+                buffers.clear();
+            }
+        }
+
+        /**
+         * 唤醒写入线程
+         */
+        private synchronized void signal() {
+            this.signaled = true;
+            this.notifyAll();
+        }
+
+    }
+
+}
@@ -2,7 +2,9 @@ package com.orion.visor.module.asset.handler.host.terminal;
 
 import com.orion.visor.module.asset.define.AssetThreadPools;
 import com.orion.visor.module.asset.handler.host.terminal.enums.InputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.handler.ITerminalHandler;
 import com.orion.visor.module.asset.handler.host.terminal.manager.HostTerminalManager;
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
@@ -11,6 +13,7 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import javax.annotation.Resource;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * 终端处理器
@@ -23,6 +26,8 @@ import javax.annotation.Resource;
 @Component
 public class TerminalMessageDispatcher extends AbstractWebSocketHandler {
 
+    private static final String KEY_SEPARATOR = "|";
+
     @Resource
     private HostTerminalManager hostTerminalManager;
 
@@ -35,15 +40,24 @@ public class TerminalMessageDispatcher extends AbstractWebSocketHandler {
             if (type == null) {
                 return;
             }
-            // 解析并处理消息
+            // 解析消息
+            TerminalBasePayload body = type.parse(payload);
+            @SuppressWarnings("unchecked")
+            ITerminalHandler<TerminalBasePayload> handler = (ITerminalHandler<TerminalBasePayload>) type.getHandler();
             if (type.isAsyncExec()) {
-                // 异步执行
-                AssetThreadPools.TERMINAL_OPERATOR.execute(() -> {
-                    type.getHandler().handle(session, type.parse(payload));
-                });
+                // 异步执行 同一会话按顺序执行
+                String key = session.getId() + KEY_SEPARATOR + body.getSessionId();
+                handler.accept(session, body);
+                // 耗时操作使用阻塞操作线程池 避免占用操作线程
+                ThreadPoolExecutor executor = type.isBlockingExec()
+                        ? AssetThreadPools.TERMINAL_BLOCKING
+                        : AssetThreadPools.TERMINAL_OPERATOR;
+                AssetThreadPools.TERMINAL_OPERATOR_SERIAL.execute(key, executor, () -> {
+                    handler.handle(session, body);
+                }, () -> handler.reject(session, body));
             } else {
                 // 同步执行
-                type.getHandler().handle(session, type.parse(payload));
+                handler.handle(session, body);
             }
         } catch (Exception e) {
             log.error("TerminalDispatchHandler-handleMessage-error id: {}, msg: {}", session.getId(), payload, e);
@@ -64,7 +78,7 @@ public class TerminalMessageDispatcher extends AbstractWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         String id = session.getId();
         log.info("TerminalMessageDispatcher-afterConnectionClosed id: {}, code: {}, reason: {}", id, status.getCode(), status.getReason());
-        // 关闭会话
+        // 关闭会话 ssh 会话在保留时间内可恢复
         hostTerminalManager.closeSession(id);
     }
 
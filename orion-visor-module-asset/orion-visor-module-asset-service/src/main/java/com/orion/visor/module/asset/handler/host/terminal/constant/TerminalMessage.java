@@ -23,4 +23,8 @@ public interface TerminalMessage {
 
     String FORCED_OFFLINE = "forced offline.";
 
+    String SESSION_EXPIRED = "session expired.";
+
+    String FILE_TOO_LARGE = "file is too large to open in the editor.";
+
 }
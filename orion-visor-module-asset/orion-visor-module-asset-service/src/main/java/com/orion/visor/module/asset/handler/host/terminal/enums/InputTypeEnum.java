@@ -1,14 +1,15 @@
 package com.orion.visor.module.asset.handler.host.terminal.enums;
 
-import com.alibaba.fastjson.JSONObject;
 import com.orion.spring.SpringHolder;
 import com.orion.visor.module.asset.handler.host.terminal.handler.*;
 import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
 import com.orion.visor.module.asset.handler.host.terminal.model.request.*;
+import com.orion.visor.module.asset.handler.host.terminal.utils.PayloadSplitter;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.function.Function;
 
 /**
  * 输入操作类型枚举
@@ -24,8 +25,12 @@ public enum InputTypeEnum {
      */
     CHECK("ck",
             TerminalCheckHandler.class,
-            new String[]{"type", "sessionId", "hostId", "connectType"},
-            TerminalCheckRequest.class,
+            s -> TerminalCheckRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .hostId(s.nextLong())
+                    .connectType(s.rest())
+                    .build(),
             true),
 
     /**
@@ -33,8 +38,28 @@ public enum InputTypeEnum {
      */
     CONNECT("co",
             TerminalConnectHandler.class,
-            new String[]{"type", "sessionId", "terminalType", "cols", "rows"},
-            TerminalConnectRequest.class,
+            s -> TerminalConnectRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .terminalType(s.next())
+                    .cols(s.nextInteger())
+                    .rows(s.restInteger())
+                    .build(),
+            true,
+            true),
+
+    /**
+     * 恢复会话
+     */
+    RESUME("re",
+            TerminalResumeHandler.class,
+            s -> TerminalResumeRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .resumeToken(s.next())
+                    .cols(s.nextInteger())
+                    .rows(s.restInteger())
+                    .build(),
             true),
 
     /**
@@ -42,8 +67,10 @@ public enum InputTypeEnum {
      */
     CLOSE("cl",
             TerminalCloseHandler.class,
-            new String[]{"type", "sessionId"},
-            TerminalBasePayload.class,
+            s -> TerminalBasePayload.builder()
+                    .type(s.next())
+                    .sessionId(s.rest())
+                    .build(),
             true),
 
     /**
@@ -51,17 +78,33 @@ public enum InputTypeEnum {
      */
     PING("p",
             TerminalPingHandler.class,
-            new String[]{"type"},
-            TerminalBasePayload.class,
+            s -> TerminalBasePayload.builder()
+                    .type(s.rest())
+                    .build(),
             true),
 
+    /**
+     * 协商输出协议
+     */
+    NEGOTIATE("ng",
+            TerminalNegotiateHandler.class,
+            s -> TerminalNegotiateRequest.builder()
+                    .type(s.next())
+                    .protocol(s.rest())
+                    .build(),
+            false),
+
     /**
      * SSH 修改大小
      */
     SSH_RESIZE("rs",
             SshResizeHandler.class,
-            new String[]{"type", "sessionId", "cols", "rows"},
-            SshResizeRequest.class,
+            s -> SshResizeRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .cols(s.nextInteger())
+                    .rows(s.restInteger())
+                    .build(),
             true),
 
     /**
@@ -69,8 +112,11 @@ public enum InputTypeEnum {
      */
     SSH_INPUT("i",
             SshInputHandler.class,
-            new String[]{"type", "sessionId", "command"},
-            SshInputRequest.class,
+            s -> SshInputRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .command(s.rest())
+                    .build(),
             false),
 
     /**
@@ -78,8 +124,31 @@ public enum InputTypeEnum {
      */
     SFTP_LIST("ls",
             SftpListHandler.class,
-            new String[]{"type", "sessionId", "showHiddenFile", "path"},
-            SftpListRequest.class,
+            s -> SftpListRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .showHiddenFile(s.nextInteger())
+                    .refresh(s.nextInteger())
+                    .path(s.rest())
+                    .build(),
+            true),
+
+    /**
+     * SFTP 分页文件列表
+     */
+    SFTP_LIST_PAGE("lp",
+            SftpListPageHandler.class,
+            s -> SftpListPageRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .showHiddenFile(s.nextInteger())
+                    .refresh(s.nextInteger())
+                    .pageSize(s.nextInteger())
+                    .sort(s.next())
+                    .cursor(s.next())
+                    .keyword(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -87,8 +156,11 @@ public enum InputTypeEnum {
      */
     SFTP_MKDIR("mk",
             SftpMakeDirectoryHandler.class,
-            new String[]{"type", "sessionId", "path"},
-            SftpBaseRequest.class,
+            s -> SftpBaseRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -96,8 +168,11 @@ public enum InputTypeEnum {
      */
     SFTP_TOUCH("to",
             SftpTouchHandler.class,
-            new String[]{"type", "sessionId", "path"},
-            SftpBaseRequest.class,
+            s -> SftpBaseRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -105,8 +180,12 @@ public enum InputTypeEnum {
      */
     SFTP_MOVE("mv",
             SftpMoveHandler.class,
-            new String[]{"type", "sessionId", "path", "target"},
-            SftpMoveRequest.class,
+            s -> SftpMoveRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.next())
+                    .target(s.rest())
+                    .build(),
             true),
 
     /**
@@ -114,8 +193,11 @@ public enum InputTypeEnum {
      */
     SFTP_REMOVE("rm",
             SftpRemoveHandler.class,
-            new String[]{"type", "sessionId", "path"},
-            SftpBaseRequest.class,
+            s -> SftpBaseRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -123,8 +205,11 @@ public enum InputTypeEnum {
      */
     SFTP_TRUNCATE("tc",
             SftpTruncateHandler.class,
-            new String[]{"type", "sessionId", "path"},
-            SftpBaseRequest.class,
+            s -> SftpBaseRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -132,8 +217,12 @@ public enum InputTypeEnum {
      */
     SFTP_CHMOD("cm",
             SftpChangeModHandler.class,
-            new String[]{"type", "sessionId", "path", "mod"},
-            SftpChangeModRequest.class,
+            s -> SftpChangeModRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.next())
+                    .mod(s.restInteger())
+                    .build(),
             true),
 
     /**
@@ -141,8 +230,13 @@ public enum InputTypeEnum {
      */
     SFTP_DOWNLOAD_FLAT_DIRECTORY("df",
             SftpDownloadFlatDirectoryHandler.class,
-            new String[]{"type", "sessionId", "currentPath", "path"},
-            SftpDownloadFlatDirectoryRequest.class,
+            s -> SftpDownloadFlatDirectoryRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .currentPath(s.next())
+                    .path(s.rest())
+                    .build(),
+            true,
             true),
 
     /**
@@ -150,8 +244,11 @@ public enum InputTypeEnum {
      */
     SFTP_GET_CONTENT("gc",
             SftpGetContentHandler.class,
-            new String[]{"type", "sessionId", "path"},
-            SftpBaseRequest.class,
+            s -> SftpBaseRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.rest())
+                    .build(),
             true),
 
     /**
@@ -159,51 +256,120 @@ public enum InputTypeEnum {
      */
     SFTP_SET_CONTENT("sc",
             SftpSetContentHandler.class,
-            new String[]{"type", "sessionId", "path", "content"},
-            SftpSetContentRequest.class,
+            s -> SftpSetContentRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .path(s.next())
+                    .content(s.rest())
+                    .build(),
             true),
 
+    /**
+     * SFTP 范围读取内容
+     */
+    SFTP_READ_RANGE("rr",
+            SftpReadRangeHandler.class,
+            s -> SftpReadRangeRequest.builder()
+                    .type(s.next())
+                    .sessionId(s.next())
+                    .mode(s.next())
+                    .offset(s.nextLong())
+                    .length(s.nextLong())
+                    .path(s.rest())
+                    .build(),
+            true,
+            true),
+
+    /**
+     * SFTP 取消范围读取
+     */
+    SFTP_READ_CANCEL("rx",
+            SftpReadCancelHandler.class,
+            s -> TerminalBasePayload.builder()
+                    .type(s.next())
+                    .sessionId(s.rest())
+                    .build(),
+            false),
+
     ;
 
-    private static final char SEPARATOR = '|';
+    /**
+     * 类型分发表 首字符 -> 第二个字符 (单字符类型为 0)
+     */
+    private static final InputTypeEnum[][] DISPATCH_TABLE = new InputTypeEnum[128][];
+
+    static {
+        for (InputTypeEnum value : values()) {
+            String type = value.type;
+            if (type.isEmpty() || type.length() > 2) {
+                throw new IllegalStateException("illegal input type: " + type);
+            }
+            InputTypeEnum[] row = DISPATCH_TABLE[type.charAt(0)];
+            if (row == null) {
+                row = DISPATCH_TABLE[type.charAt(0)] = new InputTypeEnum[128];
+            }
+            row[type.length() == 1 ? 0 : type.charAt(1)] = value;
+        }
+    }
 
     @Getter
     private final String type;
 
     private final Class<? extends ITerminalHandler<? extends TerminalBasePayload>> handlerBean;
 
-    private final String[] payloadDefine;
-
-    private final Class<? extends TerminalBasePayload> payloadClass;
+    private final Function<PayloadSplitter, ? extends TerminalBasePayload> parser;
 
     @Getter
     private final boolean asyncExec;
 
+    /**
+     * 是否为耗时操作 使用阻塞操作线程池执行
+     */
+    @Getter
+    private final boolean blockingExec;
+
     @Getter
     private ITerminalHandler<? extends TerminalBasePayload> handler;
 
     <T extends TerminalBasePayload> InputTypeEnum(String type,
                                                   Class<? extends ITerminalHandler<T>> handlerBean,
-                                                  String[] payloadDefine,
-                                                  Class<T> payloadClass,
+                                                  Function<PayloadSplitter, T> parser,
                                                   boolean asyncExec) {
+        this(type, handlerBean, parser, asyncExec, false);
+    }
+
+    <T extends TerminalBasePayload> InputTypeEnum(String type,
+                                                  Class<? extends ITerminalHandler<T>> handlerBean,
+                                                  Function<PayloadSplitter, T> parser,
+                                                  boolean asyncExec,
+                                                  boolean blockingExec) {
         this.type = type;
         this.handlerBean = handlerBean;
-        this.payloadDefine = payloadDefine;
-        this.payloadClass = payloadClass;
+        this.parser = parser;
         this.asyncExec = asyncExec;
+        this.blockingExec = blockingExec;
     }
 
     public static InputTypeEnum of(String payload) {
-        if (payload == null) {
+        if (payload == null || payload.isEmpty()) {
             return null;
         }
-        for (InputTypeEnum value : values()) {
-            if (payload.startsWith(value.type + SEPARATOR) || payload.equals(value.type)) {
-                return value;
-            }
+        char first = payload.charAt(0);
+        if (first >= DISPATCH_TABLE.length || DISPATCH_TABLE[first] == null) {
+            return null;
+        }
+        InputTypeEnum[] row = DISPATCH_TABLE[first];
+        // 单字符类型
+        int len = payload.length();
+        if (len == 1 || payload.charAt(1) == PayloadSplitter.SEPARATOR) {
+            return row[0];
         }
-        return null;
+        // 双字符类型
+        char second = payload.charAt(1);
+        if (second >= row.length || (len > 2 && payload.charAt(2) != PayloadSplitter.SEPARATOR)) {
+            return null;
+        }
+        return row[second];
     }
 
     /**
@@ -215,29 +381,7 @@ public enum InputTypeEnum {
      */
     @SuppressWarnings("unchecked")
     public <T extends TerminalBasePayload> T parse(String payload) {
-        JSONObject object = new JSONObject();
-        int curr = 0;
-        int len = payload.length();
-        for (int i = 0, pl = payloadDefine.length; i < pl; i++) {
-            if (i == pl - 1) {
-                // 最后一次
-                object.put(payloadDefine[i], payload.substring(curr, len));
-            } else {
-                // 非最后一次
-                StringBuilder tmp = new StringBuilder();
-                for (; curr < len; curr++) {
-                    char c = payload.charAt(curr);
-                    if (c == SEPARATOR) {
-                        object.put(payloadDefine[i], tmp.toString());
-                        curr++;
-                        break;
-                    } else {
-                        tmp.append(c);
-                    }
-                }
-            }
-        }
-        return (T) object.toJavaObject(payloadClass);
+        return (T) parser.apply(new PayloadSplitter(payload));
     }
 
     /**
@@ -0,0 +1,66 @@
+package com.orion.visor.module.asset.handler.host.terminal.enums;
+
+import com.orion.visor.framework.websocket.core.utils.WebSockets;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 输出协议枚举
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 10:12
+ */
+@Getter
+@AllArgsConstructor
+public enum OutputProtocolEnum {
+
+    /**
+     * 文本协议 默认
+     * <p>
+     * o|sessionId|body
+     */
+    TEXT("text"),
+
+    /**
+     * 二进制协议
+     * <p>
+     * typeLength(1) type sessionIdLength(1) sessionId body
+     * 仅 UTF-8 编码的会话使用 其他会话仍使用文本协议
+     */
+    BINARY("binary"),
+
+    ;
+
+    /**
+     * channel 属性
+     */
+    public static final String ATTR = "outputProtocol";
+
+    private final String protocol;
+
+    public static OutputProtocolEnum of(String protocol) {
+        if (protocol == null) {
+            return TEXT;
+        }
+        for (OutputProtocolEnum value : values()) {
+            if (value.protocol.equals(protocol)) {
+                return value;
+            }
+        }
+        return TEXT;
+    }
+
+    /**
+     * 获取 channel 协商的输出协议
+     *
+     * @param channel channel
+     * @return protocol
+     */
+    public static OutputProtocolEnum of(WebSocketSession channel) {
+        OutputProtocolEnum protocol = WebSockets.getAttr(channel, ATTR);
+        return protocol == null ? TEXT : protocol;
+    }
+
+}
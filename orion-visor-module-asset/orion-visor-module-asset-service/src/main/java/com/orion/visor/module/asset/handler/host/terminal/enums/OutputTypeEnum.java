@@ -4,6 +4,10 @@ import com.orion.lang.utils.json.matcher.ReplacementFormatters;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * 输出操作类型枚举
  *
@@ -30,11 +34,26 @@ public enum OutputTypeEnum {
      */
     CLOSE("cl", "${type}|${sessionId}|${forceClose}|${msg}"),
 
+    /**
+     * 恢复会话
+     */
+    RESUME("re", "${type}|${sessionId}|${result}|${msg}"),
+
+    /**
+     * 恢复会话 token
+     */
+    RESUME_TOKEN("rt", "${type}|${sessionId}|${resumeToken}"),
+
     /**
      * pong
      */
     PONG("p", "${type}"),
 
+    /**
+     * 协商输出协议
+     */
+    NEGOTIATE("ng", "${type}|${protocol}"),
+
     /**
      * SSH 输出
      */
@@ -45,6 +64,11 @@ public enum OutputTypeEnum {
      */
     SFTP_LIST("ls", "${type}|${sessionId}|${path}|${result}|${body}"),
 
+    /**
+     * SFTP 分页文件列表
+     */
+    SFTP_LIST_PAGE("lp", "${type}|${sessionId}|${path}|${result}|${cursor}|${total}|${body}"),
+
     /**
      * SFTP 创建文件夹
      */
@@ -78,7 +102,7 @@ public enum OutputTypeEnum {
     /**
      * SFTP 下载文件夹展开文件
      */
-    SFTP_DOWNLOAD_FLAT_DIRECTORY("df", "${type}|${sessionId}|${currentPath}|${body}"),
+    SFTP_DOWNLOAD_FLAT_DIRECTORY("df", "${type}|${sessionId}|${currentPath}|${finished}|${body}"),
 
     /**
      * SFTP 获取文件内容
@@ -90,8 +114,15 @@ public enum OutputTypeEnum {
      */
     SFTP_SET_CONTENT("sc", "${type}|${sessionId}|${result}|${msg}"),
 
+    /**
+     * SFTP 范围读取内容
+     */
+    SFTP_READ_RANGE("rr", "${type}|${sessionId}|${path}|${result}|${msg}|${offset}|${fileSize}|${charset}|${finished}|${content}"),
+
     ;
 
+    private static final Pattern FIELD_PATTERN = Pattern.compile("\\$\\{(\\w+)}");
+
     private final String type;
 
     private final String template;
@@ -106,6 +137,79 @@ public enum OutputTypeEnum {
         return ReplacementFormatters.format(this.template, o);
     }
 
+    /**
+     * 格式化失败响应 result 为 0 finished 为 1 其他字段为空
+     *
+     * @param sessionId sessionId
+     * @param msg       msg
+     * @return 格式化
+     */
+    public String formatError(String sessionId, String msg) {
+        Matcher matcher = FIELD_PATTERN.matcher(template);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String value;
+            switch (matcher.group(1)) {
+                case "type":
+                    value = type;
+                    break;
+                case "sessionId":
+                    value = sessionId;
+                    break;
+                case "result":
+                    value = "0";
+                    break;
+                case "finished":
+                    value = "1";
+                    break;
+                case "msg":
+                    value = msg;
+                    break;
+                default:
+                    value = "";
+                    break;
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * 创建二进制帧头
+     * <p>
+     * typeLength(1) type sessionIdLength(1) sessionId
+     *
+     * @param sessionId sessionId
+     * @return header
+     */
+    public byte[] binaryHeader(String sessionId) {
+        byte[] typeBytes = this.type.getBytes(StandardCharsets.US_ASCII);
+        byte[] sessionIdBytes = sessionId.getBytes(StandardCharsets.US_ASCII);
+        byte[] header = new byte[typeBytes.length + sessionIdBytes.length + 2];
+        header[0] = (byte) typeBytes.length;
+        System.arraycopy(typeBytes, 0, header, 1, typeBytes.length);
+        header[typeBytes.length + 1] = (byte) sessionIdBytes.length;
+        System.arraycopy(sessionIdBytes, 0, header, typeBytes.length + 2, sessionIdBytes.length);
+        return header;
+    }
+
+    /**
+     * 创建二进制帧
+     *
+     * @param header header
+     * @param body   body
+     * @param offset offset
+     * @param length length
+     * @return frame
+     */
+    public static byte[] binaryFrame(byte[] header, byte[] body, int offset, int length) {
+        byte[] frame = new byte[header.length + length];
+        System.arraycopy(header, 0, frame, 0, header.length);
+        System.arraycopy(body, offset, frame, header.length, length);
+        return frame;
+    }
+
     public static OutputTypeEnum of(String type) {
         if (type == null) {
             return null;
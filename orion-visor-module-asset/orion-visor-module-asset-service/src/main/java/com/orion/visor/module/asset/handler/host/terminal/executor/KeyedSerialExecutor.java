@@ -0,0 +1,244 @@
+package com.orion.visor.module.asset.handler.host.terminal.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 key 串行的执行器
+ * <p>
+ * 相同 key 的任务按提交顺序依次执行 不同 key 共享有界的工作线程池
+ * 每个 key 每次只执行一个任务后重新排队 保证各 key 间公平调度
+ * 单个 key 排队任务数超出上限或线程池拒绝时 调用任务的拒绝回调
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 19:50
+ */
+@Slf4j
+public class KeyedSerialExecutor {
+
+    private final String name;
+
+    private final Executor workers;
+
+    private final int maxQueuedPerKey;
+
+    /**
+     * key -> 任务队列 队列为空时移除
+     */
+    private final Map<String, SerialQueue> queues;
+
+    private final AtomicInteger queued;
+
+    private final Counter submittedCounter;
+
+    private final Counter rejectedCounter;
+
+    private final Timer waitTimer;
+
+    public KeyedSerialExecutor(String name, Executor workers, int maxQueuedPerKey) {
+        this.name = name;
+        this.workers = workers;
+        this.maxQueuedPerKey = maxQueuedPerKey;
+        this.queues = new ConcurrentHashMap<>();
+        this.queued = new AtomicInteger();
+        this.submittedCounter = Counter.builder(name + ".submitted")
+                .register(Metrics.globalRegistry);
+        this.rejectedCounter = Counter.builder(name + ".rejected")
+                .register(Metrics.globalRegistry);
+        this.waitTimer = Timer.builder(name + ".wait")
+                .register(Metrics.globalRegistry);
+        Gauge.builder(name + ".queued", queued, AtomicInteger::get)
+                .register(Metrics.globalRegistry);
+        Gauge.builder(name + ".keys", queues, Map::size)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param key  key
+     * @param task task
+     * @return 是否提交成功 排队已满返回 false
+     */
+    public boolean execute(String key, Runnable task) {
+        return this.execute(key, workers, task, null);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param key        key
+     * @param executor   执行任务的线程池
+     * @param task       task
+     * @param onRejected 任务被拒绝时回调 可以为空
+     * @return 是否提交成功 排队已满返回 false
+     */
+    public boolean execute(String key, Executor executor, Runnable task, Runnable onRejected) {
+        QueuedTask queuedTask = new QueuedTask(executor, task, onRejected);
+        boolean[] result = new boolean[2];
+        queues.compute(key, (k, queue) -> {
+            if (queue == null) {
+                queue = new SerialQueue();
+            }
+            if (queue.tasks.size() >= maxQueuedPerKey) {
+                return queue;
+            }
+            queue.tasks.offer(queuedTask);
+            result[0] = true;
+            // 当前 key 没有执行中的任务 需要调度
+            if (!queue.scheduled) {
+                queue.scheduled = true;
+                result[1] = true;
+            }
+            return queue;
+        });
+        if (!result[0]) {
+            rejectedCounter.increment();
+            log.warn("{} reject task key: {}, maxQueued: {}", name, key, maxQueuedPerKey);
+            this.reject(queuedTask);
+            return false;
+        }
+        submittedCounter.increment();
+        queued.incrementAndGet();
+        if (result[1]) {
+            this.schedule(key);
+        }
+        return true;
+    }
+
+    /**
+     * 调度 key 的下一个任务
+     *
+     * @param key key
+     */
+    private void schedule(String key) {
+        // 使用下一个任务的线程池执行
+        Executor[] next = new Executor[]{workers};
+        queues.computeIfPresent(key, (k, queue) -> {
+            QueuedTask head = queue.tasks.peek();
+            if (head != null) {
+                next[0] = head.executor;
+            }
+            return queue;
+        });
+        Executor executor = next[0];
+        try {
+            executor.execute(() -> this.runNext(key));
+        } catch (RejectedExecutionException e) {
+            // 线程池拒绝 丢弃该 key 排队的任务
+            SerialQueue queue = queues.remove(key);
+            if (queue == null) {
+                return;
+            }
+            int dropped = queue.tasks.size();
+            queued.addAndGet(-dropped);
+            log.error("{} workers rejected key: {}, dropped: {}", name, key, dropped, e);
+            queue.tasks.forEach(this::reject);
+        }
+    }
+
+    /**
+     * 拒绝任务
+     *
+     * @param task task
+     */
+    private void reject(QueuedTask task) {
+        rejectedCounter.increment();
+        if (task.onRejected == null) {
+            return;
+        }
+        try {
+            task.onRejected.run();
+        } catch (Throwable e) {
+            log.error("{} rejected callback error", name, e);
+        }
+    }
+
+    /**
+     * 执行 key 的下一个任务
+     *
+     * @param key key
+     */
+    private void runNext(String key) {
+        QueuedTask[] next = new QueuedTask[1];
+        queues.computeIfPresent(key, (k, queue) -> {
+            next[0] = queue.tasks.poll();
+            // 队列为空 移除
+            return next[0] == null ? null : queue;
+        });
+        QueuedTask task = next[0];
+        if (task == null) {
+            return;
+        }
+        queued.decrementAndGet();
+        waitTimer.record(System.nanoTime() - task.submitTime, TimeUnit.NANOSECONDS);
+        try {
+            task.runnable.run();
+        } catch (Throwable e) {
+            log.error("{} task error key: {}", name, key, e);
+        } finally {
+            // 重新排队 让其他 key 的任务先执行
+            this.schedule(key);
+        }
+    }
+
+    /**
+     * 获取排队的任务数
+     *
+     * @return count
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * 串行任务队列
+     */
+    private static class SerialQueue {
+
+        private final Queue<QueuedTask> tasks;
+
+        private boolean scheduled;
+
+        private SerialQueue() {
+            this.tasks = new ArrayDeque<>();
+        }
+
+    }
+
+    /**
+     * 排队任务
+     */
+    private static class QueuedTask {
+
+        private final Executor executor;
+
+        private final Runnable runnable;
+
+        private final Runnable onRejected;
+
+        private final long submitTime;
+
+        private QueuedTask(Executor executor, Runnable runnable, Runnable onRejected) {
+            this.executor = executor;
+            this.runnable = runnable;
+            this.onRejected = onRejected;
+            this.submitTime = System.nanoTime();
+        }
+
+    }
+
+}
@@ -46,6 +46,16 @@ public abstract class AbstractTerminalHandler<T extends TerminalBasePayload> imp
         this.send(channel, type.format(body));
     }
 
+    @Override
+    public void reject(WebSocketSession channel, T payload) {
+        OutputTypeEnum type = OutputTypeEnum.of(payload.getType());
+        if (type == null) {
+            return;
+        }
+        // 返回失败响应
+        this.send(channel, type.formatError(payload.getSessionId(), ErrorMessage.SYSTEM_BUSY));
+    }
+
     /**
      * 发送消息
      *
@@ -20,4 +20,22 @@ public interface ITerminalHandler<T extends TerminalBasePayload> {
      */
     void handle(WebSocketSession channel, T payload);
 
+    /**
+     * 接收消息 异步执行的消息在排队前调用
+     *
+     * @param channel channel
+     * @param payload payload
+     */
+    default void accept(WebSocketSession channel, T payload) {
+    }
+
+    /**
+     * 拒绝消息 异步执行的消息排队已满或线程池繁忙时调用
+     *
+     * @param channel channel
+     * @param payload payload
+     */
+    default void reject(WebSocketSession channel, T payload) {
+    }
+
 }
@@ -3,6 +3,7 @@ package com.orion.visor.module.asset.handler.host.terminal.handler;
 import com.alibaba.fastjson.JSON;
 import com.orion.lang.utils.collect.Lists;
 import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
 import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
 import com.orion.visor.module.asset.handler.host.terminal.model.request.SftpDownloadFlatDirectoryRequest;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpDownloadFlatDirectoryResponse;
@@ -12,11 +13,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketSession;
 
+import javax.annotation.Resource;
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * sftp 下载文件夹展开文件
+ * <p>
+ * 并行遍历文件夹 读取到的文件按批次返回 最后一批 finished 为 1
  *
  * @author Jiahang Li
  * @version 1.0.0
@@ -26,6 +30,9 @@ import java.util.List;
 @Component
 public class SftpDownloadFlatDirectoryHandler extends AbstractTerminalHandler<SftpDownloadFlatDirectoryRequest> {
 
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
     @Override
     public void handle(WebSocketSession channel, SftpDownloadFlatDirectoryRequest payload) {
         // 获取会话
@@ -34,21 +41,41 @@ public class SftpDownloadFlatDirectoryHandler extends AbstractTerminalHandler<Sf
         String[] paths = payload.getPath().split("\\|");
         log.info("SftpDownloadFlatDirectoryHandler-handle start sessionId: {}, paths: {}", sessionId, Arrays.toString(paths));
         Exception ex = null;
-        List<SftpFileVO> files = Lists.empty();
         // 展开文件夹内的全部文件
         try {
-            files = session.flatDirectory(paths);
+            session.flatDirectory(paths,
+                    appSftpConfig.getFlatDirectoryParallelism(),
+                    appSftpConfig.getFlatDirectoryBatchSize(),
+                    files -> this.sendFiles(channel, payload, files, false, null));
             log.info("SftpDownloadFlatDirectoryHandler-handle success sessionId: {}, paths: {}", sessionId, Arrays.toString(paths));
         } catch (Exception e) {
             log.error("SftpDownloadFlatDirectoryHandler-handle error sessionId: {}", sessionId, e);
             ex = e;
         }
-        // 返回
+        // 结束
+        this.sendFiles(channel, payload, Lists.empty(), true, ex);
+    }
+
+    /**
+     * 返回一批文件
+     *
+     * @param channel  channel
+     * @param payload  payload
+     * @param files    files
+     * @param finished finished
+     * @param ex       ex
+     */
+    private void sendFiles(WebSocketSession channel,
+                           SftpDownloadFlatDirectoryRequest payload,
+                           List<SftpFileVO> files,
+                           boolean finished,
+                           Exception ex) {
         this.send(channel,
                 OutputTypeEnum.SFTP_DOWNLOAD_FLAT_DIRECTORY,
                 SftpDownloadFlatDirectoryResponse.builder()
-                        .sessionId(sessionId)
+                        .sessionId(payload.getSessionId())
                         .currentPath(payload.getCurrentPath())
+                        .finished(BooleanBit.of(finished).getValue())
                         .body(JSON.toJSONString(files))
                         .result(BooleanBit.of(ex == null).getValue())
                         .msg(this.getErrorMessage(ex))
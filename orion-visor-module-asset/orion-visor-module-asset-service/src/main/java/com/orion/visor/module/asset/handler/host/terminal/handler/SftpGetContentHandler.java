@@ -2,14 +2,20 @@ package com.orion.visor.module.asset.handler.host.terminal.handler;
 
 import com.orion.visor.framework.common.constant.Const;
 import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.framework.common.utils.Valid;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.handler.host.terminal.constant.TerminalMessage;
 import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
 import com.orion.visor.module.asset.handler.host.terminal.model.request.SftpBaseRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpGetContentResponse;
 import com.orion.visor.module.asset.handler.host.terminal.session.ISftpSession;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketSession;
 
+import javax.annotation.Resource;
+
 /**
  * sftp 获取文件内容
  *
@@ -21,6 +27,9 @@ import org.springframework.web.socket.WebSocketSession;
 @Component
 public class SftpGetContentHandler extends AbstractTerminalHandler<SftpBaseRequest> {
 
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
     @Override
     public void handle(WebSocketSession channel, SftpBaseRequest payload) {
         // 获取会话
@@ -32,6 +41,9 @@ public class SftpGetContentHandler extends AbstractTerminalHandler<SftpBaseReque
         Exception ex = null;
         // 获取内容
         try {
+            // 编辑器只打开不超过最大字节数的文件
+            SftpFileVO file = session.getFile(path);
+            Valid.isTrue(file == null || file.getSize() <= appSftpConfig.getViewMaxBytes(), TerminalMessage.FILE_TOO_LARGE);
             content = session.getContent(path);
             log.info("SftpGetContentHandler-handle success sessionId: {}, path: {}", sessionId, path);
         } catch (Exception e) {
@@ -42,7 +42,9 @@ public class SftpListHandler extends AbstractTerminalHandler<SftpListRequest> {
                 path = session.getHome();
             }
             // 文件列表
-            list = session.list(path, BooleanBit.toBoolean(payload.getShowHiddenFile()));
+            list = session.list(path,
+                    BooleanBit.toBoolean(payload.getShowHiddenFile()),
+                    BooleanBit.toBoolean(payload.getRefresh()));
             log.info("SftpListHandler-handle success sessionId: {}, path: {}", sessionId, path);
         } catch (Exception e) {
             log.error("SftpListHandler-handle error sessionId: {}", sessionId, e);
@@ -0,0 +1,259 @@
+package com.orion.visor.module.asset.handler.host.terminal.handler;
+
+import com.alibaba.fastjson.JSON;
+import com.orion.lang.id.UUIds;
+import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.collect.Lists;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpListSnapshot;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.SftpListPageRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpListPageResponse;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISftpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * sftp 分页文件列表
+ * <p>
+ * 第一次请求读取目录并保存快照 之后通过游标从快照中翻页
+ * 不排序时读取满一页立即返回第一页 第一页同时受最大字节数限制
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:00
+ */
+@Slf4j
+@Component
+public class SftpListPageHandler extends AbstractTerminalHandler<SftpListPageRequest> {
+
+    private static final String HOME_PATH = "~";
+
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private static final String DESC_PREFIX = "-";
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private static final int LOADING = -1;
+
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
+    @Override
+    public void handle(WebSocketSession channel, SftpListPageRequest payload) {
+        // 获取会话
+        String sessionId = payload.getSessionId();
+        ISftpSession session = hostTerminalManager.getSession(channel.getId(), sessionId);
+        String path = payload.getPath();
+        String cursor = payload.getCursor();
+        int pageSize = this.getPageSize(payload.getPageSize());
+        log.info("SftpListPageHandler-handle start sessionId: {}, path: {}, cursor: {}", sessionId, path, cursor);
+        try {
+            if (!Strings.isBlank(cursor)) {
+                // 游标翻页
+                this.sendNextPage(channel, session, sessionId, path, cursor, pageSize);
+                return;
+            }
+            // 空目录则直接获取 home 目录
+            if (HOME_PATH.equals(path)) {
+                path = session.getHome();
+            }
+            this.listAndSendFirstPage(channel, session, payload, path, pageSize);
+            log.info("SftpListPageHandler-handle success sessionId: {}, path: {}", sessionId, path);
+        } catch (Exception e) {
+            log.error("SftpListPageHandler-handle error sessionId: {}", sessionId, e);
+            this.sendError(channel, sessionId, path);
+        }
+    }
+
+    /**
+     * 读取目录并返回第一页
+     *
+     * @param channel  channel
+     * @param session  session
+     * @param payload  payload
+     * @param path     path
+     * @param pageSize pageSize
+     */
+    private void listAndSendFirstPage(WebSocketSession channel,
+                                      ISftpSession session,
+                                      SftpListPageRequest payload,
+                                      String path,
+                                      int pageSize) {
+        String sessionId = payload.getSessionId();
+        String keyword = Strings.isBlank(payload.getKeyword()) ? null : payload.getKeyword().toLowerCase();
+        Comparator<SftpFileVO> comparator = this.getComparator(payload.getSort());
+        SftpListSnapshot snapshot = new SftpListSnapshot(UUIds.random19(), path);
+        List<SftpFileVO> files = snapshot.getFiles();
+        boolean[] firstSent = new boolean[1];
+        session.list(path,
+                BooleanBit.toBoolean(payload.getShowHiddenFile()),
+                BooleanBit.toBoolean(payload.getRefresh()),
+                file -> {
+                    if (keyword != null && !file.getName().toLowerCase().contains(keyword)) {
+                        return;
+                    }
+                    files.add(file);
+                    // 不排序时读取满一页立即返回
+                    if (comparator == null && !firstSent[0] && files.size() >= pageSize) {
+                        firstSent[0] = true;
+                        this.sendPage(channel, sessionId, snapshot, 0, pageSize, LOADING, true);
+                    }
+                });
+        if (comparator != null) {
+            files.sort(comparator);
+        }
+        session.putListSnapshot(snapshot);
+        if (!firstSent[0]) {
+            this.sendPage(channel, sessionId, snapshot, 0, pageSize, files.size(), true);
+        }
+    }
+
+    /**
+     * 返回游标的下一页
+     *
+     * @param channel   channel
+     * @param session   session
+     * @param sessionId sessionId
+     * @param path      path
+     * @param cursor    cursor
+     * @param pageSize  pageSize
+     */
+    private void sendNextPage(WebSocketSession channel,
+                              ISftpSession session,
+                              String sessionId,
+                              String path,
+                              String cursor,
+                              int pageSize) {
+        String[] parts = cursor.split(CURSOR_SEPARATOR);
+        SftpListSnapshot snapshot = parts.length == 2 ? session.getListSnapshot(parts[0]) : null;
+        if (snapshot == null) {
+            // 快照已过期
+            log.info("SftpListPageHandler-sendNextPage expired sessionId: {}, cursor: {}", sessionId, cursor);
+            this.sendError(channel, sessionId, path);
+            return;
+        }
+        int offset = Integer.parseInt(parts[1]);
+        this.sendPage(channel, sessionId, snapshot, offset, pageSize, snapshot.getFiles().size(), false);
+    }
+
+    /**
+     * 返回一页
+     *
+     * @param channel   channel
+     * @param sessionId sessionId
+     * @param snapshot  snapshot
+     * @param offset    offset
+     * @param pageSize  pageSize
+     * @param total     总数 读取中为 -1
+     * @param firstPage 是否为第一页
+     */
+    private void sendPage(WebSocketSession channel,
+                          String sessionId,
+                          SftpListSnapshot snapshot,
+                          int offset,
+                          int pageSize,
+                          int total,
+                          boolean firstPage) {
+        List<SftpFileVO> files = snapshot.getFiles();
+        int size = files.size();
+        int end = Math.min(Math.max(offset, 0) + pageSize, size);
+        offset = Math.min(Math.max(offset, 0), end);
+        // 第一页限制字节数
+        if (firstPage) {
+            int bytes = 0;
+            for (int i = offset; i < end; i++) {
+                bytes += JSON.toJSONString(files.get(i)).length();
+                if (bytes > appSftpConfig.getListFirstPageMaxBytes() && i > offset) {
+                    end = i;
+                    break;
+                }
+            }
+        }
+        List<SftpFileVO> page = new ArrayList<>(files.subList(offset, end));
+        String nextCursor = total == LOADING || end < size
+                ? snapshot.getId() + CURSOR_SEPARATOR + end
+                : Const.EMPTY;
+        this.send(channel,
+                OutputTypeEnum.SFTP_LIST_PAGE,
+                SftpListPageResponse.builder()
+                        .sessionId(sessionId)
+                        .result(BooleanBit.TRUE.getValue())
+                        .path(snapshot.getPath())
+                        .cursor(nextCursor)
+                        .total(total)
+                        .body(JSON.toJSONString(page))
+                        .build());
+    }
+
+    /**
+     * 返回失败
+     *
+     * @param channel   channel
+     * @param sessionId sessionId
+     * @param path      path
+     */
+    private void sendError(WebSocketSession channel, String sessionId, String path) {
+        this.send(channel,
+                OutputTypeEnum.SFTP_LIST_PAGE,
+                SftpListPageResponse.builder()
+                        .sessionId(sessionId)
+                        .result(BooleanBit.FALSE.getValue())
+                        .path(path)
+                        .cursor(Const.EMPTY)
+                        .total(0)
+                        .body(JSON.toJSONString(Lists.empty()))
+                        .build());
+    }
+
+    /**
+     * 获取每页数量
+     *
+     * @param pageSize pageSize
+     * @return pageSize
+     */
+    private int getPageSize(Integer pageSize) {
+        if (pageSize == null || pageSize <= 0) {
+            return appSftpConfig.getListPageSize();
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * 获取排序
+     *
+     * @param sort sort
+     * @return comparator 不排序返回 null
+     */
+    private Comparator<SftpFileVO> getComparator(String sort) {
+        if (Strings.isBlank(sort)) {
+            return null;
+        }
+        boolean desc = sort.startsWith(DESC_PREFIX);
+        String field = desc ? sort.substring(1) : sort;
+        Comparator<SftpFileVO> comparator;
+        switch (field) {
+            case "size":
+                comparator = Comparator.comparing(SftpFileVO::getSize, Comparator.nullsFirst(Comparator.naturalOrder()));
+                break;
+            case "modifyTime":
+                comparator = Comparator.comparing(SftpFileVO::getModifyTime, Comparator.nullsFirst(Comparator.naturalOrder()));
+                break;
+            default:
+                comparator = Comparator.comparing(SftpFileVO::getName);
+                break;
+        }
+        return desc ? comparator.reversed() : comparator;
+    }
+
+}
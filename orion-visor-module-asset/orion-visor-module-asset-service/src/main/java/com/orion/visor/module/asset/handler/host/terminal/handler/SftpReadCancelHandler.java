@@ -0,0 +1,32 @@
+package com.orion.visor.module.asset.handler.host.terminal.handler;
+
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISftpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * sftp 取消范围读取
+ * <p>
+ * 同步执行 不等待会话中正在执行的读取
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+@Slf4j
+@Component
+public class SftpReadCancelHandler extends AbstractTerminalHandler<TerminalBasePayload> {
+
+    @Override
+    public void handle(WebSocketSession channel, TerminalBasePayload payload) {
+        String sessionId = payload.getSessionId();
+        log.info("SftpReadCancelHandler-handle sessionId: {}", sessionId);
+        ISftpSession session = hostTerminalManager.getSession(channel.getId(), sessionId);
+        if (session != null) {
+            session.cancelRead();
+        }
+    }
+
+}
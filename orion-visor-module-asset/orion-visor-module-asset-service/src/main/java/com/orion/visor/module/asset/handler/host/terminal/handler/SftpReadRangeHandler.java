@@ -0,0 +1,107 @@
+package com.orion.visor.module.asset.handler.host.terminal.handler;
+
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpReadChunk;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.SftpReadRangeRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpReadRangeResponse;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISftpSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import javax.annotation.Resource;
+
+/**
+ * sftp 范围读取文件内容
+ * <p>
+ * 支持读取开头 末尾 或指定范围 读取长度不超过配置的最大字节数 内容按块返回
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+@Slf4j
+@Component
+public class SftpReadRangeHandler extends AbstractTerminalHandler<SftpReadRangeRequest> {
+
+    private static final String MODE_TAIL = "tail";
+
+    private static final String MODE_RANGE = "range";
+
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
+    @Override
+    public void accept(WebSocketSession channel, SftpReadRangeRequest payload) {
+        // 接收时生成序号 排队期间的取消同样生效
+        ISftpSession session = hostTerminalManager.getSession(channel.getId(), payload.getSessionId());
+        if (session != null) {
+            payload.setReadId(session.acceptRead());
+        }
+    }
+
+    @Override
+    public void handle(WebSocketSession channel, SftpReadRangeRequest payload) {
+        // 获取会话
+        String sessionId = payload.getSessionId();
+        ISftpSession session = hostTerminalManager.getSession(channel.getId(), sessionId);
+        String path = payload.getPath();
+        String mode = payload.getMode();
+        long maxBytes = appSftpConfig.getViewMaxBytes();
+        long length = payload.getLength() == null || payload.getLength() <= 0
+                ? maxBytes
+                : Math.min(payload.getLength(), maxBytes);
+        long offset = MODE_RANGE.equals(mode) && payload.getOffset() != null ? payload.getOffset() : 0L;
+        log.info("SftpReadRangeHandler-handle start sessionId: {}, path: {}, mode: {}, offset: {}, length: {}",
+                sessionId, path, mode, offset, length);
+        try {
+            long readId = payload.getReadId() == null ? session.acceptRead() : payload.getReadId();
+            session.readRange(readId, path, offset, length, MODE_TAIL.equals(mode), appSftpConfig.getViewChunkSize(),
+                    chunk -> this.sendChunk(channel, sessionId, path, chunk));
+            log.info("SftpReadRangeHandler-handle success sessionId: {}, path: {}", sessionId, path);
+        } catch (Exception e) {
+            log.error("SftpReadRangeHandler-handle error sessionId: {}", sessionId, e);
+            this.send(channel,
+                    OutputTypeEnum.SFTP_READ_RANGE,
+                    SftpReadRangeResponse.builder()
+                            .sessionId(sessionId)
+                            .result(BooleanBit.FALSE.getValue())
+                            .msg(this.getErrorMessage(e))
+                            .path(path)
+                            .offset(offset)
+                            .fileSize(0L)
+                            .charset(Const.EMPTY)
+                            .finished(BooleanBit.TRUE.getValue())
+                            .content(Const.EMPTY)
+                            .build());
+        }
+    }
+
+    /**
+     * 返回一块内容
+     *
+     * @param channel   channel
+     * @param sessionId sessionId
+     * @param path      path
+     * @param chunk     chunk
+     */
+    private void sendChunk(WebSocketSession channel, String sessionId, String path, SftpReadChunk chunk) {
+        this.send(channel,
+                OutputTypeEnum.SFTP_READ_RANGE,
+                SftpReadRangeResponse.builder()
+                        .sessionId(sessionId)
+                        .result(BooleanBit.TRUE.getValue())
+                        .msg(Const.EMPTY)
+                        .path(path)
+                        .offset(chunk.getOffset())
+                        .fileSize(chunk.getFileSize())
+                        .charset(chunk.getCharset())
+                        .finished(BooleanBit.of(chunk.isFinished()).getValue())
+                        .content(chunk.getContent())
+                        .build());
+    }
+
+}
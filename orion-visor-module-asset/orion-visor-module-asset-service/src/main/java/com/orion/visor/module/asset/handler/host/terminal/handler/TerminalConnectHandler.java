@@ -7,10 +7,15 @@ import com.orion.lang.utils.Exceptions;
 import com.orion.lang.utils.collect.Maps;
 import com.orion.lang.utils.io.Streams;
 import com.orion.net.host.SessionStore;
+import com.orion.visor.framework.common.annotation.Keep;
 import com.orion.visor.framework.common.constant.ErrorMessage;
 import com.orion.visor.framework.common.constant.ExtraFieldConst;
+import com.orion.visor.framework.common.constant.PathConst;
 import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.framework.common.file.FileClient;
 import com.orion.visor.framework.websocket.core.utils.WebSockets;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.define.config.AppTerminalConfig;
 import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
 import com.orion.visor.module.asset.enums.HostConnectStatusEnum;
 import com.orion.visor.module.asset.enums.HostConnectTypeEnum;
@@ -19,6 +24,8 @@ import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
 import com.orion.visor.module.asset.handler.host.terminal.model.TerminalConfig;
 import com.orion.visor.module.asset.handler.host.terminal.model.request.TerminalConnectRequest;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.TerminalConnectResponse;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.TerminalResumeTokenResponse;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISshSession;
 import com.orion.visor.module.asset.handler.host.terminal.session.ITerminalSession;
 import com.orion.visor.module.asset.handler.host.terminal.session.SftpSession;
 import com.orion.visor.module.asset.handler.host.terminal.session.SshSession;
@@ -42,12 +49,22 @@ import java.util.Map;
 @Component
 public class TerminalConnectHandler extends AbstractTerminalHandler<TerminalConnectRequest> {
 
+    @Resource
+    private AppTerminalConfig appTerminalConfig;
+
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
     @Resource
     private HostTerminalService hostTerminalService;
 
     @Resource
     private HostConnectLogService hostConnectLogService;
 
+    @Keep
+    @Resource
+    private FileClient logsFileClient;
+
     @Override
     public void handle(WebSocketSession channel, TerminalConnectRequest payload) {
         String sessionId = payload.getSessionId();
@@ -68,9 +85,10 @@ public class TerminalConnectHandler extends AbstractTerminalHandler<TerminalConn
         // 移除会话连接信息
         channel.getAttributes().remove(sessionId);
         Exception ex = null;
+        ITerminalSession session = null;
         try {
             // 连接主机
-            ITerminalSession session = this.connect(sessionId, connect, channel, payload);
+            session = this.connect(sessionId, connect, channel, payload);
             // 添加会话到 manager
             hostTerminalManager.addSession(session);
         } catch (Exception e) {
@@ -88,6 +106,15 @@ public class TerminalConnectHandler extends AbstractTerminalHandler<TerminalConn
                         .result(BooleanBit.of(ex == null).getValue())
                         .msg(this.getConnectErrorMessage(ex))
                         .build());
+        // 开启断线恢复时返回恢复会话 token
+        if (session instanceof ISshSession && appTerminalConfig.getResumeGracePeriod() > 0) {
+            this.send(channel,
+                    OutputTypeEnum.RESUME_TOKEN,
+                    TerminalResumeTokenResponse.builder()
+                            .sessionId(sessionId)
+                            .resumeToken(((ISshSession) session).getResumeToken())
+                            .build());
+        }
     }
 
     /**
@@ -105,25 +132,47 @@ public class TerminalConnectHandler extends AbstractTerminalHandler<TerminalConn
                                      TerminalConnectRequest body) {
         String connectType = connect.getConnectType();
         ITerminalSession session = null;
+        SessionStore sessionStore = null;
         try {
             // 连接配置
             TerminalConfig config = TerminalConfig.builder()
                     .logId(connect.getLogId())
+                    .userId(WebSockets.getAttr(channel, ExtraFieldConst.USER_ID))
                     .hostId(connect.getHostId())
                     .hostName(connect.getHostName())
                     .address(connect.getHostAddress())
                     .charset(connect.getCharset())
                     .fileNameCharset(connect.getFileNameCharset())
                     .fileContentCharset(connect.getFileContentCharset())
+                    .outputMergeWindow(appTerminalConfig.getOutputMergeWindow())
+                    .outputMergeMaxSize(appTerminalConfig.getOutputMergeMaxSize())
+                    .outputBufferHighWatermark(appTerminalConfig.getOutputBufferHighWatermark())
+                    .outputBufferLowWatermark(appTerminalConfig.getOutputBufferLowWatermark())
+                    .resumeBufferSize(appTerminalConfig.getResumeBufferSize())
+                    .recordBufferSize(appTerminalConfig.getRecordBufferSize())
                     .build();
             // 建立连接
-            SessionStore sessionStore = hostTerminalService.openSessionStore(connect);
+            sessionStore = hostTerminalService.openSharedSessionStore(connect);
             if (HostConnectTypeEnum.SSH.name().equals(connectType)) {
+                // 录屏
+                if (Boolean.TRUE.equals(appTerminalConfig.getRecordEnabled())) {
+                    config.setRecordPath(this.buildRecordPath(connect.getLogId()));
+                }
                 // 打开 ssh 会话
                 SshSession sshSession = new SshSession(sessionId, channel, sessionStore, config);
                 sshSession.connect(body.getTerminalType(), body.getCols(), body.getRows());
                 session = sshSession;
+                // 关联录屏文件
+                if (config.getRecordPath() != null) {
+                    Map<String, Object> extra = Maps.newMap(4);
+                    extra.put(ExtraFieldConst.RECORD_PATH, config.getRecordPath());
+                    hostConnectLogService.updateExtraById(connect.getLogId(), extra);
+                }
             } else if (HostConnectTypeEnum.SFTP.name().equals(connectType)) {
+                // 元数据缓存
+                if (Boolean.TRUE.equals(appSftpConfig.getCacheEnabled())) {
+                    config.setSftpCacheTtl(appSftpConfig.getCacheTtl() * 1000L);
+                }
                 // 打开 sftp 会话
                 SftpSession sftpSession = new SftpSession(sessionId, channel, sessionStore, config);
                 sftpSession.connect();
@@ -132,12 +181,27 @@ public class TerminalConnectHandler extends AbstractTerminalHandler<TerminalConn
             log.info("TerminalConnectHandler-handle success sessionId: {}", sessionId);
             return session;
         } catch (Exception e) {
-            Streams.close(session);
+            if (session == null) {
+                hostTerminalService.releaseSessionStore(sessionStore);
+            } else {
+                Streams.close(session);
+            }
             log.error("TerminalConnectHandler-handle error sessionId: {}", sessionId, e);
             throw e;
         }
     }
 
+    /**
+     * 构建录屏文件路径
+     *
+     * @param logId logId
+     * @return path
+     */
+    private String buildRecordPath(Long logId) {
+        String recordFile = "/" + PathConst.TERMINAL + "/" + logId + ".cast";
+        return logsFileClient.getReturnPath(recordFile);
+    }
+
     /**
      * 获取建立连接错误信息
      *
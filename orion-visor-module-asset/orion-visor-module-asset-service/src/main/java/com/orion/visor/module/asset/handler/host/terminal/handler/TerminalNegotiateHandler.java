@@ -0,0 +1,36 @@
+package com.orion.visor.module.asset.handler.host.terminal.handler;
+
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputProtocolEnum;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.TerminalNegotiateRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.TerminalNegotiateResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 终端协议协商处理器
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 10:12
+ */
+@Slf4j
+@Component
+public class TerminalNegotiateHandler extends AbstractTerminalHandler<TerminalNegotiateRequest> {
+
+    @Override
+    public void handle(WebSocketSession channel, TerminalNegotiateRequest payload) {
+        // 未知协议回退为文本协议
+        OutputProtocolEnum protocol = OutputProtocolEnum.of(payload.getProtocol());
+        channel.getAttributes().put(OutputProtocolEnum.ATTR, protocol);
+        log.info("TerminalNegotiateHandler-handle channelId: {}, request: {}, protocol: {}", channel.getId(), payload.getProtocol(), protocol);
+        // 响应生效的协议
+        this.send(channel,
+                OutputTypeEnum.NEGOTIATE,
+                TerminalNegotiateResponse.builder()
+                        .protocol(protocol.getProtocol())
+                        .build());
+    }
+
+}
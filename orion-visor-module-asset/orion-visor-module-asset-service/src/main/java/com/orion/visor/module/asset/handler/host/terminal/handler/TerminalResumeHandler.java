@@ -0,0 +1,58 @@
+package com.orion.visor.module.asset.handler.host.terminal.handler;
+
+import com.orion.visor.framework.common.constant.ExtraFieldConst;
+import com.orion.visor.framework.common.enums.BooleanBit;
+import com.orion.visor.framework.websocket.core.utils.WebSockets;
+import com.orion.visor.module.asset.handler.host.terminal.constant.TerminalMessage;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.TerminalResumeRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.TerminalConnectResponse;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISshSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * 恢复会话处理器
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 19:20
+ */
+@Slf4j
+@Component
+public class TerminalResumeHandler extends AbstractTerminalHandler<TerminalResumeRequest> {
+
+    @Override
+    public void handle(WebSocketSession channel, TerminalResumeRequest payload) {
+        String sessionId = payload.getSessionId();
+        Long userId = WebSockets.getAttr(channel, ExtraFieldConst.USER_ID);
+        log.info("TerminalResumeHandler-handle start sessionId: {}, userId: {}", sessionId, userId);
+        ISshSession session = hostTerminalManager.takeDetachedSession(sessionId, payload.getResumeToken(), userId);
+        if (session == null) {
+            log.info("TerminalResumeHandler-handle expired sessionId: {}", sessionId);
+            this.send(channel,
+                    OutputTypeEnum.RESUME,
+                    TerminalConnectResponse.builder()
+                            .sessionId(sessionId)
+                            .result(BooleanBit.FALSE.getValue())
+                            .msg(TerminalMessage.SESSION_EXPIRED)
+                            .build());
+            return;
+        }
+        // 先响应结果 再回放断开期间的输出
+        this.send(channel,
+                OutputTypeEnum.RESUME,
+                TerminalConnectResponse.builder()
+                        .sessionId(sessionId)
+                        .result(BooleanBit.TRUE.getValue())
+                        .build());
+        hostTerminalManager.reattachSession(channel, session);
+        // 同步窗口大小
+        if (payload.getCols() != null && payload.getRows() != null) {
+            session.resize(payload.getCols(), payload.getRows());
+        }
+        log.info("TerminalResumeHandler-handle success sessionId: {}", sessionId);
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.orion.visor.module.asset.handler.host.terminal.manager;
+
+import com.orion.lang.utils.crypto.Signatures;
+import com.orion.lang.utils.io.Streams;
+import com.orion.net.host.SessionStore;
+import com.orion.visor.module.asset.define.config.AppConnectionConfig;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 主机连接管理器
+ * <p>
+ * 相同主机 用户名 凭证的会话共享同一个连接 引用计数归零时关闭连接
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 16:40
+ */
+@Slf4j
+@Component
+public class HostConnectionManager {
+
+    private static final String SEPARATOR = "|";
+
+    @Resource
+    private AppConnectionConfig appConnectionConfig;
+
+    /**
+     * 连接key -> 共享连接
+     */
+    private final Map<String, SharedConnection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * 会话 -> 共享连接
+     */
+    private final Map<SessionStore, SharedConnection> sessionConnections = new ConcurrentHashMap<>();
+
+    /**
+     * 获取连接 存在可用的共享连接则直接复用
+     *
+     * @param conn   conn
+     * @param opener 打开连接
+     * @return sessionStore
+     */
+    public SessionStore acquire(HostTerminalConnectDTO conn, Function<HostTerminalConnectDTO, SessionStore> opener) {
+        if (!Boolean.TRUE.equals(appConnectionConfig.getShared())) {
+            return opener.apply(conn);
+        }
+        String key = getConnectionKey(conn);
+        SharedConnection connection = connections.computeIfAbsent(key, k -> new SharedConnection(k, conn.getHostId()));
+        synchronized (connection) {
+            // 通道数已满 使用独立连接
+            if (connection.isAlive() && connection.references >= appConnectionConfig.getMaxChannels()) {
+                log.info("HostConnectionManager-acquire channels full hostId: {}, references: {}", conn.getHostId(), connection.references);
+                return opener.apply(conn);
+            }
+            if (!connection.isAlive()) {
+                // 打开新连接
+                if (connection.sessionStore != null) {
+                    sessionConnections.remove(connection.sessionStore);
+                    Streams.close(connection.sessionStore);
+                }
+                connection.sessionStore = opener.apply(conn);
+                connection.references = 0;
+                connection.closed = false;
+                sessionConnections.put(connection.sessionStore, connection);
+                connections.put(key, connection);
+            } else {
+                log.info("HostConnectionManager-acquire reuse hostId: {}, references: {}", conn.getHostId(), connection.references);
+            }
+            connection.references++;
+            return connection.sessionStore;
+        }
+    }
+
+    /**
+     * 释放连接 引用计数归零时关闭
+     *
+     * @param sessionStore sessionStore
+     */
+    public void release(SessionStore sessionStore) {
+        if (sessionStore == null) {
+            return;
+        }
+        SharedConnection connection = sessionConnections.get(sessionStore);
+        if (connection == null) {
+            // 独立连接
+            Streams.close(sessionStore);
+            return;
+        }
+        synchronized (connection) {
+            if (connection.sessionStore != sessionStore) {
+                // 连接已被替换
+                Streams.close(sessionStore);
+                return;
+            }
+            if (--connection.references > 0) {
+                return;
+            }
+            // 关闭连接
+            log.info("HostConnectionManager-release close hostId: {}", connection.hostId);
+            connection.closed = true;
+            sessionConnections.remove(sessionStore);
+            connections.remove(connection.key, connection);
+            Streams.close(sessionStore);
+        }
+    }
+
+    /**
+     * 获取共享连接数
+     *
+     * @return count
+     */
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * 获取连接 key
+     * <p>
+     * 凭证只保留摘要 key 中不包含明文
+     *
+     * @param conn conn
+     * @return key
+     */
+    public static String getConnectionKey(HostTerminalConnectDTO conn) {
+        String credential = conn.getPassword() + SEPARATOR +
+                conn.getPrivateKey() + SEPARATOR +
+                conn.getPrivateKeyPassword();
+        return conn.getHostId() + SEPARATOR +
+                conn.getHostAddress() + SEPARATOR +
+                conn.getPort() + SEPARATOR +
+                conn.getUsername() + SEPARATOR +
+                conn.getKeyId() + SEPARATOR +
+                Signatures.sha256(credential);
+    }
+
+    /**
+     * 共享连接
+     */
+    private static class SharedConnection {
+
+        private final String key;
+
+        private final Long hostId;
+
+        private SessionStore sessionStore;
+
+        private int references;
+
+        private boolean closed;
+
+        private SharedConnection(String key, Long hostId) {
+            this.key = key;
+            this.hostId = hostId;
+        }
+
+        /**
+         * 是否可用
+         *
+         * @return alive
+         */
+        private boolean isAlive() {
+            return !closed && sessionStore != null && sessionStore.isConnected();
+        }
+
+    }
+
+}
@@ -3,11 +3,21 @@ package com.orion.visor.module.asset.handler.host.terminal.manager;
 import com.orion.lang.define.collect.MultiConcurrentHashMap;
 import com.orion.lang.utils.collect.Maps;
 import com.orion.lang.utils.io.Streams;
+import com.orion.visor.module.asset.define.config.AppTerminalConfig;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISftpSession;
+import com.orion.visor.module.asset.handler.host.terminal.session.ISshSession;
 import com.orion.visor.module.asset.handler.host.terminal.session.ITerminalSession;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
 
+import javax.annotation.Resource;
+import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 主机终端管理器
@@ -16,14 +26,28 @@ import java.util.concurrent.ConcurrentHashMap;
  * @version 1.0.0
  * @since 2024/1/3 11:35
  */
+@Slf4j
 @Component
 public class HostTerminalManager {
 
+    @Resource
+    private AppTerminalConfig appTerminalConfig;
+
     /**
      * 会话存储器
      */
     private final MultiConcurrentHashMap<String, String, ITerminalSession> channelSessions = MultiConcurrentHashMap.create();
 
+    /**
+     * sessionId -> 会话 (包含已断开的会话)
+     */
+    private final Map<String, ITerminalSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * sessionId -> 断开的 ssh 会话过期时间
+     */
+    private final Map<String, Long> detachedSessions = new ConcurrentHashMap<>();
+
     /**
      * 添加会话
      *
@@ -31,21 +55,94 @@ public class HostTerminalManager {
      */
     public void addSession(ITerminalSession session) {
         channelSessions.put(session.getChannelId(), session.getSessionId(), session);
+        sessions.put(session.getSessionId(), session);
     }
 
     /**
      * 通过 channel 关闭会话
+     * <p>
+     * websocket 断开时 ssh 会话在保留时间内等待恢复
      *
      * @param channelId channelId
      */
     public void closeSession(String channelId) {
         // 获取并移除
         ConcurrentHashMap<String, ITerminalSession> session = channelSessions.remove(channelId);
-        if (!Maps.isEmpty(session)) {
-            session.values().forEach(Streams::close);
+        if (Maps.isEmpty(session)) {
+            return;
+        }
+        long gracePeriod = TimeUnit.SECONDS.toMillis(appTerminalConfig.getResumeGracePeriod());
+        for (ITerminalSession s : session.values()) {
+            if (gracePeriod > 0 && s instanceof ISshSession && !s.isClosed()) {
+                // 断开并保留
+                ((ISshSession) s).detach();
+                detachedSessions.put(s.getSessionId(), System.currentTimeMillis() + gracePeriod);
+            } else {
+                sessions.remove(s.getSessionId(), s);
+                Streams.close(s);
+            }
         }
     }
 
+    /**
+     * 获取并移除断开的 ssh 会话
+     *
+     * @param sessionId   sessionId
+     * @param resumeToken resumeToken
+     * @param userId      userId
+     * @return session 会话不存在或校验失败返回 null
+     */
+    public ISshSession takeDetachedSession(String sessionId, String resumeToken, Long userId) {
+        ITerminalSession session = sessions.get(sessionId);
+        if (!(session instanceof ISshSession) || session.isClosed()) {
+            return null;
+        }
+        ISshSession sshSession = (ISshSession) session;
+        // 校验 token 和用户
+        if (!sshSession.isDetached()
+                || !Objects.equals(sshSession.getResumeToken(), resumeToken)
+                || !Objects.equals(session.getConfig().getUserId(), userId)) {
+            return null;
+        }
+        if (detachedSessions.remove(sessionId) == null) {
+            return null;
+        }
+        return sshSession;
+    }
+
+    /**
+     * 重新绑定 ssh 会话
+     *
+     * @param channel channel
+     * @param session session
+     */
+    public void reattachSession(WebSocketSession channel, ISshSession session) {
+        session.reattach(channel);
+        channelSessions.put(channel.getId(), session.getSessionId(), session);
+    }
+
+    /**
+     * 关闭超过保留时间的断开会话
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void closeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        detachedSessions.forEach((sessionId, expireTime) -> {
+            ITerminalSession session = sessions.get(sessionId);
+            if (session != null && !session.isClosed() && expireTime > now) {
+                return;
+            }
+            if (!detachedSessions.remove(sessionId, expireTime)) {
+                return;
+            }
+            log.info("HostTerminalManager-closeExpiredSessions sessionId: {}", sessionId);
+            if (session != null) {
+                sessions.remove(sessionId, session);
+                Streams.close(session);
+            }
+        });
+    }
+
     /**
      * 通过 channel + sessionId 关闭会话
      *
@@ -56,6 +153,7 @@ public class HostTerminalManager {
         // 获取并移除
         ITerminalSession session = channelSessions.removeElement(channelId, sessionId);
         if (session != null) {
+            sessions.remove(sessionId, session);
             Streams.close(session);
         }
     }
@@ -83,6 +181,41 @@ public class HostTerminalManager {
         return channelSessions.get(channelId);
     }
 
+    /**
+     * 通过 sessionId 获取会话
+     *
+     * @param sessionId sessionId
+     * @param <T>       T
+     * @return session
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends ITerminalSession> T getSessionById(String sessionId) {
+        return (T) sessions.get(sessionId);
+    }
+
+    /**
+     * 获取全部会话 包含已断开的会话
+     *
+     * @return sessions
+     */
+    public Collection<ITerminalSession> getAllSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * 清除主机全部 sftp 会话的文件元数据缓存
+     *
+     * @param hostId hostId
+     * @param path   path
+     */
+    public void invalidateSftpCache(Long hostId, String path) {
+        for (ITerminalSession session : sessions.values()) {
+            if (session instanceof ISftpSession && Objects.equals(hostId, session.getConfig().getHostId())) {
+                ((ISftpSession) session).invalidateCache(path);
+            }
+        }
+    }
+
     /**
      * 获取全部会话
      *
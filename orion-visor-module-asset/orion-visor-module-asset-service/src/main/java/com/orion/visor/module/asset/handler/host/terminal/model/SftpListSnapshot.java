@@ -0,0 +1,31 @@
+package com.orion.visor.module.asset.handler.host.terminal.model;
+
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * sftp 列表快照 用于游标翻页
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:00
+ */
+@Getter
+public class SftpListSnapshot {
+
+    private final String id;
+
+    private final String path;
+
+    private final List<SftpFileVO> files;
+
+    public SftpListSnapshot(String id, String path) {
+        this.id = id;
+        this.path = path;
+        this.files = new ArrayList<>();
+    }
+
+}
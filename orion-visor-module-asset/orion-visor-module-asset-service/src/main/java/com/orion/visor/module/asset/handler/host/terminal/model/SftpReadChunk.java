@@ -0,0 +1,42 @@
+package com.orion.visor.module.asset.handler.host.terminal.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * sftp 文件范围读取块
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+@Getter
+@AllArgsConstructor
+public class SftpReadChunk {
+
+    /**
+     * 块起始位置
+     */
+    private final long offset;
+
+    /**
+     * 文件大小
+     */
+    private final long fileSize;
+
+    /**
+     * 编码
+     */
+    private final String charset;
+
+    /**
+     * 内容
+     */
+    private final String content;
+
+    /**
+     * 是否为最后一块
+     */
+    private final boolean finished;
+
+}
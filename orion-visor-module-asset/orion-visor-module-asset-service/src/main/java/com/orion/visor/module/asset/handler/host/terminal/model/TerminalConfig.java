@@ -23,6 +23,11 @@ public class TerminalConfig {
      */
     private Long logId;
 
+    /**
+     * userId
+     */
+    private Long userId;
+
     /**
      * 主机id
      */
@@ -63,4 +68,44 @@ public class TerminalConfig {
      */
     private String fileContentCharset;
 
+    /**
+     * 输出合并窗口 (ms)
+     */
+    private Integer outputMergeWindow;
+
+    /**
+     * 输出合并最大字节数
+     */
+    private Integer outputMergeMaxSize;
+
+    /**
+     * 输出缓冲区高水位 (字节)
+     */
+    private Integer outputBufferHighWatermark;
+
+    /**
+     * 输出缓冲区低水位 (字节)
+     */
+    private Integer outputBufferLowWatermark;
+
+    /**
+     * 断线期间输出保留字节数
+     */
+    private Integer resumeBufferSize;
+
+    /**
+     * 录屏文件路径 为空不录制
+     */
+    private String recordPath;
+
+    /**
+     * 录屏缓冲区事件数
+     */
+    private Integer recordBufferSize;
+
+    /**
+     * sftp 元数据缓存有效期 (ms) 为空不缓存
+     */
+    private Long sftpCacheTtl;
+
 }
@@ -0,0 +1,45 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * sftp 分页列表请求 实体对象
+ * <p>
+ * lp|eff00a1|showHiddenFile|refresh|pageSize|sort|cursor|keyword|path
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:00
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SftpListPageRequest extends SftpListRequest {
+
+    /**
+     * 每页数量
+     */
+    private Integer pageSize;
+
+    /**
+     * 排序字段 name size modifyTime 前缀 - 为倒序 为空不排序
+     */
+    private String sort;
+
+    /**
+     * 游标 为空查询第一页
+     */
+    private String cursor;
+
+    /**
+     * 文件名称过滤
+     */
+    private String keyword;
+
+}
@@ -9,7 +9,7 @@ import lombok.experimental.SuperBuilder;
 /**
  * sftp 列表请求 实体对象
  * <p>
- * i|eff00a1|path
+ * ls|eff00a1|0|0|path
  *
  * @author Jiahang Li
  * @version 1.0.0
@@ -27,4 +27,9 @@ public class SftpListRequest extends SftpBaseRequest {
      */
     private Integer showHiddenFile;
 
+    /**
+     * 是否强制刷新 不使用缓存
+     */
+    private Integer refresh;
+
 }
@@ -0,0 +1,45 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * sftp 范围读取请求 实体对象
+ * <p>
+ * rr|eff00a1|tail|0|65536|path
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SftpReadRangeRequest extends SftpBaseRequest {
+
+    /**
+     * 读取方式 head tail range
+     */
+    private String mode;
+
+    /**
+     * 起始位置 range 时有效
+     */
+    private Long offset;
+
+    /**
+     * 读取长度
+     */
+    private Long length;
+
+    /**
+     * 读取序号 接收时生成
+     */
+    private Long readId;
+
+}
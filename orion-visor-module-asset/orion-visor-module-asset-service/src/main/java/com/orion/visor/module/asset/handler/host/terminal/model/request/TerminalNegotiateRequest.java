@@ -0,0 +1,31 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.request;
+
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 终端协议协商请求 实体对象
+ * <p>
+ * ng|binary
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 10:12
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class TerminalNegotiateRequest extends TerminalBasePayload {
+
+    /**
+     * 输出协议
+     */
+    private String protocol;
+
+}
@@ -0,0 +1,41 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.request;
+
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 终端恢复会话请求 实体对象
+ * <p>
+ * re|eff00a1|resumeToken|100|20
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 19:20
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class TerminalResumeRequest extends TerminalBasePayload {
+
+    /**
+     * 恢复 token
+     */
+    private String resumeToken;
+
+    /**
+     * 列数
+     */
+    private Integer cols;
+
+    /**
+     * 行数
+     */
+    private Integer rows;
+
+}
@@ -25,6 +25,11 @@ public class SftpDownloadFlatDirectoryResponse extends SftpBaseResponse {
      */
     private String currentPath;
 
+    /**
+     * 是否为最后一批
+     */
+    private Integer finished;
+
     /**
      * body
      */
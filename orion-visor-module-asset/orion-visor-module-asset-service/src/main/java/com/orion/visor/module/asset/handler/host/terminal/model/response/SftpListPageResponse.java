@@ -0,0 +1,33 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * sftp 分页列表响应 实体对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:00
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SftpListPageResponse extends SftpListResponse {
+
+    /**
+     * 下一页游标 为空则没有下一页
+     */
+    private String cursor;
+
+    /**
+     * 总数 -1 为仍在读取
+     */
+    private Integer total;
+
+}
@@ -0,0 +1,53 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * sftp 范围读取响应 实体对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class SftpReadRangeResponse extends SftpBaseResponse {
+
+    /**
+     * path
+     */
+    private String path;
+
+    /**
+     * 块起始位置
+     */
+    private Long offset;
+
+    /**
+     * 文件大小
+     */
+    private Long fileSize;
+
+    /**
+     * 编码
+     */
+    private String charset;
+
+    /**
+     * 是否为最后一块
+     */
+    private Integer finished;
+
+    /**
+     * content
+     */
+    private String content;
+
+}
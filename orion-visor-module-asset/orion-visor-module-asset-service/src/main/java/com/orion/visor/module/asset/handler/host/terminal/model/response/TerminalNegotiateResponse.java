@@ -0,0 +1,29 @@
+package com.orion.visor.module.asset.handler.host.terminal.model.response;
+
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * 终端协议协商响应 实体对象
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 10:12
+ */
+@Data
+@SuperBuilder
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class TerminalNegotiateResponse extends TerminalBasePayload {
+
+    /**
+     * 生效的输出协议
+     */
+    private String protocol;
+
+}
@@ -0,0 +1,66 @@
+package com.orion.visor.module.asset.handler.host.terminal.output;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * ssh 输出合并
+ * <p>
+ * 二进制输出保留一个消息头拼接内容 文本输出保留一个前缀拼接内容
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 10:20
+ */
+public class SshOutputMerger implements TerminalOutputMerger {
+
+    private final byte[] binaryHeader;
+
+    private final String textPrefix;
+
+    public SshOutputMerger(byte[] binaryHeader, String textPrefix) {
+        this.binaryHeader = binaryHeader;
+        this.textPrefix = textPrefix;
+    }
+
+    @Override
+    public boolean mergeable(WebSocketMessage<?> first, WebSocketMessage<?> message) {
+        if (first instanceof BinaryMessage) {
+            return message instanceof BinaryMessage;
+        }
+        return first instanceof TextMessage
+                && message instanceof TextMessage
+                && ((TextMessage) first).getPayload().startsWith(textPrefix)
+                && ((TextMessage) message).getPayload().startsWith(textPrefix);
+    }
+
+    @Override
+    public WebSocketMessage<?> merge(List<WebSocketMessage<?>> messages) {
+        if (messages.get(0) instanceof BinaryMessage) {
+            int length = binaryHeader.length;
+            for (WebSocketMessage<?> message : messages) {
+                length += message.getPayloadLength() - binaryHeader.length;
+            }
+            ByteBuffer merged = ByteBuffer.allocate(length);
+            merged.put(binaryHeader);
+            for (WebSocketMessage<?> message : messages) {
+                ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+                payload.position(payload.position() + binaryHeader.length);
+                merged.put(payload);
+            }
+            merged.flip();
+            return new BinaryMessage(merged);
+        }
+        StringBuilder merged = new StringBuilder(textPrefix);
+        for (WebSocketMessage<?> message : messages) {
+            String payload = ((TextMessage) message).getPayload();
+            merged.append(payload, textPrefix.length(), payload.length());
+        }
+        return new TextMessage(merged.toString());
+    }
+
+}
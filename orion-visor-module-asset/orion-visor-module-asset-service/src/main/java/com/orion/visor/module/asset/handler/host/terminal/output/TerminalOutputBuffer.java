@@ -0,0 +1,383 @@
+package com.orion.visor.module.asset.handler.host.terminal.output;
+
+import com.orion.lang.able.SafeCloseable;
+import com.orion.visor.framework.websocket.core.utils.WebSockets;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 终端输出缓冲区
+ * <p>
+ * 读取线程写入缓冲区 发送线程发送至 websocket
+ * 缓冲字节数超过高水位时阻塞读取线程 直到低于低水位
+ * 读取线程阻塞后 ssh 通道窗口将关闭 从而限制远程进程的输出速度
+ * 读取线程和发送线程都通过条件等待 不轮询
+ * 连续输出时发送线程在合并窗口内合并后续输出 直到窗口结束或达到最大字节数
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 14:05
+ */
+@Slf4j
+public class TerminalOutputBuffer implements Runnable, SafeCloseable {
+
+    private static final String BUFFERED_METRIC = "terminal.output.buffered";
+
+    private static final String PAUSE_METRIC = "terminal.output.pause";
+
+    private static final String FPS_METRIC = "terminal.output.fps";
+
+    private static final long FPS_INTERVAL = 1000;
+
+    private static final String SESSION_TAG = "sessionId";
+
+    private final String sessionId;
+
+    private final WebSocketSession channel;
+
+    private final long highWatermark;
+
+    private final long lowWatermark;
+
+    private final long mergeWindow;
+
+    private final int mergeMaxSize;
+
+    private final TerminalOutputMerger merger;
+
+    private final ArrayDeque<WebSocketMessage<?>> queue;
+
+    private final AtomicLong bufferedBytes;
+
+    private final ReentrantLock lock;
+
+    private final Condition writable;
+
+    private final Condition notEmpty;
+
+    /**
+     * 发送线程正在合并的消息 关闭时一起取出
+     */
+    private final List<WebSocketMessage<?>> merging;
+
+    private final Gauge bufferedGauge;
+
+    private final Timer pauseTimer;
+
+    private final Gauge fpsGauge;
+
+    private boolean paused;
+
+    private long lastSendTime;
+
+    private long totalFrames;
+
+    private long intervalFrames;
+
+    private volatile long intervalStart;
+
+    private volatile long fps;
+
+    private volatile boolean closed;
+
+    public TerminalOutputBuffer(String sessionId,
+                                WebSocketSession channel,
+                                long highWatermark,
+                                long lowWatermark,
+                                int mergeWindow,
+                                int mergeMaxSize,
+                                TerminalOutputMerger merger) {
+        this.sessionId = sessionId;
+        this.channel = channel;
+        this.highWatermark = highWatermark;
+        this.lowWatermark = Math.min(lowWatermark, highWatermark);
+        this.mergeWindow = TimeUnit.MILLISECONDS.toNanos(Math.max(mergeWindow, 0));
+        this.mergeMaxSize = mergeMaxSize;
+        this.merger = merger;
+        this.merging = new ArrayList<>();
+        this.lastSendTime = System.nanoTime() - this.mergeWindow;
+        this.intervalStart = System.currentTimeMillis();
+        this.queue = new ArrayDeque<>();
+        this.bufferedBytes = new AtomicLong();
+        this.lock = new ReentrantLock();
+        this.writable = lock.newCondition();
+        this.notEmpty = lock.newCondition();
+        this.bufferedGauge = Gauge.builder(BUFFERED_METRIC, bufferedBytes, AtomicLong::get)
+                .tag(SESSION_TAG, sessionId)
+                .baseUnit("bytes")
+                .register(Metrics.globalRegistry);
+        this.pauseTimer = Timer.builder(PAUSE_METRIC)
+                .tag(SESSION_TAG, sessionId)
+                .register(Metrics.globalRegistry);
+        this.fpsGauge = Gauge.builder(FPS_METRIC, this, TerminalOutputBuffer::getFps)
+                .tag(SESSION_TAG, sessionId)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * 写入消息 超过高水位时阻塞
+     * <p>
+     * 调用方不能持有会被 {@link #closeAndDrain()} 调用方等待的锁
+     *
+     * @param message message
+     * @return 是否写入 阻塞期间关闭则返回 false
+     */
+    public boolean offer(WebSocketMessage<?> message) {
+        long start = 0;
+        lock.lock();
+        try {
+            if (!closed && bufferedBytes.get() >= highWatermark) {
+                // 超过高水位 等待低于低水位
+                start = System.nanoTime();
+                this.paused = true;
+                while (!closed && bufferedBytes.get() > lowWatermark) {
+                    writable.await();
+                }
+            }
+            return this.enqueue(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.paused = false;
+            lock.unlock();
+            if (start != 0) {
+                pauseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * 写入消息 不检查水位
+     *
+     * @param message message
+     */
+    public void append(WebSocketMessage<?> message) {
+        lock.lock();
+        try {
+            this.enqueue(message);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 写入队列 需要持有锁
+     *
+     * @param message message
+     * @return 是否写入
+     */
+    private boolean enqueue(WebSocketMessage<?> message) {
+        if (closed) {
+            return false;
+        }
+        bufferedBytes.addAndGet(message.getPayloadLength());
+        queue.offer(message);
+        notEmpty.signal();
+        return true;
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<WebSocketMessage<?>> messages;
+            while ((messages = this.take()) != null) {
+                WebSocketMessage<?> message = messages.size() == 1 ? messages.get(0) : merger.merge(messages);
+                try {
+                    WebSockets.sendMessage(channel, message);
+                } catch (Exception e) {
+                    log.error("terminal output send error {}", sessionId, e);
+                }
+                this.lastSendTime = System.nanoTime();
+                this.countFrame();
+                long length = 0;
+                for (WebSocketMessage<?> m : messages) {
+                    length += m.getPayloadLength();
+                }
+                this.release(length);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.lock();
+            try {
+                queue.clear();
+                writable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            bufferedBytes.set(0);
+            Metrics.globalRegistry.remove(bufferedGauge);
+            Metrics.globalRegistry.remove(pauseTimer);
+            Metrics.globalRegistry.remove(fpsGauge);
+            log.info("terminal output buffer finish sessionId: {}, frames: {}, pauseCount: {}, pauseTime: {}ms",
+                    sessionId, totalFrames, pauseTimer.count(), (long) pauseTimer.totalTime(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * 取出下一批消息 队列为空时等待
+     * <p>
+     * 距离上次发送在合并窗口内则为连续输出 等待至窗口结束合并后续输出
+     *
+     * @return 消息 已关闭且发送完成时返回 null
+     * @throws InterruptedException InterruptedException
+     */
+    private List<WebSocketMessage<?>> take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queue.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            WebSocketMessage<?> first = queue.poll();
+            merging.add(first);
+            if (merger != null && System.nanoTime() - lastSendTime < mergeWindow) {
+                long deadline = lastSendTime + mergeWindow;
+                long size = first.getPayloadLength();
+                while (!merging.isEmpty()) {
+                    WebSocketMessage<?> next = queue.peek();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (closed || remaining <= 0) {
+                            break;
+                        }
+                        notEmpty.awaitNanos(remaining);
+                        continue;
+                    }
+                    if (size + next.getPayloadLength() > mergeMaxSize || !merger.mergeable(first, next)) {
+                        break;
+                    }
+                    merging.add(queue.poll());
+                    size += next.getPayloadLength();
+                }
+            }
+            if (merging.isEmpty()) {
+                // 等待时已被取出
+                return null;
+            }
+            List<WebSocketMessage<?>> messages = new ArrayList<>(merging);
+            merging.clear();
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 统计发送帧数
+     */
+    private void countFrame() {
+        totalFrames++;
+        intervalFrames++;
+        long now = System.currentTimeMillis();
+        long used = now - intervalStart;
+        if (used >= FPS_INTERVAL) {
+            this.fps = intervalFrames * 1000 / used;
+            this.intervalFrames = 0;
+            this.intervalStart = now;
+        }
+    }
+
+    /**
+     * 获取最近的每秒发送帧数 空闲时为 0
+     *
+     * @return fps
+     */
+    public long getFps() {
+        if (System.currentTimeMillis() - intervalStart > FPS_INTERVAL * 2) {
+            return 0;
+        }
+        return fps;
+    }
+
+    /**
+     * 消息发送后释放缓冲字节数 低于低水位恢复读取
+     *
+     * @param length length
+     */
+    private void release(long length) {
+        long buffered = bufferedBytes.addAndGet(-length);
+        if (buffered > lowWatermark) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (paused) {
+                writable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 是否已关闭
+     *
+     * @return closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 获取已缓冲的字节数
+     *
+     * @return bytes
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        // 发送线程发送完剩余消息后退出
+        lock.lock();
+        try {
+            this.closed = true;
+            writable.signalAll();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 关闭并取出未发送的消息 发送线程不再发送这些消息
+     *
+     * @return 未发送的消息
+     */
+    public List<WebSocketMessage<?>> closeAndDrain() {
+        lock.lock();
+        try {
+            this.closed = true;
+            List<WebSocketMessage<?>> messages = new ArrayList<>(merging);
+            messages.addAll(queue);
+            merging.clear();
+            queue.clear();
+            for (WebSocketMessage<?> message : messages) {
+                bufferedBytes.addAndGet(-message.getPayloadLength());
+            }
+            writable.signalAll();
+            notEmpty.signalAll();
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.orion.visor.module.asset.handler.host.terminal.output;
+
+import org.springframework.web.socket.WebSocketMessage;
+
+import java.util.List;
+
+/**
+ * 终端输出合并
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 10:20
+ */
+public interface TerminalOutputMerger {
+
+    /**
+     * 是否可以合并到第一条消息
+     *
+     * @param first   第一条消息
+     * @param message message
+     * @return 是否可以合并
+     */
+    boolean mergeable(WebSocketMessage<?> first, WebSocketMessage<?> message);
+
+    /**
+     * 合并消息
+     *
+     * @param messages 可以合并的连续消息
+     * @return 合并后的消息
+     */
+    WebSocketMessage<?> merge(List<WebSocketMessage<?>> messages);
+
+}
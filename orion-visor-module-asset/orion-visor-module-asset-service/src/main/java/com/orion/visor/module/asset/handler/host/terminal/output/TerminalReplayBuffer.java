@@ -0,0 +1,88 @@
+package com.orion.visor.module.asset.handler.host.terminal.output;
+
+/**
+ * 终端输出回放缓冲区
+ * <p>
+ * 固定大小的环形缓冲区 写满后覆盖最早的输出
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 19:05
+ */
+public class TerminalReplayBuffer {
+
+    private final byte[] buffer;
+
+    /**
+     * 下次写入位置
+     */
+    private int position;
+
+    /**
+     * 已保存字节数
+     */
+    private int size;
+
+    /**
+     * 被覆盖的字节数
+     */
+    private long dropped;
+
+    public TerminalReplayBuffer(int capacity) {
+        this.buffer = new byte[Math.max(capacity, 1)];
+    }
+
+    /**
+     * 写入
+     *
+     * @param bs  bs
+     * @param off off
+     * @param len len
+     */
+    public synchronized void write(byte[] bs, int off, int len) {
+        int capacity = buffer.length;
+        // 超出容量只保留末尾
+        if (len > capacity) {
+            dropped += len - capacity;
+            off += len - capacity;
+            len = capacity;
+        }
+        int first = Math.min(len, capacity - position);
+        System.arraycopy(bs, off, buffer, position, first);
+        System.arraycopy(bs, off + first, buffer, 0, len - first);
+        position = (position + len) % capacity;
+        int overflow = size + len - capacity;
+        if (overflow > 0) {
+            dropped += overflow;
+        }
+        size = Math.min(size + len, capacity);
+    }
+
+    /**
+     * 读取全部并清空
+     *
+     * @return bytes
+     */
+    public synchronized byte[] drain() {
+        byte[] bs = new byte[size];
+        int start = (position - size + buffer.length) % buffer.length;
+        int first = Math.min(size, buffer.length - start);
+        System.arraycopy(buffer, start, bs, 0, first);
+        System.arraycopy(buffer, 0, bs, first, size - first);
+        this.size = 0;
+        this.position = 0;
+        return bs;
+    }
+
+    /**
+     * 获取被覆盖的字节数并重置
+     *
+     * @return dropped
+     */
+    public synchronized long resetDropped() {
+        long d = dropped;
+        this.dropped = 0;
+        return d;
+    }
+
+}
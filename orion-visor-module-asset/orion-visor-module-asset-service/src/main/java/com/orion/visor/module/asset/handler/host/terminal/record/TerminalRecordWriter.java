@@ -0,0 +1,326 @@
+package com.orion.visor.module.asset.handler.host.terminal.record;
+
+import com.alibaba.fastjson.JSON;
+import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.io.Streams;
+import com.orion.visor.framework.common.annotation.Keep;
+import com.orion.visor.framework.common.file.FileClient;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppTerminalConfig;
+import com.orion.visor.module.asset.utils.StreamDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 终端录屏写入器
+ * <p>
+ * 单线程批量写入全部录屏器的事件 asciinema v2 格式文件 没有事件时阻塞等待录屏器唤醒
+ * 录屏器只在写入线程等待时唤醒 关闭时等待已申请序号的事件写入后再关闭文件
+ * 同时按间隔写入索引文件 每行为 时间,文件偏移量 用于回放时快速定位
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 20:30
+ */
+@Slf4j
+@Component
+public class TerminalRecordWriter implements Runnable {
+
+    public static final String INDEX_SUFFIX = ".idx";
+
+    /**
+     * 单个录屏器每轮最多写入的事件数
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private static final byte[] LINE = Strings.bytes("\n");
+
+    /**
+     * 关闭时等待已申请序号的事件写入的最长时间
+     */
+    private static final long DRAIN_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    @Keep
+    @Resource
+    private FileClient logsFileClient;
+
+    @Resource
+    private AppTerminalConfig appTerminalConfig;
+
+    private final Set<RecordContext> contexts = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+
+    private volatile Thread thread;
+
+    /**
+     * 写入线程是否准备等待 设置后再次检查事件 录屏器只在等待时唤醒
+     */
+    private final AtomicBoolean parked = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        this.running = true;
+        AssetThreadPools.TERMINAL_RECORDER.execute(this);
+    }
+
+    /**
+     * 开始录制
+     *
+     * @param recorder recorder
+     */
+    public void start(TerminalRecorder recorder) {
+        try {
+            RecordContext context = new RecordContext(recorder,
+                    logsFileClient.getContentOutputStream(recorder.getPath()),
+                    logsFileClient.getContentOutputStream(recorder.getPath() + INDEX_SUFFIX));
+            // 写入头
+            Map<String, Object> env = new LinkedHashMap<>();
+            env.put("TERM", recorder.getTerminalType());
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("version", 2);
+            header.put("width", recorder.getWidth());
+            header.put("height", recorder.getHeight());
+            header.put("timestamp", recorder.getStartTime() / 1000);
+            header.put("env", env);
+            context.writeLine(Strings.bytes(JSON.toJSONString(header)));
+            context.flush();
+            contexts.add(context);
+            recorder.setSignal(this::signal);
+        } catch (Exception e) {
+            log.error("TerminalRecordWriter-start error sessionId: {}", recorder.getSessionId(), e);
+            Streams.close(recorder);
+        }
+    }
+
+    @Override
+    public void run() {
+        this.thread = Thread.currentThread();
+        while (running) {
+            boolean written = false;
+            for (RecordContext context : contexts) {
+                written |= this.write(context);
+            }
+            if (written || !running) {
+                continue;
+            }
+            // 先设置等待标记再检查 避免错过等待前写入的事件
+            parked.set(true);
+            if (!this.hasPending()) {
+                // 等待录屏器唤醒 唤醒先于等待时直接返回
+                LockSupport.park(this);
+            } else {
+                // 已申请序号尚未写入
+                Thread.yield();
+            }
+            parked.set(false);
+        }
+        // 关闭全部
+        contexts.forEach(this::drain);
+        contexts.forEach(this::closeContext);
+        contexts.clear();
+    }
+
+    /**
+     * 是否有需要处理的录屏器
+     *
+     * @return 是否有未读取的事件或已关闭的录屏器
+     */
+    private boolean hasPending() {
+        for (RecordContext context : contexts) {
+            if (context.recorder.hasPending() || context.recorder.isClosed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 写入录屏器剩余的事件 等待已申请序号的事件写入
+     *
+     * @param context context
+     */
+    private void drain(RecordContext context) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT;
+        while (contexts.contains(context) && context.recorder.hasPending()) {
+            if (this.write(context)) {
+                continue;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("TerminalRecordWriter-drain timeout sessionId: {}", context.recorder.getSessionId());
+                return;
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 写入录屏器的事件
+     *
+     * @param context context
+     * @return 是否写入
+     */
+    private boolean write(RecordContext context) {
+        TerminalRecorder recorder = context.recorder;
+        // 先读取关闭状态 保证关闭前的事件都已写入
+        boolean closed = recorder.isClosed();
+        int count = 0;
+        try {
+            TerminalRecorder.RecordEvent event;
+            while (count < BATCH_SIZE && (event = recorder.poll()) != null) {
+                context.writeEvent(event, appTerminalConfig.getRecordIndexInterval());
+                count++;
+            }
+            if (count > 0) {
+                context.flush();
+            }
+        } catch (Exception e) {
+            log.error("TerminalRecordWriter-write error sessionId: {}", recorder.getSessionId(), e);
+            this.closeContext(context);
+            return false;
+        }
+        // 已申请序号尚未写入的事件 写入后再关闭
+        if (closed && !recorder.hasPending()) {
+            this.closeContext(context);
+        }
+        return count > 0;
+    }
+
+    /**
+     * 关闭录屏文件
+     *
+     * @param context context
+     */
+    private void closeContext(RecordContext context) {
+        if (!contexts.remove(context)) {
+            return;
+        }
+        Streams.close(context.out);
+        Streams.close(context.indexOut);
+        log.info("TerminalRecordWriter-close sessionId: {}, bytes: {}, dropped: {}",
+                context.recorder.getSessionId(), context.position, context.recorder.getDropped());
+    }
+
+    /**
+     * 唤醒写入线程 只在写入线程等待时唤醒
+     */
+    private void signal() {
+        if (parked.get() && parked.compareAndSet(true, false)) {
+            this.unpark();
+        }
+    }
+
+    /**
+     * 唤醒写入线程
+     */
+    private void unpark() {
+        Thread t = thread;
+        if (t != null) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        this.running = false;
+        this.unpark();
+    }
+
+    /**
+     * 录屏写入上下文
+     */
+    private static class RecordContext {
+
+        private final TerminalRecorder recorder;
+
+        private final OutputStream out;
+
+        private final OutputStream indexOut;
+
+        private final StreamDecoder decoder;
+
+        /**
+         * 已写入字节数
+         */
+        private long position;
+
+        private double lastTime;
+
+        private double nextIndexTime;
+
+        private RecordContext(TerminalRecorder recorder, OutputStream out, OutputStream indexOut) {
+            this.recorder = recorder;
+            this.out = new BufferedOutputStream(out);
+            this.indexOut = new BufferedOutputStream(indexOut);
+            this.decoder = new StreamDecoder(recorder.getCharset());
+        }
+
+        /**
+         * 写入事件
+         *
+         * @param event         event
+         * @param indexInterval 索引间隔
+         * @throws Exception Exception
+         */
+        private void writeEvent(TerminalRecorder.RecordEvent event, int indexInterval) throws Exception {
+            String text;
+            if (event.getType() == TerminalRecorder.OUTPUT) {
+                text = decoder.decode(event.getData(), 0, event.getData().length);
+                if (text.isEmpty()) {
+                    return;
+                }
+            } else {
+                text = event.getText();
+            }
+            // 多线程写入的事件时间保持递增 保留 6 位小数
+            double time = Math.round(Math.max(event.getTime(), lastTime) * 1_000_000D) / 1_000_000D;
+            this.lastTime = time;
+            // 写入索引
+            if (time >= nextIndexTime) {
+                indexOut.write(Strings.bytes(time + "," + position));
+                indexOut.write(LINE);
+                this.nextIndexTime = time + Math.max(indexInterval, 1);
+            }
+            String line = JSON.toJSONString(Arrays.asList(time, String.valueOf(event.getType()), text));
+            this.writeLine(Strings.bytes(line));
+        }
+
+        /**
+         * 写入行
+         *
+         * @param bs bs
+         * @throws Exception Exception
+         */
+        private void writeLine(byte[] bs) throws Exception {
+            out.write(bs);
+            out.write(LINE);
+            this.position += bs.length + LINE.length;
+        }
+
+        /**
+         * 刷新
+         *
+         * @throws Exception Exception
+         */
+        private void flush() throws Exception {
+            out.flush();
+            indexOut.flush();
+        }
+
+    }
+
+}
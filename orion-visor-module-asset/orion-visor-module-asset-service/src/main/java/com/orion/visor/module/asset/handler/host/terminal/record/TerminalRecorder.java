@@ -0,0 +1,254 @@
+package com.orion.visor.module.asset.handler.host.terminal.record;
+
+import com.orion.lang.able.SafeCloseable;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 终端录屏器
+ * <p>
+ * 终端线程只写入无锁环形缓冲区 由 {@link TerminalRecordWriter} 批量写入文件
+ * 缓冲区已满时丢弃事件 不阻塞终端
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 20:20
+ */
+public class TerminalRecorder implements SafeCloseable {
+
+    public static final char OUTPUT = 'o';
+
+    public static final char INPUT = 'i';
+
+    public static final char RESIZE = 'r';
+
+    @Getter
+    private final String sessionId;
+
+    @Getter
+    private final String path;
+
+    @Getter
+    private final String charset;
+
+    @Getter
+    private final int width;
+
+    @Getter
+    private final int height;
+
+    @Getter
+    private final String terminalType;
+
+    /**
+     * 开始时间 (ms)
+     */
+    @Getter
+    private final long startTime;
+
+    private final long startNanos;
+
+    private final AtomicReferenceArray<RecordEvent> buffer;
+
+    private final int mask;
+
+    /**
+     * 写入序号
+     */
+    private final AtomicLong producerIndex;
+
+    /**
+     * 读取序号 只由写入线程修改
+     */
+    private volatile long consumerIndex;
+
+    private final AtomicLong dropped;
+
+    /**
+     * 唤醒写入线程 开始录制时设置
+     */
+    private volatile Runnable signal;
+
+    @Getter
+    private volatile boolean closed;
+
+    public TerminalRecorder(String sessionId,
+                            String path,
+                            String charset,
+                            int width,
+                            int height,
+                            String terminalType,
+                            int bufferSize) {
+        this.sessionId = sessionId;
+        this.path = path;
+        this.charset = charset;
+        this.width = width;
+        this.height = height;
+        this.terminalType = terminalType;
+        this.startTime = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+        // 容量取 2 的幂
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.producerIndex = new AtomicLong();
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * 记录输出
+     *
+     * @param bs  bs
+     * @param off off
+     * @param len len
+     */
+    public void output(byte[] bs, int off, int len) {
+        byte[] data = new byte[len];
+        System.arraycopy(bs, off, data, 0, len);
+        this.offer(new RecordEvent(this.elapsed(), OUTPUT, data, null));
+    }
+
+    /**
+     * 记录输入
+     *
+     * @param input input
+     */
+    public void input(String input) {
+        this.offer(new RecordEvent(this.elapsed(), INPUT, null, input));
+    }
+
+    /**
+     * 记录大小变更
+     *
+     * @param cols cols
+     * @param rows rows
+     */
+    public void resize(int cols, int rows) {
+        this.offer(new RecordEvent(this.elapsed(), RESIZE, null, cols + "x" + rows));
+    }
+
+    /**
+     * 写入缓冲区
+     *
+     * @param event event
+     */
+    private void offer(RecordEvent event) {
+        if (closed) {
+            return;
+        }
+        long index;
+        do {
+            index = producerIndex.get();
+            // 缓冲区已满
+            if (index - consumerIndex >= buffer.length()) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+        buffer.lazySet((int) (index & mask), event);
+        this.signal();
+    }
+
+    /**
+     * 设置唤醒写入线程的回调
+     *
+     * @param signal signal
+     */
+    void setSignal(Runnable signal) {
+        this.signal = signal;
+    }
+
+    /**
+     * 唤醒写入线程
+     */
+    private void signal() {
+        Runnable s = signal;
+        if (s != null) {
+            s.run();
+        }
+    }
+
+    /**
+     * 是否有未读取的事件 包括已申请序号尚未写入的事件
+     *
+     * @return 是否有未读取的事件
+     */
+    public boolean hasPending() {
+        return consumerIndex < producerIndex.get();
+    }
+
+    /**
+     * 读取下一个事件 只由写入线程调用
+     *
+     * @return event 无事件返回 null
+     */
+    public RecordEvent poll() {
+        long index = consumerIndex;
+        if (index >= producerIndex.get()) {
+            return null;
+        }
+        int slot = (int) (index & mask);
+        RecordEvent event = buffer.get(slot);
+        if (event == null) {
+            // 已申请序号 尚未写入
+            return null;
+        }
+        buffer.lazySet(slot, null);
+        this.consumerIndex = index + 1;
+        return event;
+    }
+
+    /**
+     * 获取丢弃的事件数
+     *
+     * @return dropped
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * 获取已录制时间 (s)
+     *
+     * @return elapsed
+     */
+    private double elapsed() {
+        return (System.nanoTime() - startNanos) / 1_000_000_000D;
+    }
+
+    @Override
+    public void close() {
+        // 写入线程写完剩余事件后关闭文件
+        this.closed = true;
+        this.signal();
+    }
+
+    /**
+     * 录屏事件
+     */
+    @Getter
+    public static class RecordEvent {
+
+        /**
+         * 相对开始时间 (s)
+         */
+        private final double time;
+
+        private final char type;
+
+        private final byte[] data;
+
+        private final String text;
+
+        private RecordEvent(double time, char type, byte[] data, String text) {
+            this.time = time;
+            this.type = type;
+            this.data = data;
+            this.text = text;
+        }
+
+    }
+
+}
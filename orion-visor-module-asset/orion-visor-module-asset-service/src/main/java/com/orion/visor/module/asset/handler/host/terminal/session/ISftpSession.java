@@ -1,8 +1,11 @@
 package com.orion.visor.module.asset.handler.host.terminal.session;
 
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpListSnapshot;
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpReadChunk;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * sftp 会话定义
@@ -30,9 +33,50 @@ public interface ISftpSession extends ITerminalSession {
      *
      * @param path           path
      * @param showHiddenFile 是否显示隐藏文件
+     * @param refresh        是否跳过缓存
      * @return list
      */
-    List<SftpFileVO> list(String path, boolean showHiddenFile);
+    List<SftpFileVO> list(String path, boolean showHiddenFile, boolean refresh);
+
+    /**
+     * 获取文件属性
+     *
+     * @param path path
+     * @return file 不存在返回 null
+     */
+    SftpFileVO getFile(String path);
+
+    /**
+     * 清除文件的元数据缓存
+     *
+     * @param path path
+     */
+    void invalidateCache(String path);
+
+    /**
+     * 文件列表 读取到文件时回调 未开启缓存时不保留完整列表
+     *
+     * @param path           path
+     * @param showHiddenFile 是否显示隐藏文件
+     * @param refresh        是否跳过缓存
+     * @param consumer       consumer
+     */
+    void list(String path, boolean showHiddenFile, boolean refresh, Consumer<SftpFileVO> consumer);
+
+    /**
+     * 保存列表快照
+     *
+     * @param snapshot snapshot
+     */
+    void putListSnapshot(SftpListSnapshot snapshot);
+
+    /**
+     * 获取列表快照
+     *
+     * @param id id
+     * @return snapshot
+     */
+    SftpListSnapshot getListSnapshot(String id);
 
     /**
      * 创建文件夹
@@ -79,12 +123,14 @@ public interface ISftpSession extends ITerminalSession {
     void chmod(String path, int mod);
 
     /**
-     * 展开文件夹内的所有文件
+     * 展开文件夹内的所有文件 按批次回调
      *
-     * @param paths paths
-     * @return files
+     * @param paths       paths
+     * @param parallelism 并行读取的通道数
+     * @param batchSize   每批文件数
+     * @param consumer    consumer
      */
-    List<SftpFileVO> flatDirectory(String[] paths);
+    void flatDirectory(String[] paths, int parallelism, int batchSize, Consumer<List<SftpFileVO>> consumer);
 
     /**
      * 获取内容
@@ -94,6 +140,31 @@ public interface ISftpSession extends ITerminalSession {
      */
     String getContent(String path);
 
+    /**
+     * 接收范围读取请求
+     *
+     * @return 读取序号
+     */
+    long acceptRead();
+
+    /**
+     * 读取文件范围 按块回调 最后一块 finished 为 true
+     *
+     * @param readId    读取序号
+     * @param path      path
+     * @param offset    起始位置
+     * @param length    读取长度
+     * @param tail      是否读取末尾 length 字节 此时忽略 offset
+     * @param chunkSize 每块字节数
+     * @param consumer  consumer
+     */
+    void readRange(long readId, String path, long offset, long length, boolean tail, int chunkSize, Consumer<SftpReadChunk> consumer);
+
+    /**
+     * 取消已接收的范围读取
+     */
+    void cancelRead();
+
     /**
      * 设置内容
      *
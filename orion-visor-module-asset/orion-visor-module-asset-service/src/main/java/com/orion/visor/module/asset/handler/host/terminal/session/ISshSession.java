@@ -1,5 +1,7 @@
 package com.orion.visor.module.asset.handler.host.terminal.session;
 
+import org.springframework.web.socket.WebSocketSession;
+
 /**
  * ssh 会话定义
  *
@@ -40,4 +42,32 @@ public interface ISshSession extends ITerminalSession {
      */
     void write(byte[] b);
 
+    /**
+     * 获取恢复会话 token
+     *
+     * @return resumeToken
+     */
+    String getResumeToken();
+
+    /**
+     * 是否已断开 websocket
+     *
+     * @return detached
+     */
+    boolean isDetached();
+
+    /**
+     * 断开 websocket 保留 ssh 连接
+     * <p>
+     * 断开期间的输出写入回放缓冲区
+     */
+    void detach();
+
+    /**
+     * 重新绑定 websocket 并回放断开期间的输出
+     *
+     * @param channel channel
+     */
+    void reattach(WebSocketSession channel);
+
 }
@@ -0,0 +1,176 @@
+package com.orion.visor.module.asset.handler.host.terminal.session;
+
+import com.orion.lang.utils.Exceptions;
+import com.orion.net.host.sftp.SftpExecutor;
+import com.orion.net.host.sftp.SftpFile;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * sftp 文件夹并行遍历器
+ * <p>
+ * 多个 sftp 通道共享待遍历的文件夹队列 每个通道同时有一个 readdir 请求
+ * 读取到的文件按批次回调 遍历未结束即可开始下载
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:50
+ */
+@Slf4j
+public class SftpDirectoryWalker {
+
+    private static final long POLL_TIMEOUT = 100L;
+
+    private final List<SftpExecutor> executors;
+
+    private final Function<SftpFile, SftpFileVO> mapping;
+
+    private final int batchSize;
+
+    private final Consumer<List<SftpFileVO>> consumer;
+
+    /**
+     * 待遍历的文件夹
+     */
+    private final LinkedBlockingQueue<String> directories;
+
+    /**
+     * 未完成的文件夹数 包含遍历中的文件夹
+     */
+    private final AtomicInteger pending;
+
+    private List<SftpFileVO> batch;
+
+    private volatile Exception error;
+
+    public SftpDirectoryWalker(List<SftpExecutor> executors,
+                               Function<SftpFile, SftpFileVO> mapping,
+                               int batchSize,
+                               Consumer<List<SftpFileVO>> consumer) {
+        this.executors = executors;
+        this.mapping = mapping;
+        this.batchSize = Math.max(batchSize, 1);
+        this.consumer = consumer;
+        this.directories = new LinkedBlockingQueue<>();
+        this.pending = new AtomicInteger();
+        this.batch = new ArrayList<>();
+    }
+
+    /**
+     * 遍历 阻塞至遍历结束
+     *
+     * @param paths paths
+     */
+    public void walk(String[] paths) {
+        for (String path : paths) {
+            pending.incrementAndGet();
+            directories.offer(path);
+        }
+        // 第一个通道在当前线程执行
+        CountDownLatch latch = new CountDownLatch(executors.size() - 1);
+        for (int i = 1; i < executors.size(); i++) {
+            SftpExecutor executor = executors.get(i);
+            try {
+                AssetThreadPools.SFTP_WALKER.execute(() -> {
+                    try {
+                        this.work(executor);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 线程池已满 由其余通道遍历
+                log.warn("SftpDirectoryWalker-walk rejected parallel channel: {}", i);
+                latch.countDown();
+            }
+        }
+        this.work(executors.get(0));
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.error = e;
+        }
+        if (error != null) {
+            throw error instanceof RuntimeException ? (RuntimeException) error : Exceptions.ioRuntime(error);
+        }
+        // 剩余文件
+        this.flush(true);
+    }
+
+    /**
+     * 从队列中获取文件夹并读取
+     *
+     * @param executor executor
+     */
+    private void work(SftpExecutor executor) {
+        while (error == null && pending.get() > 0) {
+            String directory;
+            try {
+                directory = directories.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.error = e;
+                return;
+            }
+            if (directory == null) {
+                continue;
+            }
+            try {
+                List<SftpFileVO> files = new ArrayList<>();
+                for (SftpFile file : executor.listFiles(directory, false, true)) {
+                    SftpFileVO vo = mapping.apply(file);
+                    if (Boolean.TRUE.equals(vo.getIsDir())) {
+                        // 子文件夹加入队列
+                        pending.incrementAndGet();
+                        directories.offer(vo.getPath());
+                    } else {
+                        files.add(vo);
+                    }
+                }
+                this.emit(files);
+            } catch (Exception e) {
+                log.error("SftpDirectoryWalker-work error directory: {}", directory, e);
+                this.error = e;
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 添加文件 满一批时回调
+     *
+     * @param files files
+     */
+    private synchronized void emit(List<SftpFileVO> files) {
+        batch.addAll(files);
+        this.flush(false);
+    }
+
+    /**
+     * 回调当前批次
+     *
+     * @param force 是否回调不满一批的文件
+     */
+    private synchronized void flush(boolean force) {
+        if (batch.isEmpty() || (!force && batch.size() < batchSize)) {
+            return;
+        }
+        List<SftpFileVO> current = batch;
+        this.batch = new ArrayList<>();
+        consumer.accept(current);
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.orion.visor.module.asset.handler.host.terminal.session;
+
+import com.orion.lang.utils.io.Files1;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * sftp 元数据缓存
+ * <p>
+ * 缓存目录列表 (包含隐藏文件) 和文件属性 超过有效期后失效
+ * 修改文件时需要调用 {@link #invalidate(String)} 清除文件、子文件以及父目录的缓存
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 21:30
+ */
+public class SftpMetadataCache {
+
+    private static final Counter HIT_COUNTER = Counter.builder("sftp.cache.hit")
+            .register(Metrics.globalRegistry);
+
+    private static final Counter MISS_COUNTER = Counter.builder("sftp.cache.miss")
+            .register(Metrics.globalRegistry);
+
+    /**
+     * 有效期 (ms)
+     */
+    private final long ttl;
+
+    /**
+     * 目录 -> 文件列表
+     */
+    private final Map<String, CacheEntry<List<SftpFileVO>>> lists;
+
+    /**
+     * 路径 -> 文件属性
+     */
+    private final Map<String, CacheEntry<SftpFileVO>> files;
+
+    public SftpMetadataCache(long ttl) {
+        this.ttl = ttl;
+        this.lists = new ConcurrentHashMap<>();
+        this.files = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 获取目录列表
+     *
+     * @param path path
+     * @return files 未缓存返回 null
+     */
+    public List<SftpFileVO> getList(String path) {
+        return this.get(lists, path);
+    }
+
+    /**
+     * 缓存目录列表 同时缓存子文件属性
+     *
+     * @param path path
+     * @param list list
+     */
+    public void putList(String path, List<SftpFileVO> list) {
+        long expireTime = System.currentTimeMillis() + ttl;
+        lists.put(path, new CacheEntry<>(list, expireTime));
+        for (SftpFileVO file : list) {
+            files.put(file.getPath(), new CacheEntry<>(file, expireTime));
+        }
+    }
+
+    /**
+     * 获取文件属性
+     *
+     * @param path path
+     * @return file 未缓存返回 null
+     */
+    public SftpFileVO getFile(String path) {
+        return this.get(files, path);
+    }
+
+    /**
+     * 缓存文件属性
+     *
+     * @param file file
+     */
+    public void putFile(SftpFileVO file) {
+        files.put(file.getPath(), new CacheEntry<>(file, System.currentTimeMillis() + ttl));
+    }
+
+    /**
+     * 清除文件 子文件 以及父目录的缓存
+     *
+     * @param path path
+     */
+    public void invalidate(String path) {
+        path = Files1.getPath(path);
+        String prefix = path.endsWith(Const.SLASH) ? path : path + Const.SLASH;
+        lists.remove(path);
+        files.remove(path);
+        lists.remove(Files1.getParentPath(path));
+        lists.keySet().removeIf(s -> s.startsWith(prefix));
+        files.keySet().removeIf(s -> s.startsWith(prefix));
+    }
+
+    /**
+     * 清空
+     */
+    public void clear() {
+        lists.clear();
+        files.clear();
+    }
+
+    /**
+     * 获取缓存
+     *
+     * @param cache cache
+     * @param path  path
+     * @param <T>   T
+     * @return value
+     */
+    private <T> T get(Map<String, CacheEntry<T>> cache, String path) {
+        CacheEntry<T> entry = cache.get(path);
+        if (entry == null || entry.expireTime < System.currentTimeMillis()) {
+            if (entry != null) {
+                cache.remove(path, entry);
+            }
+            MISS_COUNTER.increment();
+            return null;
+        }
+        HIT_COUNTER.increment();
+        return entry.value;
+    }
+
+    /**
+     * 缓存值
+     */
+    private static class CacheEntry<T> {
+
+        private final T value;
+
+        private final long expireTime;
+
+        private CacheEntry(T value, long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+
+    }
+
+}
@@ -9,14 +9,22 @@ import com.orion.net.host.SessionStore;
 import com.orion.net.host.sftp.SftpExecutor;
 import com.orion.net.host.sftp.SftpFile;
 import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.constant.ErrorMessage;
 import com.orion.visor.framework.common.utils.Valid;
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpListSnapshot;
+import com.orion.visor.module.asset.handler.host.terminal.model.SftpReadChunk;
 import com.orion.visor.module.asset.handler.host.terminal.model.TerminalConfig;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.SftpFileVO;
+import com.orion.visor.module.asset.utils.CharsetDetector;
+import com.orion.visor.module.asset.utils.StreamDecoder;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -31,14 +39,50 @@ public class SftpSession extends TerminalSession implements ISftpSession {
 
     private final SessionStore sessionStore;
 
+    /**
+     * 最多保留的列表快照数
+     */
+    private static final int MAX_LIST_SNAPSHOTS = 4;
+
+    private final Map<String, SftpListSnapshot> listSnapshots;
+
+    /**
+     * 元数据缓存 未开启为 null
+     */
+    private final SftpMetadataCache cache;
+
     private SftpExecutor executor;
 
+    /**
+     * 读取文件内容的通道 未读取到末尾时关闭流可能阻塞 此时只关闭该通道
+     */
+    private SftpExecutor reader;
+
+    /**
+     * 已接收的范围读取序号
+     */
+    private final AtomicLong readSequence;
+
+    /**
+     * 已取消的范围读取序号 不大于该序号的读取都已取消
+     */
+    private volatile long readCancelledSequence;
+
     public SftpSession(String sessionId,
                        WebSocketSession channel,
                        SessionStore sessionStore,
                        TerminalConfig config) {
         super(sessionId, channel, config);
         this.sessionStore = sessionStore;
+        this.readSequence = new AtomicLong();
+        this.listSnapshots = new LinkedHashMap<String, SftpListSnapshot>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SftpListSnapshot> eldest) {
+                return size() > MAX_LIST_SNAPSHOTS;
+            }
+        };
+        Long cacheTtl = config.getSftpCacheTtl();
+        this.cache = cacheTtl == null || cacheTtl <= 0 ? null : new SftpMetadataCache(cacheTtl);
     }
 
     @Override
@@ -54,9 +98,33 @@ public class SftpSession extends TerminalSession implements ISftpSession {
     }
 
     @Override
-    public List<SftpFileVO> list(String path, boolean showHiddenFile) {
+    public List<SftpFileVO> list(String path, boolean showHiddenFile, boolean refresh) {
         path = Files1.getPath(path);
-        // 查询文件
+        if (cache == null) {
+            return this.listFiles(path, showHiddenFile);
+        }
+        // 缓存包含隐藏文件 读取后过滤
+        List<SftpFileVO> files = refresh ? null : cache.getList(path);
+        if (files == null) {
+            files = this.listFiles(path, true);
+            cache.putList(path, files);
+        }
+        if (showHiddenFile) {
+            return new ArrayList<>(files);
+        }
+        return files.stream()
+                .filter(s -> !s.getName().startsWith(Const.DOT))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 查询文件列表
+     *
+     * @param path           path
+     * @param showHiddenFile 是否显示隐藏文件
+     * @return list
+     */
+    private List<SftpFileVO> listFiles(String path, boolean showHiddenFile) {
         List<SftpFile> files = executor.listFilesFilter(path,
                 s -> showHiddenFile || !s.getName().startsWith(Const.DOT),
                 false,
@@ -67,21 +135,101 @@ public class SftpSession extends TerminalSession implements ISftpSession {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public SftpFileVO getFile(String path) {
+        path = Files1.getPath(path);
+        SftpFileVO file = cache == null ? null : cache.getFile(path);
+        if (file != null) {
+            return file;
+        }
+        SftpFile sftpFile = executor.getFile(path);
+        if (sftpFile == null) {
+            return null;
+        }
+        file = fileMapping(sftpFile);
+        if (cache != null) {
+            cache.putFile(file);
+        }
+        return file;
+    }
+
+    @Override
+    public void invalidateCache(String path) {
+        if (cache != null) {
+            cache.invalidate(path);
+        }
+    }
+
+    @Override
+    public void list(String path, boolean showHiddenFile, boolean refresh, Consumer<SftpFileVO> consumer) {
+        path = Files1.getPath(path);
+        if (cache == null) {
+            // 在过滤器中回调 不保留文件列表
+            executor.listFilesFilter(path, s -> {
+                if (showHiddenFile || !s.getName().startsWith(Const.DOT)) {
+                    consumer.accept(fileMapping(s));
+                }
+                return false;
+            }, false, true);
+            return;
+        }
+        // 缓存包含隐藏文件 读取后过滤
+        List<SftpFileVO> cached = refresh ? null : cache.getList(path);
+        if (cached != null) {
+            cached.stream()
+                    .filter(s -> showHiddenFile || !s.getName().startsWith(Const.DOT))
+                    .forEach(consumer);
+            return;
+        }
+        List<SftpFileVO> files = new ArrayList<>();
+        executor.listFilesFilter(path, s -> {
+            SftpFileVO file = fileMapping(s);
+            files.add(file);
+            if (showHiddenFile || !s.getName().startsWith(Const.DOT)) {
+                consumer.accept(file);
+            }
+            return false;
+        }, false, true);
+        files.sort(Comparator.comparing(SftpFileVO::getName));
+        cache.putList(path, files);
+    }
+
+    @Override
+    public void putListSnapshot(SftpListSnapshot snapshot) {
+        synchronized (listSnapshots) {
+            listSnapshots.put(snapshot.getId(), snapshot);
+        }
+    }
+
+    @Override
+    public SftpListSnapshot getListSnapshot(String id) {
+        synchronized (listSnapshots) {
+            return listSnapshots.get(id);
+        }
+    }
+
     @Override
     public void mkdir(String path) {
         path = Valid.checkNormalize(path);
+        this.invalidateCache(path);
         executor.makeDirectories(path);
     }
 
     @Override
     public void touch(String path) {
         path = Valid.checkNormalize(path);
+        this.invalidateCache(path);
         executor.touch(path);
     }
 
     @Override
     public void move(String source, String target) {
         source = Valid.checkNormalize(source);
+        this.invalidateCache(source);
+        // 目标为相对路径时 位于源文件所在目录
+        this.invalidateCache(target.startsWith(Const.SLASH)
+                ? target
+                : Files1.getParentPath(source) + Const.SLASH + target);
         executor.move(source, target);
     }
 
@@ -89,54 +237,180 @@ public class SftpSession extends TerminalSession implements ISftpSession {
     public void remove(String[] paths) {
         Arrays.stream(paths)
                 .map(Valid::checkNormalize)
-                .forEach(executor::remove);
+                .forEach(s -> {
+                    this.invalidateCache(s);
+                    executor.remove(s);
+                });
     }
 
     @Override
     public void truncate(String path) {
         path = Valid.checkNormalize(path);
+        this.invalidateCache(path);
         executor.truncate(path);
     }
 
     @Override
     public void chmod(String path, int mod) {
         path = Valid.checkNormalize(path);
+        this.invalidateCache(path);
         executor.changeMode(path, mod);
     }
 
     @Override
-    public List<SftpFileVO> flatDirectory(String[] paths) {
-        return Arrays.stream(paths)
-                .map(s -> executor.listFiles(s, true, false))
-                .flatMap(Collection::stream)
-                .map(SftpSession::fileMapping)
-                .collect(Collectors.toList());
+    public void flatDirectory(String[] paths, int parallelism, int batchSize, Consumer<List<SftpFileVO>> consumer) {
+        // 当前通道之外 打开额外的通道并行读取
+        List<SftpExecutor> executors = new ArrayList<>();
+        executors.add(executor);
+        try {
+            for (int i = 1; i < parallelism; i++) {
+                try {
+                    SftpExecutor extra = sessionStore.getSftpExecutor(config.getFileNameCharset());
+                    extra.connect();
+                    executors.add(extra);
+                } catch (Exception e) {
+                    // 超出服务端通道数限制时 使用已打开的通道
+                    log.warn("SftpSession-flatDirectory open channel error sessionId: {}, opened: {}", sessionId, executors.size(), e);
+                    break;
+                }
+            }
+            new SftpDirectoryWalker(executors, SftpSession::fileMapping, batchSize, consumer).walk(paths);
+        } finally {
+            executors.stream()
+                    .skip(1)
+                    .forEach(Streams::close);
+        }
     }
 
     @Override
     public String getContent(String path) {
         path = Valid.checkNormalize(path);
+        // 获取文件
+        SftpFileVO file = this.getFile(path);
+        if (file == null || file.getSize() == 0L) {
+            return Const.EMPTY;
+        }
+        // 读取文件
+        InputStream in = null;
+        boolean eof = false;
         try {
-            // 获取文件
-            SftpFile file = executor.getFile(path);
-            if (file == null || file.getSize() == 0L) {
-                return Const.EMPTY;
-            }
-            // 读取文件
-            InputStream in = executor.openInputStream(path);
-            return Streams.toString(in, config.getFileContentCharset());
+            in = this.getReader().openInputStream(path);
+            String content = Streams.toString(in, config.getFileContentCharset());
+            eof = true;
+            return content;
         } catch (Exception e) {
             throw Exceptions.ioRuntime(e);
         } finally {
-            // 关闭 inputStream 可能会被阻塞 ???...??? 只能关闭 executor
-            Streams.close(this.executor);
-            this.connect();
+            this.closeReadStream(in, eof);
         }
     }
 
+    @Override
+    public long acceptRead() {
+        return readSequence.incrementAndGet();
+    }
+
+    @Override
+    public void readRange(long readId, String path, long offset, long length, boolean tail, int chunkSize, Consumer<SftpReadChunk> consumer) {
+        path = Valid.checkNormalize(path);
+        SftpFileVO file = this.getFile(path);
+        Valid.notNull(file, ErrorMessage.FILE_ABSENT);
+        long size = file.getSize();
+        long start = tail ? Math.max(size - length, 0) : Math.min(Math.max(offset, 0), size);
+        long end = Math.min(start + length, size);
+        long position = start;
+        String charset = config.getFileContentCharset();
+        StreamDecoder decoder = null;
+        InputStream in = null;
+        boolean eof = false;
+        try {
+            if (start < end) {
+                in = this.getReader().openInputStream(path, start);
+            }
+            byte[] buffer = new byte[chunkSize];
+            while (position < end && !this.isReadCancelled(readId)) {
+                int read = in.read(buffer, 0, (int) Math.min(chunkSize, end - position));
+                if (read == -1) {
+                    eof = true;
+                    break;
+                }
+                int skip = 0;
+                // 根据第一块检测编码 只有从文件开头读取时检查 BOM
+                if (decoder == null) {
+                    charset = CharsetDetector.detect(buffer, read, charset, start == 0);
+                    decoder = new StreamDecoder(charset);
+                    // 从字符中间开始读取时 跳过不完整的字符
+                    skip = CharsetDetector.partialPrefix(buffer, read, charset, start);
+                }
+                consumer.accept(new SftpReadChunk(position + skip, size, charset, decoder.decode(buffer, skip, read - skip), false));
+                position += read;
+            }
+            // 读取到文件末尾 流可以正常关闭
+            if (in != null && !eof && position >= size && !this.isReadCancelled(readId)) {
+                eof = in.read() == -1;
+            }
+            String rest = decoder == null ? Const.EMPTY : decoder.flush();
+            consumer.accept(new SftpReadChunk(position, size, charset, rest, true));
+        } catch (IOException e) {
+            throw Exceptions.ioRuntime(e);
+        } finally {
+            if (in != null) {
+                this.closeReadStream(in, eof);
+            }
+        }
+    }
+
+    @Override
+    public void cancelRead() {
+        // 取消已接收的读取 包括排队中未开始的读取
+        this.readCancelledSequence = readSequence.get();
+    }
+
+    /**
+     * 读取是否已取消
+     *
+     * @param readId readId
+     * @return cancelled
+     */
+    private boolean isReadCancelled(long readId) {
+        return readId <= readCancelledSequence;
+    }
+
+    /**
+     * 获取读取通道
+     *
+     * @return reader
+     */
+    private synchronized SftpExecutor getReader() {
+        if (reader == null || !reader.isConnected()) {
+            Streams.close(reader);
+            SftpExecutor executor = sessionStore.getSftpExecutor(config.getFileNameCharset());
+            executor.connect();
+            this.reader = executor;
+        }
+        return reader;
+    }
+
+    /**
+     * 关闭读取流
+     *
+     * @param in  in
+     * @param eof 是否已读取到末尾
+     */
+    private synchronized void closeReadStream(InputStream in, boolean eof) {
+        if (eof) {
+            Streams.close(in);
+            return;
+        }
+        // 未读取到末尾 关闭流会等待预读的响应 直接关闭读取通道 下次读取时重新打开
+        Streams.close(reader);
+        this.reader = null;
+    }
+
     @Override
     public void setContent(String path, String content) {
         path = Valid.checkNormalize(path);
+        this.invalidateCache(path);
         try {
             executor.write(path, Strings.bytes(content, config.getFileContentCharset()));
         } catch (Exception e) {
@@ -156,8 +430,13 @@ public class SftpSession extends TerminalSession implements ISftpSession {
 
     @Override
     protected void releaseResource() {
+        if (cache != null) {
+            cache.clear();
+        }
+        this.readCancelledSequence = Long.MAX_VALUE;
+        Streams.close(reader);
         Streams.close(executor);
-        Streams.close(sessionStore);
+        hostTerminalService.releaseSessionStore(sessionStore);
     }
 
     /**
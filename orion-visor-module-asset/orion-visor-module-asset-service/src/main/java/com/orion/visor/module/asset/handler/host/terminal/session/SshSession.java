@@ -1,21 +1,36 @@
 package com.orion.visor.module.asset.handler.host.terminal.session;
 
+import com.orion.lang.id.UUIds;
 import com.orion.lang.utils.io.Streams;
 import com.orion.net.host.SessionStore;
 import com.orion.net.host.ssh.shell.ShellExecutor;
+import com.orion.spring.SpringHolder;
 import com.orion.visor.framework.common.constant.Const;
-import com.orion.visor.framework.websocket.core.utils.WebSockets;
 import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputProtocolEnum;
 import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
 import com.orion.visor.module.asset.handler.host.terminal.model.TerminalConfig;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.SshOutputResponse;
+import com.orion.visor.module.asset.handler.host.terminal.output.SshOutputMerger;
+import com.orion.visor.module.asset.handler.host.terminal.output.TerminalOutputBuffer;
+import com.orion.visor.module.asset.handler.host.terminal.output.TerminalReplayBuffer;
+import com.orion.visor.module.asset.handler.host.terminal.record.TerminalRecordWriter;
+import com.orion.visor.module.asset.handler.host.terminal.record.TerminalRecorder;
+import com.orion.visor.module.asset.handler.host.terminal.utils.PayloadSplitter;
+import com.orion.visor.module.asset.utils.StreamDecoder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 /**
  * 终端 ssh 会话
@@ -27,10 +42,37 @@ import java.io.InputStream;
 @Slf4j
 public class SshSession extends TerminalSession implements ISshSession {
 
+    private static final TerminalRecordWriter terminalRecordWriter = SpringHolder.getBean(TerminalRecordWriter.class);
+
     private final SessionStore sessionStore;
 
+    private final byte[] binaryHeader;
+
+    private final String textPrefix;
+
+    /**
+     * 是否可以使用二进制协议 客户端按 UTF-8 解析二进制输出 其他编码使用文本协议
+     */
+    private final boolean binarySupported;
+
+    private final StreamDecoder decoder;
+
+    @Getter
+    private final String resumeToken;
+
+    private final TerminalReplayBuffer replayBuffer;
+
+    private final Object outputLock;
+
     private ShellExecutor executor;
 
+    private TerminalRecorder recorder;
+
+    private volatile TerminalOutputBuffer outputBuffer;
+
+    @Getter
+    private volatile boolean detached;
+
     @Getter
     private String lastLine;
 
@@ -40,6 +82,13 @@ public class SshSession extends TerminalSession implements ISshSession {
                       TerminalConfig config) {
         super(sessionId, channel, config);
         this.sessionStore = sessionStore;
+        this.binaryHeader = OutputTypeEnum.SSH_OUTPUT.binaryHeader(sessionId);
+        this.textPrefix = OutputTypeEnum.SSH_OUTPUT.getType() + PayloadSplitter.SEPARATOR + sessionId + PayloadSplitter.SEPARATOR;
+        this.binarySupported = StandardCharsets.UTF_8.equals(Charset.forName(config.getCharset()));
+        this.decoder = new StreamDecoder(config.getCharset());
+        this.resumeToken = UUIds.random32();
+        this.replayBuffer = new TerminalReplayBuffer(config.getResumeBufferSize());
+        this.outputLock = new Object();
     }
 
     @Override
@@ -53,6 +102,14 @@ public class SshSession extends TerminalSession implements ISshSession {
         executor.streamHandler(this::streamHandler);
         executor.callback(this::close);
         executor.connect();
+        // 开始录屏
+        if (config.getRecordPath() != null) {
+            this.recorder = new TerminalRecorder(sessionId, config.getRecordPath(), config.getCharset(),
+                    cols, rows, terminalType, config.getRecordBufferSize());
+            terminalRecordWriter.start(recorder);
+        }
+        // 开始发送输出
+        this.startOutputBuffer();
         // 开始监听输出
         AssetThreadPools.TERMINAL_STDOUT.execute(executor);
     }
@@ -66,17 +123,26 @@ public class SshSession extends TerminalSession implements ISshSession {
             config.setRows(rows);
             executor.size(cols, rows);
             executor.resize();
+            if (recorder != null) {
+                recorder.resize(cols, rows);
+            }
         }
     }
 
     @Override
     public void write(String b) {
         executor.write(b);
+        if (recorder != null) {
+            recorder.input(b);
+        }
     }
 
     @Override
     public void write(byte[] b) {
         executor.write(b);
+        if (recorder != null) {
+            recorder.input(new String(b, Charset.forName(config.getCharset())));
+        }
     }
 
     @Override
@@ -89,35 +155,207 @@ public class SshSession extends TerminalSession implements ISshSession {
         }
     }
 
+    @Override
+    public void detach() {
+        int pending = 0;
+        synchronized (outputLock) {
+            this.detached = true;
+            // 关闭缓冲区 未发送的输出转入回放缓冲区 阻塞的读取线程将转为写入回放缓冲区
+            for (WebSocketMessage<?> message : outputBuffer.closeAndDrain()) {
+                pending += this.replayMessage(message);
+            }
+        }
+        log.info("ssh session detach {}, pending: {}", sessionId, pending);
+    }
+
+    @Override
+    public void reattach(WebSocketSession channel) {
+        synchronized (outputLock) {
+            this.channel = channel;
+            this.startOutputBuffer();
+            // 回放断开期间的输出
+            int replay = this.replayMissed();
+            long dropped = replayBuffer.resetDropped();
+            this.detached = false;
+            log.info("ssh session reattach {}, replay: {}, dropped: {}", sessionId, replay, dropped);
+        }
+    }
+
     @Override
     protected void releaseResource() {
         Streams.close(executor);
-        Streams.close(sessionStore);
+        Streams.close(recorder);
+        hostTerminalService.releaseSessionStore(sessionStore);
+    }
+
+    @Override
+    protected void sendCloseMessage() {
+        try {
+            super.sendCloseMessage();
+        } finally {
+            // 关闭消息发送后关闭缓冲区
+            Streams.close(outputBuffer);
+        }
+    }
+
+    @Override
+    protected void sendMessage(String message) {
+        if (outputBuffer == null) {
+            super.sendMessage(message);
+        } else {
+            // 保证在剩余输出之后发送
+            outputBuffer.append(new TextMessage(message));
+        }
     }
 
     /**
      * 标准输出处理
+     * <p>
+     * 阻塞读取后立即写入输出缓冲区 连续输出由发送线程在合并窗口内合并
+     * 输出缓冲区超过高水位时阻塞读取
      *
      * @param inputStream stream
      */
     private void streamHandler(InputStream inputStream) {
-        byte[] bs = new byte[Const.BUFFER_KB_4];
+        int maxSize = Math.max(config.getOutputMergeMaxSize(), Const.BUFFER_KB_4);
+        byte[] bs = new byte[maxSize];
         BufferedInputStream in = new BufferedInputStream(inputStream, Const.BUFFER_KB_4);
+        long reads = 0;
+        long bytes = 0;
         int read;
         try {
-            while (channel.isOpen() && (read = in.read(bs)) != -1) {
-                String body = lastLine = new String(bs, 0, read, config.getCharset());
-                // 响应
-                SshOutputResponse resp = SshOutputResponse.builder()
-                        .type(OutputTypeEnum.SSH_OUTPUT.getType())
-                        .sessionId(sessionId)
-                        .body(body)
-                        .build();
-                WebSockets.sendText(channel, OutputTypeEnum.SSH_OUTPUT.format(resp));
+            while (!closed && (read = in.read(bs)) != -1) {
+                this.sendOutput(bs, read);
+                reads++;
+                bytes += read;
             }
         } catch (IOException ex) {
             log.error("terminal 读取流失败", ex);
         }
+        log.info("terminal output finish sessionId: {}, reads: {}, bytes: {}", sessionId, reads, bytes);
+    }
+
+    /**
+     * 开始发送输出
+     */
+    private void startOutputBuffer() {
+        this.outputBuffer = new TerminalOutputBuffer(sessionId, channel,
+                config.getOutputBufferHighWatermark(),
+                config.getOutputBufferLowWatermark(),
+                config.getOutputMergeWindow(),
+                Math.max(config.getOutputMergeMaxSize(), Const.BUFFER_KB_4),
+                new SshOutputMerger(binaryHeader, textPrefix));
+        AssetThreadPools.TERMINAL_SENDER.execute(outputBuffer);
+    }
+
+    /**
+     * 发送输出 已断开时写入回放缓冲区
+     *
+     * @param bs  bs
+     * @param len len
+     */
+    private void sendOutput(byte[] bs, int len) {
+        if (recorder != null) {
+            recorder.output(bs, 0, len);
+        }
+        TerminalOutputBuffer buffer;
+        WebSocketMessage<?> message;
+        synchronized (outputLock) {
+            if (detached || outputBuffer.isClosed()) {
+                replayBuffer.write(bs, 0, len);
+                return;
+            }
+            buffer = outputBuffer;
+            message = this.createOutput(bs, 0, len);
+        }
+        // 不持有锁写入 超过高水位时阻塞 detach 不需要等待
+        if (message == null || buffer.offer(message)) {
+            return;
+        }
+        // 阻塞期间已断开 转入回放缓冲区
+        synchronized (outputLock) {
+            this.replayMessage(message);
+            if (!detached) {
+                // 等待期间已重新连接
+                this.replayMissed();
+            }
+        }
+    }
+
+    /**
+     * 回放缓冲区的输出写入输出缓冲区 需要持有 outputLock
+     *
+     * @return 回放字节数
+     */
+    private int replayMissed() {
+        byte[] missed = replayBuffer.drain();
+        int maxSize = Math.max(config.getOutputMergeMaxSize(), Const.BUFFER_KB_4);
+        for (int off = 0; off < missed.length; off += maxSize) {
+            WebSocketMessage<?> message = this.createOutput(missed, off, Math.min(maxSize, missed.length - off));
+            if (message != null) {
+                // 回放不检查水位
+                outputBuffer.append(message);
+            }
+        }
+        return missed.length;
+    }
+
+    /**
+     * 创建输出消息 需要持有 outputLock
+     *
+     * @param bs  bs
+     * @param off off
+     * @param len len
+     * @return 消息 不完整的字符返回 null
+     */
+    private WebSocketMessage<?> createOutput(byte[] bs, int off, int len) {
+        if (binarySupported && OutputProtocolEnum.of(channel) == OutputProtocolEnum.BINARY) {
+            // 二进制协议 直接发送原始字节
+            return new BinaryMessage(OutputTypeEnum.binaryFrame(binaryHeader, bs, off, len));
+        }
+        String body = decoder.decode(bs, off, len);
+        if (body.isEmpty()) {
+            // 不完整的字符 等待后续输出
+            return null;
+        }
+        this.lastLine = body;
+        // 响应
+        SshOutputResponse resp = SshOutputResponse.builder()
+                .type(OutputTypeEnum.SSH_OUTPUT.getType())
+                .sessionId(sessionId)
+                .body(body)
+                .build();
+        return new TextMessage(OutputTypeEnum.SSH_OUTPUT.format(resp));
+    }
+
+    /**
+     * 将未发送的输出消息写入回放缓冲区
+     *
+     * @param message message
+     * @return 写入字节数
+     */
+    private int replayMessage(WebSocketMessage<?> message) {
+        byte[] bs;
+        if (message instanceof BinaryMessage) {
+            ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+            if (payload.remaining() < binaryHeader.length) {
+                return 0;
+            }
+            payload.position(payload.position() + binaryHeader.length);
+            bs = new byte[payload.remaining()];
+            payload.get(bs);
+        } else if (message instanceof TextMessage) {
+            // 只回放输出 忽略其他消息
+            String payload = ((TextMessage) message).getPayload();
+            if (!payload.startsWith(textPrefix)) {
+                return 0;
+            }
+            bs = payload.substring(textPrefix.length()).getBytes(Charset.forName(config.getCharset()));
+        } else {
+            return 0;
+        }
+        replayBuffer.write(bs, 0, bs.length);
+        return bs.length;
     }
 
 }
@@ -9,6 +9,7 @@ import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
 import com.orion.visor.module.asset.handler.host.terminal.model.TerminalConfig;
 import com.orion.visor.module.asset.handler.host.terminal.model.response.TerminalCloseResponse;
 import com.orion.visor.module.asset.service.HostConnectLogService;
+import com.orion.visor.module.asset.service.HostTerminalService;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
@@ -23,10 +24,12 @@ import org.springframework.web.socket.WebSocketSession;
 @Slf4j
 public abstract class TerminalSession implements ITerminalSession {
 
+    protected static final HostTerminalService hostTerminalService = SpringHolder.getBean(HostTerminalService.class);
+
     @Getter
     protected final String sessionId;
 
-    protected final WebSocketSession channel;
+    protected volatile WebSocketSession channel;
 
     @Getter
     protected final TerminalConfig config;
@@ -59,7 +62,16 @@ public abstract class TerminalSession implements ITerminalSession {
                 .forceClose(BooleanBit.of(this.forceOffline).getValue())
                 .msg(this.forceOffline ? TerminalMessage.FORCED_OFFLINE : TerminalMessage.CONNECTION_CLOSED)
                 .build();
-        WebSockets.sendText(channel, OutputTypeEnum.CLOSE.format(resp));
+        this.sendMessage(OutputTypeEnum.CLOSE.format(resp));
+    }
+
+    /**
+     * 发送消息
+     *
+     * @param message message
+     */
+    protected void sendMessage(String message) {
+        WebSockets.sendText(channel, message);
     }
 
     @Override
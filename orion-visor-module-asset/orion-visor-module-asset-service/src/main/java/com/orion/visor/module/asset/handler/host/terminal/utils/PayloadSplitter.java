@@ -0,0 +1,111 @@
+package com.orion.visor.module.asset.handler.host.terminal.utils;
+
+/**
+ * 终端消息字段分割器
+ * <p>
+ * 按分隔符顺序读取字段 最后一个字段读取剩余全部内容
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 15:30
+ */
+public class PayloadSplitter {
+
+    public static final char SEPARATOR = '|';
+
+    private final String payload;
+
+    private final int length;
+
+    private int position;
+
+    public PayloadSplitter(String payload) {
+        this.payload = payload;
+        this.length = payload.length();
+    }
+
+    /**
+     * 读取下一个字段
+     *
+     * @return 字段 无分隔符则为 null
+     */
+    public String next() {
+        if (position >= length) {
+            return null;
+        }
+        int end = payload.indexOf(SEPARATOR, position);
+        if (end == -1) {
+            position = length;
+            return null;
+        }
+        String field = payload.substring(position, end);
+        position = end + 1;
+        return field;
+    }
+
+    /**
+     * 读取下一个字段
+     *
+     * @return 字段
+     */
+    public Integer nextInteger() {
+        return toInteger(this.next());
+    }
+
+    /**
+     * 读取下一个字段
+     *
+     * @return 字段
+     */
+    public Long nextLong() {
+        return toLong(this.next());
+    }
+
+    /**
+     * 读取剩余内容
+     *
+     * @return 剩余内容
+     */
+    public String rest() {
+        if (position == 0) {
+            return payload;
+        }
+        return payload.substring(position);
+    }
+
+    /**
+     * 读取剩余内容
+     *
+     * @return 剩余内容
+     */
+    public Integer restInteger() {
+        return toInteger(this.rest());
+    }
+
+    /**
+     * 转为 integer
+     *
+     * @param s s
+     * @return integer
+     */
+    private static Integer toInteger(String s) {
+        if (s == null || s.isEmpty()) {
+            return null;
+        }
+        return Integer.valueOf(s);
+    }
+
+    /**
+     * 转为 long
+     *
+     * @param s s
+     * @return long
+     */
+    private static Long toLong(String s) {
+        if (s == null || s.isEmpty()) {
+            return null;
+        }
+        return Long.valueOf(s);
+    }
+
+}
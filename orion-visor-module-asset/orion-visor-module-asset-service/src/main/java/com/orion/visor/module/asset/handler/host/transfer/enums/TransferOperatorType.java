@@ -39,12 +39,24 @@ public enum TransferOperatorType {
      */
     DOWNLOAD_ABORT(TransferOperatorType.DOWNLOAD, "downloadAbort"),
 
+    /**
+     * 初始化打包下载
+     */
+    DOWNLOAD_ZIP_INIT(TransferOperatorType.DOWNLOAD_ZIP, "downloadZipInit"),
+
+    /**
+     * 中断打包下载
+     */
+    DOWNLOAD_ZIP_ABORT(TransferOperatorType.DOWNLOAD_ZIP, "downloadZipAbort"),
+
     ;
 
     public static final String UPLOAD = "UPLOAD";
 
     public static final String DOWNLOAD = "DOWNLOAD";
 
+    public static final String DOWNLOAD_ZIP = "DOWNLOAD_ZIP";
+
     private final String kind;
 
     private final String type;
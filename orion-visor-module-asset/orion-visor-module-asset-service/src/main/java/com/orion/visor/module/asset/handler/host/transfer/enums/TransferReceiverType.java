@@ -17,47 +17,52 @@ public enum TransferReceiverType {
     /**
      * 请求下一个传输任务
      */
-    NEXT_TRANSFER("nextTransfer"),
+    NEXT_TRANSFER("nextTransfer", true),
 
     /**
      * 请求下一块上传数据
      */
-    UPLOAD_NEXT_BLOCK("uploadNextBlock"),
+    UPLOAD_NEXT_BLOCK("uploadNextBlock", false),
 
     /**
      * 上传完成
      */
-    UPLOAD_FINISH("uploadFinish"),
+    UPLOAD_FINISH("uploadFinish", true),
 
     /**
      * 上传失败
      */
-    UPLOAD_ERROR("uploadError"),
+    UPLOAD_ERROR("uploadError", true),
 
     /**
      * 开始下载
      */
-    DOWNLOAD_START("downloadStart"),
+    DOWNLOAD_START("downloadStart", false),
 
     /**
      * 下载进度
      */
-    DOWNLOAD_PROGRESS("downloadProgress"),
+    DOWNLOAD_PROGRESS("downloadProgress", false),
 
     /**
      * 下载完成
      */
-    DOWNLOAD_FINISH("downloadFinish"),
+    DOWNLOAD_FINISH("downloadFinish", true),
 
     /**
      * 下载失败
      */
-    DOWNLOAD_ERROR("downloadError"),
+    DOWNLOAD_ERROR("downloadError", true),
 
     ;
 
     private final String type;
 
+    /**
+     * 是否为传输结束的响应
+     */
+    private final boolean finished;
+
     public static TransferReceiverType of(String type) {
         if (type == null) {
             return null;
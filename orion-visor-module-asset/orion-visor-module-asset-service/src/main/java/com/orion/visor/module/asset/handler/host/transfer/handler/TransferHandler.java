@@ -8,6 +8,8 @@ import com.orion.spring.SpringHolder;
 import com.orion.visor.framework.common.constant.ErrorMessage;
 import com.orion.visor.framework.common.constant.ExtraFieldConst;
 import com.orion.visor.framework.websocket.core.utils.WebSockets;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
 import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
 import com.orion.visor.module.asset.handler.host.transfer.enums.TransferOperatorType;
 import com.orion.visor.module.asset.handler.host.transfer.enums.TransferReceiverType;
@@ -19,10 +21,16 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 传输处理器
+ * <p>
+ * 每个传输使用独立的会话 不同主机的传输并行执行 同一主机限制并行数
+ * 超出并行数的传输进入等待队列 传输结束后按顺序调度 跳过已满的主机
+ * 同一主机同一类型的会话在传输结束后保留 等待中的传输复用 没有等待中的传输时关闭
  *
  * @author Jiahang Li
  * @version 1.0.0
@@ -33,27 +41,56 @@ public class TransferHandler implements ITransferHandler {
 
     private static final HostTerminalService hostTerminalService = SpringHolder.getBean(HostTerminalService.class);
 
+    private static final AppSftpConfig appSftpConfig = SpringHolder.getBean(AppSftpConfig.class);
+
+    private static final int STREAM_ID_LENGTH = 4;
+
     private final Long userId;
 
     private final WebSocketSession channel;
 
     /**
-     * 当前会话
+     * 空闲会话 hostId_kind -> sessions
+     */
+    private final Map<String, Deque<ITransferHostSession>> idleSessions;
+
+    /**
+     * 执行中的传输 transferId -> task
+     */
+    private final Map<String, TransferTask> runningTasks;
+
+    /**
+     * 等待中的传输
+     */
+    private final LinkedList<TransferOperatorRequest> pendingTasks;
+
+    /**
+     * 上传流 streamId -> session
      */
-    private ITransferHostSession currentSession;
+    private final Map<Integer, IUploadSession> uploadStreams;
 
     /**
-     * 会话列表
+     * 未使用上传流时 写入最后开始的上传
      */
-    private final ConcurrentHashMap<String, ITransferHostSession> sessions;
+    private volatile IUploadSession lastUpload;
+
+    /**
+     * 上传数据是否以流id开头 由第一个开始上传的请求决定 之后不再改变
+     */
+    private volatile Boolean streamFraming;
 
     @Getter
     private final ConcurrentHashMap<String, IDownloadSession> tokenSessions;
 
+    private boolean closed;
+
     public TransferHandler(WebSocketSession channel) {
         this.channel = channel;
         this.userId = WebSockets.getAttr(channel, ExtraFieldConst.USER_ID);
-        this.sessions = new ConcurrentHashMap<>();
+        this.idleSessions = new HashMap<>();
+        this.runningTasks = new LinkedHashMap<>();
+        this.pendingTasks = new LinkedList<>();
+        this.uploadStreams = new ConcurrentHashMap<>();
         this.tokenSessions = new ConcurrentHashMap<>();
     }
 
@@ -61,33 +98,60 @@ public class TransferHandler implements ITransferHandler {
     public void handleMessage(TransferOperatorRequest payload) {
         // 解析消息类型
         TransferOperatorType type = TransferOperatorType.of(payload.getType());
-        // 获取会话
-        if (!this.getAndInitSession(payload, type)) {
+        if (type == null) {
             return;
         }
+        if (this.isStartType(type)) {
+            // 未传入传输id时生成 每次开始都是独立的传输
+            if (payload.getTransferId() == null) {
+                payload.setTransferId(UUIds.random32());
+            }
+            if (type == TransferOperatorType.UPLOAD_START && !this.checkFraming(payload)) {
+                return;
+            }
+            // 开始传输 超出并行数则等待
+            synchronized (this) {
+                if (closed || !this.canRun(payload.getHostId())) {
+                    pendingTasks.add(payload);
+                    return;
+                }
+                this.submitTask(this.createTask(payload), payload, type);
+            }
+            return;
+        }
+        TransferTask task;
+        synchronized (this) {
+            String transferId = this.getTransferId(payload, type);
+            if (transferId == null) {
+                return;
+            }
+            task = runningTasks.get(transferId);
+            if (task == null) {
+                // 取消等待中的传输
+                pendingTasks.removeIf(s -> transferId.equals(s.getTransferId()));
+                this.closeUnusedSessions();
+                return;
+            }
+            if (task.session == null) {
+                // 会话创建中 创建后取消
+                task.cancelled = true;
+                return;
+            }
+        }
         // 处理消息
         switch (type) {
-            case UPLOAD_START:
-                // 开始上传
-                ((IUploadSession) currentSession).startUpload(payload.getPath());
-                break;
             case UPLOAD_FINISH:
                 // 上传完成
-                ((IUploadSession) currentSession).uploadFinish();
+                ((IUploadSession) task.session).uploadFinish();
                 break;
             case UPLOAD_ERROR:
                 // 上传失败
-                ((IUploadSession) currentSession).uploadError();
-                break;
-            case DOWNLOAD_INIT:
-                // 开始下载
-                String token = UUIds.random32();
-                tokenSessions.put(token, (IDownloadSession) currentSession);
-                ((IDownloadSession) currentSession).downloadInit(payload.getPath(), token);
+                ((IUploadSession) task.session).uploadError();
                 break;
             case DOWNLOAD_ABORT:
+            case DOWNLOAD_ZIP_ABORT:
                 // 中断下载
-                ((IDownloadSession) currentSession).abortDownload();
+                ((IDownloadSession) task.session).abortDownload();
                 break;
             default:
                 break;
@@ -96,55 +160,389 @@ public class TransferHandler implements ITransferHandler {
 
     @Override
     public void putContent(byte[] content) {
-        ((IUploadSession) currentSession).putContent(content);
+        Boolean framing = streamFraming;
+        if (framing == null) {
+            return;
+        }
+        IUploadSession session = lastUpload;
+        int offset = 0;
+        if (framing) {
+            // 使用上传流 数据以流id开头 流已结束的数据丢弃
+            if (content.length < STREAM_ID_LENGTH) {
+                return;
+            }
+            int streamId = ((content[0] & 0xFF) << 24) | ((content[1] & 0xFF) << 16) | ((content[2] & 0xFF) << 8) | (content[3] & 0xFF);
+            session = uploadStreams.get(streamId);
+            offset = STREAM_ID_LENGTH;
+        }
+        if (session != null) {
+            session.putContent(content, offset);
+        }
+    }
+
+    /**
+     * 检查上传数据格式 同一连接不能同时使用两种格式
+     * <p>
+     * 未使用上传流的数据无法通过内容区分 因此格式由第一个开始上传的请求决定
+     *
+     * @param payload payload
+     * @return 是否可以开始上传
+     */
+    private boolean checkFraming(TransferOperatorRequest payload) {
+        boolean framing = payload.getStreamId() != null;
+        synchronized (this) {
+            if (streamFraming == null) {
+                this.streamFraming = framing;
+            }
+        }
+        if (streamFraming == framing) {
+            return true;
+        }
+        log.error("TransferHandler.checkFraming mismatch channelId: {}, transferId: {}", channel.getId(), payload.getTransferId());
+        TransferUtils.sendMessage(this.channel, TransferReceiverType.NEXT_TRANSFER,
+                Exceptions.invalidArgument(ErrorMessage.UNKNOWN_TYPE),
+                r -> r.setTransferId(payload.getTransferId()));
+        return false;
+    }
+
+    /**
+     * 在线程池中开始传输 不阻塞 websocket 线程 需要持有锁
+     *
+     * @param task    task
+     * @param payload payload
+     * @param type    type
+     */
+    private void submitTask(TransferTask task, TransferOperatorRequest payload, TransferOperatorType type) {
+        try {
+            AssetThreadPools.TERMINAL_BLOCKING.execute(() -> this.startTask(task, payload, type));
+        } catch (RejectedExecutionException e) {
+            log.error("TransferHandler.submitTask rejected channelId: {}, transferId: {}", channel.getId(), task.transferId);
+            runningTasks.remove(task.transferId);
+            TransferUtils.sendMessage(this.channel, TransferReceiverType.NEXT_TRANSFER,
+                    Exceptions.invalidArgument(ErrorMessage.SYSTEM_BUSY),
+                    r -> r.setTransferId(task.transferId));
+        }
     }
 
     /**
-     * 获取并且初始化会话
+     * 开始传输
      *
+     * @param task    task
      * @param payload payload
      * @param type    type
-     * @return success
      */
-    private boolean getAndInitSession(TransferOperatorRequest payload, TransferOperatorType type) {
-        Long hostId = payload.getHostId();
-        String sessionKey = hostId + "_" + type.getKind();
+    private void startTask(TransferTask task, TransferOperatorRequest payload, TransferOperatorType type) {
+        ITransferHostSession session;
         try {
-            // 获取会话
-            ITransferHostSession session = sessions.get(sessionKey);
-            if (session == null) {
-                // 获取主机信息
-                HostTerminalConnectDTO connectInfo = hostTerminalService.getTerminalConnectInfo(this.userId, hostId);
-                SessionStore sessionStore = hostTerminalService.openSessionStore(connectInfo);
-                // 打开会话并初始化
-                if (TransferOperatorType.UPLOAD.equals(type.getKind())) {
-                    // 上传操作
-                    session = new UploadSession(connectInfo, sessionStore, this.channel);
-                } else if (TransferOperatorType.DOWNLOAD.equals(type.getKind())) {
-                    // 下载操作
-                    session = new DownloadSession(connectInfo, sessionStore, this.channel);
+            session = this.acquireSession(payload.getHostId(), type.getKind());
+        } catch (Exception e) {
+            log.error("TransferHandler.startTask error channelId: {}, transferId: {}", channel.getId(), task.transferId, e);
+            // 响应结果
+            TransferUtils.sendMessage(this.channel, TransferReceiverType.NEXT_TRANSFER, e, r -> r.setTransferId(task.transferId));
+            this.completeTask(task.transferId);
+            return;
+        }
+        session.setTransferId(task.transferId);
+        synchronized (this) {
+            if (closed) {
+                // 创建会话时已关闭 释放通道和共享连接
+                this.closeSession(session);
+                return;
+            }
+            task.session = session;
+            if (task.cancelled) {
+                // 创建会话时已取消
+                runningTasks.remove(task.transferId);
+                this.releaseSession(task);
+                this.dispatchPendingTasks();
+                this.closeUnusedSessions();
+                return;
+            }
+        }
+        switch (type) {
+            case UPLOAD_START:
+                // 开始上传
+                IUploadSession uploadSession = (IUploadSession) session;
+                if (payload.getStreamId() != null) {
+                    uploadStreams.put(payload.getStreamId(), uploadSession);
                 } else {
-                    throw Exceptions.invalidArgument(ErrorMessage.UNKNOWN_TYPE);
+                    this.lastUpload = uploadSession;
                 }
-                session.init();
-                sessions.put(sessionKey, session);
-                log.info("TransferHandler.getAndInitSession success channelId: {}, hostId: {}", channel.getId(), hostId);
+                uploadSession.startUpload(payload.getPath(), payload.getWindowSize(), payload.getTransferToken());
+                break;
+            case DOWNLOAD_INIT:
+            case DOWNLOAD_ZIP_INIT:
+                // 开始下载
+                String token = UUIds.random32();
+                tokenSessions.put(token, (IDownloadSession) session);
+                ((IDownloadSession) session).downloadInit(payload.getPath(), token);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 传输结束 归还会话并调度等待中的传输
+     *
+     * @param transferId transferId
+     */
+    private void completeTask(String transferId) {
+        synchronized (this) {
+            TransferTask task = runningTasks.remove(transferId);
+            if (task == null) {
+                return;
             }
-            this.currentSession = session;
-            return true;
-        } catch (Exception e) {
-            log.error("TransferHandler.getAndInitSession error channelId: {}", channel.getId(), e);
-            // 响应结果
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.NEXT_TRANSFER, e);
+            this.releaseSession(task);
+            this.dispatchPendingTasks();
+            this.closeUnusedSessions();
+        }
+    }
+
+    /**
+     * 调度等待中的传输 需要持有锁
+     */
+    private void dispatchPendingTasks() {
+        if (closed) {
+            return;
+        }
+        Iterator<TransferOperatorRequest> iterator = pendingTasks.iterator();
+        while (iterator.hasNext() && runningTasks.size() < appSftpConfig.getTransferChannelConcurrency()) {
+            TransferOperatorRequest payload = iterator.next();
+            if (!this.canRun(payload.getHostId())) {
+                continue;
+            }
+            iterator.remove();
+            TransferOperatorType type = TransferOperatorType.of(payload.getType());
+            this.submitTask(this.createTask(payload), payload, type);
+        }
+    }
+
+    /**
+     * 创建传输 需要持有锁
+     *
+     * @param payload payload
+     * @return task
+     */
+    private TransferTask createTask(TransferOperatorRequest payload) {
+        String kind = TransferOperatorType.of(payload.getType()).getKind();
+        TransferTask task = new TransferTask(payload.getTransferId(), payload.getHostId(), kind);
+        runningTasks.put(task.transferId, task);
+        return task;
+    }
+
+    /**
+     * 归还会话 需要持有锁
+     *
+     * @param task task
+     */
+    private void releaseSession(TransferTask task) {
+        ITransferHostSession session = task.session;
+        if (session == null) {
+            return;
+        }
+        uploadStreams.values().removeIf(session::equals);
+        tokenSessions.values().removeIf(session::equals);
+        if (lastUpload == session) {
+            this.lastUpload = null;
+        }
+        Deque<ITransferHostSession> idle = idleSessions.computeIfAbsent(this.getSessionKey(task.hostId, task.kind), k -> new ArrayDeque<>());
+        // 空闲会话数不超过同一主机的并行数
+        if (closed || idle.size() >= appSftpConfig.getTransferHostConcurrency()) {
+            this.closeSession(session);
+            return;
+        }
+        idle.push(session);
+    }
+
+    /**
+     * 关闭没有等待中的传输使用的空闲会话 需要持有锁
+     */
+    private void closeUnusedSessions() {
+        Iterator<Map.Entry<String, Deque<ITransferHostSession>>> iterator = idleSessions.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Deque<ITransferHostSession>> entry = iterator.next();
+            boolean used = pendingTasks.stream()
+                    .anyMatch(s -> entry.getKey().equals(this.getSessionKey(s.getHostId(), TransferOperatorType.of(s.getType()).getKind())));
+            if (!used) {
+                iterator.remove();
+                entry.getValue().forEach(this::closeSession);
+            }
+        }
+    }
+
+    /**
+     * 在线程池中关闭会话 不阻塞持有锁的线程
+     *
+     * @param session session
+     */
+    private void closeSession(ITransferHostSession session) {
+        try {
+            AssetThreadPools.TERMINAL_BLOCKING.execute(() -> Streams.close(session));
+        } catch (RejectedExecutionException e) {
+            Streams.close(session);
+        }
+    }
+
+    /**
+     * 是否可以开始传输 需要持有锁
+     *
+     * @param hostId hostId
+     * @return canRun
+     */
+    private boolean canRun(Long hostId) {
+        if (runningTasks.size() >= appSftpConfig.getTransferChannelConcurrency()) {
             return false;
         }
+        long hostRunning = runningTasks.values()
+                .stream()
+                .filter(s -> Objects.equals(s.hostId, hostId))
+                .count();
+        return hostRunning < appSftpConfig.getTransferHostConcurrency();
+    }
+
+    /**
+     * 获取空闲会话或者创建会话
+     *
+     * @param hostId hostId
+     * @param kind   kind
+     * @return session
+     */
+    private ITransferHostSession acquireSession(Long hostId, String kind) {
+        synchronized (this) {
+            Deque<ITransferHostSession> idle = idleSessions.get(this.getSessionKey(hostId, kind));
+            if (idle != null && !idle.isEmpty()) {
+                return idle.pop();
+            }
+        }
+        // 获取主机信息
+        HostTerminalConnectDTO connectInfo = hostTerminalService.getTerminalConnectInfo(this.userId, hostId);
+        SessionStore sessionStore = hostTerminalService.openSharedSessionStore(connectInfo);
+        // 打开会话并初始化
+        ITransferHostSession session;
+        if (TransferOperatorType.UPLOAD.equals(kind)) {
+            // 上传操作
+            session = new UploadSession(connectInfo, sessionStore, this.channel);
+        } else if (TransferOperatorType.DOWNLOAD.equals(kind)) {
+            // 下载操作
+            session = new DownloadSession(connectInfo, sessionStore, this.channel);
+        } else if (TransferOperatorType.DOWNLOAD_ZIP.equals(kind)) {
+            // 打包下载操作
+            session = new ZipDownloadSession(connectInfo, sessionStore, this.channel);
+        } else {
+            hostTerminalService.releaseSessionStore(sessionStore);
+            throw Exceptions.invalidArgument(ErrorMessage.UNKNOWN_TYPE);
+        }
+        try {
+            session.init();
+        } catch (Exception e) {
+            // 释放连接
+            Streams.close(session);
+            throw e;
+        }
+        session.setCompleteListener(this::completeTask);
+        log.info("TransferHandler.acquireSession success channelId: {}, hostId: {}, kind: {}", channel.getId(), hostId, kind);
+        return session;
+    }
+
+    /**
+     * 获取传输id 需要持有锁
+     * <p>
+     * 未传入时使用该主机该类型最后开始的传输 没有执行中的传输时使用最后等待的传输
+     *
+     * @param payload payload
+     * @param type    type
+     * @return transferId 没有对应的传输返回 null
+     */
+    private String getTransferId(TransferOperatorRequest payload, TransferOperatorType type) {
+        if (payload.getTransferId() != null) {
+            return payload.getTransferId();
+        }
+        String kind = type.getKind();
+        String transferId = null;
+        for (TransferTask task : runningTasks.values()) {
+            if (Objects.equals(task.hostId, payload.getHostId()) && Objects.equals(task.kind, kind)) {
+                transferId = task.transferId;
+            }
+        }
+        if (transferId != null) {
+            return transferId;
+        }
+        for (TransferOperatorRequest pending : pendingTasks) {
+            if (Objects.equals(pending.getHostId(), payload.getHostId())
+                    && Objects.equals(TransferOperatorType.of(pending.getType()).getKind(), kind)) {
+                transferId = pending.getTransferId();
+            }
+        }
+        return transferId;
+    }
+
+    /**
+     * 获取会话 key
+     *
+     * @param hostId hostId
+     * @param kind   kind
+     * @return key
+     */
+    private String getSessionKey(Long hostId, String kind) {
+        return hostId + "_" + kind;
+    }
+
+    /**
+     * 是否为开始传输的操作
+     *
+     * @param type type
+     * @return isStart
+     */
+    private boolean isStartType(TransferOperatorType type) {
+        return type == TransferOperatorType.UPLOAD_START
+                || type == TransferOperatorType.DOWNLOAD_INIT
+                || type == TransferOperatorType.DOWNLOAD_ZIP_INIT;
     }
 
     @Override
     public void close() {
         log.info("TransferHandler.close channelId: {}", channel.getId());
-        sessions.values().forEach(Streams::close);
+        List<ITransferHostSession> sessions = new ArrayList<>();
+        synchronized (this) {
+            this.closed = true;
+            pendingTasks.clear();
+            idleSessions.values().forEach(sessions::addAll);
+            idleSessions.clear();
+            runningTasks.values()
+                    .stream()
+                    .map(s -> s.session)
+                    .filter(Objects::nonNull)
+                    .forEach(sessions::add);
+            runningTasks.clear();
+        }
+        sessions.forEach(Streams::close);
+        uploadStreams.clear();
         tokenSessions.clear();
+        this.lastUpload = null;
+    }
+
+    /**
+     * 传输任务
+     */
+    private static class TransferTask {
+
+        private final String transferId;
+
+        private final Long hostId;
+
+        private final String kind;
+
+        private ITransferHostSession session;
+
+        private boolean cancelled;
+
+        private TransferTask(String transferId, Long hostId, String kind) {
+            this.transferId = transferId;
+            this.hostId = hostId;
+            this.kind = kind;
+        }
+
     }
 
 }
@@ -1,9 +1,16 @@
 package com.orion.visor.module.asset.handler.host.transfer.manager;
 
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
 import com.orion.visor.module.asset.handler.host.transfer.handler.ITransferHandler;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferResumeInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.Resource;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 主机传输管理器
@@ -12,11 +19,20 @@ import java.util.concurrent.ConcurrentHashMap;
  * @version 1.0.0
  * @since 2024/6/4 17:58
  */
+@Slf4j
 @Component
 public class HostTransferManager {
 
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
     private final ConcurrentHashMap<String, ITransferHandler> handlers = new ConcurrentHashMap<>();
 
+    /**
+     * transferToken -> 可恢复传输信息
+     */
+    private final Map<String, TransferResumeInfo> resumeInfos = new ConcurrentHashMap<>();
+
     /**
      * 添加处理器
      *
@@ -47,4 +63,69 @@ public class HostTransferManager {
         return handlers.remove(id);
     }
 
+    /**
+     * 保存可恢复传输信息 并刷新过期时间
+     *
+     * @param info info
+     */
+    public void putResumeInfo(TransferResumeInfo info) {
+        info.setExpireTime(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(appSftpConfig.getTransferResumeTimeout()));
+        resumeInfos.put(info.getToken(), info);
+    }
+
+    /**
+     * 获取可恢复传输信息
+     *
+     * @param token token
+     * @return info 不存在或已过期返回 null
+     */
+    public TransferResumeInfo getResumeInfo(String token) {
+        if (token == null) {
+            return null;
+        }
+        TransferResumeInfo info = resumeInfos.get(token);
+        if (info == null || info.getExpireTime() < System.currentTimeMillis()) {
+            return null;
+        }
+        return info;
+    }
+
+    /**
+     * 取出可恢复传输信息 同一时间只能有一个请求使用
+     * 未完成时需要调用 {@link #putResumeInfo(TransferResumeInfo)} 放回
+     *
+     * @param token token
+     * @return info 不存在或已过期返回 null
+     */
+    public TransferResumeInfo claimResumeInfo(String token) {
+        if (token == null) {
+            return null;
+        }
+        TransferResumeInfo info = resumeInfos.remove(token);
+        if (info == null || info.getExpireTime() < System.currentTimeMillis()) {
+            return null;
+        }
+        return info;
+    }
+
+    /**
+     * 删除可恢复传输信息
+     *
+     * @param token token
+     */
+    public void removeResumeInfo(String token) {
+        if (token != null) {
+            resumeInfos.remove(token);
+        }
+    }
+
+    /**
+     * 清理过期的可恢复传输信息
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void clearExpiredResumeInfo() {
+        long now = System.currentTimeMillis();
+        resumeInfos.values().removeIf(s -> s.getExpireTime() < now);
+    }
+
 }
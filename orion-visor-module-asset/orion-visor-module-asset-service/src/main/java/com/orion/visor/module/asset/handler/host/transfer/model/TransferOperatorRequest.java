@@ -18,6 +18,16 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class TransferOperatorRequest {
 
+    /**
+     * 传输id
+     */
+    private String transferId;
+
+    /**
+     * 上传流id 上传数据以 4 字节流id开头
+     */
+    private Integer streamId;
+
     /**
      * 文件路径
      */
@@ -33,4 +43,14 @@ public class TransferOperatorRequest {
      */
     private Long hostId;
 
+    /**
+     * 上传窗口大小
+     */
+    private Integer windowSize;
+
+    /**
+     * 恢复传输的 transferToken
+     */
+    private String transferToken;
+
 }
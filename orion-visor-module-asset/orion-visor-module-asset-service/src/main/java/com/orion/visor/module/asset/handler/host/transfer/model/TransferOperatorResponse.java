@@ -23,6 +23,11 @@ public class TransferOperatorResponse {
      */
     private String channelId;
 
+    /**
+     * 传输id
+     */
+    private String transferId;
+
     /**
      * type
      */
@@ -41,13 +46,33 @@ public class TransferOperatorResponse {
     /**
      * 传输的大小
      */
-    private Integer currentSize;
+    private Long currentSize;
 
     /**
      * transferToken
      */
     private String transferToken;
 
+    /**
+     * 上传窗口大小
+     */
+    private Integer windowSize;
+
+    /**
+     * 已写入的数据块序号 累计确认
+     */
+    private Integer ack;
+
+    /**
+     * 恢复上传的起始位置
+     */
+    private Long offset;
+
+    /**
+     * 已打包的文件数量
+     */
+    private Integer entryCount;
+
     /**
      * 消息
      */
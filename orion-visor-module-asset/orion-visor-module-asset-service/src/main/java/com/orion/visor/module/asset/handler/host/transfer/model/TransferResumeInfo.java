@@ -0,0 +1,79 @@
+package com.orion.visor.module.asset.handler.host.transfer.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 可恢复传输信息 实体对象
+ * <p>
+ * 不依赖 websocket 连接 断开重连后可通过 transferToken 继续传输
+ * 下载只允许首次下载的请求地址恢复 传输完成后删除
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:40
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResumeInfo {
+
+    /**
+     * transferToken
+     */
+    private String token;
+
+    /**
+     * 传输类型 UPLOAD DOWNLOAD
+     */
+    private String kind;
+
+    /**
+     * 用户id
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 主机id
+     */
+    private Long hostId;
+
+    /**
+     * 主机名称
+     */
+    private String hostName;
+
+    /**
+     * 主机地址
+     */
+    private String hostAddress;
+
+    /**
+     * 首次下载的请求地址 下载时有效
+     */
+    private String requestAddress;
+
+    /**
+     * 文件路径
+     */
+    private String path;
+
+    /**
+     * 文件大小 下载时有效
+     */
+    private Long size;
+
+    /**
+     * 过期时间
+     */
+    private Long expireTime;
+
+}
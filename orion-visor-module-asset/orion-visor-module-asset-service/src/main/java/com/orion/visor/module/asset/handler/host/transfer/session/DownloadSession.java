@@ -1,25 +1,29 @@
 package com.orion.visor.module.asset.handler.host.transfer.session;
 
-import com.orion.lang.define.wrapper.Ref;
-import com.orion.lang.utils.Threads;
 import com.orion.lang.utils.Valid;
+import com.orion.lang.utils.io.Files1;
 import com.orion.lang.utils.io.Streams;
 import com.orion.net.host.SessionStore;
 import com.orion.net.host.sftp.SftpFile;
 import com.orion.visor.framework.common.constant.Const;
 import com.orion.visor.framework.common.constant.ErrorMessage;
-import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.framework.common.constant.ExtraFieldConst;
+import com.orion.visor.framework.websocket.core.utils.WebSockets;
 import com.orion.visor.module.asset.define.operator.HostTerminalOperatorType;
 import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.handler.host.transfer.enums.TransferOperatorType;
 import com.orion.visor.module.asset.handler.host.transfer.enums.TransferReceiverType;
-import com.orion.visor.module.asset.handler.host.transfer.utils.TransferUtils;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferResumeInfo;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 下载会话实现
@@ -31,18 +35,46 @@ import java.io.OutputStream;
 @Slf4j
 public class DownloadSession extends TransferHostSession implements IDownloadSession {
 
+    /**
+     * 等待关闭流的超时时间 (s)
+     */
+    private static final long COMPLETION_TIMEOUT = 10L;
+
     @Getter
     private String path;
 
+    @Getter
+    private long size;
+
     private InputStream inputStream;
 
+    /**
+     * 当前下载的 token 下载完成或中断后删除恢复信息
+     */
+    private volatile String transferToken;
+
+    private volatile boolean cancelled;
+
+    private boolean writing;
+
+    /**
+     * 当前下载流关闭后完成
+     */
+    private volatile CompletableFuture<Void> completion;
+
     public DownloadSession(HostTerminalConnectDTO connectInfo, SessionStore sessionStore, WebSocketSession channel) {
         super(connectInfo, sessionStore, channel);
+        this.completion = CompletableFuture.completedFuture(null);
     }
 
     @Override
     public void downloadInit(String path, String token) {
+        // 等待上一个下载关闭流
+        this.awaitCompletion();
         this.path = path;
+        this.transferToken = token;
+        this.cancelled = false;
+        this.completion = new CompletableFuture<>();
         String channelId = channel.getId();
         try {
             log.info("DownloadSession.startDownload open start channelId: {}, path: {}", channelId, path);
@@ -56,42 +88,89 @@ public class DownloadSession extends TransferHostSession implements IDownloadSes
             if (file.getSize() == 0L) {
                 // 文件为空
                 log.info("DownloadSession.startDownload file empty channelId: {}, path: {}", channelId, path);
-                TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_FINISH, null);
+                completion.complete(null);
+                this.sendMessage(TransferReceiverType.DOWNLOAD_FINISH, null);
                 return;
             }
+            this.size = file.getSize();
+            // 保存可恢复下载信息 断开后可通过 token 从指定位置继续下载
+            TRANSFER_MANAGER.putResumeInfo(TransferResumeInfo.builder()
+                    .token(token)
+                    .kind(TransferOperatorType.DOWNLOAD)
+                    .userId(userId)
+                    .username(WebSockets.getAttr(channel, ExtraFieldConst.USERNAME))
+                    .hostId(connectInfo.getHostId())
+                    .hostName(connectInfo.getHostName())
+                    .hostAddress(connectInfo.getHostAddress())
+                    .path(path)
+                    .size(file.getSize())
+                    .build());
             // 打开输入流
             this.inputStream = executor.openInputStream(path);
             // 响应开始下载
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_START, null, e -> {
+            this.sendMessage(TransferReceiverType.DOWNLOAD_START, null, e -> {
                 e.setChannelId(channelId);
                 e.setTransferToken(token);
             });
             log.info("DownloadSession.startDownload open success channelId: {}, path: {}", channelId, path);
         } catch (Exception e) {
             log.error("DownloadSession.startDownload open error channelId: {}, path: {}", channelId, path, e);
+            this.releaseStream(false);
             // 响应下载失败
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_ERROR, e);
+            this.sendMessage(TransferReceiverType.DOWNLOAD_ERROR, e);
         }
     }
 
     @Override
     public void abortDownload() {
         log.info("DownloadSession.abortDownload channelId: {}", channel.getId());
-        // 关闭流
-        this.closeStream();
+        this.cancelled = true;
+        // 主动中断的下载不可恢复
+        TRANSFER_MANAGER.removeResumeInfo(transferToken);
+        synchronized (this) {
+            // 写入中由写入线程读取结束后关闭流
+            if (!writing) {
+                this.releaseStream(false);
+            }
+        }
+    }
+
+    @Override
+    public String getFileName() {
+        return Files1.getFileName(path);
     }
 
     @Override
     public void writeTo(OutputStream outputStream) {
         String channelId = channel.getId();
-        Ref<Exception> ex = new Ref<>();
+        InputStream in;
+        synchronized (this) {
+            in = this.inputStream;
+            if (in == null) {
+                // 已中断
+                this.sendMessage(TransferReceiverType.DOWNLOAD_FINISH, null);
+                return;
+            }
+            this.writing = true;
+        }
+        Exception ex = null;
+        boolean readError = false;
         try {
             byte[] buffer = new byte[Const.BUFFER_KB_32];
             int len;
             int i = 0;
-            int size = 0;
+            long size = 0;
             // 响应文件内容
-            while (this.inputStream != null && (len = this.inputStream.read(buffer)) != -1) {
+            while (!cancelled) {
+                try {
+                    len = in.read(buffer);
+                } catch (IOException e) {
+                    readError = true;
+                    throw e;
+                }
+                if (len == -1) {
+                    break;
+                }
                 outputStream.write(buffer, 0, len);
                 size += len;
                 // 不要每次都 flush 和 send > 1mb
@@ -108,25 +187,26 @@ public class DownloadSession extends TransferHostSession implements IDownloadSes
             if (i != 0) {
                 this.flushAndSendProgress(outputStream, size);
             }
-            log.info("DownloadSession.download finish channelId: {}, path: {}", channelId, path);
+            if (cancelled) {
+                ex = new InterruptedIOException();
+            }
+            log.info("DownloadSession.download finish channelId: {}, path: {}, cancelled: {}", channelId, path, cancelled);
         } catch (Exception e) {
             log.error("DownloadSession.download error channelId: {}, path: {}", channelId, path, e);
-            ex.set(e);
+            ex = e;
+        }
+        // 在读取线程关闭流 关闭后再响应结果 下一个下载可以复用通道
+        synchronized (this) {
+            this.writing = false;
+            this.releaseStream(readError);
+        }
+        if (ex == null) {
+            // 下载完成 token 失效
+            TRANSFER_MANAGER.removeResumeInfo(transferToken);
+            this.sendMessage(TransferReceiverType.DOWNLOAD_FINISH, null);
+        } else {
+            this.sendMessage(TransferReceiverType.DOWNLOAD_ERROR, ex);
         }
-        // 异步关闭
-        AssetThreadPools.TERMINAL_OPERATOR.execute(() -> {
-            // 关闭等待 jsch 内部处理
-            Threads.sleep(100);
-            this.closeStream();
-            Threads.sleep(100);
-            // 响应结果
-            Exception e = ex.getValue();
-            if (e == null) {
-                TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_FINISH, null);
-            } else {
-                TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_ERROR, e);
-            }
-        });
     }
 
     /**
@@ -136,20 +216,64 @@ public class DownloadSession extends TransferHostSession implements IDownloadSes
      * @param size         size
      * @throws IOException IOException
      */
-    private void flushAndSendProgress(OutputStream outputStream, int size) throws IOException {
+    private void flushAndSendProgress(OutputStream outputStream, long size) throws IOException {
         // flush
         outputStream.flush();
         // send
-        TransferUtils.sendMessage(this.channel, TransferReceiverType.DOWNLOAD_PROGRESS, null, e -> e.setCurrentSize(size));
+        this.sendMessage(TransferReceiverType.DOWNLOAD_PROGRESS, null, e -> e.setCurrentSize(size));
     }
 
-    @Override
-    protected void closeStream() {
-        // 关闭 inputStream 可能会被阻塞 ???...??? 只能关闭 executor
-        this.path = null;
+    /**
+     * 等待上一个下载关闭流 超时则重建通道
+     */
+    private void awaitCompletion() {
+        try {
+            completion.get(COMPLETION_TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.closeExecutor();
+        } catch (Exception e) {
+            log.error("DownloadSession.awaitCompletion timeout channelId: {}", channel.getId(), e);
+            this.closeExecutor();
+        }
+    }
+
+    /**
+     * 关闭输入流
+     * <p>
+     * 中断和取消只关闭输入流 通道可以继续用于下一个下载
+     * 读取失败时通道状态未知 关闭通道 下次下载时重新连接
+     *
+     * @param readError 是否读取失败
+     */
+    private synchronized void releaseStream(boolean readError) {
+        InputStream in = this.inputStream;
+        this.inputStream = null;
+        if (in != null) {
+            Streams.close(in);
+            if (readError) {
+                this.closeExecutor();
+            }
+        }
+        completion.complete(null);
+    }
+
+    /**
+     * 关闭通道 下次下载时重新连接
+     */
+    private synchronized void closeExecutor() {
         Streams.close(this.executor);
         this.executor = null;
-        this.inputStream = null;
+    }
+
+    @Override
+    protected void closeStream() {
+        this.cancelled = true;
+        synchronized (this) {
+            if (!writing) {
+                this.releaseStream(false);
+            }
+        }
     }
 
 }
@@ -31,4 +31,18 @@ public interface IDownloadSession extends StreamingResponseBody {
      */
     String getPath();
 
+    /**
+     * 获取下载文件大小
+     *
+     * @return size 未知返回 -1
+     */
+    long getSize();
+
+    /**
+     * 获取下载文件名称
+     *
+     * @return fileName
+     */
+    String getFileName();
+
 }
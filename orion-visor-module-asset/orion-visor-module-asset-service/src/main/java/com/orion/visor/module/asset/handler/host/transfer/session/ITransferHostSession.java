@@ -2,6 +2,8 @@ package com.orion.visor.module.asset.handler.host.transfer.session;
 
 import com.orion.lang.able.SafeCloseable;
 
+import java.util.function.Consumer;
+
 /**
  * 主机传输会话定义
  *
@@ -16,4 +18,18 @@ public interface ITransferHostSession extends SafeCloseable {
      */
     void init();
 
+    /**
+     * 设置当前传输id
+     *
+     * @param transferId transferId
+     */
+    void setTransferId(String transferId);
+
+    /**
+     * 设置传输结束回调
+     *
+     * @param listener 参数为结束的传输id
+     */
+    void setCompleteListener(Consumer<String> listener);
+
 }
@@ -12,16 +12,19 @@ public interface IUploadSession extends ITransferHostSession {
     /**
      * 开始上传
      *
-     * @param path path
+     * @param path       path
+     * @param windowSize 窗口大小 为空使用逐块确认
+     * @param token      恢复上传的 transferToken 为空则重新上传
      */
-    void startUpload(String path);
+    void startUpload(String path, Integer windowSize, String token);
 
     /**
      * 写入内容
      *
-     * @param bytes bytes
+     * @param bytes  bytes
+     * @param offset 内容起始位置
      */
-    void putContent(byte[] bytes);
+    void putContent(byte[] bytes, int offset);
 
     /**
      * 上传完成
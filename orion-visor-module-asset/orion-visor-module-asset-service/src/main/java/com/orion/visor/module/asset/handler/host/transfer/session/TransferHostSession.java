@@ -8,12 +8,20 @@ import com.orion.spring.SpringHolder;
 import com.orion.visor.framework.biz.operator.log.core.model.OperatorLogModel;
 import com.orion.visor.framework.biz.operator.log.core.service.OperatorLogFrameworkService;
 import com.orion.visor.framework.biz.operator.log.core.utils.OperatorLogs;
+import com.orion.visor.framework.common.constant.ExtraFieldConst;
+import com.orion.visor.framework.websocket.core.utils.WebSockets;
 import com.orion.visor.module.asset.define.config.AppSftpConfig;
 import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
 import com.orion.visor.module.asset.handler.host.terminal.utils.TerminalUtils;
+import com.orion.visor.module.asset.handler.host.transfer.enums.TransferReceiverType;
+import com.orion.visor.module.asset.handler.host.transfer.manager.HostTransferManager;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferOperatorResponse;
+import com.orion.visor.module.asset.handler.host.transfer.utils.TransferUtils;
+import com.orion.visor.module.asset.service.HostTerminalService;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 主机传输会话实现
@@ -26,6 +34,10 @@ public abstract class TransferHostSession implements ITransferHostSession {
 
     protected static final AppSftpConfig SFTP_CONFIG = SpringHolder.getBean(AppSftpConfig.class);
 
+    protected static final HostTransferManager TRANSFER_MANAGER = SpringHolder.getBean(HostTransferManager.class);
+
+    protected final Long userId;
+
     protected final HostTerminalConnectDTO connectInfo;
 
     protected final SessionStore sessionStore;
@@ -34,10 +46,15 @@ public abstract class TransferHostSession implements ITransferHostSession {
 
     protected SftpExecutor executor;
 
+    protected volatile String transferId;
+
+    private Consumer<String> completeListener;
+
     public TransferHostSession(HostTerminalConnectDTO connectInfo, SessionStore sessionStore, WebSocketSession channel) {
         this.connectInfo = connectInfo;
         this.sessionStore = sessionStore;
         this.channel = channel;
+        this.userId = WebSockets.getAttr(channel, ExtraFieldConst.USER_ID);
     }
 
     @Override
@@ -54,6 +71,46 @@ public abstract class TransferHostSession implements ITransferHostSession {
         }
     }
 
+    @Override
+    public void setTransferId(String transferId) {
+        this.transferId = transferId;
+    }
+
+    @Override
+    public void setCompleteListener(Consumer<String> listener) {
+        this.completeListener = listener;
+    }
+
+    /**
+     * 发送消息
+     *
+     * @param type type
+     * @param ex   ex
+     */
+    protected void sendMessage(TransferReceiverType type, Exception ex) {
+        this.sendMessage(type, ex, null);
+    }
+
+    /**
+     * 发送消息 传输结束时回调
+     *
+     * @param type   type
+     * @param ex     ex
+     * @param filler filler
+     */
+    protected void sendMessage(TransferReceiverType type, Exception ex, Consumer<TransferOperatorResponse> filler) {
+        String id = this.transferId;
+        TransferUtils.sendMessage(this.channel, type, ex, r -> {
+            r.setTransferId(id);
+            if (filler != null) {
+                filler.accept(r);
+            }
+        });
+        if (type.isFinished() && completeListener != null) {
+            completeListener.accept(id);
+        }
+    }
+
     /**
      * 保存操作日志
      *
@@ -82,7 +139,7 @@ public abstract class TransferHostSession implements ITransferHostSession {
     public void close() {
         this.closeStream();
         Streams.close(executor);
-        Streams.close(sessionStore);
+        SpringHolder.getBean(HostTerminalService.class).releaseSessionStore(sessionStore);
     }
 
 }
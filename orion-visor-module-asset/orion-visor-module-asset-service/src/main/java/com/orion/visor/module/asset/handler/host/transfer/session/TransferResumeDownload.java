@@ -0,0 +1,87 @@
+package com.orion.visor.module.asset.handler.host.transfer.session;
+
+import com.orion.lang.utils.Exceptions;
+import com.orion.lang.utils.io.Streams;
+import com.orion.net.host.SessionStore;
+import com.orion.net.host.sftp.SftpExecutor;
+import com.orion.spring.SpringHolder;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.handler.host.transfer.manager.HostTransferManager;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferResumeInfo;
+import com.orion.visor.module.asset.service.HostTerminalService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 恢复下载
+ * <p>
+ * 不依赖 websocket 会话 使用独立的 sftp 通道从指定位置读取文件
+ * 读取到文件末尾后 token 失效 否则放回以便再次恢复
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:40
+ */
+@Slf4j
+public class TransferResumeDownload implements StreamingResponseBody {
+
+    private static final HostTerminalService hostTerminalService = SpringHolder.getBean(HostTerminalService.class);
+
+    private static final HostTransferManager hostTransferManager = SpringHolder.getBean(HostTransferManager.class);
+
+    private final TransferResumeInfo info;
+
+    private final long offset;
+
+    private final long length;
+
+    public TransferResumeDownload(TransferResumeInfo info, long offset, long length) {
+        this.info = info;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) {
+        log.info("TransferResumeDownload.writeTo start path: {}, offset: {}, length: {}", info.getPath(), offset, length);
+        SessionStore sessionStore = null;
+        SftpExecutor executor = null;
+        long remaining = length;
+        boolean completed = false;
+        try {
+            // 重新检查主机权限
+            HostTerminalConnectDTO connectInfo = hostTerminalService.getTerminalConnectInfo(info.getUserId(), info.getHostId());
+            sessionStore = hostTerminalService.openSharedSessionStore(connectInfo);
+            executor = sessionStore.getSftpExecutor(connectInfo.getFileNameCharset());
+            executor.connect();
+            InputStream in = executor.openInputStream(info.getPath(), offset);
+            byte[] buffer = new byte[Const.BUFFER_KB_32];
+            int len;
+            while (remaining > 0 && (len = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                outputStream.write(buffer, 0, len);
+                remaining -= len;
+            }
+            outputStream.flush();
+            completed = remaining == 0 && offset + length >= info.getSize();
+            log.info("TransferResumeDownload.writeTo finish path: {}", info.getPath());
+        } catch (Exception e) {
+            log.error("TransferResumeDownload.writeTo error path: {}, written: {}", info.getPath(), length - remaining, e);
+            // 状态码和长度已发送 抛出异常中断响应 避免客户端将不完整的内容视为完成
+            throw Exceptions.ioRuntime(e);
+        } finally {
+            if (!completed) {
+                hostTransferManager.putResumeInfo(info);
+            }
+            // 未读取到末尾时关闭流可能阻塞 直接关闭通道
+            Streams.close(executor);
+            if (sessionStore != null) {
+                hostTerminalService.releaseSessionStore(sessionStore);
+            }
+        }
+    }
+
+}
@@ -1,21 +1,33 @@
 package com.orion.visor.module.asset.handler.host.transfer.session;
 
 import com.orion.lang.exception.argument.InvalidArgumentException;
+import com.orion.lang.id.UUIds;
 import com.orion.lang.utils.io.Streams;
 import com.orion.net.host.SessionStore;
+import com.orion.net.host.sftp.SftpFile;
+import com.orion.spring.SpringHolder;
+import com.orion.visor.module.asset.define.AssetThreadPools;
 import com.orion.visor.module.asset.define.operator.HostTerminalOperatorType;
 import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.handler.host.terminal.manager.HostTerminalManager;
+import com.orion.visor.module.asset.handler.host.transfer.enums.TransferOperatorType;
 import com.orion.visor.module.asset.handler.host.transfer.enums.TransferReceiverType;
-import com.orion.visor.module.asset.handler.host.transfer.utils.TransferUtils;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferResumeInfo;
 import com.orion.visor.module.asset.utils.SftpUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 /**
  * 上传会话实现
+ * <p>
+ * 窗口模式下每块数据以 4 字节序号开头 客户端最多同时发送窗口大小的数据块
+ * 数据块进入有界队列 由写入线程写入文件 写入后返回累计确认的序号
  *
  * @author Jiahang Li
  * @version 1.0.0
@@ -24,65 +36,286 @@ import java.io.OutputStream;
 @Slf4j
 public class UploadSession extends TransferHostSession implements IUploadSession {
 
+    private static final int SEQ_LENGTH = 4;
+
+    private static final UploadBlock FINISH = new UploadBlock(-1, null, 0);
+
+    private static final UploadBlock ERROR = new UploadBlock(-1, null, 0);
+
+    private static final UploadBlock ABORT = new UploadBlock(-1, null, 0);
+
     private OutputStream outputStream;
 
+    private String path;
+
+    private String transferToken;
+
+    /**
+     * 窗口大小 非窗口模式为 0
+     */
+    private int windowSize;
+
+    /**
+     * 下一个数据块序号
+     */
+    private int expectedSeq;
+
+    /**
+     * 待写入的数据块
+     */
+    private volatile BlockingQueue<UploadBlock> blocks;
+
+    private volatile boolean writeFailed;
+
     public UploadSession(HostTerminalConnectDTO connectInfo, SessionStore sessionStore, WebSocketSession channel) {
         super(connectInfo, sessionStore, channel);
     }
 
     @Override
-    public void startUpload(String path) {
+    public void startUpload(String path, Integer windowSize, String token) {
         String channelId = channel.getId();
         try {
-            log.info("UploadSession.startUpload start channelId: {}, path: {}", channelId, path);
+            log.info("UploadSession.startUpload start channelId: {}, path: {}, windowSize: {}, token: {}", channelId, path, windowSize, token);
+            this.path = path;
+            // 相同用户 主机 路径的 token 才可以恢复上传
+            TransferResumeInfo resumeInfo = TRANSFER_MANAGER.getResumeInfo(token);
+            boolean resume = resumeInfo != null
+                    && TransferOperatorType.UPLOAD.equals(resumeInfo.getKind())
+                    && Objects.equals(resumeInfo.getUserId(), userId)
+                    && Objects.equals(resumeInfo.getHostId(), connectInfo.getHostId())
+                    && Objects.equals(resumeInfo.getPath(), path);
+            if (!resume) {
+                resumeInfo = TransferResumeInfo.builder()
+                        .token(UUIds.random32())
+                        .kind(TransferOperatorType.UPLOAD)
+                        .userId(userId)
+                        .hostId(connectInfo.getHostId())
+                        .path(path)
+                        .build();
+            }
+            TRANSFER_MANAGER.putResumeInfo(resumeInfo);
+            this.transferToken = resumeInfo.getToken();
+            this.windowSize = windowSize == null || windowSize <= 1
+                    ? 0
+                    : Math.min(windowSize, SFTP_CONFIG.getUploadMaxWindowSize());
+            this.expectedSeq = 0;
+            this.writeFailed = false;
             // 保存操作日志
             this.saveOperatorLog(HostTerminalOperatorType.SFTP_UPLOAD, path);
             // 检查连接
             this.init();
-            // 检查文件是否存在
-            SftpUtils.checkUploadFilePresent(SFTP_CONFIG, executor, path);
+            long offset = 0L;
+            if (resume) {
+                // 从已上传的大小继续追加
+                SftpFile file = executor.getFile(path);
+                offset = file == null ? 0L : file.getSize();
+            } else {
+                // 检查文件是否存在
+                SftpUtils.checkUploadFilePresent(SFTP_CONFIG, executor, path);
+            }
             // 打开输出流
-            this.outputStream = executor.openOutputStream(path);
+            this.outputStream = offset > 0
+                    ? executor.openOutputStreamAppend(path)
+                    : executor.openOutputStream(path);
+            long startOffset = offset;
+            if (this.windowSize > 0) {
+                // 开启写入线程 队列额外保留结束标记的位置
+                BlockingQueue<UploadBlock> queue = new ArrayBlockingQueue<>(this.windowSize + 1);
+                this.blocks = queue;
+                OutputStream out = this.outputStream;
+                AssetThreadPools.SFTP_UPLOAD_WRITER.execute(() -> this.writeBlocks(queue, out));
+            }
             // 响应结果
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_NEXT_BLOCK, null);
+            this.sendMessage(TransferReceiverType.UPLOAD_NEXT_BLOCK, null, r -> {
+                r.setTransferToken(transferToken);
+                r.setOffset(startOffset);
+                if (this.windowSize > 0) {
+                    r.setWindowSize(this.windowSize);
+                    r.setAck(-1);
+                }
+            });
             log.info("UploadSession.startUpload transfer channelId: {}, path: {}", channelId, path);
         } catch (Exception e) {
             log.error("UploadSession.startUpload error channelId: {}, path: {}", channelId, path, e);
+            this.windowSize = 0;
             this.closeStream();
             // 响应结果
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_ERROR, e);
+            this.sendMessage(TransferReceiverType.UPLOAD_ERROR, e);
         }
     }
 
     @Override
-    public void putContent(byte[] bytes) {
+    public void putContent(byte[] bytes, int offset) {
+        if (windowSize > 0) {
+            this.offerBlock(bytes, offset);
+            return;
+        }
         try {
             // 写入内容
-            outputStream.write(bytes);
+            outputStream.write(bytes, offset, bytes.length - offset);
             // 响应结果
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_NEXT_BLOCK, null);
+            this.sendMessage(TransferReceiverType.UPLOAD_NEXT_BLOCK, null);
         } catch (IOException e) {
             log.error("UploadSession.putContent error channelId: {}", channel.getId(), e);
             this.closeStream();
             // 响应结果
-            TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_ERROR, e);
+            this.sendMessage(TransferReceiverType.UPLOAD_ERROR, e);
         }
     }
 
     @Override
     public void uploadFinish() {
         log.info("UploadSession.uploadFinish channelId: {}", channel.getId());
+        if (windowSize > 0) {
+            // 写入线程写完剩余数据块后响应
+            this.offerMarker(FINISH);
+            return;
+        }
         this.closeStream();
+        this.invalidateCache();
+        TRANSFER_MANAGER.removeResumeInfo(transferToken);
         // 响应结果
-        TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_FINISH, null);
+        this.sendMessage(TransferReceiverType.UPLOAD_FINISH, null);
     }
 
     @Override
     public void uploadError() {
         log.error("UploadSession.uploadError channelId: {}", channel.getId());
+        if (windowSize > 0) {
+            this.offerMarker(ERROR);
+            return;
+        }
         this.closeStream();
+        this.invalidateCache();
         // 响应结果
-        TransferUtils.sendMessage(this.channel, TransferReceiverType.UPLOAD_ERROR, new InvalidArgumentException((String) null));
+        this.sendMessage(TransferReceiverType.UPLOAD_ERROR, new InvalidArgumentException((String) null));
+    }
+
+    /**
+     * 窗口模式 数据块加入写入队列
+     *
+     * @param bytes  序号 + 数据
+     * @param offset 序号起始位置
+     */
+    private void offerBlock(byte[] bytes, int offset) {
+        BlockingQueue<UploadBlock> queue = this.blocks;
+        if (writeFailed || queue == null) {
+            return;
+        }
+        int seq = bytes.length - offset < SEQ_LENGTH
+                ? -1
+                : ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+        // 序号不连续或超出窗口
+        if (seq != expectedSeq || !queue.offer(new UploadBlock(seq, bytes, offset + SEQ_LENGTH))) {
+            log.error("UploadSession.offerBlock illegal block channelId: {}, seq: {}, expected: {}", channel.getId(), seq, expectedSeq);
+            this.writeFailed = true;
+            this.offerMarker(ABORT);
+            this.sendMessage(TransferReceiverType.UPLOAD_ERROR, new InvalidArgumentException((String) null));
+            return;
+        }
+        this.expectedSeq++;
+    }
+
+    /**
+     * 发送标记 队列已满时清空队列
+     *
+     * @param marker marker
+     */
+    private void offerMarker(UploadBlock marker) {
+        BlockingQueue<UploadBlock> queue = this.blocks;
+        if (queue == null) {
+            return;
+        }
+        if (marker != FINISH) {
+            queue.clear();
+        }
+        if (!queue.offer(marker)) {
+            // 客户端发送的数据块超出窗口
+            this.writeFailed = true;
+            queue.clear();
+            queue.offer(ABORT);
+            this.sendMessage(TransferReceiverType.UPLOAD_ERROR, new InvalidArgumentException((String) null));
+        }
+    }
+
+    /**
+     * 写入线程 写入数据块并返回累计确认
+     *
+     * @param queue queue
+     * @param out   out
+     */
+    private void writeBlocks(BlockingQueue<UploadBlock> queue, OutputStream out) {
+        int written = -1;
+        int acked = -1;
+        int ackInterval = Math.max(windowSize / 2, 1);
+        try {
+            while (true) {
+                UploadBlock block = queue.take();
+                if (block == FINISH) {
+                    this.closeWriter(queue, out);
+                    TRANSFER_MANAGER.removeResumeInfo(transferToken);
+                    this.sendMessage(TransferReceiverType.UPLOAD_FINISH, null);
+                    return;
+                } else if (block == ERROR) {
+                    this.closeWriter(queue, out);
+                    this.sendMessage(TransferReceiverType.UPLOAD_ERROR, new InvalidArgumentException((String) null));
+                    return;
+                } else if (block == ABORT) {
+                    this.closeWriter(queue, out);
+                    return;
+                }
+                out.write(block.data, block.start, block.data.length - block.start);
+                written = block.seq;
+                // 队列已空或达到确认间隔时响应
+                if (queue.isEmpty() || written - acked >= ackInterval) {
+                    int ack = written;
+                    this.sendMessage(TransferReceiverType.UPLOAD_NEXT_BLOCK, null, r -> r.setAck(ack));
+                    acked = written;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.closeWriter(queue, out);
+        } catch (Exception e) {
+            log.error("UploadSession.writeBlocks error channelId: {}, written: {}", channel.getId(), written, e);
+            this.writeFailed = true;
+            this.closeWriter(queue, out);
+            this.sendMessage(TransferReceiverType.UPLOAD_ERROR, e);
+        }
+    }
+
+    /**
+     * 写入结束 关闭流
+     *
+     * @param queue queue
+     * @param out   out
+     */
+    private synchronized void closeWriter(BlockingQueue<UploadBlock> queue, OutputStream out) {
+        queue.clear();
+        Streams.close(out);
+        // 已开始新的上传
+        if (blocks != queue) {
+            return;
+        }
+        this.blocks = null;
+        this.outputStream = null;
+        this.invalidateCache();
+    }
+
+    /**
+     * 清除上传文件的 sftp 缓存
+     */
+    private void invalidateCache() {
+        if (path != null) {
+            SpringHolder.getBean(HostTerminalManager.class).invalidateSftpCache(connectInfo.getHostId(), path);
+        }
+    }
+
+    @Override
+    public void close() {
+        // 停止写入线程
+        this.offerMarker(ABORT);
+        super.close();
     }
 
     @Override
@@ -92,4 +325,29 @@ public class UploadSession extends TransferHostSession implements IUploadSession
         this.outputStream = null;
     }
 
+    /**
+     * 上传数据块
+     */
+    private static class UploadBlock {
+
+        private final int seq;
+
+        /**
+         * 序号 + 数据
+         */
+        private final byte[] data;
+
+        /**
+         * 数据起始位置
+         */
+        private final int start;
+
+        private UploadBlock(int seq, byte[] data, int start) {
+            this.seq = seq;
+            this.data = data;
+            this.start = start;
+        }
+
+    }
+
 }
@@ -0,0 +1,234 @@
+package com.orion.visor.module.asset.handler.host.transfer.session;
+
+import com.orion.lang.utils.Exceptions;
+import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.Valid;
+import com.orion.lang.utils.io.FileType;
+import com.orion.lang.utils.io.Files1;
+import com.orion.lang.utils.io.Streams;
+import com.orion.net.host.SessionStore;
+import com.orion.net.host.sftp.SftpFile;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.constant.ErrorMessage;
+import com.orion.visor.module.asset.define.operator.HostTerminalOperatorType;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.handler.host.transfer.enums.TransferReceiverType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 文件夹打包下载会话实现
+ * <p>
+ * 使用一个 sftp 通道遍历文件夹 边读取边写入 zip 不在服务器落盘
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:00
+ */
+@Slf4j
+public class ZipDownloadSession extends TransferHostSession implements IDownloadSession {
+
+    private static final String ZIP_SUFFIX = ".zip";
+
+    /**
+     * 进度发送间隔 (ms)
+     */
+    private static final long PROGRESS_INTERVAL = 500L;
+
+    @Getter
+    private String path;
+
+    private volatile boolean aborted;
+
+    private long lastProgressTime;
+
+    public ZipDownloadSession(HostTerminalConnectDTO connectInfo, SessionStore sessionStore, WebSocketSession channel) {
+        super(connectInfo, sessionStore, channel);
+    }
+
+    @Override
+    public void downloadInit(String path, String token) {
+        this.path = path;
+        this.aborted = false;
+        String channelId = channel.getId();
+        try {
+            log.info("ZipDownloadSession.downloadInit start channelId: {}, path: {}", channelId, path);
+            // 保存操作日志
+            this.saveOperatorLog(HostTerminalOperatorType.SFTP_DOWNLOAD, path);
+            // 检查连接
+            this.init();
+            // 检查文件夹是否存在
+            SftpFile file = executor.getFile(path);
+            Valid.notNull(file, ErrorMessage.FILE_ABSENT);
+            Valid.isTrue(this.isDirectory(file), ErrorMessage.FILE_ABSENT);
+            // 响应开始下载
+            this.sendMessage(TransferReceiverType.DOWNLOAD_START, null, e -> {
+                e.setChannelId(channelId);
+                e.setTransferToken(token);
+            });
+            log.info("ZipDownloadSession.downloadInit success channelId: {}, path: {}", channelId, path);
+        } catch (Exception e) {
+            log.error("ZipDownloadSession.downloadInit error channelId: {}, path: {}", channelId, path, e);
+            // 响应下载失败
+            this.sendMessage(TransferReceiverType.DOWNLOAD_ERROR, e);
+        }
+    }
+
+    @Override
+    public void abortDownload() {
+        log.info("ZipDownloadSession.abortDownload channelId: {}", channel.getId());
+        // 写入线程检查到中断后关闭流
+        this.aborted = true;
+    }
+
+    @Override
+    public long getSize() {
+        // 打包后的大小未知
+        return -1L;
+    }
+
+    @Override
+    public String getFileName() {
+        String name = Files1.getFileName(Files1.getPath(path));
+        if (Strings.isBlank(name)) {
+            // 根目录使用主机名称
+            name = Strings.def(connectInfo.getHostName(), connectInfo.getHostAddress()).replace(Const.SLASH, "_");
+        }
+        return name + ZIP_SUFFIX;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) {
+        String channelId = channel.getId();
+        String root = Files1.getPath(path);
+        // 压缩包中的路径以文件夹名称开头
+        int nameStart = root.lastIndexOf(Const.SLASH) + 1;
+        long size = 0L;
+        int entryCount = 0;
+        boolean completed = false;
+        try {
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            zip.setLevel(SFTP_CONFIG.getDownloadZipLevel());
+            byte[] buffer = new byte[Const.BUFFER_KB_32];
+            Deque<String> directories = new ArrayDeque<>();
+            directories.push(root);
+            while (!directories.isEmpty()) {
+                String directory = directories.pop();
+                // 文件夹条目 保留空文件夹 根目录 / 不添加条目
+                String entryName = directory.substring(nameStart);
+                if (!entryName.isEmpty()) {
+                    zip.putNextEntry(new ZipEntry(entryName + Const.SLASH));
+                    zip.closeEntry();
+                }
+                for (SftpFile file : executor.listFiles(directory, false, true)) {
+                    this.checkAborted();
+                    if (this.isDirectory(file)) {
+                        directories.push(file.getPath());
+                        continue;
+                    }
+                    // 跳过链接 管道等非普通文件
+                    if (!this.isRegularFile(file)) {
+                        continue;
+                    }
+                    ZipEntry entry = new ZipEntry(file.getPath().substring(nameStart));
+                    if (file.getModifyTime() != null) {
+                        entry.setTime(file.getModifyTime().getTime());
+                    }
+                    zip.putNextEntry(entry);
+                    // 读取到末尾后再关闭流 中途失败时由 closeStream 关闭通道
+                    InputStream in = executor.openInputStream(file.getPath());
+                    int len;
+                    while ((len = in.read(buffer)) != -1) {
+                        this.checkAborted();
+                        zip.write(buffer, 0, len);
+                        size += len;
+                        this.sendProgress(size, entryCount, false);
+                    }
+                    Streams.close(in);
+                    zip.closeEntry();
+                    entryCount++;
+                    this.sendProgress(size, entryCount, false);
+                }
+            }
+            zip.finish();
+            zip.flush();
+            completed = true;
+            log.info("ZipDownloadSession.writeTo finish channelId: {}, path: {}, entries: {}, size: {}", channelId, path, entryCount, size);
+            this.sendProgress(size, entryCount, true);
+            this.sendMessage(TransferReceiverType.DOWNLOAD_FINISH, null);
+        } catch (Exception e) {
+            log.error("ZipDownloadSession.writeTo error channelId: {}, path: {}, entries: {}", channelId, path, entryCount, e);
+            this.sendMessage(TransferReceiverType.DOWNLOAD_ERROR, e);
+        } finally {
+            if (!completed) {
+                // 未读取完成的流关闭可能阻塞 关闭通道 下次下载时重新连接
+                this.closeStream();
+            }
+        }
+    }
+
+    /**
+     * 检查是否中断
+     */
+    private void checkAborted() {
+        if (aborted) {
+            throw Exceptions.ioRuntime(new InterruptedIOException());
+        }
+    }
+
+    /**
+     * 发送进度
+     *
+     * @param size       已写入的文件大小
+     * @param entryCount 已写入的文件数量
+     * @param force      是否忽略发送间隔
+     */
+    private void sendProgress(long size, int entryCount, boolean force) {
+        long now = System.currentTimeMillis();
+        if (!force && now - lastProgressTime < PROGRESS_INTERVAL) {
+            return;
+        }
+        this.lastProgressTime = now;
+        this.sendMessage(TransferReceiverType.DOWNLOAD_PROGRESS, null, e -> {
+            e.setCurrentSize(size);
+            e.setEntryCount(entryCount);
+        });
+    }
+
+    /**
+     * 是否为文件夹
+     *
+     * @param file file
+     * @return isDirectory
+     */
+    private boolean isDirectory(SftpFile file) {
+        return FileType.DIRECTORY.equals(FileType.of(file.getPermissionString()));
+    }
+
+    /**
+     * 是否为普通文件
+     *
+     * @param file file
+     * @return isRegularFile
+     */
+    private boolean isRegularFile(SftpFile file) {
+        String attr = file.getPermissionString();
+        return !Strings.isBlank(attr) && attr.charAt(0) == '-';
+    }
+
+    @Override
+    protected void closeStream() {
+        Streams.close(this.executor);
+        this.executor = null;
+    }
+
+}
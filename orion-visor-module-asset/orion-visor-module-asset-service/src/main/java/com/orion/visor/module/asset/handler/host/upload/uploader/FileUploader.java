@@ -109,7 +109,7 @@ public class FileUploader implements IFileUploader {
             HostTerminalConnectDTO connectInfo = hostTerminalService.getTerminalConnectInfo(hostId);
             this.replaceRemotePathVariable(connectInfo.getOsType(), connectInfo.getUsername());
             // 打开会话
-            this.sessionStore = hostTerminalService.openSessionStore(connectInfo);
+            this.sessionStore = hostTerminalService.openSharedSessionStore(connectInfo);
             this.executor = sessionStore.getSftpExecutor(connectInfo.getFileNameCharset());
             executor.connect();
             log.info("HostFileUploader.initSession success taskId: {}, hostId: {}", taskId, hostId);
@@ -264,7 +264,7 @@ public class FileUploader implements IFileUploader {
         Streams.close(outputStream);
         Streams.close(inputStream);
         Streams.close(executor);
-        Streams.close(sessionStore);
+        hostTerminalService.releaseSessionStore(sessionStore);
     }
 
 }
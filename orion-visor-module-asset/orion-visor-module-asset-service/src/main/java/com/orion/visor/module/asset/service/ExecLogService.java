@@ -2,8 +2,10 @@ package com.orion.visor.module.asset.service;
 
 import com.orion.lang.define.wrapper.DataGrid;
 import com.orion.visor.module.asset.entity.dto.ExecLogTailDTO;
+import com.orion.visor.module.asset.entity.request.exec.ExecHostLogContentRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogQueryRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogTailRequest;
+import com.orion.visor.module.asset.entity.vo.ExecHostLogContentVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogStatusVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogVO;
 
@@ -128,4 +130,12 @@ public interface ExecLogService {
      */
     void downloadLogFile(Long id, String source, HttpServletResponse response);
 
+    /**
+     * 按行号或时间分页读取主机执行日志
+     *
+     * @param request request
+     * @return content
+     */
+    ExecHostLogContentVO getHostLogContent(ExecHostLogContentRequest request);
+
 }
@@ -55,6 +55,15 @@ public interface HostConnectLogService {
      */
     Integer updateStatusById(Long id, HostConnectStatusEnum status, Map<String, Object> extra);
 
+    /**
+     * 更新拓展信息
+     *
+     * @param id    id
+     * @param extra extra
+     * @return effect
+     */
+    Integer updateExtraById(Long id, Map<String, Object> extra);
+
     /**
      * 查询用户最近连接的主机
      *
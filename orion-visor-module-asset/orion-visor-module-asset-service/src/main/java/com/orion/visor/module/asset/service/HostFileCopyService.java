@@ -0,0 +1,47 @@
+package com.orion.visor.module.asset.service;
+
+import com.orion.visor.module.asset.entity.request.host.HostFileCopyRequest;
+import com.orion.visor.module.asset.entity.vo.HostFileCopyVO;
+
+import java.util.List;
+
+/**
+ * 主机间复制文件 服务类
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+public interface HostFileCopyService {
+
+    /**
+     * 开始复制文件
+     *
+     * @param request request
+     * @return task
+     */
+    HostFileCopyVO startFileCopy(HostFileCopyRequest request);
+
+    /**
+     * 查询复制任务
+     *
+     * @param id id
+     * @return task
+     */
+    HostFileCopyVO getFileCopyTask(String id);
+
+    /**
+     * 查询当前用户的复制任务
+     *
+     * @return tasks
+     */
+    List<HostFileCopyVO> getFileCopyTaskList();
+
+    /**
+     * 取消复制
+     *
+     * @param id id
+     */
+    void cancelFileCopyTask(String id);
+
+}
@@ -5,6 +5,7 @@ import com.orion.visor.module.asset.entity.request.host.HostSftpLogQueryRequest;
 import com.orion.visor.module.asset.entity.vo.HostSftpLogVO;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
@@ -34,15 +35,17 @@ public interface HostSftpService {
     Integer deleteHostSftpLog(List<Long> idList);
 
     /**
-     * 通过 transferToken 下载
+     * 通过 transferToken 下载 支持 Range 恢复下载
      *
      * @param channelId     channelId
      * @param transferToken transferToken
+     * @param request       request
      * @param response      response
      * @return body
      */
     StreamingResponseBody downloadWithTransferToken(String channelId,
                                                     String transferToken,
+                                                    HttpServletRequest request,
                                                     HttpServletResponse response);
 
 }
@@ -79,4 +79,21 @@ public interface HostTerminalService {
      */
     SessionStore openSessionStore(HostTerminalConnectDTO conn);
 
+    /**
+     * 打开共享主机会话
+     * <p>
+     * 相同主机凭证复用已有连接 使用完成后需调用 releaseSessionStore
+     *
+     * @param conn conn
+     * @return session
+     */
+    SessionStore openSharedSessionStore(HostTerminalConnectDTO conn);
+
+    /**
+     * 释放主机会话
+     *
+     * @param sessionStore sessionStore
+     */
+    void releaseSessionStore(SessionStore sessionStore);
+
 }
@@ -136,6 +136,10 @@ public class ExecCommandServiceImpl implements ExecCommandService {
                 .timeout(request.getTimeout())
                 .scriptExec(request.getScriptExec())
                 .status(ExecStatusEnum.WAITING.name())
+                .waveSize(request.getWaveSize())
+                .wavePercent(request.getWavePercent())
+                .waveInterval(request.getWaveInterval())
+                .waveThreshold(request.getWaveThreshold())
                 .build();
         execLogDAO.insert(execLog);
         Long execId = execLog.getId();
@@ -178,6 +182,10 @@ public class ExecCommandServiceImpl implements ExecCommandService {
                 .command(execLog.getCommand())
                 .parameterSchema(execLog.getParameterSchema())
                 .hostIdList(hostIdList)
+                .waveSize(execLog.getWaveSize())
+                .wavePercent(execLog.getWavePercent())
+                .waveInterval(execLog.getWaveInterval())
+                .waveThreshold(execLog.getWaveThreshold())
                 .build();
         return this.execCommand(request);
     }
@@ -215,10 +223,15 @@ public class ExecCommandServiceImpl implements ExecCommandService {
                 .logId(execLog.getId())
                 .userId(execLog.getUserId())
                 .username(execLog.getUsername())
+                .source(execLog.getSource())
                 .description(execLog.getDescription())
                 .execSeq(execLog.getExecSeq())
                 .timeout(execLog.getTimeout())
                 .scriptExec(ScriptExecEnum.isEnabled(execLog.getScriptExec()))
+                .waveSize(execLog.getWaveSize())
+                .wavePercent(execLog.getWavePercent())
+                .waveInterval(execLog.getWaveInterval())
+                .waveThreshold(execLog.getWaveThreshold())
                 .hosts(hosts)
                 .build();
         // 开始执行
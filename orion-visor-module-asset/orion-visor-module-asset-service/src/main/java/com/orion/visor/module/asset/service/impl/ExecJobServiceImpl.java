@@ -121,6 +121,7 @@ public class ExecJobServiceImpl implements ExecJobService {
         this.checkHostPermission(request.getHostIdList());
         // 更新任务
         int effect = execJobDAO.updateById(updateRecord);
+        execJobDAO.updateWave(updateRecord);
         // 设置任务主机
         execJobHostService.setHostIdByJobId(id, request.getHostIdList());
         // 设置日志参数
@@ -311,6 +312,10 @@ public class ExecJobServiceImpl implements ExecJobService {
                 .command(job.getCommand())
                 .parameterSchema(job.getParameterSchema())
                 .hostIdList(hostIdList)
+                .waveSize(job.getWaveSize())
+                .wavePercent(job.getWavePercent())
+                .waveInterval(job.getWaveInterval())
+                .waveThreshold(job.getWaveThreshold())
                 .build();
         ExecLogVO execResult = execCommandService.execCommandWithSource(exec);
         // 更新最近执行的任务id
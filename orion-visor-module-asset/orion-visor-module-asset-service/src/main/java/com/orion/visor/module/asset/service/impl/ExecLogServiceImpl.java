@@ -6,6 +6,7 @@ import com.orion.lang.define.wrapper.DataGrid;
 import com.orion.lang.exception.argument.InvalidArgumentException;
 import com.orion.lang.id.UUIds;
 import com.orion.lang.utils.Arrays1;
+import com.orion.lang.utils.Exceptions;
 import com.orion.lang.utils.Objects1;
 import com.orion.lang.utils.Strings;
 import com.orion.lang.utils.collect.Lists;
@@ -25,12 +26,15 @@ import com.orion.visor.module.asset.convert.ExecLogConvert;
 import com.orion.visor.module.asset.dao.ExecHostLogDAO;
 import com.orion.visor.module.asset.dao.ExecLogDAO;
 import com.orion.visor.module.asset.define.cache.ExecCacheKeyDefine;
+import com.orion.visor.module.asset.define.config.AppExecLogConfig;
 import com.orion.visor.module.asset.entity.domain.ExecHostLogDO;
 import com.orion.visor.module.asset.entity.domain.ExecLogDO;
 import com.orion.visor.module.asset.entity.dto.ExecHostLogTailDTO;
 import com.orion.visor.module.asset.entity.dto.ExecLogTailDTO;
+import com.orion.visor.module.asset.entity.request.exec.ExecHostLogContentRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogQueryRequest;
 import com.orion.visor.module.asset.entity.request.exec.ExecLogTailRequest;
+import com.orion.visor.module.asset.entity.vo.ExecHostLogContentVO;
 import com.orion.visor.module.asset.entity.vo.ExecHostLogVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogStatusVO;
 import com.orion.visor.module.asset.entity.vo.ExecLogVO;
@@ -41,6 +45,7 @@ import com.orion.visor.module.asset.handler.host.config.model.HostSshConfigModel
 import com.orion.visor.module.asset.handler.host.exec.command.handler.IExecCommandHandler;
 import com.orion.visor.module.asset.handler.host.exec.command.handler.IExecTaskHandler;
 import com.orion.visor.module.asset.handler.host.exec.command.manager.ExecTaskManager;
+import com.orion.visor.module.asset.handler.host.exec.log.writer.ExecLogIndex;
 import com.orion.visor.module.asset.service.ExecHostLogService;
 import com.orion.visor.module.asset.service.ExecLogService;
 import com.orion.visor.module.asset.service.HostConfigService;
@@ -51,7 +56,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletResponse;
-import java.io.InputStream;
+import java.io.*;
+import java.nio.channels.Channels;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -66,6 +72,11 @@ import java.util.stream.Collectors;
 @Service
 public class ExecLogServiceImpl implements ExecLogService {
 
+    /**
+     * 分页读取日志默认行数
+     */
+    private static final int DEFAULT_LINE_COUNT = 500;
+
     @Resource
     private ExecLogDAO execLogDAO;
 
@@ -85,6 +96,9 @@ public class ExecLogServiceImpl implements ExecLogService {
     @Resource
     private FileClient logsFileClient;
 
+    @Resource
+    private AppExecLogConfig appExecLogConfig;
+
     @Override
     public DataGrid<ExecLogVO> getExecLogPage(ExecLogQueryRequest request) {
         // 条件
@@ -441,6 +455,130 @@ public class ExecLogServiceImpl implements ExecLogService {
         }
     }
 
+    @Override
+    public ExecHostLogContentVO getHostLogContent(ExecHostLogContentRequest request) {
+        Long id = request.getId();
+        // 获取主机执行日志
+        ExecHostLogDO hostLog = execHostLogDAO.selectById(id);
+        Valid.notNull(hostLog, ErrorMessage.LOG_ABSENT);
+        Valid.notNull(hostLog.getLogPath(), ErrorMessage.LOG_ABSENT);
+        ExecLogDO execLog = execLogDAO.selectByIdSource(hostLog.getLogId(), request.getSource());
+        Valid.notNull(execLog, ErrorMessage.LOG_ABSENT);
+        String absolutePath = logsFileClient.getAbsolutePath(hostLog.getLogPath());
+        Valid.isTrue(new File(absolutePath).isFile(), ErrorMessage.LOG_ABSENT);
+        // 获取编码集
+        Map<Long, HostSshConfigModel> configMap = hostConfigService.getHostConfigMap(Collections.singletonList(hostLog.getHostId()), HostConfigTypeEnum.SSH);
+        String charset = Optional.ofNullable(configMap.get(hostLog.getHostId()))
+                .map(HostSshConfigModel::getCharset)
+                .map(Objects1::toString)
+                .orElse(Const.UTF_8);
+        // 通过索引定位起始位置
+        ExecLogIndex index = ExecLogIndex.load(absolutePath);
+        int lineCount = request.getLineCount() == null ? DEFAULT_LINE_COUNT : request.getLineCount();
+        long startLine;
+        long endOffset = Long.MAX_VALUE;
+        int start;
+        if (request.getStartTime() != null) {
+            // 按时间读取 从开始时间前的索引位置读取到结束时间后的索引位置
+            start = index.floorTime(request.getStartTime().getTime());
+            startLine = index.getLine(start);
+            if (request.getEndTime() != null) {
+                int end = index.higherTime(request.getEndTime().getTime());
+                if (end != -1) {
+                    endOffset = index.getOffset(end);
+                }
+            }
+        } else {
+            // 按行号读取
+            startLine = request.getStartLine() == null ? 0L : request.getStartLine();
+            start = index.floorLine(startLine);
+        }
+        try {
+            return this.readLogContent(id, absolutePath, index.getLine(start), index.getOffset(start),
+                    startLine, endOffset, lineCount, charset);
+        } catch (Exception e) {
+            log.error("ExecLogService.getHostLogContent error id: {}", id, e);
+            throw Exceptions.argument(ErrorMessage.FILE_READ_ERROR);
+        }
+    }
+
+    /**
+     * 从索引位置开始读取日志
+     *
+     * @param id           id
+     * @param absolutePath 日志文件绝对路径
+     * @param indexLine    索引行号
+     * @param indexOffset  索引偏移量
+     * @param startLine    起始行号
+     * @param endOffset    结束偏移量
+     * @param lineCount    读取行数
+     * @param charset      编码集
+     * @return content
+     * @throws IOException IOException
+     */
+    private ExecHostLogContentVO readLogContent(Long id,
+                                                String absolutePath,
+                                                long indexLine,
+                                                long indexOffset,
+                                                long startLine,
+                                                long endOffset,
+                                                int lineCount,
+                                                String charset) throws IOException {
+        int maxBytes = appExecLogConfig.getPageMaxBytes();
+        try (RandomAccessFile file = new RandomAccessFile(absolutePath, "r")) {
+            long fileSize = file.length();
+            long end = Math.min(endOffset, fileSize);
+            long offset = Math.min(indexOffset, end);
+            long line = indexLine;
+            file.seek(offset);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(file.getChannel()), Const.BUFFER_KB_32);
+            // 跳过索引位置到起始行之间的行
+            int b;
+            while (line < startLine && offset < end && (b = in.read()) != -1) {
+                offset++;
+                if (b == '\n') {
+                    line++;
+                }
+            }
+            long contentOffset = offset;
+            long contentLine = line;
+            // 读取行
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int read = 0;
+            int lastLineEnd = 0;
+            while (read < lineCount && offset < end && out.size() < maxBytes && (b = in.read()) != -1) {
+                out.write(b);
+                offset++;
+                if (b == '\n') {
+                    line++;
+                    read++;
+                    lastLineEnd = out.size();
+                }
+            }
+            byte[] bytes = out.toByteArray();
+            if (bytes.length >= maxBytes && bytes.length > lastLineEnd) {
+                if (lastLineEnd > 0) {
+                    // 超出最大字节数 只返回完整的行
+                    bytes = Arrays.copyOf(bytes, lastLineEnd);
+                    offset = contentOffset + lastLineEnd;
+                } else {
+                    // 单行超出最大字节数 截断返回 下一页从下一行开始
+                    line++;
+                }
+            }
+            return ExecHostLogContentVO.builder()
+                    .id(id)
+                    .startLine(contentLine)
+                    .endLine(line)
+                    .startOffset(contentOffset)
+                    .endOffset(offset)
+                    .fileSize(fileSize)
+                    .finished(offset >= fileSize)
+                    .content(new String(bytes, charset))
+                    .build();
+        }
+    }
+
     /**
      * 构建查询 wrapper
      *
@@ -30,7 +30,6 @@ import org.springframework.stereotype.Service;
 import javax.annotation.Resource;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
@@ -84,11 +83,8 @@ public class HostConnectLogServiceImpl implements HostConnectLogService {
     @Override
     public List<HostConnectLogVO> getHostConnectSessions(HostConnectLogQueryRequest request) {
         // 查询全部
-        List<Long> idList = hostTerminalManager.getChannelSessions()
-                .values()
+        List<Long> idList = hostTerminalManager.getAllSessions()
                 .stream()
-                .map(ConcurrentHashMap::values)
-                .flatMap(Collection::stream)
                 .filter(s -> !s.isClosed())
                 .map(ITerminalSession::getConfig)
                 .filter(Objects::nonNull)
@@ -128,6 +124,27 @@ public class HostConnectLogServiceImpl implements HostConnectLogService {
         return this.updateStatus(record, status, partial);
     }
 
+    @Override
+    public Integer updateExtraById(Long id, Map<String, Object> partial) {
+        log.info("HostConnectLogService-updateExtraById start id: {}, extra: {}", id, JSON.toJSONString(partial));
+        HostConnectLogDO record = hostConnectLogDAO.selectById(id);
+        if (record == null) {
+            log.info("HostConnectLogService-updateExtraById no record id: {}", id);
+            return Const.N_0;
+        }
+        // 合并拓展信息
+        Map<String, Object> extra = JSON.parseObject(record.getExtraInfo());
+        if (extra == null) {
+            extra = partial;
+        } else {
+            extra.putAll(partial);
+        }
+        HostConnectLogDO update = new HostConnectLogDO();
+        update.setId(id);
+        update.setExtraInfo(JSON.toJSONString(extra));
+        return hostConnectLogDAO.updateById(update);
+    }
+
     /**
      * 更新状态
      *
@@ -205,6 +222,13 @@ public class HostConnectLogServiceImpl implements HostConnectLogService {
         // 获取会话
         HostConnectLogExtraDTO extra = JSON.parseObject(record.getExtraInfo(), HostConnectLogExtraDTO.class);
         ITerminalSession session = hostTerminalManager.getSession(extra.getChannelId(), extra.getSessionId());
+        if (session == null) {
+            // 会话可能已断开或已恢复至其他 channel
+            session = hostTerminalManager.getSessionById(extra.getSessionId());
+            if (session != null && !id.equals(session.getConfig().getLogId())) {
+                session = null;
+            }
+        }
         if (session != null) {
             // 关闭会话
             session.forceOffline();
@@ -0,0 +1,171 @@
+package com.orion.visor.module.asset.service.impl;
+
+import com.alibaba.fastjson.JSON;
+import com.orion.lang.id.UUIds;
+import com.orion.lang.utils.Exceptions;
+import com.orion.lang.utils.Valid;
+import com.orion.lang.utils.io.Files1;
+import com.orion.visor.framework.biz.operator.log.core.utils.OperatorLogs;
+import com.orion.visor.framework.common.constant.Const;
+import com.orion.visor.framework.common.constant.ErrorMessage;
+import com.orion.visor.framework.security.core.utils.SecurityUtils;
+import com.orion.visor.module.asset.convert.HostFileCopyConvert;
+import com.orion.visor.module.asset.define.AssetThreadPools;
+import com.orion.visor.module.asset.define.config.AppSftpConfig;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import com.orion.visor.module.asset.entity.request.host.HostFileCopyRequest;
+import com.orion.visor.module.asset.entity.vo.HostFileCopyVO;
+import com.orion.visor.module.asset.enums.HostConfigTypeEnum;
+import com.orion.visor.module.asset.enums.HostFileCopyStatusEnum;
+import com.orion.visor.module.asset.handler.host.copy.manager.FileCopyTaskManager;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTargetDTO;
+import com.orion.visor.module.asset.handler.host.copy.model.FileCopyTaskDTO;
+import com.orion.visor.module.asset.handler.host.copy.task.FileCopyTask;
+import com.orion.visor.module.asset.handler.host.copy.task.IFileCopyTask;
+import com.orion.visor.module.asset.service.AssetAuthorizedDataService;
+import com.orion.visor.module.asset.service.HostFileCopyService;
+import com.orion.visor.module.asset.service.HostTerminalService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * 主机间复制文件 服务实现类
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 23:30
+ */
+@Slf4j
+@Service
+public class HostFileCopyServiceImpl implements HostFileCopyService {
+
+    @Resource
+    private AssetAuthorizedDataService assetAuthorizedDataService;
+
+    @Resource
+    private HostTerminalService hostTerminalService;
+
+    @Resource
+    private FileCopyTaskManager fileCopyTaskManager;
+
+    @Resource
+    private AppSftpConfig appSftpConfig;
+
+    @Override
+    public HostFileCopyVO startFileCopy(HostFileCopyRequest request) {
+        log.info("HostFileCopyService.startFileCopy start params: {}", JSON.toJSONString(request));
+        Long userId = SecurityUtils.getLoginUserId();
+        Long sourceHostId = request.getSourceHostId();
+        List<Long> targetHostIdList = request.getTargetHostIdList()
+                .stream()
+                .distinct()
+                .collect(Collectors.toList());
+        int maxTargets = appSftpConfig.getCopyMaxTargets();
+        Valid.isTrue(targetHostIdList.size() <= maxTargets, ErrorMessage.MAX_HOST_COUNT, maxTargets);
+        // 检查主机权限
+        List<Long> authorizedHostIdList = assetAuthorizedDataService.getUserAuthorizedHostIdWithEnabledConfig(userId, HostConfigTypeEnum.SSH);
+        Valid.isTrue(authorizedHostIdList.contains(sourceHostId), ErrorMessage.CHECK_AUTHORIZED_HOST);
+        Valid.isTrue(authorizedHostIdList.containsAll(targetHostIdList), ErrorMessage.CHECK_AUTHORIZED_HOST);
+        // 获取连接信息
+        HostTerminalConnectDTO sourceConnectInfo = hostTerminalService.getTerminalConnectInfo(sourceHostId);
+        Map<Long, HostTerminalConnectDTO> targetConnectInfos = new LinkedHashMap<>();
+        for (Long hostId : targetHostIdList) {
+            targetConnectInfos.put(hostId, hostTerminalService.getTerminalConnectInfo(hostId));
+        }
+        // 创建任务
+        String sourcePath = Files1.getPath(request.getSourcePath());
+        String targetPath = Files1.getPath(request.getTargetPath());
+        List<FileCopyTargetDTO> targets = targetConnectInfos.values()
+                .stream()
+                .map(s -> FileCopyTargetDTO.builder()
+                        .hostId(s.getHostId())
+                        .hostName(s.getHostName())
+                        .path(targetPath)
+                        .status(HostFileCopyStatusEnum.WAITING.name())
+                        .current(0L)
+                        .build())
+                .collect(Collectors.toList());
+        FileCopyTaskDTO info = FileCopyTaskDTO.builder()
+                .id(UUIds.random32())
+                .userId(userId)
+                .sourceHostId(sourceHostId)
+                .sourceHostName(sourceConnectInfo.getHostName())
+                .sourcePath(sourcePath)
+                .checksumEnabled(Boolean.TRUE.equals(request.getChecksum()))
+                .status(HostFileCopyStatusEnum.WAITING.name())
+                .current(0L)
+                .targets(targets)
+                .build();
+        // 为全部目标预留写入线程
+        Valid.isTrue(fileCopyTaskManager.acquireWriters(targets.size()), ErrorMessage.SYSTEM_BUSY);
+        IFileCopyTask task = new FileCopyTask(info, sourceConnectInfo, targetConnectInfos);
+        fileCopyTaskManager.addTask(info.getId(), task);
+        // 设置日志参数
+        String targetHostNames = targets.stream()
+                .map(FileCopyTargetDTO::getHostName)
+                .collect(Collectors.joining(Const.COMMA));
+        OperatorLogs.add(OperatorLogs.PATH, sourcePath);
+        OperatorLogs.add(OperatorLogs.TARGET, targetHostNames + " " + targetPath);
+        OperatorLogs.add(OperatorLogs.HOST_ID, sourceHostId);
+        OperatorLogs.add(OperatorLogs.HOST_NAME, sourceConnectInfo.getHostName());
+        OperatorLogs.add(OperatorLogs.ADDRESS, sourceConnectInfo.getHostAddress());
+        // 执行任务
+        try {
+            AssetThreadPools.FILE_COPY_TASK.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.error("HostFileCopyService.startFileCopy rejected id: {}", info.getId(), e);
+            fileCopyTaskManager.removeTask(info.getId());
+            fileCopyTaskManager.releaseWriters(targets.size());
+            throw Exceptions.argument(ErrorMessage.SYSTEM_BUSY);
+        }
+        log.info("HostFileCopyService.startFileCopy submit id: {}", info.getId());
+        return HostFileCopyConvert.MAPPER.to(info);
+    }
+
+    @Override
+    public HostFileCopyVO getFileCopyTask(String id) {
+        IFileCopyTask task = this.getUserTask(id);
+        return HostFileCopyConvert.MAPPER.to(task.getInfo());
+    }
+
+    @Override
+    public List<HostFileCopyVO> getFileCopyTaskList() {
+        Long userId = SecurityUtils.getLoginUserId();
+        return fileCopyTaskManager.getTasks()
+                .stream()
+                .map(IFileCopyTask::getInfo)
+                .filter(s -> Objects.equals(s.getUserId(), userId))
+                .sorted(Comparator.comparing(FileCopyTaskDTO::getStartTime, Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(HostFileCopyConvert.MAPPER::to)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void cancelFileCopyTask(String id) {
+        IFileCopyTask task = this.getUserTask(id);
+        // 检查状态
+        HostFileCopyStatusEnum status = HostFileCopyStatusEnum.of(task.getInfo().getStatus());
+        Valid.isTrue(status != null && status.isCancelable(), ErrorMessage.ILLEGAL_STATUS);
+        log.info("HostFileCopyService.cancelFileCopyTask id: {}", id);
+        task.cancel();
+    }
+
+    /**
+     * 获取当前用户的任务
+     *
+     * @param id id
+     * @return task
+     */
+    private IFileCopyTask getUserTask(String id) {
+        IFileCopyTask task = fileCopyTaskManager.getTask(id);
+        Valid.notNull(task, ErrorMessage.TASK_ABSENT);
+        Valid.isTrue(Objects.equals(task.getInfo().getUserId(), SecurityUtils.getLoginUserId()), ErrorMessage.TASK_ABSENT);
+        return task;
+    }
+
+}
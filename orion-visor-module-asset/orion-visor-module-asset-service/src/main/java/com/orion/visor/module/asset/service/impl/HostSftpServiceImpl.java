@@ -6,29 +6,40 @@ import com.orion.lang.constant.StandardContentType;
 import com.orion.lang.define.wrapper.DataGrid;
 import com.orion.lang.utils.Arrays1;
 import com.orion.lang.utils.Strings;
+import com.orion.lang.utils.collect.Maps;
 import com.orion.lang.utils.io.Files1;
+import com.orion.visor.framework.biz.operator.log.core.model.OperatorLogModel;
+import com.orion.visor.framework.biz.operator.log.core.service.OperatorLogFrameworkService;
+import com.orion.visor.framework.biz.operator.log.core.utils.OperatorLogFiller;
 import com.orion.visor.framework.biz.operator.log.core.utils.OperatorLogs;
 import com.orion.visor.framework.common.constant.Const;
 import com.orion.visor.framework.common.constant.ErrorMessage;
 import com.orion.visor.framework.common.constant.ExtraFieldConst;
+import com.orion.visor.framework.security.core.utils.SecurityUtils;
 import com.orion.visor.module.asset.convert.HostSftpLogConvert;
 import com.orion.visor.module.asset.define.operator.HostTerminalOperatorType;
 import com.orion.visor.module.asset.entity.request.host.HostSftpLogQueryRequest;
 import com.orion.visor.module.asset.entity.vo.HostSftpLogVO;
 import com.orion.visor.module.asset.handler.host.transfer.handler.ITransferHandler;
 import com.orion.visor.module.asset.handler.host.transfer.manager.HostTransferManager;
+import com.orion.visor.module.asset.handler.host.transfer.enums.TransferOperatorType;
+import com.orion.visor.module.asset.handler.host.transfer.model.TransferResumeInfo;
 import com.orion.visor.module.asset.handler.host.transfer.session.IDownloadSession;
+import com.orion.visor.module.asset.handler.host.transfer.session.TransferResumeDownload;
 import com.orion.visor.module.asset.service.HostSftpService;
 import com.orion.visor.module.infra.api.OperatorLogApi;
 import com.orion.visor.module.infra.entity.dto.operator.OperatorLogQueryDTO;
 import com.orion.web.servlet.web.Servlets;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.annotation.Resource;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -42,12 +53,19 @@ import java.util.Optional;
 @Service
 public class HostSftpServiceImpl implements HostSftpService {
 
+    private static final String RANGE_UNIT = "bytes";
+
+    private static final long[] INVALID_RANGE = new long[0];
+
     @Resource
     private OperatorLogApi operatorLogApi;
 
     @Resource
     private HostTransferManager hostTransferManager;
 
+    @Resource
+    private OperatorLogFrameworkService operatorLogFrameworkService;
+
     @Override
     public DataGrid<HostSftpLogVO> getHostSftpLogPage(HostSftpLogQueryRequest request) {
         // 查询
@@ -77,22 +95,141 @@ public class HostSftpServiceImpl implements HostSftpService {
     }
 
     @Override
-    public StreamingResponseBody downloadWithTransferToken(String channelId, String transferToken, HttpServletResponse response) {
+    public StreamingResponseBody downloadWithTransferToken(String channelId, String transferToken, HttpServletRequest request, HttpServletResponse response) {
         // 获取会话
         IDownloadSession session = Optional.ofNullable(channelId)
                 .map(hostTransferManager::getHandler)
                 .map(ITransferHandler::getTokenSessions)
                 .map(s -> s.remove(transferToken))
                 .orElse(null);
-        // 响应会话
-        if (session == null) {
-            Servlets.setContentType(response, StandardContentType.TEXT_HTML);
-            Servlets.setCharset(response, Const.UTF_8);
-            return outputStream -> outputStream.write(Strings.bytes(ErrorMessage.SESSION_ABSENT));
+        long[] range = this.parseRange(request.getHeader(HttpHeaders.RANGE));
+        long start = range == null || range == INVALID_RANGE ? 0L : range[0];
+        String requestAddress = Servlets.getRemoteAddr(request);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, RANGE_UNIT);
+        // 从头下载 使用会话中已打开的流
+        if (session != null && (range == null || (range != INVALID_RANGE && start == 0 && range[1] < 0))) {
+            // 只允许首次下载的请求地址恢复
+            Optional.ofNullable(hostTransferManager.getResumeInfo(transferToken))
+                    .ifPresent(s -> s.setRequestAddress(requestAddress));
+            Servlets.setAttachmentHeader(response, session.getFileName());
+            if (session.getSize() >= 0) {
+                response.setContentLengthLong(session.getSize());
+            }
+            return session;
+        }
+        // 恢复下载 websocket 断开后 token 在下载完成前仍然有效 同一时间只能有一个请求恢复
+        TransferResumeInfo info = hostTransferManager.claimResumeInfo(transferToken);
+        if (session != null) {
+            session.abortDownload();
+        }
+        if (info == null) {
+            return this.sessionAbsent(response);
+        }
+        if (!this.canResume(info, requestAddress)) {
+            log.warn("HostSftpService.downloadWithTransferToken resume denied token: {}, address: {}", transferToken, requestAddress);
+            hostTransferManager.putResumeInfo(info);
+            return this.sessionAbsent(response);
+        }
+        long size = info.getSize();
+        // 范围不合法
+        if (range == INVALID_RANGE || start >= Math.max(size, 1)) {
+            hostTransferManager.putResumeInfo(info);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " */" + size);
+            return outputStream -> {
+            };
+        }
+        long end = range == null || range[1] < 0 ? size - 1 : Math.min(range[1], size - 1);
+        Servlets.setAttachmentHeader(response, Files1.getFileName(info.getPath()));
+        response.setContentLengthLong(end - start + 1);
+        if (start > 0 || end < size - 1) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, RANGE_UNIT + " " + start + "-" + end + "/" + size);
+        }
+        // 保存操作日志
+        this.saveResumeOperatorLog(info);
+        return new TransferResumeDownload(info, start, end - start + 1);
+    }
+
+    /**
+     * 是否可以恢复下载
+     * <p>
+     * 下载接口无需登录 只允许首次下载的请求地址恢复 已登录时还需要是同一用户
+     *
+     * @param info           info
+     * @param requestAddress 请求地址
+     * @return 是否可以恢复
+     */
+    private boolean canResume(TransferResumeInfo info, String requestAddress) {
+        if (!TransferOperatorType.DOWNLOAD.equals(info.getKind())) {
+            return false;
+        }
+        if (info.getRequestAddress() == null || !info.getRequestAddress().equals(requestAddress)) {
+            return false;
+        }
+        Long loginUserId = SecurityUtils.getLoginUserId();
+        return loginUserId == null || loginUserId.equals(info.getUserId());
+    }
+
+    /**
+     * 保存恢复下载操作日志
+     *
+     * @param info info
+     */
+    private void saveResumeOperatorLog(TransferResumeInfo info) {
+        Map<String, Object> extra = Maps.newMap();
+        extra.put(OperatorLogs.PATH, info.getPath());
+        extra.put(OperatorLogs.HOST_ID, info.getHostId());
+        extra.put(OperatorLogs.HOST_NAME, info.getHostName());
+        extra.put(OperatorLogs.ADDRESS, info.getHostAddress());
+        OperatorLogModel model = OperatorLogFiller.create()
+                .fillUserInfo(info.getUserId(), info.getUsername())
+                .fillRequest()
+                .fillUsedTime(System.currentTimeMillis())
+                .fillResult(null, null)
+                .fillExtra(extra)
+                .fillLogInfo(extra, HostTerminalOperatorType.SFTP_DOWNLOAD)
+                .get();
+        operatorLogFrameworkService.insert(model);
+    }
+
+    /**
+     * 响应会话不存在
+     *
+     * @param response response
+     * @return body
+     */
+    private StreamingResponseBody sessionAbsent(HttpServletResponse response) {
+        Servlets.setContentType(response, StandardContentType.TEXT_HTML);
+        Servlets.setCharset(response, Const.UTF_8);
+        return outputStream -> outputStream.write(Strings.bytes(ErrorMessage.SESSION_ABSENT));
+    }
+
+    /**
+     * 解析 Range 只支持单个范围 不支持后缀范围
+     *
+     * @param range bytes=start-[end]
+     * @return [start, end] 未指定结束位置时 end 为 -1 不支持的格式返回 null 不合法的范围返回 INVALID_RANGE
+     */
+    private long[] parseRange(String range) {
+        if (Strings.isBlank(range) || !range.startsWith(RANGE_UNIT + "=") || range.contains(",")) {
+            return null;
+        }
+        String[] pair = range.substring(RANGE_UNIT.length() + 1).split("-", 2);
+        if (Strings.isBlank(pair[0])) {
+            return null;
+        }
+        try {
+            long start = Long.parseLong(pair[0].trim());
+            long end = pair.length < 2 || Strings.isBlank(pair[1]) ? -1L : Long.parseLong(pair[1].trim());
+            if (start < 0 || (pair.length == 2 && !Strings.isBlank(pair[1]) && end < start)) {
+                return INVALID_RANGE;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            // 非数字或数值溢出
+            return INVALID_RANGE;
         }
-        // 响应文件
-        Servlets.setAttachmentHeader(response, Files1.getFileName(session.getPath()));
-        return session;
     }
 
     /**
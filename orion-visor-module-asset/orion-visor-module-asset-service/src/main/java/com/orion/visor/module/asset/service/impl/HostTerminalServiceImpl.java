@@ -27,6 +27,7 @@ import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
 import com.orion.visor.module.asset.enums.*;
 import com.orion.visor.module.asset.handler.host.config.model.HostSshConfigModel;
 import com.orion.visor.module.asset.handler.host.extra.model.HostSshExtraModel;
+import com.orion.visor.module.asset.handler.host.terminal.manager.HostConnectionManager;
 import com.orion.visor.module.asset.service.HostConfigService;
 import com.orion.visor.module.asset.service.HostExtraService;
 import com.orion.visor.module.asset.service.HostTerminalService;
@@ -74,6 +75,9 @@ public class HostTerminalServiceImpl implements HostTerminalService {
     @Resource
     private DataPermissionApi dataPermissionApi;
 
+    @Resource
+    private HostConnectionManager hostConnectionManager;
+
     @Override
     public JSONArray getTerminalThemes() {
         try (InputStream in = HostTerminalService.class.getResourceAsStream(TERMINAL_PATH)) {
@@ -227,6 +231,16 @@ public class HostTerminalServiceImpl implements HostTerminalService {
         }
     }
 
+    @Override
+    public SessionStore openSharedSessionStore(HostTerminalConnectDTO conn) {
+        return hostConnectionManager.acquire(conn, this::openSessionStore);
+    }
+
+    @Override
+    public void releaseSessionStore(SessionStore sessionStore) {
+        hostConnectionManager.release(sessionStore);
+    }
+
     /**
      * 获取主机会话连接配置
      *
@@ -0,0 +1,104 @@
+package com.orion.visor.module.asset.utils;
+
+import com.orion.lang.utils.Strings;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 编码检测
+ * <p>
+ * 从文件开头读取时优先识别 BOM 其次检查是否为合法的 UTF-8 否则使用默认编码
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 22:10
+ */
+public class CharsetDetector {
+
+    private CharsetDetector() {
+    }
+
+    /**
+     * 检测编码
+     *
+     * @param bs       读取的字节 可以从文件中间开始
+     * @param len      len
+     * @param fallback 默认编码
+     * @param bom      是否检查 BOM 从文件中间读取时的字节可能与 BOM 相同
+     * @return charset
+     */
+    public static String detect(byte[] bs, int len, String fallback, boolean bom) {
+        // BOM
+        if (bom && len >= 3 && (bs[0] & 0xFF) == 0xEF && (bs[1] & 0xFF) == 0xBB && (bs[2] & 0xFF) == 0xBF) {
+            return StandardCharsets.UTF_8.name();
+        }
+        if (bom && len >= 2 && (bs[0] & 0xFF) == 0xFE && (bs[1] & 0xFF) == 0xFF) {
+            return StandardCharsets.UTF_16BE.name();
+        }
+        if (bom && len >= 2 && (bs[0] & 0xFF) == 0xFF && (bs[1] & 0xFF) == 0xFE) {
+            return StandardCharsets.UTF_16LE.name();
+        }
+        // 跳过开头不完整的字符
+        int off = 0;
+        while (off < len && off < 3 && (bs[off] & 0xC0) == 0x80) {
+            off++;
+        }
+        if (isUtf8(bs, off, len - off)) {
+            return StandardCharsets.UTF_8.name();
+        }
+        return Strings.isBlank(fallback) ? StandardCharsets.UTF_8.name() : fallback;
+    }
+
+    /**
+     * 获取开头不完整字符的字节数 从文件中间读取时跳过
+     * <p>
+     * 只能识别 UTF-8 和 UTF-16 其他编码返回 0
+     *
+     * @param bs      读取的字节
+     * @param len     len
+     * @param charset 编码
+     * @param start   读取的起始位置
+     * @return 需要跳过的字节数
+     */
+    public static int partialPrefix(byte[] bs, int len, String charset, long start) {
+        if (start <= 0) {
+            return 0;
+        }
+        if (StandardCharsets.UTF_8.name().equalsIgnoreCase(charset)) {
+            // 跳过续字节
+            int off = 0;
+            while (off < len && off < 3 && (bs[off] & 0xC0) == 0x80) {
+                off++;
+            }
+            return off;
+        }
+        if (StandardCharsets.UTF_16BE.name().equalsIgnoreCase(charset)
+                || StandardCharsets.UTF_16LE.name().equalsIgnoreCase(charset)) {
+            // 对齐到两字节
+            return (int) Math.min(start & 1, len);
+        }
+        return 0;
+    }
+
+    /**
+     * 是否为合法的 UTF-8 末尾不完整的字符视为合法
+     *
+     * @param bs  bs
+     * @param off off
+     * @param len len
+     * @return 是否合法
+     */
+    private static boolean isUtf8(byte[] bs, int off, int len) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        ByteBuffer in = ByteBuffer.wrap(bs, off, len);
+        CharBuffer out = CharBuffer.allocate(len);
+        return !decoder.decode(in, out, false).isError();
+    }
+
+}
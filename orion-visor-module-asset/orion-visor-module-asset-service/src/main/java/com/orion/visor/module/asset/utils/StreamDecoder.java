@@ -0,0 +1,116 @@
+package com.orion.visor.module.asset.utils;
+
+import com.orion.lang.utils.Strings;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式字符解码器
+ * <p>
+ * 读取边界处不完整的多字节字符保留至下次解码 避免乱码
+ * 解码缓冲区重复使用 非线程安全
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/17 18:40
+ */
+public class StreamDecoder {
+
+    private final CharsetDecoder decoder;
+
+    private ByteBuffer in;
+
+    private CharBuffer out;
+
+    public StreamDecoder(String charset) {
+        this(getCharset(charset));
+    }
+
+    public StreamDecoder(Charset charset) {
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.in = ByteBuffer.allocate(1024);
+        this.out = CharBuffer.allocate(1024);
+    }
+
+    /**
+     * 解码 末尾不完整的字符保留至下次解码
+     *
+     * @param bs  bs
+     * @param off off
+     * @param len len
+     * @return 已完整解码的字符串
+     */
+    public String decode(byte[] bs, int off, int len) {
+        // 拼接上次剩余的字节
+        if (in.remaining() < len) {
+            ByteBuffer expand = ByteBuffer.allocate(in.position() + len);
+            in.flip();
+            expand.put(in);
+            this.in = expand;
+        }
+        in.put(bs, off, len);
+        in.flip();
+        String result = this.decode(false);
+        // 保留未解码的字节
+        in.compact();
+        return result;
+    }
+
+    /**
+     * 结束解码 输出剩余的字节
+     *
+     * @return 剩余字符串
+     */
+    public String flush() {
+        in.flip();
+        String result = this.decode(true);
+        in.clear();
+        decoder.reset();
+        return result;
+    }
+
+    /**
+     * 解码当前缓冲区
+     *
+     * @param endOfInput 是否结束
+     * @return 字符串
+     */
+    private String decode(boolean endOfInput) {
+        int capacity = (int) Math.ceil(in.remaining() * (double) decoder.maxCharsPerByte());
+        if (out.capacity() < capacity) {
+            this.out = CharBuffer.allocate(capacity);
+        }
+        out.clear();
+        decoder.decode(in, out, endOfInput);
+        if (endOfInput) {
+            decoder.flush(out);
+        }
+        out.flip();
+        return out.toString();
+    }
+
+    /**
+     * 获取编码 无效时使用 UTF-8
+     *
+     * @param charset charset
+     * @return charset
+     */
+    private static Charset getCharset(String charset) {
+        if (Strings.isBlank(charset)) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(charset);
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+}
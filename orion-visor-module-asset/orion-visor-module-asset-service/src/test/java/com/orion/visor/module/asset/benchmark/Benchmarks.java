@@ -0,0 +1,70 @@
+package com.orion.visor.module.asset.benchmark;
+
+import java.util.function.IntFunction;
+
+/**
+ * 微基准测试工具
+ * <p>
+ * 预热后多轮执行取最小耗时 结果输出到控制台 用于同一环境下的前后对比
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 14:10
+ */
+public class Benchmarks {
+
+    /**
+     * 预热轮数
+     */
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * 测量轮数
+     */
+    private static final int MEASURE_ROUNDS = 5;
+
+    /**
+     * 防止结果被优化掉
+     */
+    private static volatile Object sink;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * 执行基准测试
+     *
+     * @param name       name
+     * @param operations 每轮执行次数
+     * @param op         操作 参数为当前次数
+     * @return 每次操作耗时 (ns)
+     */
+    public static double run(String name, int operations, IntFunction<Object> op) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(operations, op);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            best = Math.min(best, round(operations, op));
+        }
+        double nsPerOp = (double) best / operations;
+        System.out.printf("[benchmark] %-40s %10.1f ns/op%n", name, nsPerOp);
+        return nsPerOp;
+    }
+
+    /**
+     * 执行一轮
+     *
+     * @param operations operations
+     * @param op         op
+     * @return 耗时 (ns)
+     */
+    private static long round(int operations, IntFunction<Object> op) {
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            sink = op.apply(i);
+        }
+        return System.nanoTime() - start;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.orion.visor.module.asset.handler.host.copy.task;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 文件复制缓冲池 引用释放 归还 并发释放 数量限制
+ * <p>
+ * 通过类名加载 CopyChunk 避免初始化依赖 spring 的 FileCopyTask
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 18:40
+ */
+public class FileCopyTaskBufferTest {
+
+    private static Constructor<?> constructor;
+
+    private static Method release;
+
+    @BeforeAll
+    public static void load() throws Exception {
+        Class<?> chunkClass = Class.forName("com.orion.visor.module.asset.handler.host.copy.task.FileCopyTask$CopyChunk",
+                false, FileCopyTaskBufferTest.class.getClassLoader());
+        constructor = chunkClass.getDeclaredConstructor(BlockingQueue.class, byte[].class, int.class, int.class);
+        constructor.setAccessible(true);
+        release = chunkClass.getDeclaredMethod("release");
+        release.setAccessible(true);
+    }
+
+    @Test
+    public void testReleaseByLastReference() throws Exception {
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(1);
+        byte[] buffer = new byte[16];
+        Object chunk = constructor.newInstance(buffers, buffer, 16, 3);
+        // 全部写入线程释放后归还缓冲区
+        release.invoke(chunk);
+        release.invoke(chunk);
+        assertTrue(buffers.isEmpty());
+        release.invoke(chunk);
+        assertSame(buffer, buffers.poll());
+    }
+
+    @Test
+    public void testNoReference() throws Exception {
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(1);
+        byte[] buffer = new byte[16];
+        // 没有存活的写入线程 直接归还缓冲区
+        constructor.newInstance(buffers, buffer, 16, 0);
+        assertSame(buffer, buffers.poll());
+        // 结束标记不归还
+        constructor.newInstance(null, null, 0, 0);
+    }
+
+    @Test
+    public void testConcurrentRelease() throws Exception {
+        int count = 4;
+        int writers = 8;
+        int rounds = 1000;
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            buffers.offer(new byte[16]);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            for (int r = 0; r < rounds; r++) {
+                byte[] buffer = buffers.poll(5, TimeUnit.SECONDS);
+                assertNotNull(buffer);
+                Object chunk = constructor.newInstance(buffers, buffer, 16, writers);
+                // 多个写入线程同时释放 只归还一次
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> futures = new ArrayList<>();
+                for (int w = 0; w < writers; w++) {
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        release.invoke(chunk);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(5, TimeUnit.SECONDS);
+                }
+                assertTrue(buffers.size() <= count);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(count, buffers.size());
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(2);
+        buffers.offer(new byte[16]);
+        buffers.offer(new byte[16]);
+        Object first = constructor.newInstance(buffers, buffers.poll(), 16, 1);
+        Object second = constructor.newInstance(buffers, buffers.poll(), 16, 1);
+        // 缓冲区用完后读取等待写入线程释放
+        assertNull(buffers.poll(100, TimeUnit.MILLISECONDS));
+        release.invoke(first);
+        assertNotNull(buffers.poll());
+        assertNull(buffers.poll());
+        release.invoke(second);
+        assertEquals(1, buffers.size());
+    }
+
+}
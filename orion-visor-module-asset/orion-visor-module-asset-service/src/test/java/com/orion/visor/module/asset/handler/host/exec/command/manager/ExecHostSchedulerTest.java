@@ -0,0 +1,259 @@
+package com.orion.visor.module.asset.handler.host.exec.command.manager;
+
+import com.orion.visor.module.asset.define.config.AppExecSchedulerConfig;
+import com.orion.visor.module.asset.enums.ExecSourceEnum;
+import com.orion.visor.module.asset.handler.host.exec.command.handler.IExecCommandHandler;
+import com.orion.visor.module.asset.handler.host.exec.command.model.ExecCommandDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量执行主机调度器 全局 用户 任务限制 优先级 轮询 中断
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 16:40
+ */
+public class ExecHostSchedulerTest {
+
+    private ExecHostScheduler scheduler;
+
+    private AppExecSchedulerConfig config;
+
+    private ExecutorService taskThreads;
+
+    /**
+     * 主机开始执行的顺序
+     */
+    private List<String> started;
+
+    private AtomicInteger running;
+
+    private AtomicInteger maxRunning;
+
+    /**
+     * 任务名称 -> 执行中的主机数
+     */
+    private Map<String, AtomicInteger> taskRunning;
+
+    /**
+     * 任务名称 -> 同时执行的最大主机数
+     */
+    private Map<String, AtomicInteger> taskMaxRunning;
+
+    @BeforeEach
+    public void setUp() {
+        this.config = new AppExecSchedulerConfig();
+        this.scheduler = new ExecHostScheduler();
+        ReflectionTestUtils.setField(scheduler, "appExecSchedulerConfig", config);
+        this.taskThreads = Executors.newCachedThreadPool();
+        this.started = Collections.synchronizedList(new ArrayList<>());
+        this.running = new AtomicInteger();
+        this.maxRunning = new AtomicInteger();
+        this.taskRunning = new ConcurrentHashMap<>();
+        this.taskMaxRunning = new ConcurrentHashMap<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        taskThreads.shutdownNow();
+    }
+
+    @Test
+    public void testGlobalAndTaskLimit() throws Exception {
+        config.setMaxHosts(3);
+        config.setMaxHostsPerTask(2);
+        CountDownLatch gate = new CountDownLatch(1);
+        Future<?> a = this.submit("a", 1L, ExecSourceEnum.BATCH, 5, gate);
+        this.awaitStarted(2);
+        Future<?> b = this.submit("b", 2L, ExecSourceEnum.BATCH, 5, gate);
+        this.awaitStarted(3);
+        // 全局已满 不再分配
+        Thread.sleep(200);
+        assertEquals(3, started.size());
+        assertEquals(2, this.countStarted("a"));
+        assertEquals(1, this.countStarted("b"));
+        gate.countDown();
+        a.get(10, TimeUnit.SECONDS);
+        b.get(10, TimeUnit.SECONDS);
+        assertEquals(10, started.size());
+        assertTrue(maxRunning.get() <= 3);
+        assertTrue(taskMaxRunning.get("a").get() <= 2);
+        assertTrue(taskMaxRunning.get("b").get() <= 2);
+    }
+
+    @Test
+    public void testUserLimit() throws Exception {
+        config.setMaxHosts(10);
+        config.setMaxHostsPerUser(2);
+        config.setMaxHostsPerTask(10);
+        CountDownLatch gate = new CountDownLatch(1);
+        Future<?> a = this.submit("a", 1L, ExecSourceEnum.BATCH, 3, gate);
+        Future<?> b = this.submit("b", 1L, ExecSourceEnum.BATCH, 3, gate);
+        Future<?> c = this.submit("c", 2L, ExecSourceEnum.BATCH, 3, gate);
+        this.awaitStarted(4);
+        // 同一用户的任务共享用户限制
+        Thread.sleep(200);
+        assertEquals(2, this.countStarted("a") + this.countStarted("b"));
+        assertEquals(2, this.countStarted("c"));
+        gate.countDown();
+        a.get(10, TimeUnit.SECONDS);
+        b.get(10, TimeUnit.SECONDS);
+        c.get(10, TimeUnit.SECONDS);
+        assertEquals(9, started.size());
+    }
+
+    @Test
+    public void testRoundRobinAndPriority() throws Exception {
+        config.setMaxHosts(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        Future<?> x = this.submit("x", 1L, ExecSourceEnum.BATCH, 1, gate);
+        this.awaitStarted(1);
+        // 计划任务先提交 批量执行仍优先
+        Future<?> job = this.submit("job", 1L, ExecSourceEnum.JOB, 2, null);
+        Future<?> a = this.submit("a", 2L, ExecSourceEnum.BATCH, 3, null);
+        this.awaitQueued(3);
+        Future<?> b = this.submit("b", 3L, ExecSourceEnum.BATCH, 3, null);
+        this.awaitQueued(4);
+        gate.countDown();
+        x.get(10, TimeUnit.SECONDS);
+        a.get(10, TimeUnit.SECONDS);
+        b.get(10, TimeUnit.SECONDS);
+        job.get(10, TimeUnit.SECONDS);
+        // 任务之间轮流执行
+        assertEquals(Arrays.asList("x", "a", "b", "a", "b", "a", "b", "job", "job"), started);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testInterrupt() throws Exception {
+        config.setMaxHosts(1);
+        CountDownLatch gate = new CountDownLatch(1);
+        List<IExecCommandHandler> handlers = this.createHandlers("a", 3, gate);
+        ExecCommandDTO command = createCommand(1L, ExecSourceEnum.BATCH);
+        Future<?> a = taskThreads.submit(() -> {
+            scheduler.run(command, handlers);
+            return null;
+        });
+        this.awaitStarted(1);
+        // 中断任务线程 跳过未执行的主机
+        a.cancel(true);
+        verify(handlers.get(1), timeout(5000)).skip();
+        verify(handlers.get(2), timeout(5000)).skip();
+        verify(handlers.get(0), never()).skip();
+        // 执行中的主机完成后释放位置
+        gate.countDown();
+        this.submit("b", 1L, ExecSourceEnum.BATCH, 1, null).get(10, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("a", "b"), started);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param name   任务名称
+     * @param userId userId
+     * @param source source
+     * @param hosts  主机数
+     * @param gate   主机执行时等待 可以为空
+     * @return future
+     */
+    private Future<?> submit(String name, Long userId, ExecSourceEnum source, int hosts, CountDownLatch gate) {
+        List<IExecCommandHandler> handlers = this.createHandlers(name, hosts, gate);
+        ExecCommandDTO command = createCommand(userId, source);
+        return taskThreads.submit(() -> {
+            scheduler.run(command, handlers);
+            return null;
+        });
+    }
+
+    /**
+     * 创建主机执行器
+     *
+     * @param name  任务名称
+     * @param hosts 主机数
+     * @param gate  gate
+     * @return handlers
+     */
+    private List<IExecCommandHandler> createHandlers(String name, int hosts, CountDownLatch gate) {
+        AtomicInteger current = taskRunning.computeIfAbsent(name, k -> new AtomicInteger());
+        AtomicInteger max = taskMaxRunning.computeIfAbsent(name, k -> new AtomicInteger());
+        List<IExecCommandHandler> handlers = new ArrayList<>();
+        for (int i = 0; i < hosts; i++) {
+            IExecCommandHandler handler = mock(IExecCommandHandler.class);
+            when(handler.getHostId()).thenReturn((long) i);
+            doAnswer(s -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                started.add(name);
+                if (gate != null) {
+                    gate.await(10, TimeUnit.SECONDS);
+                }
+                current.decrementAndGet();
+                running.decrementAndGet();
+                return null;
+            }).when(handler).run();
+            handlers.add(handler);
+        }
+        return handlers;
+    }
+
+    /**
+     * 等待开始执行的主机数
+     *
+     * @param count count
+     */
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (started.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(started.size() >= count);
+    }
+
+    /**
+     * 等待调度队列中的任务数
+     *
+     * @param expected expected
+     */
+    @SuppressWarnings("unchecked")
+    private void awaitQueued(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (scheduler) {
+                int queued = ((List<Object>) ReflectionTestUtils.getField(scheduler, "interactiveTasks")).size()
+                        + ((List<Object>) ReflectionTestUtils.getField(scheduler, "jobTasks")).size();
+                if (queued >= expected) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("queued tasks less than " + expected);
+    }
+
+    private long countStarted(String name) {
+        synchronized (started) {
+            return started.stream()
+                    .filter(name::equals)
+                    .count();
+        }
+    }
+
+    private static ExecCommandDTO createCommand(Long userId, ExecSourceEnum source) {
+        return ExecCommandDTO.builder()
+                .logId(userId)
+                .userId(userId)
+                .source(source.name())
+                .build();
+    }
+
+}
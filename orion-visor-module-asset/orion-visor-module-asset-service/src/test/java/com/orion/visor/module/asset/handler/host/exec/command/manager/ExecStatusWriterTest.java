@@ -0,0 +1,202 @@
+package com.orion.visor.module.asset.handler.host.exec.command.manager;
+
+import com.orion.visor.module.asset.dao.ExecHostLogDAO;
+import com.orion.visor.module.asset.dao.ExecLogDAO;
+import com.orion.visor.module.asset.define.config.AppExecStatusConfig;
+import com.orion.visor.module.asset.entity.domain.ExecHostLogDO;
+import com.orion.visor.module.asset.entity.domain.ExecLogDO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量执行状态写入器 合并 顺序 批量唤醒 失败重试 停止写入
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 17:10
+ */
+public class ExecStatusWriterTest {
+
+    private ExecStatusWriter writer;
+
+    private ExecHostLogDAO execHostLogDAO;
+
+    private ExecLogDAO execLogDAO;
+
+    private AppExecStatusConfig config;
+
+    /**
+     * 写入的主机状态批次
+     */
+    private List<List<ExecHostLogDO>> hostBatches;
+
+    /**
+     * 写入主机状态的时间
+     */
+    private List<Long> hostBatchTimes;
+
+    /**
+     * 剩余失败次数
+     */
+    private AtomicInteger failTimes;
+
+    private Thread writerThread;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        this.config = new AppExecStatusConfig();
+        this.execHostLogDAO = mock(ExecHostLogDAO.class);
+        this.execLogDAO = mock(ExecLogDAO.class);
+        this.hostBatches = Collections.synchronizedList(new ArrayList<>());
+        this.hostBatchTimes = Collections.synchronizedList(new ArrayList<>());
+        this.failTimes = new AtomicInteger();
+        doAnswer(s -> {
+            hostBatchTimes.add(System.currentTimeMillis());
+            if (failTimes.getAndDecrement() > 0) {
+                throw new IllegalStateException("update failed");
+            }
+            hostBatches.add(new ArrayList<>((Collection<ExecHostLogDO>) s.getArgument(0)));
+            return true;
+        }).when(execHostLogDAO).updateBatch(anyCollection(), anyInt());
+        this.writer = new ExecStatusWriter();
+        ReflectionTestUtils.setField(writer, "execHostLogDAO", execHostLogDAO);
+        ReflectionTestUtils.setField(writer, "execLogDAO", execLogDAO);
+        ReflectionTestUtils.setField(writer, "appExecStatusConfig", config);
+        // 不使用线程池 由测试控制写入线程
+        ReflectionTestUtils.setField(writer, "running", true);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        writer.destroy();
+        if (writerThread != null) {
+            writerThread.join(5000);
+        }
+    }
+
+    @Test
+    public void testMerge() {
+        Date startTime = new Date();
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("RUNNING").startTime(startTime).build());
+        writer.updateHostLog(ExecHostLogDO.builder().id(2L).status("RUNNING").build());
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("COMPLETED").exitCode(0).build());
+        assertTrue(writer.flush());
+        // 同一条记录合并为最新状态 保留之前的字段
+        assertEquals(1, hostBatches.size());
+        List<ExecHostLogDO> batch = hostBatches.get(0);
+        assertEquals(2, batch.size());
+        ExecHostLogDO host = batch.get(0);
+        assertEquals(Long.valueOf(1L), host.getId());
+        assertEquals("COMPLETED", host.getStatus());
+        assertEquals(Integer.valueOf(0), host.getExitCode());
+        assertEquals(startTime, host.getStartTime());
+        assertEquals("RUNNING", batch.get(1).getStatus());
+        // 已写入不再重复写入
+        assertTrue(writer.flush());
+        assertEquals(1, hostBatches.size());
+    }
+
+    @Test
+    public void testHostBeforeExecLog() {
+        writer.updateExecLog(ExecLogDO.builder().id(1L).status("COMPLETED").build());
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("COMPLETED").build());
+        assertTrue(writer.flush());
+        InOrder order = inOrder(execHostLogDAO, execLogDAO);
+        order.verify(execHostLogDAO).updateBatch(anyCollection(), anyInt());
+        order.verify(execLogDAO).updateBatch(anyCollection(), anyInt());
+    }
+
+    @Test
+    public void testRequeueOnFailure() {
+        failTimes.set(1);
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("RUNNING").exitCode(1).build());
+        assertFalse(writer.flush());
+        // 失败后提交的状态不被旧状态覆盖
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("FAILED").build());
+        assertTrue(writer.flush());
+        assertEquals(1, hostBatches.size());
+        ExecHostLogDO host = hostBatches.get(0).get(0);
+        assertEquals("FAILED", host.getStatus());
+        assertEquals(Integer.valueOf(1), host.getExitCode());
+    }
+
+    @Test
+    public void testBatchSizeWakeUp() {
+        config.setFlushInterval(60000);
+        config.setBatchSize(2);
+        this.startWriter();
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("RUNNING").build());
+        writer.updateHostLog(ExecHostLogDO.builder().id(2L).status("RUNNING").build());
+        // 达到批量行数 不等待刷新间隔
+        verify(execHostLogDAO, timeout(5000)).updateBatch(anyCollection(), eq(2));
+    }
+
+    @Test
+    public void testBackoff() throws InterruptedException {
+        config.setFlushInterval(100);
+        config.setBatchSize(1);
+        failTimes.set(2);
+        this.startWriter();
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("RUNNING").build());
+        this.awaitSize(hostBatches, 1);
+        // 第一次失败后等待 1 个间隔 第二次失败后等待 2 个间隔 达到批量行数也不提前重试
+        assertEquals(3, hostBatchTimes.size());
+        assertTrue(hostBatchTimes.get(1) - hostBatchTimes.get(0) >= 90);
+        assertTrue(hostBatchTimes.get(2) - hostBatchTimes.get(1) >= 190);
+    }
+
+    @Test
+    public void testDestroy() {
+        config.setFlushInterval(60000);
+        writer.updateHostLog(ExecHostLogDO.builder().id(1L).status("COMPLETED").build());
+        writer.updateExecLog(ExecLogDO.builder().id(1L).status("COMPLETED").build());
+        // 停止时写入剩余状态
+        writer.destroy();
+        assertEquals(1, hostBatches.size());
+        verify(execLogDAO).updateBatch(anyCollection(), anyInt());
+        // 停止后直接写入
+        ExecHostLogDO host = ExecHostLogDO.builder().id(2L).status("FAILED").build();
+        writer.updateHostLog(host);
+        verify(execHostLogDAO).updateById(host);
+    }
+
+    @Test
+    public void testDestroyUpdateEach() {
+        failTimes.set(1);
+        ExecHostLogDO first = ExecHostLogDO.builder().id(1L).status("COMPLETED").build();
+        ExecHostLogDO second = ExecHostLogDO.builder().id(2L).status("COMPLETED").build();
+        writer.updateHostLog(first);
+        writer.updateHostLog(second);
+        when(execHostLogDAO.updateById(any(ExecHostLogDO.class)))
+                .thenThrow(new IllegalStateException("update failed"))
+                .thenReturn(1);
+        // 停止时批量写入失败 逐行写入 单行失败不影响其他行
+        writer.destroy();
+        verify(execHostLogDAO, times(2)).updateById(any(ExecHostLogDO.class));
+    }
+
+    private void startWriter() {
+        this.writerThread = new Thread(writer);
+        writerThread.start();
+    }
+
+    private void awaitSize(List<?> list, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (list.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, list.size());
+    }
+
+}
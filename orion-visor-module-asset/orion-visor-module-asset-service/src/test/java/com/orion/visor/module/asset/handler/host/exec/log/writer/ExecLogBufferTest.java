@@ -0,0 +1,123 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 执行日志缓冲区 上限阻塞 丢弃 关闭 收缩
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 17:40
+ */
+public class ExecLogBufferTest {
+
+    private ExecutorService executor;
+
+    private AtomicInteger signals;
+
+    @BeforeEach
+    public void setUp() {
+        this.executor = Executors.newSingleThreadExecutor();
+        this.signals = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDrainOrder() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(1024, false);
+        assertNull(buffer.drain());
+        buffer.write("line1\n".getBytes());
+        buffer.write('l');
+        buffer.write("ine2\n".getBytes(), 0, 5);
+        assertArrayEquals("line1\nline2\n".getBytes(), buffer.drain());
+        assertNull(buffer.drain());
+    }
+
+    @Test
+    public void testBlockWhenFull() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(10, false);
+        buffer.write(new byte[8]);
+        // 超出最大大小 等待写入线程取出
+        Future<?> blocked = executor.submit(() -> {
+            buffer.write(new byte[]{1, 2, 3, 4, 5});
+            return null;
+        });
+        assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+        assertTrue(signals.get() > 0);
+        assertEquals(8, buffer.drain().length);
+        blocked.get(5, TimeUnit.SECONDS);
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, buffer.drain());
+        // 缓冲区为空时 单次写入超出最大大小不阻塞
+        buffer.write(new byte[32]);
+        assertEquals(32, buffer.drain().length);
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(10, false);
+        buffer.write(new byte[8]);
+        Future<?> blocked = executor.submit(() -> {
+            buffer.write(new byte[5]);
+            return null;
+        });
+        assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+        // 丢弃后唤醒等待的执行线程 之后的内容丢弃
+        buffer.discard();
+        blocked.get(5, TimeUnit.SECONDS);
+        buffer.write(new byte[3]);
+        assertNull(buffer.drain());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(1024, false);
+        buffer.write(new byte[3]);
+        buffer.close();
+        // 关闭时唤醒写入线程 关闭前的内容仍可取出
+        assertTrue(buffer.isClosed());
+        assertEquals(1, signals.get());
+        assertEquals(3, buffer.drain().length);
+        assertThrows(IOException.class, () -> buffer.write(new byte[1]));
+        // 重复关闭不再唤醒
+        buffer.close();
+        assertEquals(1, signals.get());
+    }
+
+    @Test
+    public void testDurableClose() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(1024, true);
+        Future<?> closing = executor.submit(buffer::close);
+        // 持久模式等待全部写入文件
+        assertThrows(TimeoutException.class, () -> closing.get(200, TimeUnit.MILLISECONDS));
+        buffer.finish();
+        closing.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testShrink() throws Exception {
+        ExecLogBuffer buffer = this.createBuffer(65536, false);
+        buffer.write(new byte[20000]);
+        assertTrue(((byte[]) ReflectionTestUtils.getField(buffer, "buf")).length >= 20000);
+        assertEquals(20000, buffer.drain().length);
+        // 输出高峰后收缩
+        assertEquals(8192, ((byte[]) ReflectionTestUtils.getField(buffer, "buf")).length);
+    }
+
+    private ExecLogBuffer createBuffer(int maxSize, boolean durable) {
+        return new ExecLogBuffer("exec/1/1.log", signals::incrementAndGet, maxSize, durable);
+    }
+
+}
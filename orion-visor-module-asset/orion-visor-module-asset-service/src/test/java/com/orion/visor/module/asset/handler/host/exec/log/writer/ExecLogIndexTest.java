@@ -0,0 +1,107 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 执行日志稀疏索引 加载 按行号 按时间定位
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 18:10
+ */
+public class ExecLogIndexTest {
+
+    @TempDir
+    File dir;
+
+    @Test
+    public void testFloorLine() throws IOException {
+        ExecLogIndex index = this.load(ExecLogIndex.format(0, 0, 1000)
+                + ExecLogIndex.format(100, 5000, 2000)
+                + ExecLogIndex.format(200, 10000, 3000)
+                + ExecLogIndex.format(300, 15000, 4000));
+        // 取行号不大于目标行的最后一个索引
+        assertEquals(0, index.floorLine(0));
+        assertEquals(0, index.floorLine(99));
+        assertEquals(1, index.floorLine(100));
+        assertEquals(1, index.floorLine(199));
+        assertEquals(3, index.floorLine(300));
+        assertEquals(3, index.floorLine(Long.MAX_VALUE));
+        assertEquals(200, index.getLine(2));
+        assertEquals(10000, index.getOffset(2));
+    }
+
+    @Test
+    public void testTimeRange() throws IOException {
+        ExecLogIndex index = this.load(ExecLogIndex.format(0, 0, 1000)
+                + ExecLogIndex.format(100, 5000, 2000)
+                + ExecLogIndex.format(200, 10000, 3000));
+        // 开始时间取不大于该时间的最后一个索引 早于全部索引时从头开始
+        assertEquals(0, index.floorTime(500));
+        assertEquals(0, index.floorTime(1999));
+        assertEquals(1, index.floorTime(2000));
+        assertEquals(2, index.floorTime(9999));
+        // 结束时间取大于该时间的第一个索引 没有则读取到文件末尾
+        assertEquals(0, index.higherTime(500));
+        assertEquals(1, index.higherTime(1000));
+        assertEquals(2, index.higherTime(2500));
+        assertEquals(-1, index.higherTime(3000));
+    }
+
+    @Test
+    public void testSkipInvalidRows() throws IOException {
+        // 乱序 格式错误 正在写入的不完整行被忽略
+        ExecLogIndex index = this.load(ExecLogIndex.format(0, 0, 1000)
+                + ExecLogIndex.format(100, 5000, 2000)
+                + ExecLogIndex.format(50, 6000, 2100)
+                + ExecLogIndex.format(150, 4000, 2200)
+                + "x,y,z\n"
+                + ExecLogIndex.format(200, 10000, 3000)
+                + "300,150");
+        assertEquals(2, index.floorLine(Long.MAX_VALUE));
+        assertEquals(200, index.getLine(2));
+        assertEquals(10000, index.getOffset(2));
+    }
+
+    @Test
+    public void testGrow() throws IOException {
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            rows.append(ExecLogIndex.format(i * 10L, i * 100L, i * 1000L));
+        }
+        ExecLogIndex index = this.load(rows.toString());
+        assertEquals(99, index.floorLine(Long.MAX_VALUE));
+        assertEquals(42, index.floorLine(425));
+        assertEquals(4200, index.getOffset(42));
+        assertEquals(43, index.higherTime(42000));
+    }
+
+    @Test
+    public void testMissingIndex() throws IOException {
+        // 索引不存在 从文件开头读取
+        ExecLogIndex missing = ExecLogIndex.load(new File(dir, "missing.log").getAbsolutePath());
+        assertEquals(0, missing.floorLine(1000));
+        assertEquals(0, missing.getLine(0));
+        assertEquals(0, missing.getOffset(0));
+        assertEquals(-1, missing.higherTime(0));
+        // 第一行不是起始位置 忽略索引从文件开头读取
+        ExecLogIndex broken = this.load(ExecLogIndex.format(100, 5000, 2000));
+        assertEquals(0, broken.floorLine(1000));
+        assertEquals(0, broken.getOffset(0));
+    }
+
+    private ExecLogIndex load(String rows) throws IOException {
+        File log = new File(dir, "1.log");
+        Files.write(new File(dir, "1.log" + ExecLogIndex.SUFFIX).toPath(), rows.getBytes(StandardCharsets.UTF_8));
+        return ExecLogIndex.load(log.getAbsolutePath());
+    }
+
+}
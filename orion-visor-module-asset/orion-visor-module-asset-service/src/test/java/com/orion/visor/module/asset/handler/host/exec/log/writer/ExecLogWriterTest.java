@@ -0,0 +1,169 @@
+package com.orion.visor.module.asset.handler.host.exec.log.writer;
+
+import com.orion.visor.framework.common.file.FileClient;
+import com.orion.visor.module.asset.define.config.AppExecLogConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 执行日志写入器 写入顺序 索引 停止写入 写入失败
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 17:40
+ */
+public class ExecLogWriterTest {
+
+    @TempDir
+    File dir;
+
+    private ExecLogWriter writer;
+
+    private AppExecLogConfig config;
+
+    private FileClient fileClient;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.config = new AppExecLogConfig();
+        config.setFlushInterval(50);
+        config.setIndexTimeInterval(3600);
+        this.fileClient = mock(FileClient.class);
+        when(fileClient.getContentOutputStream(anyString()))
+                .thenAnswer(s -> this.openFile(s.getArgument(0), false));
+        when(fileClient.getContentOutputStream(anyString(), anyBoolean()))
+                .thenAnswer(s -> this.openFile(s.getArgument(0), s.getArgument(1)));
+        this.writer = new ExecLogWriter();
+        ReflectionTestUtils.setField(writer, "logsFileClient", fileClient);
+        ReflectionTestUtils.setField(writer, "appExecLogConfig", config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writer.destroy();
+    }
+
+    @Test
+    public void testWriteInOrder() throws Exception {
+        config.setBufferSize(64);
+        writer.init();
+        OutputStream first = writer.open("1.log");
+        OutputStream second = writer.open("2.log");
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            String line = "line-" + i + "\n";
+            expected.append(line);
+            first.write(line.getBytes(StandardCharsets.UTF_8));
+            second.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+        // 持久模式关闭时等待写入完成
+        first.close();
+        second.close();
+        assertEquals(expected.toString(), this.read("1.log"));
+        assertEquals(expected.toString(), this.read("2.log"));
+    }
+
+    @Test
+    public void testIndex() throws Exception {
+        config.setIndexLineInterval(2);
+        writer.init();
+        OutputStream out = writer.open("1.log");
+        // 每行 7 字节
+        for (int i = 0; i < 5; i++) {
+            out.write(("line-" + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.close();
+        // 每 2 行在下一行的起始位置添加索引
+        ExecLogIndex index = ExecLogIndex.load(new File(dir, "1.log").getAbsolutePath());
+        assertEquals(0, index.floorLine(1));
+        int i = index.floorLine(3);
+        assertEquals(2, index.getLine(i));
+        assertEquals(14, index.getOffset(i));
+        i = index.floorLine(100);
+        assertEquals(4, index.getLine(i));
+        assertEquals(28, index.getOffset(i));
+    }
+
+    @Test
+    public void testDestroyDrains() throws Exception {
+        config.setDurable(false);
+        writer.init();
+        OutputStream out = writer.open("1.log");
+        out.write("before\n".getBytes(StandardCharsets.UTF_8));
+        // 停止时写入剩余内容 之后的内容丢弃
+        writer.destroy();
+        this.awaitDiscarded(out);
+        assertEquals("before\n", this.read("1.log"));
+        out.write("after\n".getBytes(StandardCharsets.UTF_8));
+        out.close();
+        Thread.sleep(100);
+        assertEquals("before\n", this.read("1.log"));
+        // 停止后直接写入文件
+        try (OutputStream direct = writer.open("2.log")) {
+            direct.write("direct\n".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("direct\n", this.read("2.log"));
+    }
+
+    @Test
+    public void testWriteFailure() throws Exception {
+        config.setBufferSize(16);
+        writer.init();
+        OutputStream out = writer.open("1.log");
+        doThrow(new IOException("disk full")).when(fileClient).getContentOutputStream(eq("1.log"), anyBoolean());
+        // 写入失败后丢弃 等待写入的执行线程不会一直阻塞
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> writing = executor.submit(() -> {
+                for (int i = 0; i < 10; i++) {
+                    out.write(new byte[10]);
+                }
+                out.close();
+                return null;
+            });
+            writing.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("", this.read("1.log"));
+    }
+
+    private OutputStream openFile(String path, boolean append) throws IOException {
+        File file = new File(dir, path);
+        return new FileOutputStream(file, append);
+    }
+
+    private String read(String path) throws IOException {
+        return new String(Files.readAllBytes(new File(dir, path).toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void awaitDiscarded(OutputStream out) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!this.isDiscarded(out) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(this.isDiscarded(out));
+    }
+
+    private boolean isDiscarded(OutputStream out) {
+        synchronized (out) {
+            return (boolean) ReflectionTestUtils.getField(out, "discarded");
+        }
+    }
+
+}
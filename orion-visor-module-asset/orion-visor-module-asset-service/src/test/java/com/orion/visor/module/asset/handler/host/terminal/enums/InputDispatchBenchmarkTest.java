@@ -0,0 +1,121 @@
+package com.orion.visor.module.asset.handler.host.terminal.enums;
+
+import com.alibaba.fastjson.JSONObject;
+import com.orion.visor.module.asset.benchmark.Benchmarks;
+import com.orion.visor.module.asset.handler.host.terminal.model.TerminalBasePayload;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.SshInputRequest;
+import com.orion.visor.module.asset.handler.host.terminal.model.request.SshResizeRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 终端输入分发 查表解析与逐个匹配 + json 解析对比
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 14:30
+ */
+public class InputDispatchBenchmarkTest {
+
+    private static final String INPUT = "i|a1b2c3d4e5f60718293a4b5c6d7e8f90|ls -la | grep log\r";
+
+    private static final String RESIZE = "rs|a1b2c3d4e5f60718293a4b5c6d7e8f90|120|40";
+
+    private static final String[] INPUT_DEFINE = {"type", "sessionId", "command"};
+
+    private static final int OPERATIONS = 200000;
+
+    @Test
+    public void testDispatch() {
+        assertEquals(InputTypeEnum.SSH_INPUT, InputTypeEnum.of(INPUT));
+        assertEquals(InputTypeEnum.SSH_RESIZE, InputTypeEnum.of(RESIZE));
+        assertEquals(InputTypeEnum.PING, InputTypeEnum.of("p"));
+        assertEquals(InputTypeEnum.SFTP_LIST, InputTypeEnum.of("ls|sid|0|0|/root"));
+        assertNull(InputTypeEnum.of("l|sid"));
+        assertNull(InputTypeEnum.of("lsx|sid"));
+        assertNull(InputTypeEnum.of("中|sid"));
+        assertNull(InputTypeEnum.of(""));
+        assertNull(InputTypeEnum.of(null));
+    }
+
+    @Test
+    public void testParse() {
+        // 最后一个字段包含剩余内容
+        SshInputRequest input = InputTypeEnum.SSH_INPUT.parse(INPUT);
+        assertEquals("i", input.getType());
+        assertEquals("a1b2c3d4e5f60718293a4b5c6d7e8f90", input.getSessionId());
+        assertEquals("ls -la | grep log\r", input.getCommand());
+        // 数字字段
+        SshResizeRequest resize = InputTypeEnum.SSH_RESIZE.parse(RESIZE);
+        assertEquals(Integer.valueOf(120), resize.getCols());
+        assertEquals(Integer.valueOf(40), resize.getRows());
+        // 缺失字段为 null
+        SshResizeRequest missing = InputTypeEnum.SSH_RESIZE.parse("rs|sid||");
+        assertNull(missing.getCols());
+        assertNull(missing.getRows());
+        // 与原 json 解析结果一致
+        assertEquals(legacyParse(INPUT, INPUT_DEFINE, SshInputRequest.class), input);
+    }
+
+    @Test
+    public void benchmarkDispatch() {
+        double legacy = Benchmarks.run("terminal input legacy dispatch", OPERATIONS,
+                i -> {
+                    legacyOf(INPUT);
+                    return legacyParse(INPUT, INPUT_DEFINE, SshInputRequest.class);
+                });
+        double table = Benchmarks.run("terminal input table dispatch", OPERATIONS,
+                i -> InputTypeEnum.of(INPUT).parse(INPUT));
+        System.out.printf("[benchmark] terminal input legacy / table: %.1fx%n", legacy / table);
+    }
+
+    /**
+     * 原实现 逐个匹配类型
+     *
+     * @param payload payload
+     * @return type
+     */
+    private static InputTypeEnum legacyOf(String payload) {
+        for (InputTypeEnum value : InputTypeEnum.values()) {
+            if (payload.startsWith(value.getType() + "|") || payload.equals(value.getType())) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 原实现 逐字符拼接字段后转换对象
+     *
+     * @param payload       payload
+     * @param payloadDefine payloadDefine
+     * @param payloadClass  payloadClass
+     * @param <T>           T
+     * @return payload
+     */
+    private static <T extends TerminalBasePayload> T legacyParse(String payload, String[] payloadDefine, Class<T> payloadClass) {
+        JSONObject object = new JSONObject();
+        int curr = 0;
+        int len = payload.length();
+        for (int i = 0, pl = payloadDefine.length; i < pl; i++) {
+            if (i == pl - 1) {
+                object.put(payloadDefine[i], payload.substring(curr, len));
+            } else {
+                StringBuilder tmp = new StringBuilder();
+                for (; curr < len; curr++) {
+                    char c = payload.charAt(curr);
+                    if (c == '|') {
+                        object.put(payloadDefine[i], tmp.toString());
+                        curr++;
+                        break;
+                    } else {
+                        tmp.append(c);
+                    }
+                }
+            }
+        }
+        return object.toJavaObject(payloadClass);
+    }
+
+}
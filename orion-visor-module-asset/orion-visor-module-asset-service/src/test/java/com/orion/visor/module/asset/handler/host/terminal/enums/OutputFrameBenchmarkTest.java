@@ -0,0 +1,88 @@
+package com.orion.visor.module.asset.handler.host.terminal.enums;
+
+import com.orion.visor.module.asset.benchmark.Benchmarks;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SshOutputResponse;
+import com.orion.visor.module.asset.utils.StreamDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ssh 输出帧 二进制协议与文本协议对比
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 14:10
+ */
+public class OutputFrameBenchmarkTest {
+
+    private static final String SESSION_ID = "a1b2c3d4e5f60718293a4b5c6d7e8f90";
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private static final int OPERATIONS = 20000;
+
+    private final byte[] chunk = createChunk();
+
+    @Test
+    public void testFrameContent() {
+        // 二进制帧
+        byte[] header = OutputTypeEnum.SSH_OUTPUT.binaryHeader(SESSION_ID);
+        byte[] frame = OutputTypeEnum.binaryFrame(header, chunk, 0, chunk.length);
+        assertEquals(OutputTypeEnum.SSH_OUTPUT.getType().length(), frame[0]);
+        assertEquals(SESSION_ID.length(), frame[frame[0] + 1]);
+        assertArrayEquals(chunk, Arrays.copyOfRange(frame, header.length, frame.length));
+        // 文本帧
+        String text = this.textFrame(new StreamDecoder(StandardCharsets.UTF_8));
+        assertEquals("o|" + SESSION_ID + "|" + new String(chunk, StandardCharsets.UTF_8), text);
+    }
+
+    @Test
+    public void benchmarkFrame() {
+        byte[] header = OutputTypeEnum.SSH_OUTPUT.binaryHeader(SESSION_ID);
+        StreamDecoder decoder = new StreamDecoder(StandardCharsets.UTF_8);
+        // 文本协议 解码 + 格式化 + 发送时编码
+        double text = Benchmarks.run("ssh output text frame 4k", OPERATIONS,
+                i -> this.textFrame(decoder).getBytes(StandardCharsets.UTF_8));
+        // 二进制协议 复制原始字节
+        double binary = Benchmarks.run("ssh output binary frame 4k", OPERATIONS,
+                i -> OutputTypeEnum.binaryFrame(header, chunk, 0, chunk.length));
+        System.out.printf("[benchmark] ssh output text / binary: %.1fx%n", text / binary);
+    }
+
+    /**
+     * 文本协议帧 与 SshSession 相同的构建方式
+     *
+     * @param decoder decoder
+     * @return frame
+     */
+    private String textFrame(StreamDecoder decoder) {
+        SshOutputResponse resp = SshOutputResponse.builder()
+                .type(OutputTypeEnum.SSH_OUTPUT.getType())
+                .sessionId(SESSION_ID)
+                .body(decoder.decode(chunk, 0, chunk.length))
+                .build();
+        return OutputTypeEnum.SSH_OUTPUT.format(resp);
+    }
+
+    /**
+     * 创建终端输出块 包含颜色控制符与换行
+     *
+     * @return chunk
+     */
+    private static byte[] createChunk() {
+        StringBuilder sb = new StringBuilder();
+        int line = 0;
+        while (sb.length() < CHUNK_SIZE) {
+            sb.append("\u001b[32m-rw-r--r--\u001b[0m 1 root root 4096 Oct 18 14:10 file-")
+                    .append(line++)
+                    .append(".log\r\n");
+        }
+        return sb.substring(0, CHUNK_SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.orion.visor.module.asset.handler.host.terminal.executor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 按 key 串行的执行器 顺序 上限 公平 拒绝
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 15:40
+ */
+public class KeyedSerialExecutorTest {
+
+    private ExecutorService workers;
+
+    @BeforeEach
+    public void setUp() {
+        this.workers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    public void testOrderPerKey() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor("test.order", workers, 1000);
+        String[] keys = {"a", "b", "c"};
+        int count = 200;
+        Map<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(keys.length * count);
+        for (int i = 0; i < count; i++) {
+            for (String key : keys) {
+                int index = i;
+                executed.putIfAbsent(key, Collections.synchronizedList(new ArrayList<>()));
+                running.putIfAbsent(key, new AtomicInteger());
+                assertTrue(executor.execute(key, () -> {
+                    // 同一 key 不会并发执行
+                    int current = running.get(key).incrementAndGet();
+                    maxRunning.accumulateAndGet(current, Math::max);
+                    executed.get(key).add(index);
+                    running.get(key).decrementAndGet();
+                    latch.countDown();
+                }));
+            }
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxRunning.get());
+        for (String key : keys) {
+            List<Integer> list = executed.get(key);
+            assertEquals(count, list.size());
+            for (int i = 0; i < count; i++) {
+                assertEquals(Integer.valueOf(i), list.get(i));
+            }
+        }
+        this.awaitQueued(executor, 0);
+    }
+
+    @Test
+    public void testMaxQueuedPerKey() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor("test.limit", workers, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        assertTrue(executor.execute("a", () -> {
+            started.countDown();
+            await(release);
+            executed.add(0);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 执行中的任务不计入排队数
+        for (int i = 1; i <= 3; i++) {
+            int index = i;
+            assertTrue(executor.execute("a", () -> executed.add(index)));
+        }
+        assertEquals(3, executor.getQueuedCount());
+        // 超出上限 调用拒绝回调
+        AtomicInteger rejected = new AtomicInteger();
+        assertFalse(executor.execute("a", workers, () -> executed.add(4), rejected::incrementAndGet));
+        assertEquals(1, rejected.get());
+        // 其他 key 不受影响
+        CountDownLatch other = new CountDownLatch(1);
+        assertTrue(executor.execute("b", other::countDown));
+        assertTrue(other.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        this.awaitQueued(executor, 0);
+        this.awaitSize(executed, 4);
+        assertEquals(Arrays.asList(0, 1, 2, 3), executed);
+    }
+
+    @Test
+    public void testFairness() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            KeyedSerialExecutor executor = new KeyedSerialExecutor("test.fair", single, 100);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> executed = Collections.synchronizedList(new ArrayList<>());
+            executor.execute("a", () -> {
+                started.countDown();
+                await(release);
+                executed.add("a1");
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute("a", () -> executed.add("a2"));
+            executor.execute("a", () -> executed.add("a3"));
+            executor.execute("b", () -> executed.add("b1"));
+            release.countDown();
+            // 每个 key 执行一个任务后重新排队 b 不需要等待 a 全部执行完
+            this.awaitSize(executed, 4);
+            assertEquals(Arrays.asList("a1", "b1", "a2", "a3"), executed);
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWorkersRejected() throws Exception {
+        KeyedSerialExecutor executor = new KeyedSerialExecutor("test.rejected", workers, 100);
+        Executor rejecting = r -> {
+            throw new RejectedExecutionException();
+        };
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger executed = new AtomicInteger();
+        // 线程池拒绝时丢弃该 key 排队的任务
+        executor.execute("a", rejecting, executed::incrementAndGet, rejected::incrementAndGet);
+        assertEquals(1, rejected.get());
+        assertEquals(0, executed.get());
+        assertEquals(0, executor.getQueuedCount());
+        // 之后的任务重新调度
+        CountDownLatch latch = new CountDownLatch(1);
+        assertTrue(executor.execute("a", latch::countDown));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 等待排队数
+     *
+     * @param executor executor
+     * @param count    count
+     */
+    private void awaitQueued(KeyedSerialExecutor executor, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getQueuedCount() != count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, executor.getQueuedCount());
+    }
+
+    /**
+     * 等待执行数量
+     *
+     * @param list  list
+     * @param count count
+     */
+    private void awaitSize(List<?> list, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (list.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, list.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.orion.visor.module.asset.handler.host.terminal.manager;
+
+import com.orion.net.host.SessionStore;
+import com.orion.visor.module.asset.define.config.AppConnectionConfig;
+import com.orion.visor.module.asset.entity.dto.HostTerminalConnectDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 主机连接管理器 引用计数 通道上限 连接替换
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 16:10
+ */
+public class HostConnectionManagerTest {
+
+    private HostConnectionManager manager;
+
+    private AppConnectionConfig config;
+
+    /**
+     * 连接 -> 是否已关闭
+     */
+    private Map<SessionStore, AtomicBoolean> stores;
+
+    private AtomicInteger opened;
+
+    private Function<HostTerminalConnectDTO, SessionStore> opener;
+
+    @BeforeEach
+    public void setUp() {
+        this.config = new AppConnectionConfig();
+        this.manager = new HostConnectionManager();
+        ReflectionTestUtils.setField(manager, "appConnectionConfig", config);
+        this.stores = new ConcurrentHashMap<>();
+        this.opened = new AtomicInteger();
+        this.opener = conn -> {
+            opened.incrementAndGet();
+            return this.createStore();
+        };
+    }
+
+    @Test
+    public void testReferenceCount() throws Exception {
+        HostTerminalConnectDTO conn = createConn("password");
+        SessionStore first = manager.acquire(conn, opener);
+        SessionStore second = manager.acquire(conn, opener);
+        // 共享同一个连接
+        assertSame(first, second);
+        assertEquals(1, opened.get());
+        assertEquals(1, manager.getConnectionCount());
+        // 引用计数未归零不关闭
+        manager.release(first);
+        verify(first, never()).close();
+        assertEquals(1, manager.getConnectionCount());
+        manager.release(second);
+        verify(first, times(1)).close();
+        assertEquals(0, manager.getConnectionCount());
+        // 关闭后重新打开
+        SessionStore third = manager.acquire(conn, opener);
+        assertNotSame(first, third);
+        assertEquals(2, opened.get());
+    }
+
+    @Test
+    public void testCredentialKey() {
+        HostTerminalConnectDTO conn = createConn("password");
+        HostTerminalConnectDTO other = createConn("other-password");
+        // 凭证不同不共享
+        assertNotSame(manager.acquire(conn, opener), manager.acquire(other, opener));
+        assertEquals(2, manager.getConnectionCount());
+        // key 不包含明文凭证
+        String key = HostConnectionManager.getConnectionKey(conn);
+        assertFalse(key.contains("password"));
+        assertEquals(key, HostConnectionManager.getConnectionKey(createConn("password")));
+        assertNotEquals(key, HostConnectionManager.getConnectionKey(other));
+    }
+
+    @Test
+    public void testMaxChannels() throws Exception {
+        config.setMaxChannels(2);
+        HostTerminalConnectDTO conn = createConn("password");
+        SessionStore shared = manager.acquire(conn, opener);
+        assertSame(shared, manager.acquire(conn, opener));
+        // 通道数已满 使用独立连接
+        SessionStore single = manager.acquire(conn, opener);
+        assertNotSame(shared, single);
+        assertEquals(2, opened.get());
+        // 独立连接释放时直接关闭 不影响共享连接
+        manager.release(single);
+        verify(single, times(1)).close();
+        verify(shared, never()).close();
+        manager.release(shared);
+        manager.release(shared);
+        verify(shared, times(1)).close();
+    }
+
+    @Test
+    public void testReplaceDisconnected() throws Exception {
+        HostTerminalConnectDTO conn = createConn("password");
+        SessionStore first = manager.acquire(conn, opener);
+        // 连接断开后重新打开
+        stores.get(first).set(true);
+        SessionStore second = manager.acquire(conn, opener);
+        assertNotSame(first, second);
+        verify(first, atLeastOnce()).close();
+        // 释放旧连接不影响新连接的引用计数
+        manager.release(first);
+        verify(second, never()).close();
+        assertEquals(1, manager.getConnectionCount());
+        manager.release(second);
+        verify(second, times(1)).close();
+        assertEquals(0, manager.getConnectionCount());
+    }
+
+    @Test
+    public void testSharedDisabled() throws Exception {
+        config.setShared(false);
+        HostTerminalConnectDTO conn = createConn("password");
+        SessionStore first = manager.acquire(conn, opener);
+        SessionStore second = manager.acquire(conn, opener);
+        assertNotSame(first, second);
+        assertEquals(0, manager.getConnectionCount());
+        manager.release(first);
+        verify(first, times(1)).close();
+        verify(second, never()).close();
+    }
+
+    @Test
+    public void testConcurrentAcquire() throws Exception {
+        config.setMaxChannels(Integer.MAX_VALUE);
+        HostTerminalConnectDTO conn = createConn("password");
+        int threads = 4;
+        int rounds = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    SessionStore store = manager.acquire(conn, opener);
+                    // 持有引用期间连接不会被关闭
+                    if (stores.get(store).get()) {
+                        return false;
+                    }
+                    manager.release(store);
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> future : futures) {
+            assertTrue(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        // 全部释放后连接关闭
+        assertEquals(0, manager.getConnectionCount());
+        for (AtomicBoolean closed : stores.values()) {
+            assertTrue(closed.get());
+        }
+    }
+
+    /**
+     * 创建连接 关闭后断开
+     *
+     * @return store
+     */
+    private SessionStore createStore() {
+        AtomicBoolean closed = new AtomicBoolean();
+        SessionStore store = mock(SessionStore.class);
+        when(store.isConnected()).thenAnswer(s -> !closed.get());
+        try {
+            doAnswer(s -> {
+                closed.set(true);
+                return null;
+            }).when(store).close();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        stores.put(store, closed);
+        return store;
+    }
+
+    private static HostTerminalConnectDTO createConn(String password) {
+        return HostTerminalConnectDTO.builder()
+                .hostId(1L)
+                .hostAddress("127.0.0.1")
+                .port(22)
+                .username("root")
+                .password(password)
+                .build();
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.orion.visor.module.asset.handler.host.terminal.output;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 终端输出缓冲区 顺序 水位 合并 关闭
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 15:10
+ */
+public class TerminalOutputBufferTest {
+
+    private static final String PREFIX = "o|sid|";
+
+    private WebSocketSession channel;
+
+    private List<String> sent;
+
+    /**
+     * 每次发送前获取许可 用于控制发送速度
+     */
+    private Semaphore sendPermits;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.sent = Collections.synchronizedList(new ArrayList<>());
+        this.sendPermits = new Semaphore(Integer.MAX_VALUE);
+        this.channel = mock(WebSocketSession.class);
+        when(channel.isOpen()).thenReturn(true);
+        doAnswer(s -> {
+            sendPermits.acquire();
+            sent.add(((TextMessage) s.getArgument(0)).getPayload());
+            return null;
+        }).when(channel).sendMessage(any());
+    }
+
+    @Test
+    public void testOrder() throws Exception {
+        TerminalOutputBuffer buffer = this.createBuffer(1024, 512, 0, 0, null);
+        Thread sender = new Thread(buffer);
+        sender.start();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String payload = PREFIX + i;
+            expected.add(payload);
+            assertTrue(buffer.offer(new TextMessage(payload)));
+        }
+        buffer.close();
+        sender.join(5000);
+        assertFalse(sender.isAlive());
+        assertEquals(expected, sent);
+        assertEquals(0, buffer.getBufferedBytes());
+    }
+
+    @Test
+    public void testWatermark() throws Exception {
+        // 每条 5 字节 高水位 10 低水位 4
+        TerminalOutputBuffer buffer = this.createBuffer(10, 4, 0, 0, null);
+        assertTrue(buffer.offer(new TextMessage("a1234")));
+        assertTrue(buffer.offer(new TextMessage("b1234")));
+        assertEquals(10, buffer.getBufferedBytes());
+        // 达到高水位 写入阻塞
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<Boolean> blocked = reader.submit(() -> buffer.offer(new TextMessage("c1234")));
+        assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+        // 发送一条后为 5 仍高于低水位 继续阻塞
+        sendPermits.drainPermits();
+        Thread sender = new Thread(buffer);
+        sender.start();
+        sendPermits.release();
+        this.awaitSent(1);
+        assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+        // 低于低水位后恢复写入
+        sendPermits.release();
+        assertTrue(blocked.get(5, TimeUnit.SECONDS));
+        sendPermits.release(Integer.MAX_VALUE / 2);
+        buffer.close();
+        sender.join(5000);
+        assertEquals(3, sent.size());
+        reader.shutdownNow();
+    }
+
+    @Test
+    public void testCloseWhileBlocked() throws Exception {
+        TerminalOutputBuffer buffer = this.createBuffer(10, 4, 0, 0, null);
+        assertTrue(buffer.offer(new TextMessage("a123456789")));
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        Future<Boolean> blocked = reader.submit(() -> buffer.offer(new TextMessage("b1234")));
+        assertThrows(TimeoutException.class, () -> blocked.get(200, TimeUnit.MILLISECONDS));
+        // 关闭后阻塞的写入返回 false
+        buffer.close();
+        assertFalse(blocked.get(5, TimeUnit.SECONDS));
+        assertFalse(buffer.offer(new TextMessage("c")));
+        reader.shutdownNow();
+    }
+
+    @Test
+    public void testCloseSendsRemaining() {
+        TerminalOutputBuffer buffer = this.createBuffer(1024, 512, 0, 0, null);
+        buffer.offer(new TextMessage("a"));
+        buffer.offer(new TextMessage("b"));
+        buffer.append(new TextMessage("c"));
+        buffer.close();
+        // 关闭后发送线程发送完剩余消息后退出
+        buffer.run();
+        assertEquals(toList("a", "b", "c"), sent);
+        assertEquals(0, buffer.getBufferedBytes());
+    }
+
+    @Test
+    public void testCloseAndDrain() {
+        TerminalOutputBuffer buffer = this.createBuffer(1024, 512, 0, 0, null);
+        buffer.offer(new TextMessage("a"));
+        buffer.offer(new TextMessage("bb"));
+        buffer.offer(new TextMessage("ccc"));
+        assertEquals(6, buffer.getBufferedBytes());
+        // 取出的消息不再发送
+        List<String> drained = buffer.closeAndDrain()
+                .stream()
+                .map(s -> ((TextMessage) s).getPayload())
+                .collect(Collectors.toList());
+        assertEquals(toList("a", "bb", "ccc"), drained);
+        assertEquals(0, buffer.getBufferedBytes());
+        assertTrue(buffer.isClosed());
+        assertFalse(buffer.offer(new TextMessage("d")));
+        buffer.run();
+        assertTrue(sent.isEmpty());
+    }
+
+    @Test
+    public void testMerge() {
+        SshOutputMerger merger = new SshOutputMerger(new byte[0], PREFIX);
+        // 合并窗口 1s 最大 20 字节
+        TerminalOutputBuffer buffer = this.createBuffer(1024, 512, 1000, 20, merger);
+        buffer.offer(new TextMessage(PREFIX + "a"));
+        buffer.offer(new TextMessage(PREFIX + "b"));
+        buffer.offer(new TextMessage(PREFIX + "c"));
+        // 超过最大字节数
+        buffer.offer(new TextMessage(PREFIX + "0123456789"));
+        // 非同一会话输出不合并
+        buffer.offer(new TextMessage("x|other|d"));
+        buffer.close();
+        buffer.run();
+        // 第一条不在窗口内直接发送 后续连续输出合并
+        assertEquals(toList(PREFIX + "a", PREFIX + "bc", PREFIX + "0123456789", "x|other|d"), sent);
+    }
+
+    /**
+     * 等待发送数量
+     *
+     * @param count count
+     */
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, sent.size());
+    }
+
+    private TerminalOutputBuffer createBuffer(long high, long low, int mergeWindow, int mergeMaxSize, TerminalOutputMerger merger) {
+        return new TerminalOutputBuffer("sid", channel, high, low, mergeWindow, mergeMaxSize, merger);
+    }
+
+    private static List<String> toList(String... values) {
+        List<String> list = new ArrayList<>();
+        Collections.addAll(list, values);
+        return list;
+    }
+
+}
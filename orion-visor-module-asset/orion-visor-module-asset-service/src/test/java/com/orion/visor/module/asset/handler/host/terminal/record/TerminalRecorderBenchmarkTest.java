@@ -0,0 +1,153 @@
+package com.orion.visor.module.asset.handler.host.terminal.record;
+
+import com.orion.visor.module.asset.benchmark.Benchmarks;
+import com.orion.visor.module.asset.handler.host.terminal.enums.OutputTypeEnum;
+import com.orion.visor.module.asset.handler.host.terminal.model.response.SshOutputResponse;
+import com.orion.visor.module.asset.utils.StreamDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 终端录屏 缓冲区语义与终端输出路径上的开销
+ *
+ * @author Jiahang Li
+ * @version 1.0.0
+ * @since 2026/10/18 14:50
+ */
+public class TerminalRecorderBenchmarkTest {
+
+    private static final String SESSION_ID = "a1b2c3d4e5f60718293a4b5c6d7e8f90";
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private static final int OPERATIONS = 20000;
+
+    @Test
+    public void testOrder() {
+        TerminalRecorder recorder = this.createRecorder(8);
+        recorder.output(new byte[]{1, 2, 3}, 1, 2);
+        recorder.input("ls\r");
+        recorder.resize(120, 40);
+        assertTrue(recorder.hasPending());
+        // 按写入顺序读取
+        TerminalRecorder.RecordEvent output = recorder.poll();
+        assertEquals(TerminalRecorder.OUTPUT, output.getType());
+        assertArrayEquals(new byte[]{2, 3}, output.getData());
+        TerminalRecorder.RecordEvent input = recorder.poll();
+        assertEquals(TerminalRecorder.INPUT, input.getType());
+        assertEquals("ls\r", input.getText());
+        TerminalRecorder.RecordEvent resize = recorder.poll();
+        assertEquals(TerminalRecorder.RESIZE, resize.getType());
+        assertEquals("120x40", resize.getText());
+        assertTrue(output.getTime() <= input.getTime() && input.getTime() <= resize.getTime());
+        assertNull(recorder.poll());
+        assertFalse(recorder.hasPending());
+    }
+
+    @Test
+    public void testDropWhenFull() {
+        // 容量取 2 的幂 3 -> 4
+        TerminalRecorder recorder = this.createRecorder(3);
+        for (int i = 0; i < 6; i++) {
+            recorder.input(String.valueOf(i));
+        }
+        assertEquals(2, recorder.getDropped());
+        // 读取后可继续写入 序号环绕
+        assertEquals("0", recorder.poll().getText());
+        recorder.input("6");
+        assertEquals("1", recorder.poll().getText());
+        assertEquals("2", recorder.poll().getText());
+        assertEquals("3", recorder.poll().getText());
+        assertEquals("6", recorder.poll().getText());
+        assertNull(recorder.poll());
+    }
+
+    @Test
+    public void testClose() {
+        TerminalRecorder recorder = this.createRecorder(8);
+        int[] signals = new int[1];
+        recorder.setSignal(() -> signals[0]++);
+        recorder.input("a");
+        recorder.close();
+        // 关闭后不再记录 已写入的事件仍可读取
+        recorder.input("b");
+        assertTrue(recorder.isClosed());
+        assertEquals(2, signals[0]);
+        assertEquals("a", recorder.poll().getText());
+        assertNull(recorder.poll());
+    }
+
+    @Test
+    public void benchmarkOverhead() throws Exception {
+        byte[] chunk = createChunk();
+        StreamDecoder decoder = new StreamDecoder(StandardCharsets.UTF_8);
+        // 未录屏的输出路径
+        double plain = Benchmarks.run("ssh output without recorder", OPERATIONS,
+                i -> this.textFrame(decoder, chunk));
+        // 录屏的输出路径 另一个线程模拟写入线程持续读取
+        TerminalRecorder recorder = this.createRecorder(4096);
+        Thread consumer = new Thread(() -> {
+            while (!recorder.isClosed() || recorder.hasPending()) {
+                if (recorder.poll() == null) {
+                    Thread.yield();
+                }
+            }
+        });
+        consumer.start();
+        double recorded = Benchmarks.run("ssh output with recorder", OPERATIONS,
+                i -> {
+                    recorder.output(chunk, 0, chunk.length);
+                    return this.textFrame(decoder, chunk);
+                });
+        recorder.close();
+        consumer.join();
+        System.out.printf("[benchmark] terminal recorder overhead: %.1f%%, dropped: %d%n",
+                (recorded - plain) / plain * 100, recorder.getDropped());
+    }
+
+    /**
+     * 创建录屏器
+     *
+     * @param bufferSize bufferSize
+     * @return recorder
+     */
+    private TerminalRecorder createRecorder(int bufferSize) {
+        return new TerminalRecorder(SESSION_ID, "record.cast", "UTF-8", 120, 40, "xterm", bufferSize);
+    }
+
+    /**
+     * 文本协议帧 与 SshSession 相同的构建方式
+     *
+     * @param decoder decoder
+     * @param chunk   chunk
+     * @return frame
+     */
+    private String textFrame(StreamDecoder decoder, byte[] chunk) {
+        SshOutputResponse resp = SshOutputResponse.builder()
+                .type(OutputTypeEnum.SSH_OUTPUT.getType())
+                .sessionId(SESSION_ID)
+                .body(decoder.decode(chunk, 0, chunk.length))
+                .build();
+        return OutputTypeEnum.SSH_OUTPUT.format(resp);
+    }
+
+    /**
+     * 创建终端输出块
+     *
+     * @return chunk
+     */
+    private static byte[] createChunk() {
+        StringBuilder sb = new StringBuilder();
+        int line = 0;
+        while (sb.length() < CHUNK_SIZE) {
+            sb.append("\u001b[32m-rw-r--r--\u001b[0m 1 root root 4096 Oct 18 14:10 file-")
+                    .append(line++)
+                    .append(".log\r\n");
+        }
+        return sb.substring(0, CHUNK_SIZE).getBytes(StandardCharsets.UTF_8);
+    }
+
+}
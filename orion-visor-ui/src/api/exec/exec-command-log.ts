@@ -1,5 +1,7 @@
 import type { DataGrid } from '@/types/global';
 import type {
+  ExecHostLogContentRequest,
+  ExecHostLogContentResponse,
   ExecHostLogQueryResponse,
   ExecLogInterruptRequest,
   ExecLogQueryRequest,
@@ -104,6 +106,13 @@ export function downloadExecCommandLogFile(id: number) {
   return axios.get('/asset/exec-command-log/download', { unwrap: true, params: { id } });
 }
 
+/**
+ * 分页读取批量执行日志
+ */
+export function getExecCommandHostLogContent(request: ExecHostLogContentRequest) {
+  return axios.post<ExecHostLogContentResponse>('/asset/exec-command-log/content', request);
+}
+
 /**
  * 中断执行命令
  */
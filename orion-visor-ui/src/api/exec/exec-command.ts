@@ -12,6 +12,10 @@ export interface ExecCommandRequest {
   command?: string;
   parameterSchema?: string;
   hostIdList?: Array<number>;
+  waveSize?: number;
+  wavePercent?: number;
+  waveInterval?: number;
+  waveThreshold?: number;
 }
 
 /**
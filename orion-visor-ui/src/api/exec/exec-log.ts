@@ -76,6 +76,31 @@ export interface ExecLogTailRequest {
   hostExecIdList?: Array<number>;
 }
 
+/**
+ * 执行主机日志分页读取请求
+ */
+export interface ExecHostLogContentRequest {
+  id?: number;
+  startLine?: number;
+  lineCount?: number;
+  startTime?: string;
+  endTime?: string;
+}
+
+/**
+ * 执行主机日志内容响应
+ */
+export interface ExecHostLogContentResponse {
+  id: number;
+  startLine: number;
+  endLine: number;
+  startOffset: number;
+  endOffset: number;
+  fileSize: number;
+  finished: boolean;
+  content: string;
+}
+
 /**
  * 执行中断命令请求
  */
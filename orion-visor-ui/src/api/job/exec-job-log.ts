@@ -1,5 +1,7 @@
 import type { DataGrid } from '@/types/global';
 import type {
+  ExecHostLogContentRequest,
+  ExecHostLogContentResponse,
   ExecHostLogQueryResponse,
   ExecLogInterruptRequest,
   ExecLogQueryRequest,
@@ -97,6 +99,13 @@ export function downloadExecJobLogFile(id: number) {
   return axios.get('/asset/exec-job-log/download', { unwrap: true, params: { id } });
 }
 
+/**
+ * 分页读取计划任务日志
+ */
+export function getExecJobHostLogContent(request: ExecHostLogContentRequest) {
+  return axios.post<ExecHostLogContentResponse>('/asset/exec-job-log/content', request);
+}
+
 /**
  * 中断计划任务执行
  */
@@ -15,6 +15,10 @@ export interface ExecJobCreateRequest {
   command?: string;
   parameterSchema?: string;
   hostIdList?: Array<number>;
+  waveSize?: number;
+  wavePercent?: number;
+  waveInterval?: number;
+  waveThreshold?: number;
 }
 
 /**
@@ -62,6 +66,10 @@ export interface ExecJobQueryResponse extends TableData {
   updateTime: number;
   hostIdList: Array<number>;
   hostList: Array<HostQueryResponse>;
+  waveSize?: number;
+  wavePercent?: number;
+  waveInterval?: number;
+  waveThreshold?: number;
 }
 
 /**
@@ -34,6 +34,8 @@ export const execHostStatus = {
   TIMEOUT: 'TIMEOUT',
   // 已中断
   INTERRUPTED: 'INTERRUPTED',
+  // 已跳过
+  SKIPPED: 'SKIPPED',
 };
 
 // 执行状态 字典项
@@ -1,4 +1,4 @@
-import type { ISftpSession, ISftpSessionResolver, ITerminalChannel } from '../types/terminal.type';
+import type { ISftpSession, ISftpSessionResolver, ITerminalChannel, SftpFile } from '../types/terminal.type';
 import { InputProtocol } from '../types/terminal.protocol';
 import { Modal } from '@arco-design/web-vue';
 
@@ -17,6 +17,15 @@ export default class SftpSession implements ISftpSession {
 
   private showHiddenFile: boolean;
 
+  // 已发送未响应的分页请求数
+  private pendingPages: number;
+
+  // 需要丢弃的过期分页响应数
+  private stalePages: number;
+
+  // 下一个分页响应是否为追加
+  private appendPage: boolean;
+
   private readonly channel: ITerminalChannel;
 
   constructor(hostId: number,
@@ -28,6 +37,9 @@ export default class SftpSession implements ISftpSession {
     this.connected = false;
     this.canReconnect = false;
     this.showHiddenFile = false;
+    this.pendingPages = 0;
+    this.stalePages = 0;
+    this.appendPage = false;
     this.resolver = undefined as unknown as ISftpSessionResolver;
   }
 
@@ -48,15 +60,44 @@ export default class SftpSession implements ISftpSession {
     this.showHiddenFile = show;
   }
 
-  // 查询文件列表
-  list(path: string) {
+  // 查询文件列表 分页读取 第一页返回后继续加载后续分页
+  list(path: string, refresh: boolean = false) {
     this.resolver.setLoading(true);
-    this.channel.send(InputProtocol.SFTP_LIST, {
+    // 响应按请求顺序返回 丢弃之前列表未返回的分页
+    this.stalePages = this.pendingPages;
+    this.sendListPage(path, refresh, '');
+  };
+
+  // 接收分页文件列表
+  resolveListPage(result: string, path: string, cursor: string, list: Array<SftpFile>) {
+    this.pendingPages = Math.max(this.pendingPages - 1, 0);
+    if (this.stalePages > 0) {
+      this.stalePages--;
+      return;
+    }
+    if (this.appendPage) {
+      this.resolver.resolveListAppend(result, path, list);
+    } else {
+      this.resolver.resolveList(result, path, list);
+    }
+    // 加载下一页
+    if (!!Number.parseInt(result) && cursor) {
+      this.sendListPage(path, false, cursor);
+    }
+  }
+
+  // 发送分页列表请求
+  private sendListPage(path: string, refresh: boolean, cursor: string) {
+    this.pendingPages++;
+    this.appendPage = !!cursor;
+    this.channel.send(InputProtocol.SFTP_LIST_PAGE, {
       sessionId: this.sessionId,
       showHiddenFile: ~~this.showHiddenFile,
+      refresh: ~~refresh,
+      cursor,
       path
     });
-  };
+  }
 
   // 创建文件夹
   mkdir(path: string) {
@@ -22,7 +22,8 @@ export default class SftpTransferDownloader implements ISftpTransferDownloader {
     this.item.status = TransferStatus.TRANSFERRING;
     // 发送开始下载信息
     this.client?.send(JSON.stringify({
-      type: TransferOperatorType.DOWNLOAD_INIT,
+      type: this.item.archive ? TransferOperatorType.DOWNLOAD_ZIP_INIT : TransferOperatorType.DOWNLOAD_INIT,
+      transferId: this.item.fileId,
       path: getPath(this.item.parentPath + '/' + this.item.name),
       hostId: this.item.hostId
     }));
@@ -34,6 +35,12 @@ export default class SftpTransferDownloader implements ISftpTransferDownloader {
       // 中断则不触发下载
       return;
     }
+    if (this.item.archive) {
+      // 打包下载大小为实际传输的大小
+      this.item.totalSize = this.item.currentSize;
+      this.item.status = TransferStatus.SUCCESS;
+      return;
+    }
     // 设置实际大小
     this.item.currentSize = this.item.totalSize;
     if (this.item.totalSize === 0) {
@@ -64,7 +71,8 @@ export default class SftpTransferDownloader implements ISftpTransferDownloader {
     this.abort = true;
     // 发送下载中断信息
     this.client?.send(JSON.stringify({
-      type: TransferOperatorType.DOWNLOAD_ABORT,
+      type: this.item.archive ? TransferOperatorType.DOWNLOAD_ZIP_ABORT : TransferOperatorType.DOWNLOAD_ABORT,
+      transferId: this.item.fileId,
       hostId: this.item.hostId
     }));
   }
@@ -9,6 +9,12 @@ import SftpTransferUploader from './sftp-transfer-uploader';
 import SftpTransferDownloader from './sftp-transfer-downloader';
 import { openDownloadFile } from '@/utils/file';
 
+// 最大并行传输数
+export const MAX_TRANSFER = 4;
+
+// 同一主机最大并行传输数
+export const MAX_HOST_TRANSFER = 2;
+
 // sftp 传输管理器实现
 export default class SftpTransferManager implements ISftpTransferManager {
 
@@ -18,16 +24,22 @@ export default class SftpTransferManager implements ISftpTransferManager {
 
   private progressIntervalId?: number;
 
-  private currentItem?: SftpTransferItem;
+  private nextStreamId: number;
 
-  private currentUploader?: ISftpTransferUploader;
+  private runningItems: Map<string, SftpTransferItem>;
 
-  private currentDownloader?: ISftpTransferDownloader;
+  private uploaders: Map<string, ISftpTransferUploader>;
+
+  private downloaders: Map<string, ISftpTransferDownloader>;
 
   public transferList: Array<SftpTransferItem>;
 
   constructor() {
     this.run = false;
+    this.nextStreamId = 0;
+    this.runningItems = new Map();
+    this.uploaders = new Map();
+    this.downloaders = new Map();
     this.transferList = [];
   }
 
@@ -52,6 +64,8 @@ export default class SftpTransferManager implements ISftpTransferManager {
     // 开始传输
     if (!this.run) {
       this.openClient();
+    } else {
+      this.transferNextItems();
     }
   }
 
@@ -75,6 +89,35 @@ export default class SftpTransferManager implements ISftpTransferManager {
     // 开始传输
     if (!this.run) {
       this.openClient();
+    } else {
+      this.transferNextItems();
+    }
+  }
+
+  // 添加文件夹打包下载任务
+  addDownloadArchive(hostId: number, currentPath: string, files: Array<SftpFile>) {
+    // 每个文件夹打包为一个文件
+    const items = files.map(s => {
+      return {
+        fileId: nextId(10),
+        type: TransferType.DOWNLOAD,
+        hostId: hostId,
+        name: s.path.substring(currentPath.length + 1),
+        parentPath: currentPath,
+        currentSize: 0,
+        totalSize: 0,
+        progress: 0,
+        status: TransferStatus.WAITING,
+        archive: true,
+        entryCount: 0,
+      };
+    }) as Array<SftpTransferItem>;
+    this.transferList.push(...items);
+    // 开始传输
+    if (!this.run) {
+      this.openClient();
+    } else {
+      this.transferNextItems();
     }
   }
 
@@ -86,12 +129,9 @@ export default class SftpTransferManager implements ISftpTransferManager {
     }
     const item = this.transferList[index];
     if (item.status === TransferStatus.TRANSFERRING) {
-      // 传输中则中断传输
-      if (this.currentUploader) {
-        this.currentUploader.uploadAbort();
-      } else if (this.currentDownloader) {
-        this.currentDownloader.downloadAbort();
-      }
+      // 传输中则中断传输 不影响其他传输
+      this.uploaders.get(fileId)?.uploadAbort();
+      this.downloaders.get(fileId)?.downloadAbort();
     }
     // 从列表中移除
     this.transferList.splice(index, 1);
@@ -107,6 +147,24 @@ export default class SftpTransferManager implements ISftpTransferManager {
     }, null as any);
   }
 
+  // 重试传输
+  retryTransfer(fileId: string): void {
+    const item = this.transferList.find(s => s.fileId === fileId);
+    // 上传需要保留文件
+    if (!item || item.status !== TransferStatus.ERROR || (item.type === TransferType.UPLOAD && !item.file)) {
+      return;
+    }
+    item.status = TransferStatus.WAITING;
+    item.errorMessage = undefined;
+    item.currentSize = 0;
+    // 开始传输
+    if (!this.run) {
+      this.openClient();
+    } else {
+      this.transferNextItems();
+    }
+  }
+
   // 打开会话
   private async openClient() {
     this.run = true;
@@ -139,8 +197,8 @@ export default class SftpTransferManager implements ISftpTransferManager {
     this.client.onmessage = this.resolveMessage.bind(this);
     // 计算传输进度
     this.progressIntervalId = setInterval(this.calcProgress.bind(this), 500);
-    // 打开后自动传输下一个任务
-    this.transferNextItem();
+    // 打开后自动传输等待中的任务
+    this.transferNextItems();
   }
 
   // 计算传输进度
@@ -152,31 +210,65 @@ export default class SftpTransferManager implements ISftpTransferManager {
     });
   }
 
-  // 传输下一条任务
-  private transferNextItem() {
-    this.currentUploader = undefined;
-    this.currentDownloader = undefined;
-    // 释放内存
-    if (this.currentItem) {
-      this.currentItem.file = null as unknown as File;
+  // 传输等待中的任务
+  private transferNextItems() {
+    // 会话打开后开始
+    if (this.client?.readyState !== WebSocket.OPEN) {
+      return;
     }
-    // 获取任务
-    this.currentItem = this.transferList.find(s => s.status === TransferStatus.WAITING);
-    if (this.currentItem) {
-      // 开始传输
-      if (this.currentItem.type === TransferType.UPLOAD) {
+    // 按顺序开始等待中的任务 跳过并行数已满的主机
+    for (const item of this.transferList) {
+      if (this.runningItems.size >= MAX_TRANSFER) {
+        break;
+      }
+      if (item.status !== TransferStatus.WAITING
+        || this.runningItems.has(item.fileId)
+        || this.countHostRunning(item.hostId) >= MAX_HOST_TRANSFER) {
+        continue;
+      }
+      this.runningItems.set(item.fileId, item);
+      if (item.type === TransferType.UPLOAD) {
         // 上传
-        this.uploadFile();
+        this.uploadFile(item);
       } else {
         // 下载
-        this.downloadFile();
+        this.downloadFile(item);
       }
-    } else {
-      // 无任务关闭会话
+    }
+    // 无任务关闭会话
+    if (!this.runningItems.size) {
       this.client?.close();
     }
   }
 
+  // 获取主机传输中的任务数
+  private countHostRunning(hostId: number) {
+    let count = 0;
+    this.runningItems.forEach(s => {
+      if (s.hostId === hostId) {
+        count++;
+      }
+    });
+    return count;
+  }
+
+  // 传输结束
+  private finishItem(fileId: string | undefined) {
+    if (!fileId) {
+      return;
+    }
+    const item = this.runningItems.get(fileId);
+    this.runningItems.delete(fileId);
+    this.uploaders.delete(fileId);
+    this.downloaders.delete(fileId);
+    // 释放内存 失败的文件保留用于重试
+    if (item && item.status === TransferStatus.SUCCESS) {
+      item.file = null as unknown as File;
+    }
+    // 开始等待中的任务
+    this.transferNextItems();
+  }
+
   // 接收消息
   private async resolveMessage(message: MessageEvent) {
     // 文本消息
@@ -188,7 +280,7 @@ export default class SftpTransferManager implements ISftpTransferManager {
       this.resolveNextTransfer(data);
     } else if (data.type === TransferReceiverType.UPLOAD_NEXT_BLOCK) {
       // 接收下一块上传数据
-      await this.resolveUploadNextBlock();
+      await this.resolveUploadNextBlock(data);
     } else if (data.type === TransferReceiverType.DOWNLOAD_START) {
       // 开始下载
       this.resolveDownloadStart(data);
@@ -197,62 +289,101 @@ export default class SftpTransferManager implements ISftpTransferManager {
       this.resolveDownloadProgress(data);
     } else if (data.type === TransferReceiverType.DOWNLOAD_FINISH) {
       // 下载完成
-      this.resolveDownloadFinish();
+      this.resolveDownloadFinish(data);
     } else if (data.type === TransferReceiverType.DOWNLOAD_ERROR) {
       // 下载失败
-      this.resolveDownloadError(data.msg);
+      this.resolveDownloadError(data);
     }
   }
 
   // 上传文件
-  private uploadFile() {
-    // 创建上传器
-    this.currentUploader = new SftpTransferUploader(this.currentItem as SftpTransferItem, this.client as WebSocket);
+  private uploadFile(item: SftpTransferItem) {
+    // 创建上传器 每个上传使用独立的流id
+    const uploader = new SftpTransferUploader(item, this.client as WebSocket, this.nextStreamId++);
+    this.uploaders.set(item.fileId, uploader);
     // 开始上传
-    this.currentUploader.startUpload();
+    uploader.startUpload();
   }
 
   // 下载文件
-  private downloadFile() {
+  private downloadFile(item: SftpTransferItem) {
     // 创建下载器
-    this.currentDownloader = new SftpTransferDownloader(this.currentItem as SftpTransferItem, this.client as WebSocket);
+    const downloader = new SftpTransferDownloader(item, this.client as WebSocket);
+    this.downloaders.set(item.fileId, downloader);
     // 初始化下载
-    this.currentDownloader.initDownload();
+    downloader.initDownload();
   }
 
-  // 接收下一个传输任务响应
+  // 接收传输结束响应
   private resolveNextTransfer(data: TransferOperatorResponse) {
-    if (this.currentItem) {
+    const item = this.runningItems.get(data.transferId as string);
+    if (item) {
       if (data.success) {
-        this.currentItem.status = TransferStatus.SUCCESS;
+        item.status = TransferStatus.SUCCESS;
       } else {
-        this.currentItem.status = TransferStatus.ERROR;
-        this.currentItem.errorMessage = data.msg || '传输失败';
+        item.status = TransferStatus.ERROR;
+        item.errorMessage = data.msg || '传输失败';
       }
     }
     // 开始下一个传输任务
-    this.transferNextItem();
+    this.finishItem(data.transferId);
   }
 
   // 接收下一块上传数据响应
-  private async resolveUploadNextBlock() {
+  private async resolveUploadNextBlock(data: TransferOperatorResponse) {
     // 只可能为上传并且成功
-    if (!this.currentUploader) {
+    const uploader = this.uploaders.get(data.transferId as string);
+    if (!uploader) {
+      return;
+    }
+    uploader.resolveAck(data);
+    if (uploader.isWindowed()) {
+      // 窗口模式
+      await this.sendUploadWindow(data.transferId as string);
       return;
     }
-    if (this.currentUploader.hasNextBlock()
-      && !this.currentUploader.abort
-      && !this.currentUploader.finish) {
+    if (uploader.hasNextBlock()
+      && !uploader.abort
+      && !uploader.finish) {
       try {
         // 有下一个分片则上传 (上一个分片传输完成)
-        await this.currentUploader.uploadNextBlock();
+        await uploader.uploadNextBlock();
       } catch (e) {
         // 读取文件失败
-        this.currentUploader.uploadError((e as Error).message);
+        uploader.uploadError((e as Error).message);
       }
     } else {
       // 没有下一个分片则发送完成
-      this.currentUploader.uploadFinish();
+      uploader.uploadFinish();
+    }
+  }
+
+  // 发送窗口内的上传分片
+  private async sendUploadWindow(fileId: string) {
+    const uploader = this.uploaders.get(fileId);
+    // 同时只有一个发送循环
+    if (!uploader || uploader.sending) {
+      return;
+    }
+    uploader.sending = true;
+    try {
+      while (this.uploaders.get(fileId) === uploader
+      && !uploader.abort
+      && !uploader.finish
+      && uploader.canSendBlock()) {
+        await uploader.uploadNextBlock();
+      }
+      // 全部分片已确认或中断则发送完成
+      if (this.uploaders.get(fileId) === uploader
+        && !uploader.finish
+        && (uploader.abort || (!uploader.hasNextBlock() && uploader.allAcked()))) {
+        uploader.uploadFinish();
+      }
+    } catch (e) {
+      // 读取文件失败
+      uploader.uploadError((e as Error).message);
+    } finally {
+      uploader.sending = false;
     }
   }
 
@@ -266,29 +397,36 @@ export default class SftpTransferManager implements ISftpTransferManager {
 
   // 接收下载进度响应
   private resolveDownloadProgress(data: TransferOperatorResponse) {
-    if (this.currentItem && data.currentSize) {
-      this.currentItem.currentSize = data.currentSize;
+    const item = this.runningItems.get(data.transferId as string);
+    if (item && data.currentSize) {
+      item.currentSize = data.currentSize;
+    }
+    if (item && data.entryCount !== undefined) {
+      item.entryCount = data.entryCount;
     }
   }
 
   // 接收下载完成响应
-  private resolveDownloadFinish() {
-    this.currentDownloader?.downloadFinish();
+  private resolveDownloadFinish(data: TransferOperatorResponse) {
+    this.downloaders.get(data.transferId as string)?.downloadFinish();
     // 开始下一个传输任务
-    this.transferNextItem();
+    this.finishItem(data.transferId);
   }
 
   // 接收下载失败响应
-  private resolveDownloadError(msg: string | undefined) {
-    this.currentDownloader?.downloadError(msg);
+  private resolveDownloadError(data: TransferOperatorResponse) {
+    this.downloaders.get(data.transferId as string)?.downloadError(data.msg);
     // 开始下一个传输任务
-    this.transferNextItem();
+    this.finishItem(data.transferId);
   }
 
   // 关闭 释放资源
   private close() {
     // 重置 run
     this.run = false;
+    this.runningItems.clear();
+    this.uploaders.clear();
+    this.downloaders.clear();
     // 关闭传输进度
     clearInterval(this.progressIntervalId);
     // 进行中和等待中的文件改为失败
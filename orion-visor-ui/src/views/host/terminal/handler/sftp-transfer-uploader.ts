@@ -1,27 +1,46 @@
-import type { ISftpTransferUploader, SftpTransferItem } from '../types/terminal.type';
+import type { ISftpTransferUploader, SftpTransferItem, TransferOperatorResponse } from '../types/terminal.type';
 import { TransferOperatorType, TransferStatus } from '../types/terminal.const';
 import { getPath } from '@/utils/file';
 
 // 512 KB
 export const BLOCK_SIZE = 512 * 1024;
 
+// 同时发送的分片数
+export const WINDOW_SIZE = 8;
+
+// 分片序号字节数
+const SEQ_LENGTH = 4;
+
+// 上传流id字节数
+const STREAM_ID_LENGTH = 4;
+
 // sftp 上传器实现
 export default class SftpTransferUploader implements ISftpTransferUploader {
 
   public finish: boolean;
   public abort: boolean;
+  public sending: boolean;
+  private windowSize: number;
+  private ackedBlock: number;
+  private startOffset: number;
   private currentBlock: number;
   private totalBlock: number;
   private client: WebSocket;
   private item: SftpTransferItem;
   private file: File;
+  private streamId: number;
 
-  constructor(item: SftpTransferItem, client: WebSocket) {
+  constructor(item: SftpTransferItem, client: WebSocket, streamId: number) {
     this.abort = false;
     this.finish = false;
+    this.sending = false;
+    this.windowSize = 0;
+    this.ackedBlock = -1;
+    this.startOffset = 0;
     this.item = item;
     this.client = client;
     this.file = item.file;
+    this.streamId = streamId;
     this.currentBlock = 0;
     this.totalBlock = Math.ceil(item.file.size / BLOCK_SIZE);
   }
@@ -32,11 +51,47 @@ export default class SftpTransferUploader implements ISftpTransferUploader {
     // 发送开始上传信息
     this.client?.send(JSON.stringify({
       type: TransferOperatorType.UPLOAD_START,
+      transferId: this.item.fileId,
+      streamId: this.streamId,
       path: getPath(this.item.parentPath + '/' + this.item.name),
-      hostId: this.item.hostId
+      hostId: this.item.hostId,
+      windowSize: WINDOW_SIZE,
+      transferToken: this.item.transferToken
     }));
   }
 
+  // 接收确认
+  resolveAck(data: TransferOperatorResponse) {
+    if (data.transferToken) {
+      // 开始上传响应 从已上传的位置继续
+      this.item.transferToken = data.transferToken;
+      this.startOffset = Math.min(data.offset || 0, this.file.size);
+      this.totalBlock = Math.ceil((this.file.size - this.startOffset) / BLOCK_SIZE);
+      this.item.currentSize = this.startOffset;
+    }
+    if (data.windowSize) {
+      this.windowSize = data.windowSize;
+    }
+    if (data.ack !== undefined && data.ack !== null) {
+      this.ackedBlock = Math.max(this.ackedBlock, data.ack);
+    }
+  }
+
+  // 是否为窗口模式
+  isWindowed() {
+    return this.windowSize > 0;
+  }
+
+  // 窗口内是否可以发送下一个分片
+  canSendBlock() {
+    return this.hasNextBlock() && this.currentBlock - (this.ackedBlock + 1) < this.windowSize;
+  }
+
+  // 是否全部分片已确认
+  allAcked() {
+    return this.ackedBlock + 1 >= this.totalBlock;
+  }
+
   // 是否有下一个分片
   hasNextBlock() {
     return this.currentBlock < this.totalBlock;
@@ -45,7 +100,7 @@ export default class SftpTransferUploader implements ISftpTransferUploader {
   // 上传下一个分片
   async uploadNextBlock() {
     // 读取数据
-    const start = this.currentBlock * BLOCK_SIZE;
+    const start = this.startOffset + this.currentBlock * BLOCK_SIZE;
     const end = Math.min(this.file.size, start + BLOCK_SIZE);
     const chunk = this.file.slice(start, end);
     const reader = new FileReader();
@@ -54,8 +109,16 @@ export default class SftpTransferUploader implements ISftpTransferUploader {
       reader.onerror = (error) => reject(error);
       reader.readAsArrayBuffer(chunk);
     });
-    // 发送数据
-    this.client?.send(arrayBuffer as ArrayBuffer);
+    // 发送数据 以流id开头 窗口模式再加上分片序号
+    const headerLength = STREAM_ID_LENGTH + (this.isWindowed() ? SEQ_LENGTH : 0);
+    const data = new Uint8Array(headerLength + (end - start));
+    const view = new DataView(data.buffer);
+    view.setUint32(0, this.streamId);
+    if (this.isWindowed()) {
+      view.setUint32(STREAM_ID_LENGTH, this.currentBlock);
+    }
+    data.set(new Uint8Array(arrayBuffer as ArrayBuffer), headerLength);
+    this.client?.send(data.buffer);
     this.currentBlock++;
     this.item.currentSize += (end - start);
   }
@@ -67,6 +130,7 @@ export default class SftpTransferUploader implements ISftpTransferUploader {
     // 发送上传完成的信息
     this.client?.send(JSON.stringify({
       type: TransferOperatorType.UPLOAD_FINISH,
+      transferId: this.item.fileId,
       hostId: this.item.hostId
     }));
   }
@@ -79,6 +143,7 @@ export default class SftpTransferUploader implements ISftpTransferUploader {
     // 发送上传完成的信息
     this.client?.send(JSON.stringify({
       type: TransferOperatorType.UPLOAD_ERROR,
+      transferId: this.item.fileId,
       hostId: this.item.hostId
     }));
   }
@@ -1,5 +1,5 @@
 import type { InputPayload, ITerminalChannel, ITerminalOutputProcessor, ITerminalSessionManager, Protocol, } from '../types/terminal.type';
-import { format, OutputProtocol, parse } from '../types/terminal.protocol';
+import { format, InputProtocol, OutputProtocol, parse, parseBinary } from '../types/terminal.protocol';
 import { sessionCloseMsg } from '../types/terminal.const';
 import { getTerminalAccessToken, openHostTerminalChannel } from '@/api/asset/host-terminal';
 import { Message } from '@arco-design/web-vue';
@@ -37,6 +37,9 @@ export default class TerminalChannel implements ITerminalChannel {
       this.closeCallback();
     };
     this.client.onmessage = this.handlerMessage.bind(this);
+    // 使用二进制协议接收 ssh 输出
+    this.client.binaryType = 'arraybuffer';
+    this.send(InputProtocol.NEGOTIATE, { protocol: 'binary' });
   }
 
   // 是否已连接
@@ -56,6 +59,14 @@ export default class TerminalChannel implements ITerminalChannel {
 
   // 处理消息
   private handlerMessage({ data }: MessageEvent) {
+    // 二进制消息
+    if (data instanceof ArrayBuffer) {
+      const binary = parseBinary(data);
+      if (binary && binary.type === OutputProtocol.SSH_OUTPUT.type) {
+        this.processor.processSshBinaryOutput(binary.sessionId, binary.body);
+      }
+      return;
+    }
     // 解析消息
     const payload = parse(data as string);
     if (!payload) {
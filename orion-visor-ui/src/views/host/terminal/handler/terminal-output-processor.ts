@@ -115,12 +115,23 @@ export default class TerminalOutputProcessor implements ITerminalOutputProcessor
     // console.log('pong');
   }
 
+  // 处理协商输出协议消息
+  processNegotiate(payload: OutputPayload): void {
+    // 二进制帧与文本帧均可解析 服务端不支持时仍为文本协议 无需处理
+  }
+
   // 处理 SSH 输出消息
   processSshOutput({ sessionId, body }: OutputPayload): void {
     const session = this.sessionManager.getSession<ISshSession>(sessionId);
     session && session.write(body);
   }
 
+  // 处理 SSH 二进制输出消息 内容为 UTF-8 字节
+  processSshBinaryOutput(sessionId: string, body: Uint8Array): void {
+    const session = this.sessionManager.getSession<ISshSession>(sessionId);
+    session && session.write(body);
+  }
+
   // 处理 SFTP 文件列表
   processSftpList({ sessionId, result, path, body }: OutputPayload): void {
     // 获取会话
@@ -128,6 +139,13 @@ export default class TerminalOutputProcessor implements ITerminalOutputProcessor
     session && session.resolver.resolveList(result, path, JSON.parse(body));
   }
 
+  // 处理 SFTP 分页文件列表
+  processSftpListPage({ sessionId, result, path, cursor, body }: OutputPayload): void {
+    // 获取会话
+    const session = this.sessionManager.getSession<ISftpSession>(sessionId);
+    session && session.resolveListPage(result, path, cursor, JSON.parse(body));
+  }
+
   // 处理 SFTP 创建文件夹
   processSftpMkdir({ sessionId, result, msg }: OutputPayload): void {
     // 获取会话
@@ -164,10 +182,10 @@ export default class TerminalOutputProcessor implements ITerminalOutputProcessor
   }
 
   // 处理 SFTP 下载文件夹展开文件
-  processDownloadFlatDirectory({ sessionId, currentPath, body }: OutputPayload): void {
+  processDownloadFlatDirectory({ sessionId, currentPath, finished, body }: OutputPayload): void {
     // 获取会话
     const session = this.sessionManager.getSession<ISftpSession>(sessionId);
-    session && session.resolver.resolveDownloadFlatDirectory(currentPath, JSON.parse(body));
+    session && session.resolver.resolveDownloadFlatDirectory(currentPath, JSON.parse(body), !!Number.parseInt(finished));
   }
 
   // 处理 SFTP 获取文件内容
@@ -338,6 +338,8 @@ export const TransferOperatorType = {
   UPLOAD_ERROR: 'uploadError',
   DOWNLOAD_INIT: 'downloadInit',
   DOWNLOAD_ABORT: 'downloadAbort',
+  DOWNLOAD_ZIP_INIT: 'downloadZipInit',
+  DOWNLOAD_ZIP_ABORT: 'downloadZipAbort',
 };
 
 // 传输响应类型
@@ -25,6 +25,11 @@ export const InputProtocol = {
     type: 'p',
     template: ['type']
   },
+  // 协商输出协议
+  NEGOTIATE: {
+    type: 'ng',
+    template: ['type', 'protocol']
+  },
   // SSH 修改大小
   SSH_RESIZE: {
     type: 'rs',
@@ -38,7 +43,12 @@ export const InputProtocol = {
   // SFTP 文件列表
   SFTP_LIST: {
     type: 'ls',
-    template: ['type', 'sessionId', 'showHiddenFile', 'path']
+    template: ['type', 'sessionId', 'showHiddenFile', 'refresh', 'path']
+  },
+  // SFTP 分页文件列表
+  SFTP_LIST_PAGE: {
+    type: 'lp',
+    template: ['type', 'sessionId', 'showHiddenFile', 'refresh', 'pageSize', 'sort', 'cursor', 'keyword', 'path']
   },
   // SFTP 创建文件夹
   SFTP_MKDIR: {
@@ -108,6 +118,12 @@ export const OutputProtocol = {
     template: ['type'],
     processMethod: 'processPong'
   },
+  // 协商输出协议
+  NEGOTIATE: {
+    type: 'ng',
+    template: ['type', 'protocol'],
+    processMethod: 'processNegotiate'
+  },
   // SSH 输出
   SSH_OUTPUT: {
     type: 'o',
@@ -120,6 +136,12 @@ export const OutputProtocol = {
     template: ['type', 'sessionId', 'path', 'result', 'body'],
     processMethod: 'processSftpList'
   },
+  // SFTP 分页文件列表
+  SFTP_LIST_PAGE: {
+    type: 'lp',
+    template: ['type', 'sessionId', 'path', 'result', 'cursor', 'total', 'body'],
+    processMethod: 'processSftpListPage'
+  },
   // SFTP 创建文件夹
   SFTP_MKDIR: {
     type: 'mk',
@@ -153,7 +175,7 @@ export const OutputProtocol = {
   // SFTP 修改文件权限
   SFTP_DOWNLOAD_FLAT_DIRECTORY: {
     type: 'df',
-    template: ['type', 'sessionId', 'currentPath', 'body'],
+    template: ['type', 'sessionId', 'currentPath', 'finished', 'body'],
     processMethod: 'processDownloadFlatDirectory'
   },
   // SFTP 获取文件内容
@@ -203,6 +225,23 @@ export const parse = (payload: string) => {
   return res;
 };
 
+// 二进制消息头解码器
+const headerDecoder = new TextDecoder();
+
+// 解析二进制消息 typeLength(1) type sessionIdLength(1) sessionId body
+export const parseBinary = (data: ArrayBuffer) => {
+  const bytes = new Uint8Array(data);
+  let curr = 0;
+  const typeLength = bytes[curr++];
+  const type = headerDecoder.decode(bytes.subarray(curr, curr += typeLength));
+  const sessionIdLength = bytes[curr++];
+  const sessionId = headerDecoder.decode(bytes.subarray(curr, curr += sessionIdLength));
+  if (curr > bytes.length) {
+    return undefined;
+  }
+  return { type, sessionId, body: bytes.subarray(curr) };
+};
+
 // 格式化参数
 export const format = (protocol: Protocol, payload: InputPayload | OutputPayload) => {
   payload.type = protocol.type;
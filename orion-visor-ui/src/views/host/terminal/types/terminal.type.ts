@@ -192,10 +192,16 @@ export interface ITerminalOutputProcessor {
   processClose: (payload: OutputPayload) => void;
   // 处理 pong 消息
   processPong: (payload: OutputPayload) => void;
+  // 处理协商输出协议消息
+  processNegotiate: (payload: OutputPayload) => void;
   // 处理 SSH 输出消息
   processSshOutput: (payload: OutputPayload) => void;
+  // 处理 SSH 二进制输出消息
+  processSshBinaryOutput: (sessionId: string, body: Uint8Array) => void;
   // 处理 SFTP 文件列表
   processSftpList: (payload: OutputPayload) => void;
+  // 处理 SFTP 分页文件列表
+  processSftpListPage: (payload: OutputPayload) => void;
   // 处理 SFTP 创建文件夹
   processSftpMkdir: (payload: OutputPayload) => void;
   // 处理 SFTP 创建文件
@@ -337,7 +343,9 @@ export interface ISftpSession extends ITerminalSession {
   // 设置显示隐藏文件
   setShowHiddenFile: (show: boolean) => void;
   // 查询文件列表
-  list: (path: string) => void;
+  list: (path: string, refresh?: boolean) => void;
+  // 接收分页文件列表
+  resolveListPage: (result: string, path: string, cursor: string, list: Array<SftpFile>) => void;
   // 创建文件夹
   mkdir: (path: string) => void;
   // 创建文件
@@ -366,6 +374,8 @@ export interface ISftpSessionResolver {
   onClose: (forceClose: boolean, msg: string) => void;
   // 接受文件列表响应
   resolveList: (result: string, path: string, list: Array<SftpFile>) => void;
+  // 接收文件列表后续分页
+  resolveListAppend: (result: string, path: string, list: Array<SftpFile>) => void;
   // 接收创建文件夹响应
   resolveSftpMkdir: (result: string, msg: string) => void;
   // 接收创建文件响应
@@ -377,7 +387,7 @@ export interface ISftpSessionResolver {
   // 接收修改文件权限响应
   resolveSftpChmod: (result: string, msg: string) => void;
   // 接收下载文件夹展开文件响应
-  resolveDownloadFlatDirectory: (currentPath: string, list: Array<SftpFile>) => void;
+  resolveDownloadFlatDirectory: (currentPath: string, list: Array<SftpFile>, finished: boolean) => void;
   // 接收获取文件内容响应
   resolveSftpGetContent: (path: string, result: string, content: string) => void;
   // 接收修改文件内容响应
@@ -405,10 +415,14 @@ export interface ISftpTransferManager {
   addUpload: (hostId: number, parentPath: string, files: Array<File>) => void;
   // 添加下载任务
   addDownload: (hostId: number, currentPath: string, files: Array<SftpFile>) => void;
+  // 添加文件夹打包下载任务
+  addDownloadArchive: (hostId: number, currentPath: string, files: Array<SftpFile>) => void;
   // 取消传输
   cancelTransfer: (fileId: string) => void;
   // 取消全部传输
   cancelAllTransfer: () => void;
+  // 重试传输
+  retryTransfer: (fileId: string) => void;
 }
 
 // sftp 上传器定义
@@ -417,8 +431,18 @@ export interface ISftpTransferUploader {
   finish: boolean;
   // 是否中断
   abort: boolean;
+  // 是否正在发送分片
+  sending: boolean;
   // 开始上传
   startUpload: () => void;
+  // 接收确认
+  resolveAck: (data: TransferOperatorResponse) => void;
+  // 是否为窗口模式
+  isWindowed: () => boolean;
+  // 窗口内是否可以发送下一个分片
+  canSendBlock: () => boolean;
+  // 是否全部分片已确认
+  allAcked: () => boolean;
   // 是否有下一个分片
   hasNextBlock: () => boolean;
   // 上传下一个分片
@@ -457,16 +481,24 @@ export interface SftpTransferItem {
   progress: number | string;
   status: string;
   errorMessage?: string;
+  transferToken?: string;
+  archive?: boolean;
+  entryCount?: number;
   file: File;
 }
 
 // 传输操作响应
 export interface TransferOperatorResponse {
   channelId?: string;
+  transferId?: string;
   type: string;
   hostId?: number;
   currentSize?: number;
   transferToken?: string;
+  windowSize?: number;
+  ack?: number;
+  offset?: number;
+  entryCount?: number;
   success: boolean;
   msg?: string;
 }
@@ -246,6 +246,10 @@ CREATE TABLE `exec_job`
     `parameter_schema` json                                                          NULL COMMENT '命令参数',
     `status`           tinyint(0)                                                    NULL DEFAULT 0 COMMENT '任务状态',
     `recent_log_id`    bigint(0)                                                     NULL DEFAULT NULL COMMENT '最近执行id',
+    `wave_size`        int(0)                                                        NULL DEFAULT NULL COMMENT '每批执行主机数',
+    `wave_percent`     int(0)                                                        NULL DEFAULT NULL COMMENT '每批执行主机百分比',
+    `wave_interval`    int(0)                                                        NULL DEFAULT NULL COMMENT '批次间隔 (秒)',
+    `wave_threshold`   int(0)                                                        NULL DEFAULT NULL COMMENT '失败率阈值 (%)',
     `create_time`      datetime(0)                                                   NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`      datetime(0)                                                   NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP(0) COMMENT '修改时间',
     `creator`          varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL DEFAULT NULL COMMENT '创建人',
@@ -300,6 +304,10 @@ CREATE TABLE `exec_log`
     `status`           char(12) CHARACTER SET utf8mb4 COLLATE utf8mb4_general_ci     NULL DEFAULT NULL COMMENT '执行状态',
     `start_time`       datetime(3)                                                   NULL DEFAULT NULL COMMENT '执行开始时间',
     `finish_time`      datetime(3)                                                   NULL DEFAULT NULL COMMENT '执行完成时间',
+    `wave_size`        int(0)                                                        NULL DEFAULT NULL COMMENT '每批执行主机数',
+    `wave_percent`     int(0)                                                        NULL DEFAULT NULL COMMENT '每批执行主机百分比',
+    `wave_interval`    int(0)                                                        NULL DEFAULT NULL COMMENT '批次间隔 (秒)',
+    `wave_threshold`   int(0)                                                        NULL DEFAULT NULL COMMENT '失败率阈值 (%)',
     `create_time`      datetime(0)                                                   NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time`      datetime(0)                                                   NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP(0) COMMENT '修改时间',
     `creator`          varchar(64) CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci  NULL DEFAULT NULL COMMENT '创建人',
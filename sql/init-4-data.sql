@@ -194,6 +194,7 @@ INSERT INTO `dict_value` VALUES (199, 2, 'operatorLogType', 'host-terminal:sftp-
 INSERT INTO `dict_value` VALUES (200, 2, 'operatorLogType', 'host-terminal:sftp-set-content', '修改文件内容', '{}', 80, '2024-02-23 17:54:37', '2024-02-23 17:54:37', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (201, 2, 'operatorLogType', 'host-terminal:sftp-upload', '上传文件', '{}', 90, '2024-02-23 17:54:52', '2024-02-23 17:54:52', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (202, 2, 'operatorLogType', 'host-terminal:sftp-download', '下载文件', '{}', 100, '2024-02-23 17:55:03', '2024-02-23 17:55:03', '1', '1', 0);
+INSERT INTO `dict_value` VALUES (300, 2, 'operatorLogType', 'host-terminal:sftp-copy', '主机间复制文件', '{}', 110, '2026-10-17 23:30:00', '2026-10-17 23:30:00', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (203, 32, 'terminalTabColor', 'rgb(var(--red-6))', '红色', '{}', 10, '2024-03-01 15:07:41', '2024-03-01 15:07:41', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (204, 32, 'terminalTabColor', 'rgb(var(--orange-6))', '橙色', '{}', 20, '2024-03-01 15:07:55', '2024-03-01 15:07:55', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (205, 32, 'terminalTabColor', 'rgb(var(--yellow-6))', '黄色', '{}', 30, '2024-03-01 15:08:13', '2024-03-01 15:08:13', '1', '1', 0);
@@ -222,6 +223,7 @@ INSERT INTO `dict_value` VALUES (228, 33, 'sftpOperatorType', 'host-terminal:sft
 INSERT INTO `dict_value` VALUES (229, 33, 'sftpOperatorType', 'host-terminal:sftp-set-content', '修改文件内容', '{}', 70, '2024-03-05 16:51:30', '2024-03-05 16:51:48', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (230, 33, 'sftpOperatorType', 'host-terminal:sftp-upload', '上传文件', '{}', 80, '2024-03-05 16:52:06', '2024-03-05 16:52:06', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (231, 33, 'sftpOperatorType', 'host-terminal:sftp-download', '下载文件', '{}', 90, '2024-03-05 16:52:18', '2024-03-05 16:52:18', '1', '1', 0);
+INSERT INTO `dict_value` VALUES (301, 33, 'sftpOperatorType', 'host-terminal:sftp-copy', '主机间复制文件', '{}', 100, '2026-10-17 23:30:00', '2026-10-17 23:30:00', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (232, 1, 'operatorLogModule', 'asset:exec-template', '执行模板', '{}', 2070, '2024-03-07 18:32:41', '2024-03-07 18:32:41', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (233, 2, 'operatorLogType', 'exec-template:create', '创建执行模板', '{}', 10, '2024-03-07 18:32:41', '2024-04-12 13:48:54', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (234, 2, 'operatorLogType', 'exec-template:update', '更新执行模板', '{}', 20, '2024-03-07 18:32:41', '2024-04-12 13:48:56', '1', '1', 0);
@@ -244,6 +246,7 @@ INSERT INTO `dict_value` VALUES (250, 2, 'operatorLogType', 'exec-command-log:in
 INSERT INTO `dict_value` VALUES (251, 2, 'operatorLogType', 'exec-command-log:interrupt-host', '中断批量执行主机', '{}', 60, '2024-03-13 15:08:43', '2024-04-12 12:54:10', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (252, 2, 'operatorLogType', 'exec-command-log:download', '下载批量执行日志', '{}', 40, '2024-03-18 17:25:44', '2024-04-11 23:34:54', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (253, 35, 'execHostStatus', 'TIMEOUT', '执行超时', '{\"color\": \"orangered\", \"execColor\": \"#fA8C16\"}', 50, '2024-03-19 19:05:56', '2024-04-02 23:01:44', '1', '1', 0);
+INSERT INTO `dict_value` VALUES (299, 35, 'execHostStatus', 'SKIPPED', '已跳过', '{\"color\": \"gray\", \"execColor\": \"#ADB5BD\"}', 70, '2026-10-17 23:55:00', '2026-10-17 23:55:00', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (254, 1, 'operatorLogModule', 'asset:exec-job', '计划任务', '{}', 2090, '2024-04-10 16:18:07', '2024-04-10 16:18:07', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (255, 2, 'operatorLogType', 'exec-job:create', '创建计划任务', '{}', 10, '2024-04-10 16:18:07', '2024-04-12 12:55:11', '1', '1', 0);
 INSERT INTO `dict_value` VALUES (256, 2, 'operatorLogType', 'exec-job:update', '更新计划任务', '{}', 20, '2024-04-10 16:18:07', '2024-04-12 12:55:13', '1', '1', 0);